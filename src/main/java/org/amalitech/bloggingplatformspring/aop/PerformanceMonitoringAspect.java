@@ -15,6 +15,7 @@ import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 
@@ -40,7 +41,7 @@ public class PerformanceMonitoringAspect {
     @Around("serviceMethods()")
     public Object monitorPerformance(ProceedingJoinPoint joinPoint) throws Throwable {
         String methodName = joinPoint.getSignature().toShortString();
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
 
         Object result;
         Throwable exception = null;
@@ -52,7 +53,7 @@ public class PerformanceMonitoringAspect {
             exception = e;
             throw e;
         } finally {
-            long executionTime = System.currentTimeMillis() - startTime;
+            long executionTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
             updateMetrics(methodName, executionTime, exception == null);
 
             log.info("[PERFORMANCE] Method: {} | Execution Time: {} ms | Status: {}",
@@ -70,13 +71,8 @@ public class PerformanceMonitoringAspect {
      * Update method execution metrics
      */
     private void updateMetrics(String methodName, long executionTime, boolean success) {
-        metricsMap.compute(methodName, (key, metrics) -> {
-            if (metrics == null) {
-                metrics = new MethodMetrics(methodName);
-            }
-            metrics.recordExecution(executionTime, success);
-            return metrics;
-        });
+        metricsMap.computeIfAbsent(methodName, MethodMetrics::new)
+                .recordExecution(executionTime, success);
     }
 
     /**
@@ -162,14 +158,15 @@ public class PerformanceMonitoringAspect {
         private final AtomicLong successfulCalls = new AtomicLong(0);
         private final AtomicLong failedCalls = new AtomicLong(0);
         private final AtomicLong totalExecutionTime = new AtomicLong(0);
-        private volatile long minExecutionTime = Long.MAX_VALUE;
-        private volatile long maxExecutionTime = 0;
+        private final AtomicLong minExecutionTime = new AtomicLong(Long.MAX_VALUE);
+        private final AtomicLong maxExecutionTime = new AtomicLong(0);
 
         public MethodMetrics(String methodName) {
             this.methodName = methodName;
         }
 
-        public synchronized void recordExecution(long executionTime, boolean success) {
+        // Lock-free so recording never pins a virtual thread's carrier.
+        public void recordExecution(long executionTime, boolean success) {
             totalCalls.incrementAndGet();
             if (success) {
                 successfulCalls.incrementAndGet();
@@ -177,13 +174,8 @@ public class PerformanceMonitoringAspect {
                 failedCalls.incrementAndGet();
             }
             totalExecutionTime.addAndGet(executionTime);
-
-            if (executionTime < minExecutionTime) {
-                minExecutionTime = executionTime;
-            }
-            if (executionTime > maxExecutionTime) {
-                maxExecutionTime = executionTime;
-            }
+            minExecutionTime.accumulateAndGet(executionTime, Math::min);
+            maxExecutionTime.accumulateAndGet(executionTime, Math::max);
         }
 
         public long getTotalCalls() {
@@ -204,7 +196,12 @@ public class PerformanceMonitoringAspect {
         }
 
         public long getMinExecutionTime() {
-            return minExecutionTime == Long.MAX_VALUE ? 0 : minExecutionTime;
+            long min = minExecutionTime.get();
+            return min == Long.MAX_VALUE ? 0 : min;
+        }
+
+        public long getMaxExecutionTime() {
+            return maxExecutionTime.get();
         }
 
     }
@@ -0,0 +1,9 @@
+package org.amalitech.bloggingplatformspring.cache;
+
+/**
+ * Entities whose changes are broadcast to other nodes. Only posts have a local cache;
+ * tags and usernames never change once written, so they need no invalidation.
+ */
+public enum CacheEntity {
+    POST
+}
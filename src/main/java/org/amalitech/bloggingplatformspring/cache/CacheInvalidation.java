@@ -0,0 +1,46 @@
+package org.amalitech.bloggingplatformspring.cache;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Invalidation message carried on the {@value #CHANNEL} Postgres channel, encoded as
+ * {@code ENTITY:id:origin}. The origin lets a node skip invalidations it already applied
+ * locally.
+ */
+public record CacheInvalidation(CacheEntity entity, String id, String origin) {
+
+    public static final String CHANNEL = "cache_invalidation";
+
+    /**
+     * Identifies this application instance in the invalidations it publishes.
+     */
+    public static final String LOCAL_NODE = UUID.randomUUID().toString();
+
+    public static CacheInvalidation local(CacheEntity entity, Object id) {
+        return new CacheInvalidation(entity, String.valueOf(id), LOCAL_NODE);
+    }
+
+    public static Optional<CacheInvalidation> parse(String payload) {
+        if (payload == null) {
+            return Optional.empty();
+        }
+        String[] parts = payload.split(":", 3);
+        if (parts.length != 3) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new CacheInvalidation(CacheEntity.valueOf(parts[0]), parts[1], parts[2]));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public boolean isLocal() {
+        return LOCAL_NODE.equals(origin);
+    }
+
+    public String toPayload() {
+        return entity.name() + ":" + id + ":" + origin;
+    }
+}
@@ -0,0 +1,126 @@
+package org.amalitech.bloggingplatformspring.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.bloggingplatformspring.config.CacheInvalidationConfig;
+import org.amalitech.bloggingplatformspring.config.DatabaseConfig;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Holds one dedicated Postgres connection per node that LISTENs for cache invalidations
+ * published by other nodes and applies them to the local caches. The connection bypasses
+ * the request connection limiter, since it is held for the life of the application.
+ * <p>
+ * Invalidations sent while the connection is down are lost, so every (re)connect flushes
+ * the local caches before dispatching again.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheInvalidationListener {
+
+    private final DatabaseConfig databaseConfig;
+    private final CacheInvalidationConfig config;
+    private final List<LocalCache> caches;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public CacheInvalidationListener(DatabaseConfig databaseConfig, CacheInvalidationConfig config,
+                                     List<LocalCache> caches) {
+        this.databaseConfig = databaseConfig;
+        this.config = config;
+        this.caches = caches;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform()
+                .name("cache-invalidation-listener")
+                .daemon()
+                .start(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    void dispatch(String payload) {
+        CacheInvalidation.parse(payload)
+                .filter(invalidation -> !invalidation.isLocal())
+                .ifPresentOrElse(invalidation -> {
+                    for (LocalCache cache : caches) {
+                        try {
+                            cache.onInvalidation(invalidation.entity(), invalidation.id());
+                        } catch (RuntimeException e) {
+                            log.error("Failed to apply {} to {}", payload, cache.getClass().getSimpleName(), e);
+                        }
+                    }
+                }, () -> log.debug("Ignoring cache invalidation {}", payload));
+    }
+
+    void flushAll() {
+        for (LocalCache cache : caches) {
+            try {
+                cache.flush();
+            } catch (RuntimeException e) {
+                log.error("Failed to flush {}", cache.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    private void listen() {
+        long delay = config.getReconnectDelayMs();
+        while (running) {
+            try (Connection conn = DriverManager.getConnection(
+                    databaseConfig.getDbUrl(),
+                    databaseConfig.getDbUser(),
+                    databaseConfig.getDbPassword())) {
+
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("LISTEN " + CacheInvalidation.CHANNEL);
+                }
+                log.info("Listening for cache invalidations; flushing local caches to resync");
+                flushAll();
+                delay = config.getReconnectDelayMs();
+
+                PGConnection pgConnection = conn.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(config.getPollTimeoutMs());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener disconnected ({}); reconnecting in {} ms", e.getMessage(), delay);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                delay = Math.min(delay * 2, config.getMaxReconnectDelayMs());
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.amalitech.bloggingplatformspring.cache;
+
+/**
+ * A response body serialized once, with an optional gzip variant for bodies large enough to
+ * benefit from compression, a strong ETag hashed from the JSON bytes, and the validators
+ * sent with it. Unless the caller supplied its own, the validators are the body's ETag.
+ */
+public record EncodedBody(byte[] json, byte[] gzip, String etag, ResourceVersion validators) {
+
+    public EncodedBody(byte[] json, byte[] gzip, String etag) {
+        this(json, gzip, etag, new ResourceVersion(etag, ResourceVersion.UNKNOWN));
+    }
+
+    public boolean hasGzip() {
+        return gzip != null;
+    }
+
+    public EncodedBody withValidators(ResourceVersion validators) {
+        return new EncodedBody(json, gzip, etag, validators);
+    }
+}
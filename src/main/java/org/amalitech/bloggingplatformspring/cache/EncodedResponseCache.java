@@ -0,0 +1,266 @@
+package org.amalitech.bloggingplatformspring.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.amalitech.bloggingplatformspring.config.EncodedResponseCacheConfig;
+import org.amalitech.bloggingplatformspring.config.HttpCacheConfig;
+import org.amalitech.bloggingplatformspring.dtos.responses.ApiResponseGeneric;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caches fully serialized post responses, so a hit is written straight to the socket
+ * without going through Jackson. Entries are tagged with the {@link PostPageCache} write
+ * version and stop being served as soon as any post changes, locally or on another node.
+ * A single post's entry is also evicted when its comments change, since it embeds the
+ * comment count.
+ */
+@Component
+public class EncodedResponseCache {
+
+    private final EncodedResponseCacheConfig config;
+    private final HttpCacheConfig httpCacheConfig;
+    private final PostPageCache postPageCache;
+    private final ObjectMapper objectMapper;
+    private final long ttlNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public EncodedResponseCache(EncodedResponseCacheConfig config, HttpCacheConfig httpCacheConfig,
+                                PostPageCache postPageCache, ObjectMapper objectMapper) {
+        this.config = config;
+        this.httpCacheConfig = httpCacheConfig;
+        this.postPageCache = postPageCache;
+        this.objectMapper = objectMapper;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(config.getTtlMs());
+    }
+
+    /**
+     * Returns the cached encoding for {@code key}, or loads, encodes and caches the response.
+     * Responses rejected by {@code cacheable}, and listing pages beyond those the page cache
+     * keeps, are encoded but not stored.
+     */
+    public <T> EncodedBody getOrEncode(Object key, Supplier<ApiResponseGeneric<T>> loader, Predicate<T> cacheable) {
+        long version = postPageCache.currentVersion();
+        long evictionsAtLoad = evictions.get();
+        if (config.isEnabled()) {
+            EncodedBody cached = lookup(key, version);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            misses.increment();
+        }
+
+        ApiResponseGeneric<T> response = loader.get();
+        EncodedBody body = encode(response);
+        if (config.isEnabled() && isCacheableKey(key) && cacheable.test(response.getData())) {
+            store(key, version, evictionsAtLoad, body);
+        }
+        return body;
+    }
+
+    /**
+     * Variant of {@link #getOrEncode} for resources with their own validators, which are stored
+     * with the body so that a hit is answered without any version lookup. On a miss the
+     * validators are looked up first and, when {@code notModified} accepts them, nothing is
+     * loaded. Returns empty when the client's copy is still current.
+     */
+    public <T> Optional<EncodedBody> getOrEncode(Object key, Supplier<Optional<ResourceVersion>> validators,
+                                                 Predicate<ResourceVersion> notModified,
+                                                 Supplier<ApiResponseGeneric<T>> loader, Predicate<T> cacheable) {
+        // Taken before the validators, so a write after the lookup keeps this body out of the cache.
+        long version = postPageCache.currentVersion();
+        long evictionsAtLoad = evictions.get();
+        if (config.isEnabled()) {
+            EncodedBody cached = lookup(key, version);
+            if (cached != null) {
+                hits.increment();
+                return notModified.test(cached.validators()) ? Optional.empty() : Optional.of(cached);
+            }
+            misses.increment();
+        }
+
+        Optional<ResourceVersion> current = validators.get();
+        if (current.isPresent() && notModified.test(current.get())) {
+            return Optional.empty();
+        }
+        ApiResponseGeneric<T> response = loader.get();
+        EncodedBody encoded = encode(response);
+        EncodedBody body = current.map(encoded::withValidators).orElse(encoded);
+        if (config.isEnabled() && isCacheableKey(key) && cacheable.test(response.getData())) {
+            store(key, version, evictionsAtLoad, body);
+        }
+        return Optional.of(body);
+    }
+
+    /**
+     * Builds a 200 response with a precomputed Content-Length, choosing the gzip variant when
+     * the client accepts it. The body's validators are sent, so Spring answers a matching
+     * {@code If-None-Match} with 304 and the bytes are never written.
+     */
+    public ResponseEntity<byte[]> toResponse(EncodedBody body, String acceptEncoding) {
+        ResourceVersion version = body.validators();
+        boolean gzip = body.hasGzip() && acceptsGzip(acceptEncoding);
+        byte[] bytes = gzip ? body.gzip() : body.json();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(bytes.length)
+                .cacheControl(httpCacheConfig.cacheControl())
+                // The gzip bytes differ from the identity encoding, so only a weak match holds.
+                .eTag(gzip ? "W/" + version.etag() : version.etag())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (version.hasLastModified()) {
+            response.lastModified(version.lastModified());
+        }
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(bytes);
+    }
+
+    /**
+     * Drops the encoded response of one post, e.g. after one of its comments changed. A load
+     * that was already running when this is called is not stored.
+     */
+    public void evictPost(int postId) {
+        lock.lock();
+        try {
+            evictions.incrementAndGet();
+            entries.remove(new PostKey(postId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", config.isEnabled());
+        lock.lock();
+        try {
+            snapshot.put("entries", entries.size());
+        } finally {
+            lock.unlock();
+        }
+        snapshot.put("hits", hits.sum());
+        snapshot.put("misses", misses.sum());
+        return snapshot;
+    }
+
+    /**
+     * Whether an {@code Accept-Encoding} header admits gzip, honouring q-values: an explicit
+     * {@code gzip;q=0} refuses it even when {@code *} is accepted.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = quality;
+            } else if (coding.equals("*")) {
+                anyQuality = quality;
+            }
+        }
+        double quality = gzipQuality != null ? gzipQuality : anyQuality != null ? anyQuality : 0;
+        return quality > 0;
+    }
+
+    private boolean isCacheableKey(Object key) {
+        return !(key instanceof PostPageKey pageKey) || postPageCache.isCacheable(pageKey);
+    }
+
+    private EncodedBody lookup(Object key, long version) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.version() != version || System.nanoTime() - entry.storedAt() > ttlNanos) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.body();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void store(Object key, long version, long evictionsAtLoad, EncodedBody body) {
+        lock.lock();
+        try {
+            if (version != postPageCache.currentVersion() || evictionsAtLoad != evictions.get()) {
+                return;
+            }
+            entries.put(key, new Entry(body, version, System.nanoTime()));
+            if (entries.size() > config.getMaxEntries()) {
+                entries.pollFirstEntry();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private EncodedBody encode(Object response) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            byte[] gzip = json.length >= config.getGzipMinBytes() ? gzip(json) : null;
+            return new EncodedBody(json, gzip, "\"0" + DigestUtils.md5DigestAsHex(json) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response", e);
+        }
+    }
+
+    private byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private record Entry(EncodedBody body, long version, long storedAt) {
+    }
+}
@@ -0,0 +1,14 @@
+package org.amalitech.bloggingplatformspring.cache;
+
+/**
+ * An in-process cache that must drop entries when another node changes the underlying rows.
+ */
+public interface LocalCache {
+
+    void onInvalidation(CacheEntity entity, String id);
+
+    /**
+     * Drops everything, used when invalidations may have been missed.
+     */
+    void flush();
+}
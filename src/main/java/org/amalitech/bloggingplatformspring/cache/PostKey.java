@@ -0,0 +1,7 @@
+package org.amalitech.bloggingplatformspring.cache;
+
+/**
+ * Identity of a single post's encoded response, so comment writes can evict it.
+ */
+public record PostKey(int postId) {
+}
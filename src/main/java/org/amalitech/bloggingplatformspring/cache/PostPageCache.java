@@ -0,0 +1,139 @@
+package org.amalitech.bloggingplatformspring.cache;
+
+import org.amalitech.bloggingplatformspring.config.PostPageCacheConfig;
+import org.amalitech.bloggingplatformspring.dtos.responses.PageResponse;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostResponseDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * LRU cache of post listing pages, invalidated by a global post write version.
+ * <p>
+ * Callers read {@link #currentVersion()} before loading a page and store the result under
+ * that version. Writers call {@link #invalidateAll()} after their change is committed. A
+ * page loaded before the bump is stored with the old version and never served after it,
+ * so a write is visible to every read that starts once the write has returned.
+ */
+@Component
+public class PostPageCache implements LocalCache {
+
+    private final PostPageCacheConfig config;
+    private final long ttlNanos;
+    private final AtomicLong version = new AtomicLong();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<PostPageKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public PostPageCache(PostPageCacheConfig config) {
+        this.config = config;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(config.getTtlMs());
+    }
+
+    public long currentVersion() {
+        return version.get();
+    }
+
+    public boolean isCacheable(PostPageKey key) {
+        return config.isEnabled() && key.page() < config.getCachedPages();
+    }
+
+    public Optional<PageResponse<PostResponseDTO>> get(PostPageKey key, long readVersion) {
+        if (!isCacheable(key)) {
+            return Optional.empty();
+        }
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry == null || entry.version() != readVersion || isExpired(entry)) {
+                misses.increment();
+                return Optional.empty();
+            }
+            hits.increment();
+            return Optional.of(entry.page());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores a page loaded under {@code readVersion}. Pages from an older version and
+     * degraded pages are dropped.
+     */
+    public void put(PostPageKey key, long readVersion, PageResponse<PostResponseDTO> page) {
+        if (!isCacheable(key) || page.degraded()) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (readVersion != version.get()) {
+                return;
+            }
+            entries.put(key, new Entry(page, readVersion, System.nanoTime()));
+            if (entries.size() > config.getMaxEntries()) {
+                entries.pollFirstEntry();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            version.incrementAndGet();
+            entries.clear();
+            invalidations.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pages embed tag names and usernames too, but neither can change once written, so
+     * only post changes from other nodes matter here.
+     */
+    @Override
+    public void onInvalidation(CacheEntity entity, String id) {
+        if (entity == CacheEntity.POST) {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public void flush() {
+        invalidateAll();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", config.isEnabled());
+        snapshot.put("version", version.get());
+        lock.lock();
+        try {
+            snapshot.put("entries", entries.size());
+        } finally {
+            lock.unlock();
+        }
+        snapshot.put("hits", hits.sum());
+        snapshot.put("misses", misses.sum());
+        snapshot.put("invalidations", invalidations.sum());
+        return snapshot;
+    }
+
+    private boolean isExpired(Entry entry) {
+        return System.nanoTime() - entry.storedAt() > ttlNanos;
+    }
+
+    private record Entry(PageResponse<PostResponseDTO> page, long version, long storedAt) {
+    }
+}
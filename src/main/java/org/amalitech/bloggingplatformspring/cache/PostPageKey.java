@@ -0,0 +1,52 @@
+package org.amalitech.bloggingplatformspring.cache;
+
+import org.amalitech.bloggingplatformspring.dao.helpers.DAOHelperMethods;
+import org.amalitech.bloggingplatformspring.dtos.requests.PageRequest;
+import org.amalitech.bloggingplatformspring.dtos.requests.PostFilterRequest;
+import org.amalitech.bloggingplatformspring.enums.PostSortField;
+import org.amalitech.bloggingplatformspring.enums.SortDirection;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Normalized identity of a post listing page. Requests that the DAO would answer with the
+ * same query map to equal keys: sort values are resolved the way the DAO resolves them,
+ * blank filters are dropped and tags, matched with ANY, become a sorted set.
+ */
+public record PostPageKey(
+        int page,
+        int size,
+        PostSortField sortField,
+        SortDirection direction,
+        String author,
+        String search,
+        Set<String> tags
+) {
+
+    private static final DAOHelperMethods HELPER_METHODS = new DAOHelperMethods();
+
+    public static PostPageKey of(PageRequest pageRequest, PostFilterRequest filter) {
+        String author = null;
+        String search = null;
+        Set<String> tags = Set.of();
+        if (filter != null) {
+            author = blankToNull(filter.author());
+            search = blankToNull(filter.search());
+            tags = filter.tags() == null ? Set.of() : new TreeSet<>(filter.tags());
+        }
+        return new PostPageKey(
+                pageRequest.page(),
+                pageRequest.size(),
+                HELPER_METHODS.matchSortByToEntityField(pageRequest.sortBy()),
+                HELPER_METHODS.getSortDirection(pageRequest.sortDirection()),
+                author,
+                search,
+                tags
+        );
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,15 @@
+package org.amalitech.bloggingplatformspring.cache;
+
+/**
+ * HTTP validators for a resource, computed from cheap version lookups so conditional
+ * requests can be answered before the resource itself is loaded. {@code etag} includes its
+ * quotes; {@code lastModified} is epoch millis, or {@link #UNKNOWN} when not tracked.
+ */
+public record ResourceVersion(String etag, long lastModified) {
+
+    public static final long UNKNOWN = -1L;
+
+    public boolean hasLastModified() {
+        return lastModified != UNKNOWN;
+    }
+}
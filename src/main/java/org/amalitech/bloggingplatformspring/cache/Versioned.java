@@ -0,0 +1,8 @@
+package org.amalitech.bloggingplatformspring.cache;
+
+/**
+ * A key tagged with the post write version it was read under, so in-flight loads started
+ * before a write are never shared with callers that arrive after it.
+ */
+public record Versioned<K>(K key, long version) {
+}
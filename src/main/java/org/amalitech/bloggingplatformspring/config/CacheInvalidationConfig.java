@@ -0,0 +1,19 @@
+package org.amalitech.bloggingplatformspring.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Component
+public class CacheInvalidationConfig {
+
+    @Value("${app.cache.invalidation.poll-timeout-ms:1000}")
+    private int pollTimeoutMs;
+
+    @Value("${app.cache.invalidation.reconnect-delay-ms:1000}")
+    private long reconnectDelayMs;
+
+    @Value("${app.cache.invalidation.max-reconnect-delay-ms:30000}")
+    private long maxReconnectDelayMs;
+}
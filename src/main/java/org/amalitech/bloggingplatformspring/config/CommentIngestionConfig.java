@@ -0,0 +1,25 @@
+package org.amalitech.bloggingplatformspring.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Component
+public class CommentIngestionConfig {
+
+    @Value("${app.comments.write-behind.enabled:false}")
+    private boolean writeBehindEnabled;
+
+    @Value("${app.comments.write-behind.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.comments.write-behind.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    @Value("${app.comments.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.comments.write-behind.submit-timeout-ms:5000}")
+    private long submitTimeoutMs;
+}
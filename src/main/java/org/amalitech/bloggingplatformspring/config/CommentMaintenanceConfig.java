@@ -0,0 +1,22 @@
+package org.amalitech.bloggingplatformspring.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Component
+public class CommentMaintenanceConfig {
+
+    @Value("${app.comments.purge.batch-size:1000}")
+    private int purgeBatchSize;
+
+    @Value("${app.comments.purge.throttle-ms:100}")
+    private long purgeThrottleMs;
+
+    @Value("${app.comments.sweep.chunk-size:500}")
+    private int sweepChunkSize;
+
+    @Value("${app.comments.sweep.parallelism:4}")
+    private int sweepParallelism;
+}
@@ -0,0 +1,30 @@
+package org.amalitech.bloggingplatformspring.config;
+
+import org.amalitech.bloggingplatformspring.dao.ResilientCommentRepository;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+@Component("commentStore")
+public class CommentStoreHealthIndicator implements HealthIndicator {
+
+    private static final Status DEGRADED = new Status("DEGRADED", "Comment store circuit is open; comment counts are omitted");
+
+    private final ResilientCommentRepository commentRepository;
+
+    public CommentStoreHealthIndicator(ResilientCommentRepository commentRepository) {
+        this.commentRepository = commentRepository;
+    }
+
+    @Override
+    public Health health() {
+        Status status = switch (commentRepository.getCircuitState()) {
+            case CLOSED -> Status.UP;
+            case OPEN, HALF_OPEN -> DEGRADED;
+        };
+        return Health.status(status)
+                .withDetails(commentRepository.report())
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package org.amalitech.bloggingplatformspring.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Component
+public class CommentStoreResilienceConfig {
+
+    @Value("${app.comments.bulkhead.max-concurrent:20}")
+    private int maxConcurrent;
+
+    @Value("${app.comments.bulkhead.timeout-ms:1000}")
+    private long timeoutMs;
+
+    @Value("${app.comments.breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${app.comments.breaker.open-ms:10000}")
+    private long openMs;
+}
@@ -0,0 +1,22 @@
+package org.amalitech.bloggingplatformspring.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Component
+public class CommentStreamConfig {
+
+    @Value("${app.comments.stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${app.comments.stream.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    @Value("${app.comments.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.comments.stream.max-subscribers:8000}")
+    private int maxSubscribers;
+}
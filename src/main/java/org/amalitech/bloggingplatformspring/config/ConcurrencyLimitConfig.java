@@ -0,0 +1,31 @@
+package org.amalitech.bloggingplatformspring.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Component
+public class ConcurrencyLimitConfig {
+
+    @Value("${app.limiter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.limiter.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${app.limiter.min-limit:5}")
+    private int minLimit;
+
+    @Value("${app.limiter.max-limit:200}")
+    private int maxLimit;
+
+    /**
+     * Share of the current limit that low-priority requests may occupy, so they are shed first.
+     */
+    @Value("${app.limiter.low-priority-share:0.5}")
+    private double lowPriorityShare;
+
+    @Value("${app.limiter.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+}
@@ -0,0 +1,23 @@
+package org.amalitech.bloggingplatformspring.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caps on concurrent database work. With virtual threads the request count is no longer
+ * bounded by the Tomcat pool, so these limits are what protects Postgres and Mongo.
+ */
+@Getter
+@Component
+public class DatastoreConcurrencyConfig {
+
+    @Value("${app.datastore.postgres.max-concurrent:20}")
+    private int postgresMaxConcurrent;
+
+    @Value("${app.datastore.mongo.max-concurrent:50}")
+    private int mongoMaxConcurrent;
+
+    @Value("${app.datastore.acquire-timeout-ms:2000}")
+    private long acquireTimeoutMs;
+}
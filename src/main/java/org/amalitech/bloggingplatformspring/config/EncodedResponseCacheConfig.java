@@ -0,0 +1,22 @@
+package org.amalitech.bloggingplatformspring.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Component
+public class EncodedResponseCacheConfig {
+
+    @Value("${app.posts.encoded-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.posts.encoded-cache.max-entries:512}")
+    private int maxEntries;
+
+    @Value("${app.posts.encoded-cache.ttl-ms:30000}")
+    private long ttlMs;
+
+    @Value("${app.posts.encoded-cache.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+}
@@ -0,0 +1,30 @@
+package org.amalitech.bloggingplatformspring.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Component
+public class HttpCacheConfig {
+
+    @Value("${app.http.cache.max-age-seconds:0}")
+    private long maxAgeSeconds;
+
+    @Value("${app.http.cache.shared-max-age-seconds:5}")
+    private long sharedMaxAgeSeconds;
+
+    /**
+     * Clients revalidate on every use, while a shared cache in front of the app may serve
+     * the stored copy for {@code sharedMaxAgeSeconds} before revalidating.
+     */
+    public CacheControl cacheControl() {
+        return CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds))
+                .sMaxAge(Duration.ofSeconds(sharedMaxAgeSeconds))
+                .cachePublic()
+                .mustRevalidate();
+    }
+}
@@ -0,0 +1,30 @@
+package org.amalitech.bloggingplatformspring.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.amalitech.bloggingplatformspring.graphql.execution.GraphQLOperationInspector;
+import org.amalitech.bloggingplatformspring.limiter.AdaptiveConcurrencyLimiter;
+import org.amalitech.bloggingplatformspring.limiter.LoadSheddingFilter;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LoadSheddingFilterConfig {
+
+    @Bean
+    public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(AdaptiveConcurrencyLimiter limiter,
+                                                                         ConcurrencyLimitConfig config,
+                                                                         GraphQLOperationInspector operationInspector,
+                                                                         ObjectMapper objectMapper,
+                                                                         PersistedQueryConfig persistedQueryConfig) {
+        FilterRegistrationBean<LoadSheddingFilter> registration = new FilterRegistrationBean<>(new LoadSheddingFilter(
+                limiter, config, operationInspector, objectMapper, persistedQueryConfig.getMaxRequestBytes()));
+        registration.setOrder(LoadSheddingFilter.ORDER);
+        registration.addUrlPatterns(
+                "/api/v1/posts/*",
+                "/api/v1/comments/*",
+                "/graphql",
+                "/api/metrics/performance/export/*");
+        return registration;
+    }
+}
@@ -1,25 +1,51 @@
 package org.amalitech.bloggingplatformspring.config;
 
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoDatabase;
 import lombok.extern.slf4j.Slf4j;
+import org.amalitech.bloggingplatformspring.dao.codecs.CommentDocumentCodec;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.TimeUnit;
+
 @Slf4j
 @Configuration
+@ConditionalOnProperty(name = "app.comments.store", havingValue = "mongo", matchIfMissing = true)
 public class MongoConnection {
 
     private final MongoDBConfig mongoDBConfig;
+    private final DatastoreConcurrencyConfig concurrencyConfig;
 
-    public MongoConnection(MongoDBConfig mongoDBConfig) {
+    public MongoConnection(MongoDBConfig mongoDBConfig, DatastoreConcurrencyConfig concurrencyConfig) {
         this.mongoDBConfig = mongoDBConfig;
+        this.concurrencyConfig = concurrencyConfig;
+    }
+
+    public static CodecRegistry codecRegistry() {
+        return CodecRegistries.fromRegistries(
+                CodecRegistries.fromCodecs(new CommentDocumentCodec()),
+                MongoClientSettings.getDefaultCodecRegistry()
+        );
     }
 
     @Bean
     public MongoClient mongoClient() {
-        return MongoClients.create(mongoDBConfig.getConnectionString());
+        return MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(mongoDBConfig.getConnectionString()))
+                .codecRegistry(codecRegistry())
+                // Every operation checks out a pooled connection, so the pool size caps concurrent
+                // Mongo operations and the wait time bounds how long a caller queues for one.
+                .applyToConnectionPoolSettings(pool -> pool
+                        .maxSize(concurrencyConfig.getMongoMaxConcurrent())
+                        .maxWaitTime(concurrencyConfig.getAcquireTimeoutMs(), TimeUnit.MILLISECONDS))
+                .build());
     }
 
     @Bean
@@ -28,4 +54,4 @@ public class MongoConnection {
         return mongoClient.getDatabase(mongoDBConfig.getDatabaseName());
     }
 
-}
\ No newline at end of file
+}
@@ -2,10 +2,12 @@ package org.amalitech.bloggingplatformspring.config;
 
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 @Getter
 @Component
+@ConditionalOnProperty(name = "app.comments.store", havingValue = "mongo", matchIfMissing = true)
 public class MongoDBConfig {
 
     @Value("${app.mongo.conn.string}")
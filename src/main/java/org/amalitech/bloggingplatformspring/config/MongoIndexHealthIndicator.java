@@ -0,0 +1,34 @@
+package org.amalitech.bloggingplatformspring.config;
+
+import org.amalitech.bloggingplatformspring.dao.MongoIndexManager;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component("mongoIndexes")
+@ConditionalOnProperty(name = "app.comments.store", havingValue = "mongo", matchIfMissing = true)
+public class MongoIndexHealthIndicator implements HealthIndicator {
+
+    private static final Status DEGRADED = new Status("DEGRADED", "Query shapes are not fully index-covered");
+
+    private final MongoIndexManager mongoIndexManager;
+
+    public MongoIndexHealthIndicator(MongoIndexManager mongoIndexManager) {
+        this.mongoIndexManager = mongoIndexManager;
+    }
+
+    @Override
+    public Health health() {
+        Status status = switch (mongoIndexManager.getState()) {
+            case READY -> Status.UP;
+            case PENDING -> Status.UNKNOWN;
+            case DEGRADED -> DEGRADED;
+            case FAILED -> Status.DOWN;
+        };
+        return Health.status(status)
+                .withDetails(mongoIndexManager.report())
+                .build();
+    }
+}
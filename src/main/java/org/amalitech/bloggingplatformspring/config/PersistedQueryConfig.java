@@ -0,0 +1,30 @@
+package org.amalitech.bloggingplatformspring.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+@Getter
+@Component
+public class PersistedQueryConfig {
+
+    @Value("${app.graphql.documents.max-entries:256}")
+    private int maxEntries;
+
+    @Value("${app.graphql.persisted-queries.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.graphql.persisted-queries.allow-list-enabled:false}")
+    private boolean allowListEnabled;
+
+    @Value("${app.graphql.persisted-queries.allowed-hashes:}")
+    private Set<String> allowedHashes;
+
+    /**
+     * Largest GraphQL request body the servlet filters buffer in memory; larger ones get 413.
+     */
+    @Value("${app.graphql.max-request-bytes:65536}")
+    private int maxRequestBytes;
+}
@@ -0,0 +1,27 @@
+package org.amalitech.bloggingplatformspring.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listing pages below {@code cachedPages} are cached until the next post write. The TTL
+ * bounds how stale comment counts on a cached page can get, since comment writes do not
+ * invalidate it.
+ */
+@Getter
+@Component
+public class PostPageCacheConfig {
+
+    @Value("${app.posts.page-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.posts.page-cache.cached-pages:5}")
+    private int cachedPages;
+
+    @Value("${app.posts.page-cache.max-entries:256}")
+    private int maxEntries;
+
+    @Value("${app.posts.page-cache.ttl-ms:30000}")
+    private long ttlMs;
+}
@@ -9,17 +9,25 @@ import java.sql.SQLException;
 @Configuration
 public class PostgresConnectionProvider implements ConnectionProvider {
     private final DatabaseConfig databaseConfig;
+    private final ConnectionLimiter connectionLimiter;
 
-    public PostgresConnectionProvider(DatabaseConfig databaseConfig) {
+    public PostgresConnectionProvider(DatabaseConfig databaseConfig, DatastoreConcurrencyConfig concurrencyConfig) {
         this.databaseConfig = databaseConfig;
+        this.connectionLimiter = new ConnectionLimiter(
+                concurrencyConfig.getPostgresMaxConcurrent(),
+                concurrencyConfig.getAcquireTimeoutMs());
     }
 
     @Override
     public Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(
+        return connectionLimiter.open(() -> DriverManager.getConnection(
                 databaseConfig.getDbUrl(),
                 databaseConfig.getDbUser(),
                 databaseConfig.getDbPassword()
-        );
+        ));
     }
-}
\ No newline at end of file
+
+    public ConnectionLimiter getConnectionLimiter() {
+        return connectionLimiter;
+    }
+}
@@ -0,0 +1,42 @@
+package org.amalitech.bloggingplatformspring.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Getter
+@Component
+public class QueryCostConfig {
+
+    @Value("${app.graphql.cost.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.graphql.cost.max-depth:10}")
+    private int maxDepth;
+
+    @Value("${app.graphql.cost.max-complexity:1000}")
+    private int maxComplexity;
+
+    /**
+     * Item count assumed for nested list fields without a size argument or hint, and the cap
+     * for requested sizes.
+     */
+    @Value("${app.graphql.cost.max-list-size:100}")
+    private int maxListSize;
+
+    /**
+     * Per-item weights keyed by {@code Type.field}, e.g. {@code {'Post.author': 3}}.
+     */
+    @Value("#{${app.graphql.cost.field-weights:{:}}}")
+    private Map<String, Integer> fieldWeights;
+
+    /**
+     * Expected item counts for lists that take no size argument, e.g. {@code {'Post.tags': 5}}.
+     * Root lists such as {@code Query.getAllPosts} need an entry, sized to the table's row
+     * count, or they are rejected.
+     */
+    @Value("#{${app.graphql.cost.list-sizes:{:}}}")
+    private Map<String, Integer> listSizes;
+}
@@ -0,0 +1,13 @@
+package org.amalitech.bloggingplatformspring.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Component
+public class SubscriptionConfig {
+
+    @Value("${app.graphql.subscriptions.buffer-size:64}")
+    private int bufferSize;
+}
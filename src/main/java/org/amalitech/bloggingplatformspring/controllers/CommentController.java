@@ -8,17 +8,26 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.amalitech.bloggingplatformspring.cache.ResourceVersion;
+import org.amalitech.bloggingplatformspring.config.HttpCacheConfig;
+import org.amalitech.bloggingplatformspring.dtos.requests.CommentPageRequest;
 import org.amalitech.bloggingplatformspring.dtos.requests.CreateCommentDTO;
 import org.amalitech.bloggingplatformspring.dtos.requests.DeleteCommentRequestDTO;
 import org.amalitech.bloggingplatformspring.dtos.responses.ApiResponseGeneric;
+import org.amalitech.bloggingplatformspring.dtos.responses.CommentThreadNode;
+import org.amalitech.bloggingplatformspring.dtos.responses.CursorPage;
 import org.amalitech.bloggingplatformspring.entity.CommentDocument;
 import org.amalitech.bloggingplatformspring.exceptions.ErrorResponse;
 import org.amalitech.bloggingplatformspring.services.CommentService;
+import org.amalitech.bloggingplatformspring.utils.Constants;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/comments")
@@ -26,9 +35,11 @@ import java.util.List;
 public class CommentController {
 
     private final CommentService commentService;
+    private final HttpCacheConfig httpCacheConfig;
 
-    public CommentController(CommentService commentService) {
+    public CommentController(CommentService commentService, HttpCacheConfig httpCacheConfig) {
         this.commentService = commentService;
+        this.httpCacheConfig = httpCacheConfig;
     }
 
     @PostMapping
@@ -48,17 +59,93 @@ public class CommentController {
     }
 
     @GetMapping("/post/{postId}")
-    @Operation(summary = "Get all comments for a post", description = "Retrieves all comments associated with a specific blog post from MongoDB")
+    @Operation(summary = "Get a page of comments for a post", description = "Retrieves comments associated with a specific blog post from MongoDB using cursor pagination. Pass the returned nextCursor to fetch the following page. Supports If-None-Match; an unchanged page is answered with 304 without querying the comments.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Comments successfully retrieved", content = @Content(schema = @Schema(implementation = CommentDocument.class))),
+            @ApiResponse(responseCode = "200", description = "Comments successfully retrieved", content = @Content(schema = @Schema(implementation = CursorPage.class))),
+            @ApiResponse(responseCode = "304", description = "Comments unchanged since the given validators"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, page size or sort order", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "404", description = "Post not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public ResponseEntity<ApiResponseGeneric<List<CommentDocument>>> getAllCommentsByPostId(
-            @Parameter(description = "Post ID", example = "1") @PathVariable int postId) {
-        List<CommentDocument> comments = commentService.getAllCommentsByPostId(postId);
-        ApiResponseGeneric<List<CommentDocument>> response = ApiResponseGeneric.success(
+    public ResponseEntity<ApiResponseGeneric<CursorPage<CommentDocument>>> getCommentsByPostId(
+            @Parameter(description = "Post ID", example = "1") @PathVariable int postId,
+            @Parameter(description = "Page size (max 50)", example = "20") @RequestParam(name = "size", defaultValue = "20") int size,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Sort order by comment time (ASC or DESC)", example = "DESC") @RequestParam(name = "order", defaultValue = "DESC") String order,
+            WebRequest webRequest) {
+        CommentPageRequest pageRequest = new CommentPageRequest(
+                Math.min(Constants.MaxCommentPageSize, size),
+                cursor,
+                CommentPageRequest.parseOrder(order));
+
+        Optional<ResourceVersion> version = commentService.getCommentsVersion(postId, pageRequest);
+        if (version.isPresent() && webRequest.checkNotModified(version.get().etag(), version.get().lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(httpCacheConfig.cacheControl()).build();
+        }
+
+        CursorPage<CommentDocument> comments = commentService.getCommentsByPostId(postId, pageRequest);
+        ApiResponseGeneric<CursorPage<CommentDocument>> response = ApiResponseGeneric.success(
                 "Comments for post retrieved successfully",
                 comments);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().cacheControl(httpCacheConfig.cacheControl());
+        version.ifPresent(validators -> {
+            ok.eTag(validators.etag());
+            if (validators.hasLastModified()) {
+                ok.lastModified(validators.lastModified());
+            }
+        });
+        return ok.body(response);
+    }
+
+    @GetMapping(value = "/post/{postId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream comment changes for a post", description = "Opens a Server-Sent Events stream that emits comment-created and comment-deleted events for the post. Idle streams receive a heartbeat comment; a client that falls behind loses the oldest undelivered events and should refetch the first page.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(responseCode = "404", description = "Post not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "503", description = "Too many open streams", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public SseEmitter streamComments(
+            @Parameter(description = "Post ID", example = "1") @PathVariable int postId) {
+        return commentService.streamComments(postId);
+    }
+
+    @GetMapping("/{commentId}/replies")
+    @Operation(summary = "Get a page of replies to a comment", description = "Retrieves the direct replies to a comment using cursor pagination. Use this to lazily load branches flagged with hasMoreReplies.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Replies successfully retrieved", content = @Content(schema = @Schema(implementation = CursorPage.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid comment ID, cursor, page size or sort order", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Comment not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<ApiResponseGeneric<CursorPage<CommentDocument>>> getReplies(
+            @Parameter(description = "Parent comment ID", example = "507f1f77bcf86cd799439011") @PathVariable String commentId,
+            @Parameter(description = "Page size (max 50)", example = "20") @RequestParam(name = "size", defaultValue = "20") int size,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Sort order by comment time (ASC or DESC)", example = "DESC") @RequestParam(name = "order", defaultValue = "DESC") String order) {
+        CommentPageRequest pageRequest = new CommentPageRequest(
+                Math.min(Constants.MaxCommentPageSize, size),
+                cursor,
+                CommentPageRequest.parseOrder(order));
+
+        CursorPage<CommentDocument> replies = commentService.getReplies(commentId, pageRequest);
+        ApiResponseGeneric<CursorPage<CommentDocument>> response = ApiResponseGeneric.success(
+                "Replies retrieved successfully",
+                replies);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{commentId}/thread")
+    @Operation(summary = "Get a comment thread", description = "Retrieves a comment and its replies as a tree, down to the requested depth (max 8). Nodes with hasMoreReplies set have replies that were not loaded.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Thread successfully retrieved", content = @Content(schema = @Schema(implementation = CommentThreadNode.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid comment ID or depth", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Comment not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<ApiResponseGeneric<CommentThreadNode>> getCommentThread(
+            @Parameter(description = "Root comment ID", example = "507f1f77bcf86cd799439011") @PathVariable String commentId,
+            @Parameter(description = "Levels of replies to load (max 8)", example = "3") @RequestParam(name = "depth", defaultValue = "3") int depth) {
+        CommentThreadNode thread = commentService.getCommentThread(commentId, Math.min(Constants.MaxCommentDepth, depth));
+        ApiResponseGeneric<CommentThreadNode> response = ApiResponseGeneric.success(
+                "Comment thread retrieved successfully",
+                thread);
         return ResponseEntity.ok(response);
     }
 
@@ -0,0 +1,56 @@
+package org.amalitech.bloggingplatformspring.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.amalitech.bloggingplatformspring.dtos.responses.ApiResponseGeneric;
+import org.amalitech.bloggingplatformspring.dtos.responses.OrphanSweepResult;
+import org.amalitech.bloggingplatformspring.services.CommentMaintenanceService;
+import org.amalitech.bloggingplatformspring.services.CommentService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+@Tag(name = "5. Maintenance", description = "Operational commands for rebuilding derived data")
+public class MaintenanceController {
+
+    private final CommentService commentService;
+    private final CommentMaintenanceService commentMaintenanceService;
+
+    public MaintenanceController(CommentService commentService, CommentMaintenanceService commentMaintenanceService) {
+        this.commentService = commentService;
+        this.commentMaintenanceService = commentMaintenanceService;
+    }
+
+    @PostMapping("/comment-counters/rebuild")
+    @Operation(summary = "Rebuild comment counters", description = "Recomputes the per-post comment counters from the comments collection")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Counters successfully rebuilt")
+    })
+    public ResponseEntity<ApiResponseGeneric<Map<String, Long>>> rebuildCommentCounters() {
+        long posts = commentService.rebuildCommentCounters();
+        ApiResponseGeneric<Map<String, Long>> response = ApiResponseGeneric.success(
+                "Comment counters rebuilt successfully",
+                Map.of("posts", posts));
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/comments/orphan-sweep")
+    @Operation(summary = "Sweep orphaned comments", description = "Queues the comments of posts that no longer exist for background purging")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sweep completed")
+    })
+    public ResponseEntity<ApiResponseGeneric<OrphanSweepResult>> sweepOrphanedComments() {
+        OrphanSweepResult result = commentMaintenanceService.sweepOrphanedComments();
+        ApiResponseGeneric<OrphanSweepResult> response = ApiResponseGeneric.success(
+                "Orphaned comments queued for purging",
+                result);
+        return ResponseEntity.ok(response);
+    }
+}
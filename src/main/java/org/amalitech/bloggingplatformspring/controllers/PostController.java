@@ -8,27 +8,49 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.amalitech.bloggingplatformspring.cache.EncodedBody;
+import org.amalitech.bloggingplatformspring.cache.EncodedResponseCache;
+import org.amalitech.bloggingplatformspring.cache.PostKey;
+import org.amalitech.bloggingplatformspring.cache.PostPageKey;
+import org.amalitech.bloggingplatformspring.config.HttpCacheConfig;
 import org.amalitech.bloggingplatformspring.dtos.requests.*;
 import org.amalitech.bloggingplatformspring.dtos.responses.ApiResponseGeneric;
 import org.amalitech.bloggingplatformspring.dtos.responses.PageResponse;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostChangesResponse;
 import org.amalitech.bloggingplatformspring.dtos.responses.PostResponseDTO;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostWithCommentsDTO;
+import org.amalitech.bloggingplatformspring.exceptions.BadRequestException;
 import org.amalitech.bloggingplatformspring.exceptions.ErrorResponse;
 import org.amalitech.bloggingplatformspring.services.PostService;
+import org.amalitech.bloggingplatformspring.utils.Constants;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/posts")
 @Tag(name = "Post Management", description = "APIs for creating, reading, updating, and deleting blog posts")
 public class PostController {
 
+    private static final String INCLUDE_COMMENTS = "comments";
+    private static final Set<String> SUPPORTED_INCLUDES = Set.of(INCLUDE_COMMENTS);
+
     private final PostService postService;
+    private final EncodedResponseCache encodedResponseCache;
+    private final HttpCacheConfig httpCacheConfig;
 
-    public PostController(PostService postService) {
+    public PostController(PostService postService, EncodedResponseCache encodedResponseCache,
+                          HttpCacheConfig httpCacheConfig) {
         this.postService = postService;
+        this.encodedResponseCache = encodedResponseCache;
+        this.httpCacheConfig = httpCacheConfig;
     }
 
     @PostMapping
@@ -47,55 +69,107 @@ public class PostController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all blog posts with pagination", description = "Retrieves a paginated list of blog posts with optional filtering by author, tags, and search term. Supports sorting by various fields.")
+    @Operation(summary = "Get all blog posts with pagination", description = "Retrieves a paginated list of blog posts with optional filtering by author, tags, and search term. Supports sorting by various fields. Send the returned ETag in If-None-Match to revalidate.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Posts successfully retrieved", content = @Content(schema = @Schema(implementation = PageResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Page unchanged since the given ETag"),
             @ApiResponse(responseCode = "400", description = "Invalid pagination or sort parameters", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public ResponseEntity<ApiResponseGeneric<PageResponse<PostResponseDTO>>> getAllPosts(
+    public ResponseEntity<byte[]> getAllPosts(
             @Parameter(description = "Page number (0-indexed)", example = "0") @RequestParam(name = "page", defaultValue = "0") int page,
             @Parameter(description = "Page size (max 50)", example = "10") @RequestParam(name = "size", defaultValue = "10") int size,
             @Parameter(description = "Sort field (id, createdAt, lastUpdated, title)", example = "lastUpdated") @RequestParam(name = "sort", defaultValue = "lastUpdated") String sortBy,
             @Parameter(description = "Sort order (ASC or DESC)", example = "DESC") @RequestParam(name = "order", defaultValue = "DESC") String sortDirection,
             @Parameter(description = "Filter by author name") @RequestParam(required = false) String author,
             @Parameter(description = "Filter by tag names") @RequestParam(required = false) List<String> tags,
-            @Parameter(description = "Search in title and content") @RequestParam(required = false) String search) {
+            @Parameter(description = "Search in title and content") @RequestParam(required = false) String search,
+            @Parameter(hidden = true) @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         PageRequest pageRequest = new PageRequest(page, Math.min(50, size), sortBy, sortDirection);
         PostFilterRequest filterRequest = new PostFilterRequest(author, search, tags);
 
-        PageResponse<PostResponseDTO> posts = postService.getPaginatedPosts(pageRequest, filterRequest);
-        ApiResponseGeneric<PageResponse<PostResponseDTO>> response = ApiResponseGeneric
-                .success("Posts retrieved successfully", posts);
+        EncodedBody body = encodedResponseCache.getOrEncode(
+                PostPageKey.of(pageRequest, filterRequest),
+                () -> ApiResponseGeneric.success("Posts retrieved successfully",
+                        postService.getPaginatedPosts(pageRequest, filterRequest)),
+                posts -> !posts.degraded());
+        return encodedResponseCache.toResponse(body, acceptEncoding);
+    }
+
+    @GetMapping("/changes")
+    @Operation(summary = "Get posts changed since a watermark", description = "Returns post ids created, updated or deleted after the given token, with current summaries for posts that still exist. Poll with the returned nextToken; omit since to start from the beginning.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes successfully retrieved", content = @Content(schema = @Schema(implementation = PostChangesResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid token or limit", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<ApiResponseGeneric<PostChangesResponse>> getPostChanges(
+            @Parameter(description = "Token returned by the previous poll") @RequestParam(name = "since", required = false) String since,
+            @Parameter(description = "Maximum changes to return (max 500)", example = "100") @RequestParam(name = "limit", defaultValue = "100") int limit) {
+        PostChangesResponse changes = postService.getPostChanges(since, limit);
+        ApiResponseGeneric<PostChangesResponse> response = ApiResponseGeneric.success("Post changes retrieved successfully", changes);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{postId}")
-    @Operation(summary = "Get a post by ID", description = "Retrieves a single blog post by its unique identifier")
+    @Operation(summary = "Get a post by ID", description = "Retrieves a single blog post by its unique identifier. Supports If-None-Match and If-Modified-Since; an unchanged post is answered with 304 without loading it.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Post successfully retrieved", content = @Content(schema = @Schema(implementation = PostResponseDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Post and its comments unchanged since the given validators"),
+            @ApiResponse(responseCode = "404", description = "Post not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public ResponseEntity<byte[]> getPostById(
+            @Parameter(description = "Post ID", example = "1") @PathVariable int postId,
+            @Parameter(hidden = true) @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        return encodedResponseCache.getOrEncode(
+                        new PostKey(postId),
+                        () -> postService.getPostVersion(postId),
+                        validators -> webRequest.checkNotModified(validators.etag(), validators.lastModified()),
+                        () -> ApiResponseGeneric.success("Post retrieved successfully", postService.getPostById(postId)),
+                        post -> !post.isCommentCountUnavailable())
+                .map(body -> encodedResponseCache.toResponse(body, acceptEncoding))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .cacheControl(httpCacheConfig.cacheControl()).build());
+    }
+
+    @GetMapping(value = "/{postId}", params = "include")
+    @Operation(summary = "Get a post with related data", description = "Retrieves a post together with the related data named in include, a comma-separated list. With comments, the comment count and the first page of comments are loaded concurrently with the post.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Post successfully retrieved", content = @Content(schema = @Schema(implementation = PostWithCommentsDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Unsupported include value", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "404", description = "Post not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
-    public ResponseEntity<ApiResponseGeneric<PostResponseDTO>> getPostById(
-            @Parameter(description = "Post ID", example = "1") @PathVariable int postId) {
-        PostResponseDTO post = postService.getPostById(postId);
-        ApiResponseGeneric<PostResponseDTO> response = ApiResponseGeneric.success("Post retrieved successfully", post);
+    public ResponseEntity<?> getPostWithIncludes(
+            @Parameter(description = "Post ID", example = "1") @PathVariable int postId,
+            @Parameter(description = "Related data to embed", example = "comments") @RequestParam(name = "include") List<String> include,
+            @Parameter(description = "Number of comments (max 50)", example = "20") @RequestParam(name = "commentSize", defaultValue = "20") int size,
+            @Parameter(hidden = true) @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
+        if (!parseIncludes(include).contains(INCLUDE_COMMENTS)) {
+            return getPostById(postId, acceptEncoding, webRequest);
+        }
+
+        PostWithCommentsDTO post = postService.getPostWithComments(postId, Math.min(Constants.MaxCommentPageSize, size));
+        ApiResponseGeneric<PostWithCommentsDTO> response = ApiResponseGeneric.success("Post retrieved successfully", post);
         return ResponseEntity.ok(response);
     }
 
     @PutMapping("/{postId}")
-    @Operation(summary = "Update a blog post", description = "Updates an existing blog post. Only the author can update their post.")
+    @Operation(summary = "Update a blog post", description = "Updates an existing blog post. Only the author can update their post. Send the post's ETag in If-Match to reject the update if the post changed since it was read.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Post successfully updated", content = @Content(schema = @Schema(implementation = PostResponseDTO.class))),
             @ApiResponse(responseCode = "400", description = "Invalid input data", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "403", description = "Not authorized to update this post", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
-            @ApiResponse(responseCode = "404", description = "Post not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+            @ApiResponse(responseCode = "404", description = "Post not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Post was updated concurrently by another request", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "412", description = "Post no longer matches the If-Match ETag", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public ResponseEntity<ApiResponseGeneric<PostResponseDTO>> updatePost(
             @Parameter(description = "Post ID", example = "1") @PathVariable int postId,
+            @Parameter(description = "ETag of the post version being edited") @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody UpdatePostDTO updatePostDTO) {
-        PostResponseDTO post = postService.updatePost(postId, updatePostDTO);
+        PostResponseDTO post = postService.updatePost(postId, updatePostDTO, ifMatch);
         ApiResponseGeneric<PostResponseDTO> response = ApiResponseGeneric.success("Post updated successfully", post);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(postService.getETag(post)).body(response);
     }
 
     @DeleteMapping("/{postId}")
@@ -112,4 +186,26 @@ public class PostController {
         ApiResponseGeneric<Void> response = ApiResponseGeneric.success("Post deleted successfully.");
         return new ResponseEntity<>(response, HttpStatus.NO_CONTENT);
     }
-}
\ No newline at end of file
+
+    /**
+     * Normalises the include list, which may arrive as repeated parameters, a comma-separated
+     * value or both. Blank entries are ignored; unknown names are rejected.
+     */
+    static Set<String> parseIncludes(List<String> include) {
+        Set<String> includes = new LinkedHashSet<>();
+        for (String value : include) {
+            for (String name : value.split(",")) {
+                String normalised = name.trim().toLowerCase(Locale.ROOT);
+                if (normalised.isEmpty()) {
+                    continue;
+                }
+                if (!SUPPORTED_INCLUDES.contains(normalised)) {
+                    throw new BadRequestException("Unsupported include '" + name.trim() + "', expected one of " + SUPPORTED_INCLUDES);
+                }
+                includes.add(normalised);
+            }
+        }
+        return includes;
+    }
+
+}
@@ -0,0 +1,165 @@
+package org.amalitech.bloggingplatformspring.dao;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.*;
+import org.amalitech.bloggingplatformspring.entity.CommentSetVersion;
+import org.amalitech.bloggingplatformspring.exceptions.BackpressureException;
+import org.amalitech.bloggingplatformspring.exceptions.ServiceUnavailableException;
+import org.amalitech.bloggingplatformspring.utils.Constants;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Per-post comment totals kept in their own collection ({@code _id} is the post id),
+ * so listings read counts with a point lookup or one {@code $in} query instead of
+ * counting comment documents.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.comments.store", havingValue = "mongo", matchIfMissing = true)
+public class CommentCounterDAO {
+
+    private static final long WRITE_PAUSE_TIMEOUT_MS = 5000;
+
+    private final MongoCollection<Document> commentsCollection;
+    private final MongoCollection<Document> countersCollection;
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock(true);
+
+    public CommentCounterDAO(MongoDatabase mongoDatabase) {
+        this.commentsCollection = mongoDatabase.getCollection(Constants.CommentsMongoCollection);
+        this.countersCollection = mongoDatabase.getCollection(Constants.CommentCountersMongoCollection);
+    }
+
+    public void increment(int postId, long delta) {
+        countersCollection.updateOne(
+                Filters.eq("_id", postId),
+                changed(delta),
+                new UpdateOptions().upsert(true));
+    }
+
+    public void incrementAll(Map<Integer, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<UpdateOneModel<Document>> updates = deltas.entrySet().stream()
+                .map(entry -> new UpdateOneModel<Document>(
+                        Filters.eq("_id", entry.getKey()),
+                        changed(entry.getValue()),
+                        new UpdateOptions().upsert(true)))
+                .toList();
+
+        countersCollection.bulkWrite(updates, new BulkWriteOptions().ordered(false));
+    }
+
+    public void delete(int postId) {
+        countersCollection.deleteOne(Filters.eq("_id", postId));
+    }
+
+    public long getCount(int postId) {
+        Document counter = countersCollection.find(Filters.eq("_id", postId))
+                .projection(Projections.include("count"))
+                .first();
+        return counter == null ? 0L : toLong(counter.get("count"));
+    }
+
+    /**
+     * Returns the post's comment-set version: the count plus a change counter and the time
+     * of the last change, both bumped on every increment.
+     */
+    public CommentSetVersion getVersion(int postId) {
+        Document counter = countersCollection.find(Filters.eq("_id", postId))
+                .projection(Projections.include("count", "version", "changedAt"))
+                .first();
+        if (counter == null) {
+            return new CommentSetVersion("0", Instant.EPOCH);
+        }
+
+        Date changedAt = counter.getDate("changedAt");
+        Instant lastModified = changedAt == null ? Instant.EPOCH : changedAt.toInstant();
+        String tag = toLong(counter.get("count")) + "." + toLong(counter.get("version")) + "."
+                + lastModified.toEpochMilli();
+        return new CommentSetVersion(tag, lastModified);
+    }
+
+    public Map<Integer, Long> getCounts(Collection<Integer> postIds) {
+        if (postIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Integer, Long> counts = new HashMap<>();
+        countersCollection.find(Filters.in("_id", new HashSet<>(postIds)))
+                .projection(Projections.include("count"))
+                .forEach(counter -> counts.put(counter.getInteger("_id"), toLong(counter.get("count"))));
+        return counts;
+    }
+
+    /**
+     * Runs a comment write together with the counter update that follows it. Writes share
+     * the lock, while {@link #rebuild()} takes it exclusively, so no increment can land
+     * between the recount and the swap and be overwritten by {@code $out}.
+     */
+    public <T> T countedWrite(Supplier<T> write) {
+        Lock lock = rebuildLock.readLock();
+        try {
+            if (!lock.tryLock(WRITE_PAUSE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new BackpressureException("Comment counters are being rebuilt, please retry shortly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for the comment counter rebuild");
+        }
+        try {
+            return write.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void countedWrite(Runnable write) {
+        countedWrite(() -> {
+            write.run();
+            return null;
+        });
+    }
+
+    /**
+     * Recomputes every counter from the comments collection and atomically replaces
+     * the counters collection with the result. Comment writes on this node are paused
+     * for the duration. Returns the number of posts counted.
+     */
+    public long rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            commentsCollection.aggregate(List.of(
+                    Aggregates.match(Filters.ne("deleted", true)),
+                    Aggregates.group("$postId", Accumulators.sum("count", 1L)),
+                    Aggregates.set(new Field<>("changedAt", "$$NOW")),
+                    Aggregates.out(Constants.CommentCountersMongoCollection)
+            )).toCollection();
+            return countersCollection.countDocuments();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private Bson changed(long delta) {
+        return Updates.combine(
+                Updates.inc("count", delta),
+                Updates.inc("version", 1L),
+                Updates.currentDate("changedAt"));
+    }
+
+    private long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+}
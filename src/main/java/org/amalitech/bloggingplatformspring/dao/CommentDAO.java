@@ -2,95 +2,283 @@ package org.amalitech.bloggingplatformspring.dao;
 
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Aggregates;
 import com.mongodb.client.model.Filters;
-import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.Updates;
 import com.mongodb.client.result.InsertOneResult;
+import org.amalitech.bloggingplatformspring.dao.helpers.CommentCursor;
+import org.amalitech.bloggingplatformspring.dtos.requests.CommentPageRequest;
+import org.amalitech.bloggingplatformspring.dtos.responses.CursorPage;
 import org.amalitech.bloggingplatformspring.entity.Comment;
 import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+import org.amalitech.bloggingplatformspring.entity.CommentSetVersion;
+import org.amalitech.bloggingplatformspring.enums.SortDirection;
+import org.amalitech.bloggingplatformspring.exceptions.BadRequestException;
 import org.amalitech.bloggingplatformspring.exceptions.ForbiddenException;
+import org.amalitech.bloggingplatformspring.exceptions.ResourceNotFoundException;
 import org.amalitech.bloggingplatformspring.repository.CommentRepository;
 import org.amalitech.bloggingplatformspring.utils.CommentUtils;
 import org.amalitech.bloggingplatformspring.utils.Constants;
 import org.bson.Document;
 import org.bson.conversions.Bson;
 import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
 @Repository
+@Qualifier("commentStore")
+@ConditionalOnProperty(name = "app.comments.store", havingValue = "mongo", matchIfMissing = true)
 public class CommentDAO implements CommentRepository {
 
-    private final MongoCollection<Document> commentsCollection;
+    private static final Bson READ_PROJECTION = Projections.include(
+            "content", "postId", "author", "commentedAt", "parentId", "depth", "replyCount", "deleted");
+    private static final Bson PARENT_PROJECTION = Projections.include("postId", "ancestors", "depth");
+
+    private final MongoCollection<CommentDocument> commentsCollection;
     private final CommentUtils commentUtils;
+    private final CommentWriteBuffer writeBuffer;
+    private final CommentCounterDAO commentCounters;
+    private final CommentPurger commentPurger;
 
-    public CommentDAO(MongoDatabase mongoDatabase) {
+    public CommentDAO(MongoDatabase mongoDatabase, CommentWriteBuffer writeBuffer, CommentCounterDAO commentCounters,
+                      CommentPurger commentPurger) {
         this.commentUtils = new CommentUtils();
-        this.commentsCollection = mongoDatabase.getCollection(Constants.CommentsMongoCollection);
+        this.writeBuffer = writeBuffer;
+        this.commentCounters = commentCounters;
+        this.commentPurger = commentPurger;
+        this.commentsCollection = mongoDatabase.getCollection(Constants.CommentsMongoCollection, CommentDocument.class);
     }
 
     @Override
     public CommentDocument createComment(Comment comment, String author) {
-        Document document = new Document("content", comment.getContent())
-                .append("postId", comment.getPostId())
-                .append("authorId", comment.getAuthorId())
-                .append("author", author)
-                .append("commentedAt", new Date());
+        if (writeBuffer.isEnabled()) {
+            return writeBuffer.write(toDocument(comment, author));
+        }
 
-        InsertOneResult result = commentsCollection.insertOne(document);
+        CommentDocument document = toDocument(comment, author);
+        commentCounters.countedWrite(() -> {
+            InsertOneResult result = commentsCollection.insertOne(document);
 
-        if (!result.wasAcknowledged()) {
-            throw new RuntimeException("Failed to create comment");
+            if (!result.wasAcknowledged()) {
+                throw new RuntimeException("Failed to create comment");
+            }
+            commentCounters.increment(document.getPostId(), 1);
+        });
+        if (document.getParentId() != null) {
+            commentsCollection.updateOne(Filters.eq("_id", new ObjectId(document.getParentId())),
+                    Updates.inc("replyCount", 1L));
         }
 
-        return commentUtils.mapDocumentToComment(document);
+        return document;
     }
 
     @Override
-    public List<CommentDocument> getAllCommentsByPostId(int postId) {
-        Bson filter = Filters.eq("postId", postId);
-        CommentUtils commentUtils = new CommentUtils();
-
-        return commentsCollection.find(filter)
-                .into(new ArrayList<>())
-                .stream()
-                .map(commentUtils::mapDocumentToComment)
-                .collect(Collectors.toList());
+    public CompletableFuture<CommentDocument> submitComment(Comment comment, String author) {
+        if (!writeBuffer.isEnabled()) {
+            return CompletableFuture.completedFuture(createComment(comment, author));
+        }
+        return writeBuffer.submit(toDocument(comment, author));
     }
 
     @Override
-    public Optional<CommentDocument> getCommentById(String commentId) {
-        ObjectId objectId = new ObjectId(commentId);
-        CommentUtils commentUtils = new CommentUtils();
-        Document document = commentsCollection.find(Filters.eq("_id", objectId)).first();
+    public CursorPage<CommentDocument> getCommentsByPostId(int postId, CommentPageRequest pageRequest) {
+        return findPage(Filters.and(Filters.eq("postId", postId), Filters.eq("parentId", null)), pageRequest);
+    }
 
-        if (document == null) {
-            return Optional.empty();
+    @Override
+    public CursorPage<CommentDocument> getReplies(String commentId, CommentPageRequest pageRequest) {
+        ObjectId parentId = parseObjectId(commentId, "Invalid comment ID");
+        CommentDocument parent = commentsCollection.find(Filters.eq("_id", parentId))
+                .projection(PARENT_PROJECTION)
+                .first();
+        if (parent == null) {
+            throw new ResourceNotFoundException("Comment not found with id: " + commentId);
         }
 
-        return Optional.ofNullable(commentUtils.mapDocumentToComment(document));
+        return findPage(Filters.and(Filters.eq("postId", parent.getPostId()), Filters.eq("parentId", parentId)),
+                pageRequest);
     }
 
     @Override
-    public void deleteComment(String commentId, String authorId) {
-        ObjectId objectId = new ObjectId(commentId);
-        DeleteResult result = commentsCollection.deleteOne(
-                Filters.and(
-                        Filters.eq("_id", objectId),
-                        Filters.eq("authorId", authorId)));
-        if (result.getDeletedCount() == 0) {
-            throw new ForbiddenException("You are not allowed to delete this comment.");
+    public List<CommentDocument> getCommentSubtree(String commentId, int maxDepth) {
+        ObjectId rootId = parseObjectId(commentId, "Invalid comment ID");
+        CommentDocument root = commentsCollection.find(Filters.eq("_id", rootId))
+                .projection(READ_PROJECTION)
+                .first();
+        if (root == null) {
+            return List.of();
         }
-        result.getDeletedCount();
+
+        List<CommentDocument> subtree = new ArrayList<>();
+        subtree.add(root);
+        commentsCollection.find(Filters.and(
+                        Filters.eq("ancestors", rootId),
+                        Filters.lte("depth", root.getDepth() + maxDepth)))
+                .projection(READ_PROJECTION)
+                .sort(Sorts.ascending("depth", "commentedAt", "_id"))
+                .limit(Constants.MaxThreadComments)
+                .into(subtree);
+        return subtree;
+    }
+
+    @Override
+    public Optional<CommentDocument> getCommentById(String commentId) {
+        ObjectId objectId = parseObjectId(commentId, "Invalid comment ID");
+        CommentDocument comment = commentsCollection.find(Filters.eq("_id", objectId))
+                .projection(READ_PROJECTION)
+                .first();
+
+        return Optional.ofNullable(comment);
+    }
+
+    @Override
+    public int deleteComment(String commentId, String authorId) {
+        ObjectId objectId = parseObjectId(commentId, "Invalid comment ID");
+        // The comment becomes a tombstone rather than being removed, so replies by other
+        // authors keep their place in the thread and the parent's replyCount stays right.
+        return commentCounters.countedWrite(() -> {
+            CommentDocument tombstoned = commentsCollection.findOneAndUpdate(
+                    Filters.and(
+                            Filters.eq("_id", objectId),
+                            Filters.eq("authorId", authorId),
+                            Filters.ne("deleted", true)),
+                    Updates.combine(
+                            Updates.set("deleted", true),
+                            Updates.unset("content"),
+                            Updates.unset("author"),
+                            Updates.unset("authorId")),
+                    new FindOneAndUpdateOptions().projection(Projections.include("postId")));
+            if (tombstoned == null) {
+                throw new ForbiddenException("You are not allowed to delete this comment.");
+            }
+
+            commentCounters.increment(tombstoned.getPostId(), -1);
+            return tombstoned.getPostId();
+        });
     }
 
     @Override
     public long getTotalCommentsByPostId(int postId) {
-        Bson filter = Filters.eq("postId", postId);
-        return commentsCollection.countDocuments(filter);
+        return commentCounters.getCount(postId);
+    }
+
+    @Override
+    public Map<Integer, Long> getTotalCommentsByPostIds(Collection<Integer> postIds) {
+        return commentCounters.getCounts(postIds);
+    }
+
+    @Override
+    public CommentSetVersion getCommentSetVersion(int postId) {
+        return commentCounters.getVersion(postId);
+    }
+
+    @Override
+    public long rebuildCommentCounters() {
+        return commentCounters.rebuild();
+    }
+
+    @Override
+    public void purgeCommentsByPostId(int postId) {
+        commentPurger.enqueue(postId);
+    }
+
+    @Override
+    public List<Integer> getCommentedPostIds() {
+        // A $group cursor rather than distinct(), whose single result document is capped at 16MB.
+        return commentsCollection.aggregate(List.of(
+                        Aggregates.sort(Sorts.ascending("postId")),
+                        Aggregates.group("$postId")), Document.class)
+                .allowDiskUse(true)
+                .map(group -> group.getInteger("_id"))
+                .into(new ArrayList<>());
+    }
+
+    private CommentDocument toDocument(Comment comment, String author) {
+        Date commentedAt = new Date();
+        CommentDocument document = new CommentDocument();
+        document.setContent(comment.getContent());
+        document.setPostId(comment.getPostId());
+        document.setAuthorId(comment.getAuthorId());
+        document.setAuthor(author);
+        document.setCommentedAt(commentedAt);
+        document.setCreatedAt(commentUtils.formatCommentedAt(commentedAt));
+        document.setAncestors(List.of());
+
+        if (comment.getParentId() != null) {
+            ObjectId parentId = parseObjectId(comment.getParentId(), "Invalid parent comment ID");
+            CommentDocument parent = commentsCollection.find(Filters.eq("_id", parentId))
+                    .projection(PARENT_PROJECTION)
+                    .first();
+            if (parent == null) {
+                throw new ResourceNotFoundException("Parent comment not found with id: " + comment.getParentId());
+            }
+            if (parent.getPostId() != comment.getPostId()) {
+                throw new BadRequestException("A reply must belong to the same post as its parent comment");
+            }
+            if (parent.getDepth() >= Constants.MaxCommentDepth) {
+                throw new BadRequestException("Maximum reply depth of " + Constants.MaxCommentDepth + " reached");
+            }
+
+            List<String> ancestors = new ArrayList<>(parent.getAncestors() == null ? List.of() : parent.getAncestors());
+            ancestors.add(parentId.toHexString());
+            document.setParentId(parentId.toHexString());
+            document.setAncestors(ancestors);
+            document.setDepth(parent.getDepth() + 1);
+        }
+        return document;
+    }
+
+    private CursorPage<CommentDocument> findPage(Bson filter, CommentPageRequest pageRequest) {
+        boolean ascending = pageRequest.direction() == SortDirection.ASC;
+
+        if (pageRequest.cursor() != null && !pageRequest.cursor().isBlank()) {
+            filter = Filters.and(filter, afterCursor(CommentCursor.decode(pageRequest.cursor()), ascending));
+        }
+
+        Bson sort = ascending
+                ? Sorts.ascending("commentedAt", "_id")
+                : Sorts.descending("commentedAt", "_id");
+
+        List<CommentDocument> comments = commentsCollection.find(filter)
+                .projection(READ_PROJECTION)
+                .sort(sort)
+                .limit(pageRequest.size() + 1)
+                .into(new ArrayList<>(pageRequest.size() + 1));
+
+        return CursorPage.fromLookahead(comments, pageRequest.size(),
+                last -> new CommentCursor(last.getCommentedAt(), last.getId()).encode());
+    }
+
+    private ObjectId parseObjectId(String id, String message) {
+        try {
+            return new ObjectId(id);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(message);
+        }
+    }
+
+    private Bson afterCursor(CommentCursor cursor, boolean ascending) {
+        ObjectId cursorId = parseObjectId(cursor.id(), "Invalid comment cursor");
+
+        if (ascending) {
+            return Filters.or(
+                    Filters.gt("commentedAt", cursor.commentedAt()),
+                    Filters.and(Filters.eq("commentedAt", cursor.commentedAt()), Filters.gt("_id", cursorId)));
+        }
+        return Filters.or(
+                Filters.lt("commentedAt", cursor.commentedAt()),
+                Filters.and(Filters.eq("commentedAt", cursor.commentedAt()), Filters.lt("_id", cursorId)));
     }
 }
\ No newline at end of file
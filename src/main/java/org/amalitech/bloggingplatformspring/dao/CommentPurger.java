@@ -0,0 +1,123 @@
+package org.amalitech.bloggingplatformspring.dao;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.bloggingplatformspring.config.CommentMaintenanceConfig;
+import org.amalitech.bloggingplatformspring.utils.Constants;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Removes the comments of deleted posts in the background. Each post is purged in
+ * batches of ids followed by a {@code deleteMany}, with a pause between batches so
+ * a large purge does not monopolise the comments collection.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.comments.store", havingValue = "mongo", matchIfMissing = true)
+public class CommentPurger {
+
+    private final MongoCollection<Document> commentsCollection;
+    private final CommentCounterDAO commentCounters;
+    private final CommentMaintenanceConfig config;
+    private final BlockingQueue<Integer> queue = new LinkedBlockingQueue<>();
+    private final Set<Integer> queued = ConcurrentHashMap.newKeySet();
+    private volatile boolean running;
+    private Thread worker;
+
+    public CommentPurger(MongoDatabase mongoDatabase, CommentCounterDAO commentCounters, CommentMaintenanceConfig config) {
+        this.commentsCollection = mongoDatabase.getCollection(Constants.CommentsMongoCollection);
+        this.commentCounters = commentCounters;
+        this.config = config;
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        worker = Thread.ofPlatform()
+                .name("comment-purger")
+                .daemon(true)
+                .start(this::runPurgeLoop);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    public void enqueue(int postId) {
+        if (queued.add(postId)) {
+            queue.add(postId);
+        }
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    long purge(int postId) throws InterruptedException {
+        long deleted = 0;
+        int batchSize = Math.max(1, config.getPurgeBatchSize());
+
+        while (true) {
+            List<ObjectId> ids = commentsCollection.find(Filters.eq("postId", postId))
+                    .projection(Projections.include("_id"))
+                    .limit(batchSize)
+                    .map(document -> document.getObjectId("_id"))
+                    .into(new ArrayList<>(batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            deleted += commentsCollection.deleteMany(Filters.in("_id", ids)).getDeletedCount();
+            if (ids.size() < batchSize) {
+                break;
+            }
+            TimeUnit.MILLISECONDS.sleep(config.getPurgeThrottleMs());
+        }
+
+        commentCounters.countedWrite(() -> commentCounters.delete(postId));
+        return deleted;
+    }
+
+    private void runPurgeLoop() {
+        while (running) {
+            Integer postId;
+            try {
+                postId = queue.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            // Only waiting posts are de-duplicated: a post enqueued again while its purge
+            // runs may have gained comments after the last batch, so it is purged once more.
+            queued.remove(postId);
+
+            try {
+                long deleted = purge(postId);
+                log.info("Purged {} comments of deleted post {}", deleted, postId);
+            } catch (InterruptedException e) {
+                break;
+            } catch (RuntimeException e) {
+                log.error("Failed to purge comments of post {}", postId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package org.amalitech.bloggingplatformspring.dao;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.bloggingplatformspring.config.CommentIngestionConfig;
+import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+import org.amalitech.bloggingplatformspring.exceptions.BackpressureException;
+import org.amalitech.bloggingplatformspring.exceptions.ServiceUnavailableException;
+import org.amalitech.bloggingplatformspring.utils.Constants;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Optional write-behind path for comment inserts. Comments are queued in a bounded
+ * buffer and written with one unordered bulkWrite per batch, either when the batch
+ * fills up or when the flush interval elapses. Ids are assigned client-side so each
+ * caller's future completes with the stored comment.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.comments.store", havingValue = "mongo", matchIfMissing = true)
+public class CommentWriteBuffer {
+
+    private record PendingComment(CommentDocument comment, CompletableFuture<CommentDocument> future) {
+    }
+
+    private final MongoCollection<CommentDocument> commentsCollection;
+    private final CommentCounterDAO commentCounters;
+    private final CommentIngestionConfig config;
+    private final BlockingQueue<PendingComment> queue;
+    private volatile boolean accepting;
+    private Thread flusher;
+
+    public CommentWriteBuffer(MongoDatabase mongoDatabase, CommentCounterDAO commentCounters, CommentIngestionConfig config) {
+        this.commentsCollection = mongoDatabase.getCollection(Constants.CommentsMongoCollection, CommentDocument.class);
+        this.commentCounters = commentCounters;
+        this.config = config;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity()));
+    }
+
+    @PostConstruct
+    void start() {
+        if (!config.isWriteBehindEnabled()) {
+            return;
+        }
+        accepting = true;
+        flusher = Thread.ofPlatform()
+                .name("comment-write-behind")
+                .daemon(true)
+                .start(this::runFlushLoop);
+        log.info("Comment write-behind enabled (batch size {}, flush interval {} ms, capacity {})",
+                config.getBatchSize(), config.getFlushIntervalMs(), config.getQueueCapacity());
+    }
+
+    public boolean isEnabled() {
+        return accepting;
+    }
+
+    public CompletableFuture<CommentDocument> submit(CommentDocument comment) {
+        return enqueue(comment).future();
+    }
+
+    /**
+     * Queues the comment and waits up to the submit timeout for its batch to be written.
+     * A comment still queued at the deadline is withdrawn, so the 503 means it was not stored.
+     */
+    public CommentDocument write(CommentDocument comment) {
+        PendingComment pending = enqueue(comment);
+        try {
+            return pending.future().get(config.getSubmitTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Failed to create comment", e.getCause());
+        } catch (TimeoutException e) {
+            if (queue.remove(pending)) {
+                throw new BackpressureException("Comment ingestion is backed up, please retry shortly");
+            }
+            throw new ServiceUnavailableException("Comment write did not complete in time");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queue.remove(pending);
+            throw new ServiceUnavailableException("Interrupted while waiting for the comment write");
+        }
+    }
+
+    private PendingComment enqueue(CommentDocument comment) {
+        if (!accepting) {
+            throw new BackpressureException("Comment ingestion is not accepting writes");
+        }
+        if (comment.getId() == null) {
+            comment.setId(new ObjectId().toHexString());
+        }
+
+        PendingComment pending = new PendingComment(comment, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            throw new BackpressureException("Comment ingestion queue is full, please retry shortly");
+        }
+        // Shutdown may have drained the queue between the check above and the offer; a
+        // comment it did not pick up is withdrawn here instead of waiting forever.
+        if (!accepting && queue.remove(pending)) {
+            throw new BackpressureException("Comment ingestion is not accepting writes");
+        }
+        return pending;
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (flusher == null) {
+            return;
+        }
+        accepting = false;
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainAndFlush();
+        log.info("Comment write-behind stopped");
+    }
+
+    private void runFlushLoop() {
+        List<PendingComment> batch = new ArrayList<>(config.getBatchSize());
+        while (accepting) {
+            try {
+                PendingComment first = queue.poll(config.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getFlushIntervalMs());
+                while (batch.size() < config.getBatchSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingComment next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, config.getBatchSize() - batch.size());
+                }
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+        flush(batch);
+    }
+
+    private void drainAndFlush() {
+        List<PendingComment> batch = new ArrayList<>(config.getBatchSize());
+        while (queue.drainTo(batch, config.getBatchSize()) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<PendingComment> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            commentCounters.countedWrite(() -> writeBatch(batch));
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.future().completeExceptionally(e));
+            log.error("Comment bulk write of {} inserts could not start", batch.size(), e);
+        }
+    }
+
+    private void writeBatch(List<PendingComment> batch) {
+        List<InsertOneModel<CommentDocument>> writes = batch.stream()
+                .map(pending -> new InsertOneModel<>(pending.comment()))
+                .toList();
+
+        try {
+            commentsCollection.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+            completeAll(batch);
+        } catch (MongoBulkWriteException e) {
+            Set<Integer> failed = new HashSet<>();
+            for (BulkWriteError error : e.getWriteErrors()) {
+                failed.add(error.getIndex());
+            }
+            List<PendingComment> written = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                PendingComment pending = batch.get(i);
+                if (failed.contains(i)) {
+                    pending.future().completeExceptionally(new RuntimeException("Failed to create comment"));
+                } else {
+                    written.add(pending);
+                }
+            }
+            completeAll(written);
+            log.warn("Comment bulk write had {} failed inserts out of {}", failed.size(), batch.size());
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.future().completeExceptionally(e));
+            log.error("Comment bulk write of {} inserts failed", batch.size(), e);
+        }
+    }
+
+    private void completeAll(List<PendingComment> written) {
+        Map<Integer, Long> perPost = written.stream()
+                .collect(Collectors.groupingBy(pending -> pending.comment().getPostId(), Collectors.counting()));
+        try {
+            commentCounters.incrementAll(perPost);
+        } catch (RuntimeException e) {
+            log.error("Failed to update comment counters after bulk write; run a counter rebuild", e);
+        }
+
+        List<UpdateOneModel<CommentDocument>> replyCounts = written.stream()
+                .map(PendingComment::comment)
+                .filter(comment -> comment.getParentId() != null)
+                .map(comment -> new UpdateOneModel<CommentDocument>(
+                        Filters.eq("_id", new ObjectId(comment.getParentId())),
+                        Updates.inc("replyCount", 1L)))
+                .toList();
+        if (!replyCounts.isEmpty()) {
+            try {
+                commentsCollection.bulkWrite(replyCounts, new BulkWriteOptions().ordered(false));
+            } catch (RuntimeException e) {
+                log.error("Failed to update reply counts after bulk write", e);
+            }
+        }
+        written.forEach(pending -> pending.future().complete(pending.comment()));
+    }
+}
@@ -2,6 +2,7 @@ package org.amalitech.bloggingplatformspring.dao;
 
 import lombok.extern.slf4j.Slf4j;
 import org.amalitech.bloggingplatformspring.config.ConnectionProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,10 +17,14 @@ import java.sql.Statement;
 @Profile("!test")
 public class InitDB {
 
+    private static final int COMMENT_PARTITIONS = 8;
+
     private final ConnectionProvider connectionProvider;
+    private final String commentStore;
 
-    public InitDB(ConnectionProvider connectionProvider) {
+    public InitDB(ConnectionProvider connectionProvider, @Value("${app.comments.store:mongo}") String commentStore) {
         this.connectionProvider = connectionProvider;
+        this.commentStore = commentStore;
     }
 
     private Connection getConnection() throws SQLException {
@@ -31,8 +36,12 @@ public class InitDB {
         return args -> {
             createUsersTable();
             createPostsTable();
+            createPostChangesTable();
             createTagsTable();
             createPostTagsTable();
+            if ("postgres".equalsIgnoreCase(commentStore)) {
+                createCommentsTable();
+            }
         };
     }
 
@@ -66,13 +75,43 @@ public class InitDB {
                             author_id UUID NOT NULL,
                             posted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
                             updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                            version BIGINT NOT NULL DEFAULT 0,
                             CONSTRAINT fk_author FOREIGN KEY (author_id) REFERENCES users (id) ON DELETE CASCADE
                         )
                     """);
+            stmt.execute("ALTER TABLE posts ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0");
             log.info("Posts table created successfully");
         }
     }
 
+    private void createPostChangesTable() throws SQLException {
+        try (Connection conn = getConnection();
+                Statement stmt = conn.createStatement()) {
+
+            stmt.execute("CREATE SEQUENCE IF NOT EXISTS post_change_seq");
+            stmt.execute("""
+                        CREATE TABLE IF NOT EXISTS post_changes (
+                            post_id INT PRIMARY KEY,
+                            created_seq BIGINT NOT NULL,
+                            seq BIGINT NOT NULL,
+                            deleted BOOLEAN NOT NULL DEFAULT FALSE
+                        )
+                    """);
+            stmt.execute("""
+                        CREATE UNIQUE INDEX IF NOT EXISTS idx_post_changes_seq
+                        ON post_changes (seq) INCLUDE (post_id, created_seq, deleted)
+                    """);
+            // Posts written before changes were tracked show up once as updates.
+            stmt.execute("""
+                        INSERT INTO post_changes (post_id, created_seq, seq)
+                        SELECT p.id, 0, nextval('post_change_seq')
+                        FROM posts p
+                        WHERE NOT EXISTS (SELECT 1 FROM post_changes c WHERE c.post_id = p.id)
+                    """);
+            log.info("PostChanges table created successfully");
+        }
+    }
+
     private void createTagsTable() throws SQLException {
         try (Connection conn = getConnection();
                 Statement stmt = conn.createStatement()) {
@@ -104,4 +143,43 @@ public class InitDB {
         }
     }
 
-}
\ No newline at end of file
+    private void createCommentsTable() throws SQLException {
+        try (Connection conn = getConnection();
+                Statement stmt = conn.createStatement()) {
+
+            stmt.execute("""
+                        CREATE TABLE IF NOT EXISTS comments (
+                            id BIGINT GENERATED ALWAYS AS IDENTITY,
+                            post_id INT NOT NULL,
+                            author_id UUID NOT NULL,
+                            content TEXT NOT NULL,
+                            parent_id BIGINT,
+                            ancestors BIGINT[] NOT NULL DEFAULT '{}',
+                            depth INT NOT NULL DEFAULT 0,
+                            reply_count BIGINT NOT NULL DEFAULT 0,
+                            deleted BOOLEAN NOT NULL DEFAULT FALSE,
+                            commented_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                            PRIMARY KEY (post_id, id),
+                            CONSTRAINT fk_comment_post FOREIGN KEY (post_id) REFERENCES posts (id) ON DELETE CASCADE,
+                            CONSTRAINT fk_comment_author FOREIGN KEY (author_id) REFERENCES users (id) ON DELETE CASCADE
+                        ) PARTITION BY HASH (post_id)
+                    """);
+            for (int remainder = 0; remainder < COMMENT_PARTITIONS; remainder++) {
+                stmt.execute("""
+                            CREATE TABLE IF NOT EXISTS comments_p%d PARTITION OF comments
+                            FOR VALUES WITH (MODULUS %d, REMAINDER %d)
+                        """.formatted(remainder, COMMENT_PARTITIONS, remainder));
+            }
+            stmt.execute("ALTER TABLE comments ADD COLUMN IF NOT EXISTS deleted BOOLEAN NOT NULL DEFAULT FALSE");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_comments_post_time ON comments (post_id, commented_at, id)");
+            stmt.execute("""
+                        CREATE INDEX IF NOT EXISTS idx_comments_post_parent_time
+                        ON comments (post_id, parent_id, commented_at, id)
+                    """);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_comments_ancestors ON comments USING GIN (ancestors)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_comments_id ON comments (id)");
+            log.info("Comments table created successfully");
+        }
+    }
+
+}
@@ -0,0 +1,29 @@
+package org.amalitech.bloggingplatformspring.dao;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Slf4j
+@Configuration
+@Profile("!test")
+@ConditionalOnProperty(name = "app.comments.store", havingValue = "mongo", matchIfMissing = true)
+public class InitMongoDB {
+
+    private final MongoIndexManager mongoIndexManager;
+
+    public InitMongoDB(MongoIndexManager mongoIndexManager) {
+        this.mongoIndexManager = mongoIndexManager;
+    }
+
+    @Bean
+    CommandLineRunner initMongoIndexes() {
+        return args -> {
+            mongoIndexManager.bootstrapAsync();
+            log.info("Mongo index bootstrap scheduled");
+        };
+    }
+}
@@ -0,0 +1,192 @@
+package org.amalitech.bloggingplatformspring.dao;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.*;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.bloggingplatformspring.utils.Constants;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Declares the indexes the comments collection needs, creates the missing ones
+ * in the background and then checks with explain() that the main query shapes
+ * are served by an index rather than a collection scan.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.comments.store", havingValue = "mongo", matchIfMissing = true)
+public class MongoIndexManager {
+
+    public enum State {PENDING, READY, DEGRADED, FAILED}
+
+    public record IndexDefinition(String name, Bson keys) {
+    }
+
+    private static final Set<String> INDEXED_STAGES = Set.of(
+            "IXSCAN", "IDHACK", "COUNT_SCAN", "EXPRESS_IXSCAN", "EXPRESS_IDHACK", "DISTINCT_SCAN");
+
+    private final MongoCollection<Document> commentsCollection;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mongo-index-bootstrap");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Getter
+    private volatile State state = State.PENDING;
+    @Getter
+    private volatile String lastError;
+    // Replaced wholesale once each step finishes, so report() never waits on a running bootstrap.
+    private volatile Map<String, String> indexStatus = Map.of();
+    private volatile Map<String, Boolean> queryPlanCoverage = Map.of();
+
+    public MongoIndexManager(MongoDatabase mongoDatabase) {
+        this.commentsCollection = mongoDatabase.getCollection(Constants.CommentsMongoCollection);
+    }
+
+    public List<IndexDefinition> requiredIndexes() {
+        return List.of(
+                new IndexDefinition("postId_parentId_commentedAt_id",
+                        Indexes.ascending("postId", "parentId", "commentedAt", "_id")),
+                new IndexDefinition("ancestors_depth", Indexes.ascending("ancestors", "depth"))
+        );
+    }
+
+    public void bootstrapAsync() {
+        executor.submit(this::bootstrap);
+    }
+
+    public synchronized void bootstrap() {
+        try {
+            indexStatus = Collections.unmodifiableMap(createMissingIndexes());
+            queryPlanCoverage = Collections.unmodifiableMap(verifyQueryPlans());
+            state = queryPlanCoverage.containsValue(false) ? State.DEGRADED : State.READY;
+            lastError = null;
+            log.info("Mongo index bootstrap finished with state {}", state);
+        } catch (RuntimeException e) {
+            state = State.FAILED;
+            lastError = e.getMessage();
+            log.error("Mongo index bootstrap failed", e);
+        }
+    }
+
+    public Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("state", state.name());
+        report.put("indexes", new LinkedHashMap<>(indexStatus));
+        report.put("queryPlans", new LinkedHashMap<>(queryPlanCoverage));
+        if (lastError != null) {
+            report.put("error", lastError);
+        }
+        return report;
+    }
+
+    private Map<String, String> createMissingIndexes() {
+        Map<String, String> indexStatus = new LinkedHashMap<>();
+        List<Document> existing = new ArrayList<>();
+        commentsCollection.listIndexes().into(existing);
+
+        List<IndexModel> missing = new ArrayList<>();
+        for (IndexDefinition definition : requiredIndexes()) {
+            Optional<String> match = findMatchingIndex(existing, definition);
+            if (match.isPresent()) {
+                indexStatus.put(definition.name(), match.get().equals(definition.name())
+                        ? "present"
+                        : "present as " + match.get());
+            } else {
+                missing.add(new IndexModel(definition.keys(),
+                        new IndexOptions().name(definition.name()).background(true)));
+                indexStatus.put(definition.name(), "created");
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            commentsCollection.createIndexes(missing);
+        }
+        return indexStatus;
+    }
+
+    /**
+     * Finds an existing index with the same key pattern as the definition, whatever it is
+     * named. Mongo refuses to create a second index on identical keys under another name,
+     * so an index created with a default or older name has to be accepted as-is.
+     */
+    static Optional<String> findMatchingIndex(List<Document> existing, IndexDefinition definition) {
+        List<String> wanted = keyPattern(Document.parse(definition.keys().toBsonDocument().toJson()));
+        return existing.stream()
+                .filter(index -> index.get("key") instanceof Document key && keyPattern(key).equals(wanted))
+                .map(index -> index.getString("name"))
+                .findFirst();
+    }
+
+    private static List<String> keyPattern(Document key) {
+        List<String> pattern = new ArrayList<>();
+        key.forEach((field, direction) -> pattern.add(field + ":"
+                + (direction instanceof Number number ? String.valueOf(number.intValue()) : String.valueOf(direction))));
+        return pattern;
+    }
+
+    private Map<String, Boolean> verifyQueryPlans() {
+        Map<String, Supplier<Document>> shapes = new LinkedHashMap<>();
+        shapes.put("commentsByPost", () -> commentsCollection.find(Filters.and(
+                        Filters.eq("postId", 0),
+                        Filters.eq("parentId", null)))
+                .sort(Sorts.descending("commentedAt", "_id"))
+                .limit(Constants.DefaultCommentPageSize + 1)
+                .explain());
+        shapes.put("repliesByParent", () -> commentsCollection.find(Filters.and(
+                        Filters.eq("postId", 0),
+                        Filters.eq("parentId", new ObjectId())))
+                .sort(Sorts.descending("commentedAt", "_id"))
+                .limit(Constants.DefaultCommentPageSize + 1)
+                .explain());
+        shapes.put("subtree", () -> commentsCollection.find(Filters.and(
+                        Filters.eq("ancestors", new ObjectId()),
+                        Filters.lte("depth", Constants.DefaultThreadDepth)))
+                .explain());
+        shapes.put("deleteByIdAndAuthor", () -> commentsCollection.find(Filters.and(
+                        Filters.eq("_id", new ObjectId()),
+                        Filters.eq("authorId", "")))
+                .explain());
+
+        Map<String, Boolean> queryPlanCoverage = new LinkedHashMap<>();
+        shapes.forEach((name, explain) -> queryPlanCoverage.put(name, isIndexCovered(explain.get())));
+        return queryPlanCoverage;
+    }
+
+    /**
+     * Walks an explain() document (find or aggregate, classic or SBE layout) and
+     * reports whether the plan uses an index and never falls back to COLLSCAN.
+     */
+    static boolean isIndexCovered(Document explain) {
+        Set<String> stages = new HashSet<>();
+        collectStages(explain, stages);
+        return !stages.contains("COLLSCAN") && stages.stream().anyMatch(INDEXED_STAGES::contains);
+    }
+
+    private static void collectStages(Object node, Set<String> stages) {
+        if (node instanceof Document document) {
+            Object stage = document.get("stage");
+            if (stage instanceof String name) {
+                stages.add(name);
+            }
+            document.forEach((key, value) -> {
+                if (!"rejectedPlans".equals(key)) {
+                    collectStages(value, stages);
+                }
+            });
+        } else if (node instanceof List<?> list) {
+            list.forEach(item -> collectStages(item, stages));
+        }
+    }
+}
@@ -1,21 +1,37 @@
 package org.amalitech.bloggingplatformspring.dao;
 
 import lombok.extern.slf4j.Slf4j;
+import org.amalitech.bloggingplatformspring.cache.CacheEntity;
 import org.amalitech.bloggingplatformspring.config.ConnectionProvider;
+import org.amalitech.bloggingplatformspring.dao.helpers.CacheInvalidationNotifier;
+import org.amalitech.bloggingplatformspring.dao.helpers.CommentCursor;
 import org.amalitech.bloggingplatformspring.dao.helpers.DAOHelperMethods;
+import org.amalitech.bloggingplatformspring.dao.helpers.FanOutScope;
 import org.amalitech.bloggingplatformspring.dao.helpers.FilterClause;
+import org.amalitech.bloggingplatformspring.dao.helpers.PostChangeLog;
+import org.amalitech.bloggingplatformspring.dtos.requests.CommentPageRequest;
 import org.amalitech.bloggingplatformspring.dtos.requests.CreatePostDTO;
 import org.amalitech.bloggingplatformspring.dtos.requests.PageRequest;
+import org.amalitech.bloggingplatformspring.dtos.requests.PostFieldSelection;
 import org.amalitech.bloggingplatformspring.dtos.requests.PostFilterRequest;
+import org.amalitech.bloggingplatformspring.dtos.responses.CursorPage;
 import org.amalitech.bloggingplatformspring.dtos.responses.PageResponse;
 import org.amalitech.bloggingplatformspring.dtos.responses.PostResponseDTO;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostViewDTO;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostWithCommentsDTO;
+import org.amalitech.bloggingplatformspring.entity.CommentDocument;
 import org.amalitech.bloggingplatformspring.entity.Post;
+import org.amalitech.bloggingplatformspring.entity.PostChangeEntry;
+import org.amalitech.bloggingplatformspring.enums.PostChangeType;
 import org.amalitech.bloggingplatformspring.enums.PostSortField;
 import org.amalitech.bloggingplatformspring.enums.SortDirection;
 import org.amalitech.bloggingplatformspring.exceptions.ForbiddenException;
+import org.amalitech.bloggingplatformspring.exceptions.ResourceNotFoundException;
+import org.amalitech.bloggingplatformspring.exceptions.ServiceUnavailableException;
 import org.amalitech.bloggingplatformspring.repository.CommentRepository;
 import org.amalitech.bloggingplatformspring.repository.PostRepository;
 import org.amalitech.bloggingplatformspring.repository.TagRepository;
+import org.amalitech.bloggingplatformspring.utils.CommentUtils;
 import org.amalitech.bloggingplatformspring.utils.PostUtils;
 import org.springframework.stereotype.Repository;
 
@@ -23,10 +39,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.Future;
 
 @Slf4j
 @Repository
@@ -35,15 +49,21 @@ public class PostDAO implements PostRepository {
     private final ConnectionProvider connectionProvider;
     private final TagRepository tagRepository;
     private final PostUtils postUtils;
+    private final CommentUtils commentUtils;
     private final DAOHelperMethods helperMethods;
     private final CommentRepository commentRepository;
+    private final CacheInvalidationNotifier invalidationNotifier;
+    private final PostChangeLog changeLog;
 
-    public PostDAO(ConnectionProvider connectionProvider, TagRepository tagRepository, CommentDAO commentRepository) {
+    public PostDAO(ConnectionProvider connectionProvider, TagRepository tagRepository, CommentRepository commentRepository) {
         this.connectionProvider = connectionProvider;
         this.tagRepository = tagRepository;
         this.postUtils = new PostUtils();
+        this.commentUtils = new CommentUtils();
         helperMethods = new DAOHelperMethods();
         this.commentRepository = commentRepository;
+        this.invalidationNotifier = new CacheInvalidationNotifier();
+        this.changeLog = new PostChangeLog();
     }
 
     private Connection getConnection() throws SQLException {
@@ -54,7 +74,7 @@ public class PostDAO implements PostRepository {
     public Post savePost(CreatePostDTO createPostDTO) throws SQLException {
         String insertPostQuery = """
                     INSERT INTO posts (title, body, author_id) VALUES (?, ?, ?)
-                    RETURNING id, title, body, author_id, posted_at, updated_at
+                    RETURNING id, title, body, author_id, posted_at, updated_at, version
                 """;
         String insertPostTagQuery = "INSERT INTO post_tags (post_id, tag_id) VALUES (?, ?)";
 
@@ -74,6 +94,8 @@ public class PostDAO implements PostRepository {
 
                 List<String> tagNames = createPostDTO.getTags();
                 savePostTags(post, conn, tagNames);
+                invalidationNotifier.publish(conn, CacheEntity.POST, post.getId());
+                changeLog.record(conn, post.getId(), PostChangeType.CREATED);
                 conn.commit();
                 return post;
             } catch (SQLException e) {
@@ -110,11 +132,11 @@ public class PostDAO implements PostRepository {
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                long totalComments = commentRepository.getTotalCommentsByPostId(rs.getInt("id"));
-                posts.add(postUtils.mapRowToPostResponse(rs, totalComments));
+                posts.add(postUtils.mapRowToPostResponse(rs, 0L));
             }
         }
 
+        applyCommentTotals(posts);
         return posts;
     }
 
@@ -176,11 +198,11 @@ public class PostDAO implements PostRepository {
                     if (totalElements == 0) {
                         totalElements = rs.getInt("total_count");
                     }
-                    long totalComments = commentRepository.getTotalCommentsByPostId(rs.getInt("id"));
-                    posts.add(postUtils.mapRowToPostResponse(rs, totalComments));
+                    posts.add(postUtils.mapRowToPostResponse(rs, 0L));
                 }
             }
         }
+        boolean degraded = !applyCommentTotals(posts);
 
         String sort = String.format("%s : %s", sortField.name().toLowerCase(), direction.name());
         return new PageResponse<>(
@@ -188,10 +210,212 @@ public class PostDAO implements PostRepository {
                 page,
                 size,
                 sort,
-                totalElements
+                totalElements,
+                degraded
         );
     }
 
+    @Override
+    public List<PostViewDTO> getAllPostViews(PostFieldSelection selection) throws SQLException {
+        String joinClause = selection.author() ? "JOIN users u ON u.id = p.author_id" : "";
+        String query = """
+                SELECT
+                    %s
+                FROM posts p
+                %s
+                ORDER BY p.updated_at DESC
+                """.formatted(helperMethods.buildProjectionColumns(selection), joinClause);
+
+        List<PostViewDTO> posts = new ArrayList<>();
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                posts.add(postUtils.mapRowToPostView(rs, selection, null));
+            }
+        }
+
+        applyCommentTotals(posts, selection);
+        return posts;
+    }
+
+    @Override
+    public PageResponse<PostViewDTO> getAllPostViews(PageRequest pageRequest, PostFilterRequest postFilterRequest,
+                                                     PostFieldSelection selection) throws SQLException {
+        if (pageRequest == null) {
+            throw new IllegalArgumentException("PageRequest cannot be null");
+        }
+
+        int size = pageRequest.size();
+        int page = pageRequest.page();
+        int offset = page * size;
+
+        PostSortField sortField = helperMethods.matchSortByToEntityField(pageRequest.sortBy());
+        SortDirection direction = helperMethods.getSortDirection(pageRequest.sortDirection());
+        String orderByClause = helperMethods.buildOrderByClause(sortField, direction);
+        FilterClause filterClause = helperMethods.buildFilterClause(postFilterRequest);
+        String joinClause = helperMethods.requiresAuthorJoin(selection, postFilterRequest, sortField)
+                ? "JOIN users u ON u.id = p.author_id"
+                : "";
+
+        String query = """
+                SELECT
+                    %s,
+                    COUNT(*) OVER() AS total_count
+                FROM posts p
+                %s
+                %s
+                ORDER BY %s
+                LIMIT ? OFFSET ?
+                """.formatted(helperMethods.buildProjectionColumns(selection), joinClause,
+                filterClause.whereClause(), orderByClause);
+
+        List<PostViewDTO> posts = new ArrayList<>();
+        int totalElements = 0;
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            int paramIndex = 1;
+            for (Object param : filterClause.parameters()) {
+                stmt.setObject(paramIndex++, param);
+            }
+
+            stmt.setInt(paramIndex++, size);
+            stmt.setInt(paramIndex, offset);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (totalElements == 0) {
+                        totalElements = rs.getInt("total_count");
+                    }
+                    posts.add(postUtils.mapRowToPostView(rs, selection, null));
+                }
+            }
+        }
+        boolean degraded = !applyCommentTotals(posts, selection);
+
+        String sort = String.format("%s : %s", sortField.name().toLowerCase(), direction.name());
+        return new PageResponse<>(
+                posts,
+                page,
+                size,
+                sort,
+                totalElements,
+                degraded
+        );
+    }
+
+    @Override
+    public Optional<PostWithCommentsDTO> getPostWithComments(int id, int commentLimit) throws SQLException {
+        if (!commentRepository.sharesPostStore()) {
+            try (FanOutScope scope = new FanOutScope()) {
+                Future<Optional<PostResponseDTO>> post = scope.fork(() -> findPostResponse(id));
+                Future<Long> totalComments = scope.fork(() -> commentRepository.getTotalCommentsByPostId(id));
+                Future<CursorPage<CommentDocument>> comments = scope.fork(() -> commentRepository.getCommentsByPostId(id,
+                        new CommentPageRequest(commentLimit, null, SortDirection.DESC)));
+                joinOrThrow(scope);
+
+                return post.resultNow().map(found -> {
+                    found.setTotalComments(totalComments.resultNow());
+                    return new PostWithCommentsDTO(found, comments.resultNow());
+                });
+            }
+        }
+
+        String query = """
+                SELECT
+                    p.id,
+                    p.title,
+                    p.body,
+                    p.updated_at,
+                    u.username AS author,
+                    ARRAY(
+                        SELECT t.name
+                        FROM post_tags pt
+                        JOIN tags t ON t.id = pt.tag_id
+                        WHERE pt.post_id = p.id
+                        ORDER BY t.name
+                    ) AS tags,
+                    (SELECT COUNT(*) FROM comments cc WHERE cc.post_id = p.id AND NOT cc.deleted) AS total_comments,
+                    c.id AS comment_id,
+                    c.post_id AS comment_post_id,
+                    cu.username AS comment_author,
+                    c.content AS comment_content,
+                    c.commented_at AS comment_commented_at,
+                    c.parent_id AS comment_parent_id,
+                    c.depth AS comment_depth,
+                    c.reply_count AS comment_reply_count,
+                    c.deleted AS comment_deleted
+                FROM posts p
+                JOIN users u ON u.id = p.author_id
+                LEFT JOIN LATERAL (
+                    SELECT id, post_id, author_id, content, commented_at, parent_id, depth, reply_count, deleted
+                    FROM comments
+                    WHERE post_id = p.id AND parent_id IS NULL
+                    ORDER BY commented_at DESC, id DESC
+                    LIMIT ?
+                ) c ON TRUE
+                LEFT JOIN users cu ON cu.id = c.author_id
+                WHERE p.id = ?
+                ORDER BY c.commented_at DESC, c.id DESC
+                """;
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setInt(1, commentLimit + 1);
+            stmt.setInt(2, id);
+
+            PostResponseDTO post = null;
+            List<CommentDocument> comments = new ArrayList<>(commentLimit + 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (post == null) {
+                        post = postUtils.mapRowToPostResponse(rs, rs.getLong("total_comments"));
+                    }
+                    CommentDocument comment = commentUtils.mapRowToComment(rs);
+                    if (comment != null) {
+                        comments.add(comment);
+                    }
+                }
+            }
+
+            if (post == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new PostWithCommentsDTO(post, CursorPage.fromLookahead(comments, commentLimit,
+                    last -> new CommentCursor(last.getCommentedAt(), last.getId()).encode())));
+        }
+    }
+
+    @Override
+    public Optional<PostViewDTO> getPostViewById(int id, PostFieldSelection selection) throws SQLException {
+        String joinClause = selection.author() ? "JOIN users u ON u.id = p.author_id" : "";
+        String query = """
+                SELECT
+                    %s
+                FROM posts p
+                %s
+                WHERE p.id = ?
+                """.formatted(helperMethods.buildProjectionColumns(selection), joinClause);
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setInt(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return Optional.of(mapRowToPostView(rs, selection));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
     @Override
     public Optional<Post> findPostById(int id) throws SQLException {
         String query = "SELECT * FROM posts WHERE id = ?";
@@ -211,6 +435,27 @@ public class PostDAO implements PostRepository {
 
     @Override
     public Optional<PostResponseDTO> getPostResponseById(int id) throws SQLException {
+        try (FanOutScope scope = new FanOutScope()) {
+            Future<Optional<PostResponseDTO>> post = scope.fork(() -> findPostResponse(id));
+            Future<Long> totalComments = scope.fork(() -> countCommentsIfAvailable(id));
+            joinOrThrow(scope);
+
+            return post.resultNow().map(found -> {
+                Long total = totalComments.resultNow();
+                if (total == null) {
+                    found.setCommentCountUnavailable(true);
+                } else {
+                    found.setTotalComments(total);
+                }
+                return found;
+            });
+        }
+    }
+
+    /**
+     * Loads the post row with its tags; the comment count is filled in by the caller.
+     */
+    private Optional<PostResponseDTO> findPostResponse(int id) throws SQLException {
         String query = """
                 SELECT
                     p.id,
@@ -237,18 +482,36 @@ public class PostDAO implements PostRepository {
             ResultSet rs = stmt.executeQuery();
 
             if (rs.next()) {
-                long totalComments = commentRepository.getTotalCommentsByPostId(id);
-                return Optional.ofNullable(postUtils.mapRowToPostResponse(rs, totalComments));
+                return Optional.ofNullable(postUtils.mapRowToPostResponse(rs, 0L));
             }
         }
         return Optional.empty();
     }
 
+    private void joinOrThrow(FanOutScope scope) throws SQLException {
+        try {
+            scope.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while loading post", e);
+        }
+        scope.throwIfFailed(cause -> {
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            return cause instanceof SQLException sqlException
+                    ? sqlException
+                    : new SQLException(cause.getMessage(), cause);
+        });
+    }
+
     @Override
-    public void updatePost(Post post, List<String> tagNames) throws SQLException {
-        String updatePostSql =
-                "UPDATE posts SET title=?, body=?, updated_at=CURRENT_TIMESTAMP " +
-                        "WHERE id=? AND author_id=?";
+    public boolean updatePost(Post post, List<String> tagNames) throws SQLException {
+        String updatePostSql = """
+                UPDATE posts SET title=?, body=?, updated_at=CURRENT_TIMESTAMP, version=version + 1
+                WHERE id=? AND author_id=? AND version=?
+                RETURNING version
+                """;
 
         try (Connection conn = getConnection()) {
             conn.setAutoCommit(false);
@@ -258,9 +521,15 @@ public class PostDAO implements PostRepository {
                 stmt.setString(2, post.getBody());
                 stmt.setInt(3, post.getId());
                 stmt.setObject(4, post.getAuthorId());
+                stmt.setLong(5, post.getVersion());
 
-                if (stmt.executeUpdate() == 0) {
-                    throw new ForbiddenException("You are not permitted to update this post");
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        conn.rollback();
+                        checkUpdatable(conn, post);
+                        return false;
+                    }
+                    post.setVersion(rs.getLong("version"));
                 }
             }
 
@@ -271,22 +540,143 @@ public class PostDAO implements PostRepository {
             }
 
             savePostTags(post, conn, tagNames);
+            invalidationNotifier.publish(conn, CacheEntity.POST, post.getId());
+            changeLog.record(conn, post.getId(), PostChangeType.UPDATED);
             conn.commit();
+            return true;
+        }
+    }
 
+    /**
+     * Explains a compare-and-set update that matched no row: throws when the post is gone or
+     * owned by someone else, and returns normally when only the version moved on.
+     */
+    private void checkUpdatable(Connection conn, Post post) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT author_id FROM posts WHERE id = ?")) {
+            stmt.setInt(1, post.getId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new ResourceNotFoundException("Post with ID: " + post.getId() + " not found.");
+                }
+                if (!post.getAuthorId().equals(rs.getObject("author_id"))) {
+                    throw new ForbiddenException("You are not permitted to update this post");
+                }
+            }
         }
     }
 
     @Override
     public void deletePost(int postId, UUID signedInUserId) throws SQLException {
         String query = "DELETE FROM posts WHERE id = ? AND author_id = ?";
+        boolean deleted;
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setInt(1, postId);
+                stmt.setObject(2, signedInUserId);
+                deleted = stmt.executeUpdate() > 0;
+            }
+            if (deleted) {
+                invalidationNotifier.publish(conn, CacheEntity.POST, postId);
+                changeLog.record(conn, postId, PostChangeType.DELETED);
+            }
+            conn.commit();
+        }
+
+        if (deleted) {
+            commentRepository.purgeCommentsByPostId(postId);
+        }
+    }
+
+    @Override
+    public List<PostChangeEntry> getPostChangesSince(long seq, int limit) throws SQLException {
+        String query = """
+                SELECT post_id, created_seq, seq, deleted
+                FROM post_changes
+                WHERE seq > ?
+                ORDER BY seq
+                LIMIT ?
+                """;
+
         try (Connection conn = getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
 
-            stmt.setInt(1, postId);
-            stmt.setObject(2, signedInUserId);
+            stmt.setLong(1, seq);
+            stmt.setInt(2, limit);
+            List<PostChangeEntry> changes = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    changes.add(new PostChangeEntry(
+                            rs.getInt("post_id"),
+                            rs.getLong("created_seq"),
+                            rs.getLong("seq"),
+                            rs.getBoolean("deleted")));
+                }
+            }
+            return changes;
+        }
+    }
 
-            stmt.executeUpdate();
+    @Override
+    public List<PostResponseDTO> getPostResponsesByIds(Collection<Integer> postIds) throws SQLException {
+        if (postIds.isEmpty()) {
+            return List.of();
         }
+
+        String query = """
+                SELECT
+                    p.id,
+                    p.title,
+                    p.body,
+                    p.updated_at,
+                    u.username AS author,
+                    COALESCE(ARRAY_AGG (t.name ORDER BY t.name)
+                             FILTER (WHERE t.name IS NOT NULL), '{}') AS tags
+                FROM posts p
+                         JOIN users u ON u.id = p.author_id
+                         LEFT JOIN post_tags pt ON pt.post_id = p.id
+                         LEFT JOIN tags t ON t.id = pt.tag_id
+                WHERE p.id = ANY(?)
+                GROUP BY
+                    p.id, p.title,p.body, p.updated_at, u.username
+                """;
+
+        List<PostResponseDTO> posts = new ArrayList<>();
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setArray(1, conn.createArrayOf("integer", postIds.toArray()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    posts.add(postUtils.mapRowToPostResponse(rs, 0L));
+                }
+            }
+        }
+
+        applyCommentTotals(posts);
+        return posts;
+    }
+
+    @Override
+    public Set<Integer> findExistingPostIds(Collection<Integer> postIds) throws SQLException {
+        Set<Integer> existing = new HashSet<>();
+        if (postIds.isEmpty()) {
+            return existing;
+        }
+
+        String query = "SELECT id FROM posts WHERE id = ANY(?)";
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setArray(1, conn.createArrayOf("integer", postIds.toArray()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getInt("id"));
+                }
+            }
+        }
+        return existing;
     }
 
     @Override
@@ -314,6 +704,66 @@ public class PostDAO implements PostRepository {
         }
     }
 
+    /**
+     * Fills in comment totals. Returns false, leaving the posts flagged, when the comment
+     * store is unavailable so that listings still return their posts.
+     */
+    private boolean applyCommentTotals(List<PostResponseDTO> posts) {
+        if (posts.isEmpty()) {
+            return true;
+        }
+        Map<Integer, Long> totals;
+        try {
+            totals = commentRepository.getTotalCommentsByPostIds(
+                    posts.stream().map(PostResponseDTO::getId).toList());
+        } catch (ServiceUnavailableException e) {
+            log.warn("Listing posts without comment counts: {}", e.getMessage());
+            posts.forEach(post -> post.setCommentCountUnavailable(true));
+            return false;
+        }
+        posts.forEach(post -> post.setTotalComments(totals.getOrDefault(post.getId(), 0L)));
+        return true;
+    }
+
+    private boolean applyCommentTotals(List<PostViewDTO> posts, PostFieldSelection selection) {
+        if (!selection.totalComments() || posts.isEmpty()) {
+            return true;
+        }
+        Map<Integer, Long> totals;
+        try {
+            totals = commentRepository.getTotalCommentsByPostIds(
+                    posts.stream().map(PostViewDTO::getId).toList());
+        } catch (ServiceUnavailableException e) {
+            log.warn("Listing posts without comment counts: {}", e.getMessage());
+            posts.forEach(post -> post.setCommentCountUnavailable(true));
+            return false;
+        }
+        posts.forEach(post -> post.setTotalComments(totals.getOrDefault(post.getId(), 0L)));
+        return true;
+    }
+
+    private PostViewDTO mapRowToPostView(ResultSet rs, PostFieldSelection selection) throws SQLException {
+        if (!selection.totalComments()) {
+            return postUtils.mapRowToPostView(rs, selection, null);
+        }
+        Long totalComments = countCommentsIfAvailable(rs.getInt("id"));
+        PostViewDTO view = postUtils.mapRowToPostView(rs, selection, totalComments);
+        view.setCommentCountUnavailable(totalComments == null);
+        return view;
+    }
+
+    /**
+     * Returns null instead of failing when the comment store is unavailable.
+     */
+    private Long countCommentsIfAvailable(int postId) {
+        try {
+            return commentRepository.getTotalCommentsByPostId(postId);
+        } catch (ServiceUnavailableException e) {
+            log.warn("Returning post {} without its comment count: {}", postId, e.getMessage());
+            return null;
+        }
+    }
+
     private ResultSet executeInsert(PreparedStatement stmt, CreatePostDTO dto) throws SQLException {
         stmt.setString(1, dto.getTitle());
         stmt.setString(2, dto.getBody());
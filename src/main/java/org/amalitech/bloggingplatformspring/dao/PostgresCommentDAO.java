@@ -0,0 +1,447 @@
+package org.amalitech.bloggingplatformspring.dao;
+
+import org.amalitech.bloggingplatformspring.config.ConnectionProvider;
+import org.amalitech.bloggingplatformspring.dao.helpers.CommentCursor;
+import org.amalitech.bloggingplatformspring.dtos.requests.CommentPageRequest;
+import org.amalitech.bloggingplatformspring.dtos.responses.CursorPage;
+import org.amalitech.bloggingplatformspring.entity.Comment;
+import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+import org.amalitech.bloggingplatformspring.entity.CommentSetVersion;
+import org.amalitech.bloggingplatformspring.enums.SortDirection;
+import org.amalitech.bloggingplatformspring.exceptions.BadRequestException;
+import org.amalitech.bloggingplatformspring.exceptions.ForbiddenException;
+import org.amalitech.bloggingplatformspring.exceptions.ResourceNotFoundException;
+import org.amalitech.bloggingplatformspring.exceptions.SQLQueryException;
+import org.amalitech.bloggingplatformspring.repository.CommentRepository;
+import org.amalitech.bloggingplatformspring.utils.CommentUtils;
+import org.amalitech.bloggingplatformspring.utils.Constants;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.sql.*;
+import java.util.Date;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Comment store on the hash-partitioned Postgres {@code comments} table, enabled with
+ * {@code app.comments.store=postgres}. Comments are removed with their post through
+ * the foreign key, and counts are computed from the (post_id, commented_at, id) index.
+ * Replies keep their ancestor ids in a GIN-indexed array so a subtree is one query.
+ */
+@Repository
+@Qualifier("commentStore")
+@ConditionalOnProperty(name = "app.comments.store", havingValue = "postgres")
+public class PostgresCommentDAO implements CommentRepository {
+
+    private static final String COMMENT_COLUMNS = """
+            c.id AS comment_id,
+            c.post_id AS comment_post_id,
+            u.username AS comment_author,
+            c.content AS comment_content,
+            c.commented_at AS comment_commented_at,
+            c.parent_id AS comment_parent_id,
+            c.depth AS comment_depth,
+            c.reply_count AS comment_reply_count,
+            c.deleted AS comment_deleted""";
+
+    private final ConnectionProvider connectionProvider;
+    private final CommentUtils commentUtils;
+
+    public PostgresCommentDAO(ConnectionProvider connectionProvider) {
+        this.connectionProvider = connectionProvider;
+        this.commentUtils = new CommentUtils();
+    }
+
+    private Connection getConnection() throws SQLException {
+        return connectionProvider.getConnection();
+    }
+
+    @Override
+    public CommentDocument createComment(Comment comment, String author) {
+        String insertQuery = """
+                INSERT INTO comments (post_id, author_id, content, parent_id, ancestors, depth)
+                VALUES (?, ?, ?, ?, ?, ?)
+                RETURNING id, commented_at
+                """;
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Long parentId = null;
+                Long[] ancestors = new Long[0];
+                int depth = 0;
+                if (comment.getParentId() != null) {
+                    parentId = parseId(comment.getParentId(), "Invalid parent comment ID");
+                    try (PreparedStatement stmt = conn.prepareStatement(
+                            "SELECT post_id, ancestors, depth FROM comments WHERE id = ? FOR UPDATE")) {
+                        stmt.setLong(1, parentId);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            if (!rs.next()) {
+                                throw new ResourceNotFoundException("Parent comment not found with id: " + parentId);
+                            }
+                            if (rs.getInt("post_id") != comment.getPostId()) {
+                                throw new BadRequestException("A reply must belong to the same post as its parent comment");
+                            }
+                            int parentDepth = rs.getInt("depth");
+                            if (parentDepth >= Constants.MaxCommentDepth) {
+                                throw new BadRequestException("Maximum reply depth of " + Constants.MaxCommentDepth + " reached");
+                            }
+                            Long[] parentAncestors = (Long[]) rs.getArray("ancestors").getArray();
+                            ancestors = Arrays.copyOf(parentAncestors, parentAncestors.length + 1);
+                            ancestors[parentAncestors.length] = parentId;
+                            depth = parentDepth + 1;
+                        }
+                    }
+                }
+
+                CommentDocument document;
+                try (PreparedStatement stmt = conn.prepareStatement(insertQuery)) {
+                    stmt.setInt(1, comment.getPostId());
+                    stmt.setObject(2, UUID.fromString(comment.getAuthorId()));
+                    stmt.setString(3, comment.getContent());
+                    stmt.setObject(4, parentId);
+                    stmt.setArray(5, conn.createArrayOf("bigint", ancestors));
+                    stmt.setInt(6, depth);
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        rs.next();
+                        Timestamp commentedAt = rs.getTimestamp("commented_at");
+                        document = new CommentDocument(
+                                String.valueOf(rs.getLong("id")),
+                                comment.getPostId(),
+                                author,
+                                comment.getContent(),
+                                commentUtils.formatCommentedAt(commentedAt));
+                        document.setAuthorId(comment.getAuthorId());
+                        document.setCommentedAt(new Date(commentedAt.getTime()));
+                        document.setParentId(parentId == null ? null : String.valueOf(parentId));
+                        document.setDepth(depth);
+                    }
+                }
+
+                if (parentId != null) {
+                    adjustReplyCount(conn, comment.getPostId(), parentId, 1);
+                }
+                conn.commit();
+                return document;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new SQLQueryException("Failed to create comment: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public CompletableFuture<CommentDocument> submitComment(Comment comment, String author) {
+        return CompletableFuture.completedFuture(createComment(comment, author));
+    }
+
+    @Override
+    public CursorPage<CommentDocument> getCommentsByPostId(int postId, CommentPageRequest pageRequest) {
+        return findPage("c.post_id = ? AND c.parent_id IS NULL", List.of(postId), pageRequest);
+    }
+
+    @Override
+    public CursorPage<CommentDocument> getReplies(String commentId, CommentPageRequest pageRequest) {
+        long parentId = parseId(commentId, "Invalid comment ID");
+        int postId;
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT post_id FROM comments WHERE id = ?")) {
+
+            stmt.setLong(1, parentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new ResourceNotFoundException("Comment not found with id: " + commentId);
+                }
+                postId = rs.getInt("post_id");
+            }
+        } catch (SQLException e) {
+            throw new SQLQueryException("Failed to find comment: " + e.getMessage());
+        }
+
+        return findPage("c.post_id = ? AND c.parent_id = ?", List.of(postId, parentId), pageRequest);
+    }
+
+    @Override
+    public List<CommentDocument> getCommentSubtree(String commentId, int maxDepth) {
+        Optional<CommentDocument> root = getCommentById(commentId);
+        if (root.isEmpty()) {
+            return List.of();
+        }
+
+        String query = """
+                SELECT
+                    %s
+                FROM comments c
+                JOIN users u ON u.id = c.author_id
+                WHERE c.post_id = ? AND c.ancestors @> ARRAY[?]::bigint[] AND c.depth <= ?
+                ORDER BY c.depth, c.commented_at, c.id
+                LIMIT ?
+                """.formatted(COMMENT_COLUMNS);
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setInt(1, root.get().getPostId());
+            stmt.setLong(2, Long.parseLong(root.get().getId()));
+            stmt.setInt(3, root.get().getDepth() + maxDepth);
+            stmt.setInt(4, Constants.MaxThreadComments);
+
+            List<CommentDocument> subtree = new ArrayList<>();
+            subtree.add(root.get());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    subtree.add(commentUtils.mapRowToComment(rs));
+                }
+            }
+            return subtree;
+        } catch (SQLException e) {
+            throw new SQLQueryException("Failed to find replies: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Optional<CommentDocument> getCommentById(String commentId) {
+        String query = """
+                SELECT
+                    %s
+                FROM comments c
+                JOIN users u ON u.id = c.author_id
+                WHERE c.id = ?
+                """.formatted(COMMENT_COLUMNS);
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setLong(1, parseId(commentId, "Invalid comment ID"));
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? Optional.ofNullable(commentUtils.mapRowToComment(rs)) : Optional.empty();
+            }
+        } catch (SQLException e) {
+            throw new SQLQueryException("Failed to find comment: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public int deleteComment(String commentId, String authorId) {
+        long id = parseId(commentId, "Invalid comment ID");
+
+        // The row becomes a tombstone rather than being removed, so replies by other authors
+        // keep their place in the thread and the parent's reply_count stays right.
+        String query = """
+                UPDATE comments SET deleted = TRUE, content = ''
+                WHERE id = ? AND author_id = ? AND NOT deleted
+                RETURNING post_id
+                """;
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setLong(1, id);
+            stmt.setObject(2, UUID.fromString(authorId));
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new ForbiddenException("You are not allowed to delete this comment.");
+                }
+                return rs.getInt("post_id");
+            }
+        } catch (SQLException e) {
+            throw new SQLQueryException("Failed to delete comment: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public long getTotalCommentsByPostId(int postId) {
+        return getTotalCommentsByPostIds(List.of(postId)).getOrDefault(postId, 0L);
+    }
+
+    @Override
+    public Map<Integer, Long> getTotalCommentsByPostIds(Collection<Integer> postIds) {
+        if (postIds.isEmpty()) {
+            return Map.of();
+        }
+
+        String query = """
+                SELECT post_id, COUNT(*) AS total
+                FROM comments
+                WHERE post_id = ANY(?) AND NOT deleted
+                GROUP BY post_id
+                """;
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setArray(1, conn.createArrayOf("integer", postIds.toArray()));
+            Map<Integer, Long> totals = new HashMap<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.put(rs.getInt("post_id"), rs.getLong("total"));
+                }
+            }
+            return totals;
+        } catch (SQLException e) {
+            throw new SQLQueryException("Failed to count comments: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public CommentSetVersion getCommentSetVersion(int postId) {
+        String query = """
+                SELECT COUNT(*) FILTER (WHERE NOT deleted) AS total, COALESCE(MAX(id), 0) AS max_id
+                FROM comments
+                WHERE post_id = ?
+                """;
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setInt(1, postId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                // Ids only grow and deletes leave a tombstone, so any insert or delete changes
+                // the live count or the max id.
+                // Deletions leave no timestamp behind, so no last-modified time is reported.
+                return new CommentSetVersion(rs.getLong("total") + "." + rs.getLong("max_id"), null);
+            }
+        } catch (SQLException e) {
+            throw new SQLQueryException("Failed to read comment version: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Post totals are counted from the table on read, so the only stored counter is
+     * {@code reply_count}. It is recomputed for every comment while the table lock holds
+     * off concurrent inserts and deletes. Returns the number of posts with comments.
+     */
+    @Override
+    public long rebuildCommentCounters() {
+        String recountQuery = """
+                UPDATE comments c
+                SET reply_count = counted.replies
+                FROM (SELECT p.post_id, p.id, COUNT(r.id) AS replies
+                      FROM comments p
+                      LEFT JOIN comments r ON r.post_id = p.post_id AND r.parent_id = p.id
+                      GROUP BY p.post_id, p.id) counted
+                WHERE c.post_id = counted.post_id
+                  AND c.id = counted.id
+                  AND c.reply_count <> counted.replies
+                """;
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("LOCK TABLE comments IN SHARE ROW EXCLUSIVE MODE");
+                stmt.executeUpdate(recountQuery);
+                long posts;
+                try (ResultSet rs = stmt.executeQuery("SELECT COUNT(DISTINCT post_id) AS posts FROM comments")) {
+                    rs.next();
+                    posts = rs.getLong("posts");
+                }
+                conn.commit();
+                return posts;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new SQLQueryException("Failed to rebuild comment counters: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void purgeCommentsByPostId(int postId) {
+        // Handled by ON DELETE CASCADE on comments.post_id.
+    }
+
+    @Override
+    public List<Integer> getCommentedPostIds() {
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT DISTINCT post_id FROM comments");
+             ResultSet rs = stmt.executeQuery()) {
+
+            List<Integer> postIds = new ArrayList<>();
+            while (rs.next()) {
+                postIds.add(rs.getInt("post_id"));
+            }
+            return postIds;
+        } catch (SQLException e) {
+            throw new SQLQueryException("Failed to list commented posts: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean sharesPostStore() {
+        return true;
+    }
+
+    private CursorPage<CommentDocument> findPage(String filter, List<Object> params, CommentPageRequest pageRequest) {
+        boolean ascending = pageRequest.direction() == SortDirection.ASC;
+        String direction = ascending ? "ASC" : "DESC";
+        CommentCursor cursor = pageRequest.cursor() == null || pageRequest.cursor().isBlank()
+                ? null
+                : CommentCursor.decode(pageRequest.cursor());
+        String keyset = cursor == null
+                ? ""
+                : "AND (c.commented_at, c.id) %s (?, ?)".formatted(ascending ? ">" : "<");
+
+        String query = """
+                SELECT
+                    %s
+                FROM comments c
+                JOIN users u ON u.id = c.author_id
+                WHERE %s
+                %s
+                ORDER BY c.commented_at %s, c.id %s
+                LIMIT ?
+                """.formatted(COMMENT_COLUMNS, filter, keyset, direction, direction);
+
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            int paramIndex = 1;
+            for (Object param : params) {
+                stmt.setObject(paramIndex++, param);
+            }
+            if (cursor != null) {
+                stmt.setTimestamp(paramIndex++, new Timestamp(cursor.commentedAt().getTime()));
+                stmt.setLong(paramIndex++, parseId(cursor.id(), "Invalid comment cursor"));
+            }
+            stmt.setInt(paramIndex, pageRequest.size() + 1);
+
+            List<CommentDocument> comments = new ArrayList<>(pageRequest.size() + 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    comments.add(commentUtils.mapRowToComment(rs));
+                }
+            }
+
+            return CursorPage.fromLookahead(comments, pageRequest.size(),
+                    last -> new CommentCursor(last.getCommentedAt(), last.getId()).encode());
+
+        } catch (SQLException e) {
+            throw new SQLQueryException("Failed to find comments: " + e.getMessage());
+        }
+    }
+
+    private void adjustReplyCount(Connection conn, int postId, long commentId, int delta) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE comments SET reply_count = reply_count + ? WHERE post_id = ? AND id = ?")) {
+            stmt.setInt(1, delta);
+            stmt.setInt(2, postId);
+            stmt.setLong(3, commentId);
+            stmt.executeUpdate();
+        }
+    }
+
+    private long parseId(String id, String message) {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException(message);
+        }
+    }
+}
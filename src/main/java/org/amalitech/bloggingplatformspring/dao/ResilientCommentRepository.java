@@ -0,0 +1,166 @@
+package org.amalitech.bloggingplatformspring.dao;
+
+import jakarta.annotation.PreDestroy;
+import org.amalitech.bloggingplatformspring.config.CommentStoreResilienceConfig;
+import org.amalitech.bloggingplatformspring.dtos.requests.CommentPageRequest;
+import org.amalitech.bloggingplatformspring.dtos.responses.CursorPage;
+import org.amalitech.bloggingplatformspring.entity.Comment;
+import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+import org.amalitech.bloggingplatformspring.entity.CommentSetVersion;
+import org.amalitech.bloggingplatformspring.exceptions.*;
+import org.amalitech.bloggingplatformspring.repository.CommentRepository;
+import org.amalitech.bloggingplatformspring.resilience.Bulkhead;
+import org.amalitech.bloggingplatformspring.resilience.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Wraps the configured comment store in a bulkhead and a circuit breaker, so a slow or
+ * failing comment store cannot tie up request threads serving post data. Calls fail fast
+ * with {@link ServiceUnavailableException} while the breaker is open. Long-running
+ * maintenance calls bypass both.
+ * <p>
+ * Only reads are time-boxed. A write abandoned at the deadline may still commit after the
+ * client was told it failed, so a retry would duplicate it; writes hold a bulkhead permit
+ * but always run to completion.
+ */
+@Primary
+@Repository
+public class ResilientCommentRepository implements CommentRepository {
+
+    private final CommentRepository store;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    public ResilientCommentRepository(@Qualifier("commentStore") CommentRepository store,
+                                      CommentStoreResilienceConfig config) {
+        this.store = store;
+        this.bulkhead = new Bulkhead("Comment store", config.getMaxConcurrent(), config.getTimeoutMs());
+        this.circuitBreaker = new CircuitBreaker("commentStore", config.getFailureThreshold(), config.getOpenMs());
+    }
+
+    @Override
+    public CommentDocument createComment(Comment comment, String author) {
+        return guardedWrite(() -> store.createComment(comment, author));
+    }
+
+    @Override
+    public CompletableFuture<CommentDocument> submitComment(Comment comment, String author) {
+        return guardedWrite(() -> store.submitComment(comment, author));
+    }
+
+    @Override
+    public CursorPage<CommentDocument> getCommentsByPostId(int postId, CommentPageRequest pageRequest) {
+        return guarded(() -> store.getCommentsByPostId(postId, pageRequest));
+    }
+
+    @Override
+    public CursorPage<CommentDocument> getReplies(String commentId, CommentPageRequest pageRequest) {
+        return guarded(() -> store.getReplies(commentId, pageRequest));
+    }
+
+    @Override
+    public List<CommentDocument> getCommentSubtree(String commentId, int maxDepth) {
+        return guarded(() -> store.getCommentSubtree(commentId, maxDepth));
+    }
+
+    @Override
+    public Optional<CommentDocument> getCommentById(String commentId) {
+        return guarded(() -> store.getCommentById(commentId));
+    }
+
+    @Override
+    public int deleteComment(String commentId, String authorId) {
+        return guardedWrite(() -> store.deleteComment(commentId, authorId));
+    }
+
+    @Override
+    public long getTotalCommentsByPostId(int postId) {
+        return guarded(() -> store.getTotalCommentsByPostId(postId));
+    }
+
+    @Override
+    public Map<Integer, Long> getTotalCommentsByPostIds(Collection<Integer> postIds) {
+        return guarded(() -> store.getTotalCommentsByPostIds(postIds));
+    }
+
+    @Override
+    public CommentSetVersion getCommentSetVersion(int postId) {
+        return guarded(() -> store.getCommentSetVersion(postId));
+    }
+
+    @Override
+    public long rebuildCommentCounters() {
+        return store.rebuildCommentCounters();
+    }
+
+    @Override
+    public void purgeCommentsByPostId(int postId) {
+        store.purgeCommentsByPostId(postId);
+    }
+
+    @Override
+    public List<Integer> getCommentedPostIds() {
+        return store.getCommentedPostIds();
+    }
+
+    @Override
+    public boolean sharesPostStore() {
+        return store.sharesPostStore();
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    public Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("circuit", circuitBreaker.getState());
+        report.put("consecutiveFailures", circuitBreaker.getConsecutiveFailures());
+        report.put("inFlight", bulkhead.getInUse());
+        report.put("maxConcurrent", bulkhead.getMaxConcurrent());
+        return report;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bulkhead.close();
+    }
+
+    private <T> T guarded(Callable<T> call) {
+        return withBreaker(() -> bulkhead.call(call));
+    }
+
+    private <T> T guardedWrite(Callable<T> call) {
+        return withBreaker(() -> bulkhead.callWithoutTimeout(call));
+    }
+
+    private <T> T withBreaker(Supplier<T> call) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            throw new ServiceUnavailableException("Comment store is temporarily unavailable");
+        }
+        try {
+            T result = call.get();
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (ResourceNotFoundException | BadRequestException | ForbiddenException
+                 | InvalidUserIdFormatException | IllegalArgumentException e) {
+            // The request itself was invalid, e.g. a malformed id; the store is not at fault.
+            circuitBreaker.onSuccess();
+            throw e;
+        } catch (BackpressureException e) {
+            // Turned away locally before reaching the store.
+            circuitBreaker.onIgnored();
+            throw e;
+        } catch (RuntimeException | Error e) {
+            circuitBreaker.onFailure();
+            throw e;
+        }
+    }
+}
@@ -12,6 +12,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -36,32 +38,41 @@ public class UserDAO implements UserRepository {
         String checkQuery = "SELECT COUNT(*) FROM users WHERE username = ? OR email = ?";
         try (Connection conn = getConnection();
              PreparedStatement checkStmt = conn.prepareStatement(checkQuery)) {
+            conn.setAutoCommit(false);
 
-            checkStmt.setString(1, username);
-            checkStmt.setString(2, email);
+            try {
+                checkStmt.setString(1, username);
+                checkStmt.setString(2, email);
 
-            try (ResultSet rs = checkStmt.executeQuery()) {
-                if (rs.next() && rs.getInt(1) > 0) {
-                    throw new BadRequestException("User with this username or email already exists");
+                try (ResultSet rs = checkStmt.executeQuery()) {
+                    if (rs.next() && rs.getInt(1) > 0) {
+                        throw new BadRequestException("User with this username or email already exists");
+                    }
                 }
-            }
 
-            String insertQuery = """
-                        INSERT INTO users (id, username, email, password)
-                        VALUES (?, ?, ?, ?)
-                        RETURNING id, username, email, password, created_at
-                    """;
-            try (PreparedStatement stmt = conn.prepareStatement(insertQuery)) {
-                stmt.setObject(1, UUID.randomUUID());
-                stmt.setString(2, username);
-                stmt.setString(3, email);
-                stmt.setString(4, password);
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return userUtils.mapRowToUser(rs);
+                String insertQuery = """
+                            INSERT INTO users (id, username, email, password)
+                            VALUES (?, ?, ?, ?)
+                            RETURNING id, username, email, password, created_at
+                        """;
+                try (PreparedStatement stmt = conn.prepareStatement(insertQuery)) {
+                    stmt.setObject(1, UUID.randomUUID());
+                    stmt.setString(2, username);
+                    stmt.setString(3, email);
+                    stmt.setString(4, password);
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) {
+                            User user = userUtils.mapRowToUser(rs);
+                            conn.commit();
+                            return user;
+                        }
                     }
                 }
+                conn.rollback();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
             }
         }
         throw new SQLException("Failed to register user");
@@ -138,6 +149,28 @@ public class UserDAO implements UserRepository {
         return Optional.empty();
     }
 
+    @Override
+    public List<User> findUsers(Collection<UUID> ids, Collection<String> usernames) throws SQLException {
+        if (ids.isEmpty() && usernames.isEmpty()) {
+            return List.of();
+        }
+
+        String query = "SELECT * FROM users WHERE id = ANY(?) OR username = ANY(?)";
+        List<User> users = new ArrayList<>();
+        try (Connection conn = getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setArray(1, conn.createArrayOf("uuid", ids.toArray()));
+            stmt.setArray(2, conn.createArrayOf("varchar", usernames.toArray()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    users.add(userUtils.mapRowToUser(rs));
+                }
+            }
+        }
+        return users;
+    }
+
     private Boolean userExistsByField(String fieldName, String value) throws SQLException {
         if (!List.of("username", "email").contains(fieldName)) {
             throw new IllegalArgumentException("Invalid field name: " + fieldName);
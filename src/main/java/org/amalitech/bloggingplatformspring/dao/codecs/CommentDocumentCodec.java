@@ -0,0 +1,144 @@
+package org.amalitech.bloggingplatformspring.dao.codecs;
+
+import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+import org.amalitech.bloggingplatformspring.utils.CommentUtils;
+import org.bson.*;
+import org.bson.codecs.CollectibleCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Maps the comments collection straight to and from {@link CommentDocument},
+ * without going through an intermediate {@link org.bson.Document}.
+ */
+public class CommentDocumentCodec implements CollectibleCodec<CommentDocument> {
+
+    private final CommentUtils commentUtils = new CommentUtils();
+
+    @Override
+    public void encode(BsonWriter writer, CommentDocument comment, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        if (comment.getId() != null) {
+            writer.writeObjectId("_id", new ObjectId(comment.getId()));
+        }
+        writer.writeString("content", comment.getContent());
+        writer.writeInt32("postId", comment.getPostId());
+        writeNullableString(writer, "authorId", comment.getAuthorId());
+        writeNullableString(writer, "author", comment.getAuthor());
+        if (comment.getCommentedAt() != null) {
+            writer.writeDateTime("commentedAt", comment.getCommentedAt().getTime());
+        }
+        if (comment.getParentId() != null) {
+            writer.writeObjectId("parentId", new ObjectId(comment.getParentId()));
+        } else {
+            writer.writeNull("parentId");
+        }
+        writer.writeStartArray("ancestors");
+        if (comment.getAncestors() != null) {
+            comment.getAncestors().forEach(ancestor -> writer.writeObjectId(new ObjectId(ancestor)));
+        }
+        writer.writeEndArray();
+        writer.writeInt32("depth", comment.getDepth());
+        writer.writeInt64("replyCount", comment.getReplyCount());
+        if (comment.isDeleted()) {
+            writer.writeBoolean("deleted", true);
+        }
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public CommentDocument decode(BsonReader reader, DecoderContext decoderContext) {
+        CommentDocument comment = new CommentDocument();
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String name = reader.readName();
+            if (reader.getCurrentBsonType() == BsonType.NULL) {
+                reader.readNull();
+                continue;
+            }
+            switch (name) {
+                case "_id" -> comment.setId(reader.readObjectId().toHexString());
+                case "content" -> comment.setContent(reader.readString());
+                case "postId" -> comment.setPostId(reader.readInt32());
+                case "authorId" -> comment.setAuthorId(reader.readString());
+                case "author" -> comment.setAuthor(reader.readString());
+                case "commentedAt" -> {
+                    Date commentedAt = new Date(reader.readDateTime());
+                    comment.setCommentedAt(commentedAt);
+                    comment.setCreatedAt(commentUtils.formatCommentedAt(commentedAt));
+                }
+                case "parentId" -> comment.setParentId(reader.readObjectId().toHexString());
+                case "ancestors" -> comment.setAncestors(readObjectIdArray(reader));
+                case "depth" -> comment.setDepth(reader.readInt32());
+                case "replyCount" -> comment.setReplyCount(readLong(reader));
+                case "deleted" -> comment.setDeleted(reader.readBoolean());
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        return comment;
+    }
+
+    @Override
+    public Class<CommentDocument> getEncoderClass() {
+        return CommentDocument.class;
+    }
+
+    @Override
+    public CommentDocument generateIdIfAbsentFromDocument(CommentDocument comment) {
+        if (!documentHasId(comment)) {
+            comment.setId(new ObjectId().toHexString());
+        }
+        return comment;
+    }
+
+    @Override
+    public boolean documentHasId(CommentDocument comment) {
+        return comment.getId() != null;
+    }
+
+    @Override
+    public BsonValue getDocumentId(CommentDocument comment) {
+        if (!documentHasId(comment)) {
+            throw new IllegalStateException("The comment does not contain an _id");
+        }
+        return new BsonObjectId(new ObjectId(comment.getId()));
+    }
+
+    private List<String> readObjectIdArray(BsonReader reader) {
+        List<String> ids = new ArrayList<>();
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            ids.add(reader.readObjectId().toHexString());
+        }
+        reader.readEndArray();
+        return ids;
+    }
+
+    private long readLong(BsonReader reader) {
+        return switch (reader.getCurrentBsonType()) {
+            case INT32 -> reader.readInt32();
+            case INT64 -> reader.readInt64();
+            case DOUBLE -> (long) reader.readDouble();
+            default -> {
+                reader.skipValue();
+                yield 0L;
+            }
+        };
+    }
+
+    private void writeNullableString(BsonWriter writer, String name, String value) {
+        if (value == null) {
+            writer.writeNull(name);
+        } else {
+            writer.writeString(name, value);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.amalitech.bloggingplatformspring.dao.helpers;
+
+import org.amalitech.bloggingplatformspring.cache.CacheEntity;
+import org.amalitech.bloggingplatformspring.cache.CacheInvalidation;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Queues a cache invalidation on the caller's connection. {@code pg_notify} is
+ * transactional, so other nodes only hear about the change once it commits, and never
+ * hear about a rolled-back one.
+ */
+public class CacheInvalidationNotifier {
+
+    public void publish(Connection conn, CacheEntity entity, Object id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT pg_notify(?, ?)")) {
+            stmt.setString(1, CacheInvalidation.CHANNEL);
+            stmt.setString(2, CacheInvalidation.local(entity, id).toPayload());
+            stmt.execute();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.amalitech.bloggingplatformspring.dao.helpers;
+
+import org.amalitech.bloggingplatformspring.exceptions.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Opaque keyset cursor over (commentedAt, id). Encoded as URL-safe base64 so it
+ * can be passed back verbatim as a query parameter.
+ */
+public record CommentCursor(
+        Date commentedAt,
+        String id
+) {
+
+    public String encode() {
+        String raw = commentedAt.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CommentCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new BadRequestException("Invalid comment cursor");
+            }
+            long millis = Long.parseLong(raw.substring(0, separator));
+            return new CommentCursor(new Date(millis), raw.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid comment cursor");
+        }
+    }
+}
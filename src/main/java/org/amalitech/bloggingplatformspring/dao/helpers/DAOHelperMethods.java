@@ -1,5 +1,6 @@
 package org.amalitech.bloggingplatformspring.dao.helpers;
 
+import org.amalitech.bloggingplatformspring.dtos.requests.PostFieldSelection;
 import org.amalitech.bloggingplatformspring.dtos.requests.PostFilterRequest;
 import org.amalitech.bloggingplatformspring.enums.PostSortField;
 import org.amalitech.bloggingplatformspring.enums.SortDirection;
@@ -90,4 +91,42 @@ public class DAOHelperMethods {
 
         return column + " " + dir;
     }
+
+    public String buildProjectionColumns(PostFieldSelection selection) {
+        List<String> columns = new ArrayList<>(List.of("p.id", "p.title"));
+
+        if (selection.body()) {
+            columns.add("p.body");
+        }
+        if (selection.author()) {
+            columns.add("p.author_id");
+            columns.add("u.username AS author");
+        }
+        if (selection.createdAt()) {
+            columns.add("p.posted_at");
+        }
+        if (selection.updatedAt()) {
+            columns.add("p.updated_at");
+        }
+        if (selection.tags()) {
+            columns.add("""
+                    ARRAY(
+                        SELECT t.name
+                        FROM post_tags pt
+                        JOIN tags t ON t.id = pt.tag_id
+                        WHERE pt.post_id = p.id
+                        ORDER BY t.name
+                    ) AS tags""");
+        }
+
+        return String.join(",\n", columns);
+    }
+
+    public boolean requiresAuthorJoin(PostFieldSelection selection, PostFilterRequest filterRequest, PostSortField sortField) {
+        boolean filtersByAuthor = filterRequest != null
+                && filterRequest.author() != null
+                && !filterRequest.author().isBlank();
+
+        return selection.author() || filtersByAuthor || sortField == PostSortField.AUTHOR;
+    }
 }
\ No newline at end of file
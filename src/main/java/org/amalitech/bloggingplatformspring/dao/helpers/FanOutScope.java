@@ -0,0 +1,86 @@
+package org.amalitech.bloggingplatformspring.dao.helpers;
+
+import org.slf4j.MDC;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Runs independent lookups concurrently on virtual threads and cancels the remaining
+ * ones as soon as one fails, in the style of {@code StructuredTaskScope.ShutdownOnFailure}
+ * (still a preview API on Java 21). Use in try-with-resources: fork, join, then
+ * {@link #throwIfFailed} before reading results with {@link Future#resultNow()}.
+ * Forked tasks see the forking thread's request attributes and MDC.
+ */
+public final class FanOutScope implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<Future<?>> forked = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    public <T> Future<T> fork(Callable<T> task) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        Future<T> future = executor.submit(() -> {
+            RequestContextHolder.setRequestAttributes(attributes);
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            try {
+                return task.call();
+            } catch (Throwable e) {
+                if (failure.compareAndSet(null, e)) {
+                    cancelAll();
+                }
+                throw e;
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+                MDC.clear();
+            }
+        });
+        forked.add(future);
+        if (failure.get() != null) {
+            future.cancel(true);
+        }
+        return future;
+    }
+
+    /**
+     * Waits until every forked task has completed or been cancelled.
+     */
+    public FanOutScope join() throws InterruptedException {
+        for (Future<?> future : forked) {
+            try {
+                future.get();
+            } catch (ExecutionException | CancellationException ignored) {
+                // The first failure is recorded by the task itself.
+            } catch (InterruptedException e) {
+                cancelAll();
+                throw e;
+            }
+        }
+        return this;
+    }
+
+    public <X extends Throwable> void throwIfFailed(Function<Throwable, ? extends X> exceptionMapper) throws X {
+        Throwable cause = failure.get();
+        if (cause != null) {
+            throw exceptionMapper.apply(cause);
+        }
+    }
+
+    private void cancelAll() {
+        forked.forEach(future -> future.cancel(true));
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+        executor.close();
+    }
+}
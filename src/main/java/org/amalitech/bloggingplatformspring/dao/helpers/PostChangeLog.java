@@ -0,0 +1,41 @@
+package org.amalitech.bloggingplatformspring.dao.helpers;
+
+import org.amalitech.bloggingplatformspring.enums.PostChangeType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Records a post write in {@code post_changes} on the caller's connection, keeping one row
+ * per post with the sequence number of its latest change.
+ * <p>
+ * Sequence numbers are handed out under a transaction-scoped advisory lock, so they commit
+ * in order: a reader that has seen sequence {@code n} can never later find a smaller one
+ * appearing. Call this as the last write before commit to keep the lock short.
+ */
+public class PostChangeLog {
+
+    private static final long LOCK_KEY = 0x706f73745f6368L;
+
+    private static final String RECORD_CHANGE = """
+            INSERT INTO post_changes (post_id, created_seq, seq, deleted)
+            SELECT ?, CASE WHEN ? THEN s.seq ELSE 0 END, s.seq, ?
+            FROM (SELECT nextval('post_change_seq') AS seq) s
+            ON CONFLICT (post_id) DO UPDATE SET seq = EXCLUDED.seq, deleted = EXCLUDED.deleted
+            """;
+
+    public void record(Connection conn, int postId, PostChangeType type) throws SQLException {
+        try (PreparedStatement lock = conn.prepareStatement("SELECT pg_advisory_xact_lock(?)")) {
+            lock.setLong(1, LOCK_KEY);
+            lock.execute();
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(RECORD_CHANGE)) {
+            stmt.setInt(1, postId);
+            stmt.setBoolean(2, type == PostChangeType.CREATED);
+            stmt.setBoolean(3, type == PostChangeType.DELETED);
+            stmt.executeUpdate();
+        }
+    }
+}
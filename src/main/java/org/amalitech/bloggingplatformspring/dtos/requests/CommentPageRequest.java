@@ -0,0 +1,26 @@
+package org.amalitech.bloggingplatformspring.dtos.requests;
+
+import org.amalitech.bloggingplatformspring.enums.SortDirection;
+import org.amalitech.bloggingplatformspring.exceptions.BadRequestException;
+
+public record CommentPageRequest(
+        int size,
+        String cursor,
+        SortDirection direction
+) {
+
+    /**
+     * Parses a comment sort order, newest first when absent. Unknown values are rejected
+     * rather than silently falling back to a default.
+     */
+    public static SortDirection parseOrder(String order) {
+        if (order == null || order.isBlank()) {
+            return SortDirection.DESC;
+        }
+        return switch (order.trim().toUpperCase()) {
+            case "ASC" -> SortDirection.ASC;
+            case "DESC" -> SortDirection.DESC;
+            default -> throw new BadRequestException("Invalid sort order '" + order + "', expected ASC or DESC");
+        };
+    }
+}
@@ -22,4 +22,12 @@ public class CreateCommentDTO {
 
     @NotBlank(message = "Author ID should not be blank")
     private String authorId;
+
+    private String parentId;
+
+    public CreateCommentDTO(Integer postId, String commentContent, String authorId) {
+        this.postId = postId;
+        this.commentContent = commentContent;
+        this.authorId = authorId;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package org.amalitech.bloggingplatformspring.dtos.requests;
+
+/**
+ * Describes which post fields a caller actually needs, so the DAO can skip
+ * columns, joins and secondary fetches for everything else.
+ */
+public record PostFieldSelection(
+        boolean body,
+        boolean author,
+        boolean tags,
+        boolean createdAt,
+        boolean updatedAt,
+        boolean totalComments
+) {
+
+    public static PostFieldSelection all() {
+        return new PostFieldSelection(true, true, true, true, true, true);
+    }
+
+    public static PostFieldSelection idAndTitle() {
+        return new PostFieldSelection(false, false, false, false, false, false);
+    }
+}
@@ -0,0 +1,12 @@
+package org.amalitech.bloggingplatformspring.dtos.responses;
+
+import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+
+import java.util.List;
+
+public record CommentThreadNode(
+        CommentDocument comment,
+        List<CommentThreadNode> replies,
+        boolean hasMoreReplies
+) {
+}
@@ -0,0 +1,23 @@
+package org.amalitech.bloggingplatformspring.dtos.responses;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorPage<T>(
+        List<T> content,
+        int size,
+        String nextCursor,
+        boolean hasMore
+) {
+
+    /**
+     * Builds a page from a query that fetched one row more than {@code size}; the
+     * extra row only signals that another page exists.
+     */
+    public static <T> CursorPage<T> fromLookahead(List<T> rows, int size, Function<T, String> cursorOf) {
+        boolean hasMore = rows.size() > size;
+        List<T> content = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(content.getLast()) : null;
+        return new CursorPage<>(content, size, nextCursor, hasMore);
+    }
+}
@@ -0,0 +1,7 @@
+package org.amalitech.bloggingplatformspring.dtos.responses;
+
+public record OrphanSweepResult(
+        int scannedPosts,
+        int orphanedPosts
+) {
+}
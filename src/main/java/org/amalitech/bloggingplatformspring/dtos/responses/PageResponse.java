@@ -1,12 +1,23 @@
 package org.amalitech.bloggingplatformspring.dtos.responses;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
+/**
+ * @param degraded true when part of the page could not be loaded (for example comment counts
+ *                 while the comment store is unavailable); omitted from JSON when false.
+ */
 public record PageResponse<T>(
         List<T> content,
         int page,
         int size,
         String sort,
-        int totalElements
+        int totalElements,
+        @JsonInclude(JsonInclude.Include.NON_DEFAULT) boolean degraded
 ) {
-}
\ No newline at end of file
+
+    public PageResponse(List<T> content, int page, int size, String sort, int totalElements) {
+        this(content, page, size, sort, totalElements, false);
+    }
+}
@@ -0,0 +1,11 @@
+package org.amalitech.bloggingplatformspring.dtos.responses;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.amalitech.bloggingplatformspring.enums.PostChangeType;
+
+public record PostChange(
+        int postId,
+        PostChangeType type,
+        @JsonInclude(JsonInclude.Include.NON_NULL) PostResponseDTO post
+) {
+}
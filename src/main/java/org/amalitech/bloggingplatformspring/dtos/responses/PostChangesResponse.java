@@ -0,0 +1,14 @@
+package org.amalitech.bloggingplatformspring.dtos.responses;
+
+import java.util.List;
+
+/**
+ * One batch of the post change feed. {@code nextToken} is always set; pass it as
+ * {@code since} on the next poll, immediately when {@code hasMore} is true.
+ */
+public record PostChangesResponse(
+        List<PostChange> changes,
+        String nextToken,
+        boolean hasMore
+) {
+}
@@ -1,5 +1,7 @@
 package org.amalitech.bloggingplatformspring.dtos.responses;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -19,4 +21,16 @@ public class PostResponseDTO {
     private List<String> tags;
     private String lastUpdated;
     private long totalComments;
+
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean commentCountUnavailable;
+
+    // Exposed to REST clients through the ETag header rather than the body.
+    @JsonIgnore
+    private long version;
+
+    public PostResponseDTO(int id, String title, String body, String author, List<String> tags,
+                           String lastUpdated, long totalComments) {
+        this(id, title, body, author, tags, lastUpdated, totalComments, false, 0L);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package org.amalitech.bloggingplatformspring.dtos.responses;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Projected post row. Fields that were not part of the requested
+ * {@link org.amalitech.bloggingplatformspring.dtos.requests.PostFieldSelection} are left null.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostViewDTO {
+    private int id;
+    private String title;
+    private String body;
+    private UUID authorId;
+    private String author;
+    private List<String> tags;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long totalComments;
+
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    private boolean commentCountUnavailable;
+}
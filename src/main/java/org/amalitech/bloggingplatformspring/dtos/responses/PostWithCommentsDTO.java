@@ -0,0 +1,9 @@
+package org.amalitech.bloggingplatformspring.dtos.responses;
+
+import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+
+public record PostWithCommentsDTO(
+        PostResponseDTO post,
+        CursorPage<CommentDocument> comments
+) {
+}
@@ -16,4 +16,12 @@ public class Comment {
     private String authorId;
     private String content;
     private LocalDateTime createdAt;
+    private String parentId;
+
+    public Comment(int postId, String authorId, String content, LocalDateTime createdAt) {
+        this.postId = postId;
+        this.authorId = authorId;
+        this.content = content;
+        this.createdAt = createdAt;
+    }
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package org.amalitech.bloggingplatformspring.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.Date;
+import java.util.List;
+
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,4 +19,26 @@ public class CommentDocument {
     private String author;
     private String content;
     private String createdAt;
-}
\ No newline at end of file
+    private String parentId;
+    private int depth;
+    private long replyCount;
+    /**
+     * Set on a deleted comment that is kept as a placeholder so its replies stay in the
+     * thread; its content and author are cleared.
+     */
+    private boolean deleted;
+    @JsonIgnore
+    private List<String> ancestors;
+    @JsonIgnore
+    private String authorId;
+    @JsonIgnore
+    private Date commentedAt;
+
+    public CommentDocument(String id, int postId, String author, String content, String createdAt) {
+        this.id = id;
+        this.postId = postId;
+        this.author = author;
+        this.content = content;
+        this.createdAt = createdAt;
+    }
+}
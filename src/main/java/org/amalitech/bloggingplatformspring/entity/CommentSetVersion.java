@@ -0,0 +1,11 @@
+package org.amalitech.bloggingplatformspring.entity;
+
+import java.time.Instant;
+
+/**
+ * Cheap fingerprint of the comments on one post: {@code tag} changes whenever a comment is
+ * added or removed. {@code lastModified} is the time of the last change, or {@code null}
+ * when the store does not track it.
+ */
+public record CommentSetVersion(String tag, Instant lastModified) {
+}
@@ -19,4 +19,9 @@ public class Post {
     private UUID authorId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private long version;
+
+    public Post(int id, String title, String body, UUID authorId, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, title, body, authorId, createdAt, updatedAt, 0L);
+    }
 }
\ No newline at end of file
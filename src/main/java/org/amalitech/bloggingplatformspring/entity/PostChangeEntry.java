@@ -0,0 +1,8 @@
+package org.amalitech.bloggingplatformspring.entity;
+
+/**
+ * Latest change recorded for a post. {@code createdSeq} is the sequence number of its
+ * creation, or 0 for posts that existed before changes were tracked.
+ */
+public record PostChangeEntry(int postId, long createdSeq, long seq, boolean deleted) {
+}
@@ -0,0 +1,5 @@
+package org.amalitech.bloggingplatformspring.enums;
+
+public enum EventTopic {
+    COMMENT_ADDED, POST_CREATED, POST_UPDATED
+}
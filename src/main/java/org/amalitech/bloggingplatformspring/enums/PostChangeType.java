@@ -0,0 +1,5 @@
+package org.amalitech.bloggingplatformspring.enums;
+
+public enum PostChangeType {
+    CREATED, UPDATED, DELETED
+}
@@ -0,0 +1,189 @@
+package org.amalitech.bloggingplatformspring.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.bloggingplatformspring.config.CommentStreamConfig;
+import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+import org.amalitech.bloggingplatformspring.exceptions.ServiceUnavailableException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fans comment events out to Server-Sent Event streams, grouped by post.
+ * <p>
+ * An idle stream is just an open async request and a small buffer, so it holds no thread.
+ * Publishing only appends to each subscriber's buffer; a virtual thread is started per
+ * subscriber to drain it and exits once the buffer is empty, so a slow client never delays
+ * the publisher or other subscribers. Events are delivered for comments written on this node.
+ */
+@Slf4j
+@Component
+public class CommentEventBroadcaster {
+
+    private final CommentStreamConfig config;
+    private final ObjectMapper objectMapper;
+    private final Map<Integer, Set<CommentSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private Thread heartbeat;
+
+    public CommentEventBroadcaster(CommentStreamConfig config, ObjectMapper objectMapper) {
+        this.config = config;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void start() {
+        heartbeat = Thread.ofPlatform()
+                .name("comment-stream-heartbeat")
+                .daemon(true)
+                .start(this::runHeartbeatLoop);
+    }
+
+    public SseEmitter subscribe(int postId) {
+        return subscribe(postId, new SseEmitter(config.getTimeoutMs()));
+    }
+
+    SseEmitter subscribe(int postId, SseEmitter emitter) {
+        if (subscriberCount.incrementAndGet() > config.getMaxSubscribers()) {
+            subscriberCount.decrementAndGet();
+            throw new ServiceUnavailableException("Too many live comment streams, please retry shortly");
+        }
+
+        CommentSubscriber subscriber = new CommentSubscriber(postId, emitter, config.getBufferSize());
+        subscribers.compute(postId, (id, group) -> {
+            Set<CommentSubscriber> members = group == null ? ConcurrentHashMap.newKeySet() : group;
+            members.add(subscriber);
+            return members;
+        });
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        return emitter;
+    }
+
+    public void publishCreated(CommentDocument comment) {
+        publish(comment.getPostId(), new StreamEvent("comment-created", comment.getId(), toJson(comment)));
+    }
+
+    /**
+     * Deleting a comment tombstones only that comment and leaves its replies in place, so a
+     * single event covers everything a subscriber has to remove.
+     */
+    public void publishDeleted(int postId, String commentId) {
+        publish(postId, new StreamEvent("comment-deleted", commentId,
+                toJson(Map.of("postId", postId, "commentId", commentId))));
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("subscribers", subscriberCount.get());
+        snapshot.put("posts", subscribers.size());
+        snapshot.put("published", published.sum());
+        snapshot.put("dropped", dropped.sum());
+        return snapshot;
+    }
+
+    /**
+     * Queues a heartbeat comment on every idle stream, so proxies keep the connection open
+     * and clients that went away are detected on the next write.
+     */
+    void sendHeartbeats() {
+        subscribers.values().forEach(group -> group.forEach(subscriber -> {
+            if (subscriber.isIdle()) {
+                enqueue(subscriber, StreamEvent.HEARTBEAT);
+            }
+        }));
+    }
+
+    private void publish(int postId, StreamEvent event) {
+        Set<CommentSubscriber> group = subscribers.get(postId);
+        if (group == null) {
+            return;
+        }
+        published.increment();
+        group.forEach(subscriber -> enqueue(subscriber, event));
+    }
+
+    private void enqueue(CommentSubscriber subscriber, StreamEvent event) {
+        if (subscriber.offer(event)) {
+            dropped.increment();
+        }
+        if (subscriber.tryStartDrain()) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(CommentSubscriber subscriber) {
+        do {
+            StreamEvent event;
+            while ((event = subscriber.poll()) != null) {
+                try {
+                    subscriber.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    subscriber.endDrain();
+                    unsubscribe(subscriber);
+                    subscriber.emitter().completeWithError(e);
+                    return;
+                }
+            }
+            subscriber.endDrain();
+            // An event queued after the last poll but before endDrain() saw the drain running.
+        } while (!subscriber.isIdle() && subscriber.tryStartDrain());
+    }
+
+    private void unsubscribe(CommentSubscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.postId(), (id, group) -> {
+            if (group.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return group.isEmpty() ? null : group;
+        });
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize comment event", e);
+        }
+    }
+
+    private void runHeartbeatLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(config.getHeartbeatMs());
+            } catch (InterruptedException e) {
+                return;
+            }
+            sendHeartbeats();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (heartbeat != null) {
+            heartbeat.interrupt();
+        }
+        subscribers.values().forEach(group -> group.forEach(subscriber -> subscriber.emitter().complete()));
+        subscribers.clear();
+        subscriberCount.set(0);
+        senders.shutdownNow();
+    }
+}
@@ -0,0 +1,89 @@
+package org.amalitech.bloggingplatformspring.events;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One open stream. Events wait in a small bounded buffer until a sender drains them; when a
+ * slow client lets the buffer fill up, the oldest event is discarded.
+ */
+final class CommentSubscriber {
+
+    private final int postId;
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final ArrayDeque<StreamEvent> buffer;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    CommentSubscriber(int postId, SseEmitter emitter, int capacity) {
+        this.postId = postId;
+        this.emitter = emitter;
+        this.capacity = Math.max(1, capacity);
+        this.buffer = new ArrayDeque<>(Math.min(this.capacity, 16));
+    }
+
+    int postId() {
+        return postId;
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    /**
+     * Queues the event and returns true if the oldest buffered event had to be dropped.
+     */
+    boolean offer(StreamEvent event) {
+        lock.lock();
+        try {
+            boolean dropped = buffer.size() == capacity;
+            if (dropped) {
+                buffer.pollFirst();
+            }
+            buffer.addLast(event);
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    StreamEvent poll() {
+        lock.lock();
+        try {
+            return buffer.pollFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isIdle() {
+        lock.lock();
+        try {
+            return buffer.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean tryStartDrain() {
+        return draining.compareAndSet(false, true);
+    }
+
+    void endDrain() {
+        draining.set(false);
+    }
+
+    void send(StreamEvent event) throws IOException {
+        if (event.isHeartbeat()) {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        } else {
+            emitter.send(SseEmitter.event().name(event.name()).id(event.id()).data(event.data(), MediaType.APPLICATION_JSON));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.amalitech.bloggingplatformspring.events;
+
+import org.amalitech.bloggingplatformspring.entity.Post;
+
+import java.util.List;
+
+/**
+ * A post as it was written, with what subscribers need to render it without another lookup.
+ */
+public record PostEvent(Post post, String author, List<String> tags) {
+}
@@ -0,0 +1,13 @@
+package org.amalitech.bloggingplatformspring.events;
+
+/**
+ * An event serialized once and shared by every subscriber it is fanned out to.
+ */
+record StreamEvent(String name, String id, String data) {
+
+    static final StreamEvent HEARTBEAT = new StreamEvent(null, null, null);
+
+    boolean isHeartbeat() {
+        return name == null;
+    }
+}
@@ -0,0 +1,111 @@
+package org.amalitech.bloggingplatformspring.events;
+
+import org.amalitech.bloggingplatformspring.config.SubscriptionConfig;
+import org.amalitech.bloggingplatformspring.enums.EventTopic;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process bus behind the GraphQL subscriptions.
+ * <p>
+ * Subscriptions are indexed by topic and key (a post id, a tag name, or {@code null} for
+ * "any"), so publishing looks up only the subscriptions an event can match instead of
+ * testing every open subscription. Each subscriber gets a bounded buffer; one that cannot
+ * keep up loses its oldest events rather than holding back the publisher.
+ */
+@Component
+public class SubscriptionEventBus {
+
+    private final SubscriptionConfig config;
+    private final Map<TopicKey, Set<FluxSink<Object>>> index = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public SubscriptionEventBus(SubscriptionConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Returns events published on the topic under the given key; a {@code null} key receives
+     * every event on the topic.
+     */
+    public <T> Flux<T> subscribe(EventTopic topic, Object key, Class<T> type) {
+        TopicKey topicKey = new TopicKey(topic, key);
+        return Flux.<Object>create(sink -> {
+                    register(topicKey, sink);
+                    sink.onDispose(() -> unregister(topicKey, sink));
+                })
+                .onBackpressureBuffer(Math.max(1, config.getBufferSize()),
+                        event -> dropped.increment(), BufferOverflowStrategy.DROP_OLDEST)
+                .cast(type);
+    }
+
+    public void publish(EventTopic topic, Object key, Object event) {
+        publish(topic, List.of(key), event);
+    }
+
+    /**
+     * Delivers the event once to every subscriber of any of the keys, and to the topic-wide
+     * subscribers.
+     */
+    public void publish(EventTopic topic, Collection<?> keys, Object event) {
+        published.increment();
+        Set<FluxSink<Object>> targets = Collections.newSetFromMap(new IdentityHashMap<>());
+        collect(new TopicKey(topic, null), targets);
+        for (Object key : keys) {
+            collect(new TopicKey(topic, key), targets);
+        }
+        for (FluxSink<Object> sink : targets) {
+            sink.next(event);
+        }
+        delivered.add(targets.size());
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("subscriptions", subscriptions.get());
+        snapshot.put("indexedKeys", index.size());
+        snapshot.put("published", published.sum());
+        snapshot.put("delivered", delivered.sum());
+        snapshot.put("dropped", dropped.sum());
+        return snapshot;
+    }
+
+    private void collect(TopicKey key, Set<FluxSink<Object>> targets) {
+        Set<FluxSink<Object>> sinks = index.get(key);
+        if (sinks != null) {
+            targets.addAll(sinks);
+        }
+    }
+
+    private void register(TopicKey key, FluxSink<Object> sink) {
+        index.compute(key, (k, sinks) -> {
+            Set<FluxSink<Object>> members = sinks == null ? ConcurrentHashMap.newKeySet() : sinks;
+            if (members.add(sink)) {
+                subscriptions.incrementAndGet();
+            }
+            return members;
+        });
+    }
+
+    private void unregister(TopicKey key, FluxSink<Object> sink) {
+        index.computeIfPresent(key, (k, sinks) -> {
+            if (sinks.remove(sink)) {
+                subscriptions.decrementAndGet();
+            }
+            return sinks.isEmpty() ? null : sinks;
+        });
+    }
+
+    private record TopicKey(EventTopic topic, Object key) {
+    }
+}
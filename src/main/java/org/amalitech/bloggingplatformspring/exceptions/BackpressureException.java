@@ -0,0 +1,12 @@
+package org.amalitech.bloggingplatformspring.exceptions;
+
+/**
+ * A write turned away before it reached the datastore because local capacity (the
+ * write-behind queue, a counter rebuild pause) is exhausted. It says nothing about the
+ * datastore's health, so circuit breakers do not count it as a failure.
+ */
+public class BackpressureException extends ServiceUnavailableException {
+    public BackpressureException(String message) {
+        super(message);
+    }
+}
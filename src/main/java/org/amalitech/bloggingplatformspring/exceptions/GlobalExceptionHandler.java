@@ -52,6 +52,32 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ErrorResponse> handleConflictException(ConflictException e) {
+
+        HttpStatus status = HttpStatus.CONFLICT;
+
+        return ResponseEntity.status(status).body(
+                new ErrorResponse(
+                        "CONFLICT",
+                        e.getMessage(),
+                        status.value()
+                ));
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(PreconditionFailedException e) {
+
+        HttpStatus status = HttpStatus.PRECONDITION_FAILED;
+
+        return ResponseEntity.status(status).body(
+                new ErrorResponse(
+                        "PRECONDITION FAILED",
+                        e.getMessage(),
+                        status.value()
+                ));
+    }
+
     @ExceptionHandler(UnauthorizedException.class)
     public ResponseEntity<ErrorResponse> handleUnauthorizedException(UnauthorizedException e) {
 
@@ -78,6 +104,19 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(ServiceUnavailableException e) {
+
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+
+        return ResponseEntity.status(status).body(
+                new ErrorResponse(
+                        "SERVICE UNAVAILABLE",
+                        e.getMessage(),
+                        status.value()
+                ));
+    }
+
     @ExceptionHandler(InvalidUserIdFormatException.class)
     public ResponseEntity<ErrorResponse> handleInvalidUserIdFormatException(InvalidUserIdFormatException e) {
 
@@ -0,0 +1,29 @@
+package org.amalitech.bloggingplatformspring.graphql.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.amalitech.bloggingplatformspring.config.PersistedQueryConfig;
+import org.amalitech.bloggingplatformspring.graphql.execution.PersistedDocumentProvider;
+import org.amalitech.bloggingplatformspring.graphql.execution.PersistedQueryFilter;
+import org.springframework.boot.autoconfigure.graphql.GraphQlSourceBuilderCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GraphQLExecutionConfig {
+
+    @Bean
+    public GraphQlSourceBuilderCustomizer persistedDocuments(PersistedDocumentProvider documentProvider) {
+        return builder -> builder.configureGraphQl(graphQl -> graphQl.preparsedDocumentProvider(documentProvider));
+    }
+
+    @Bean
+    public FilterRegistrationBean<PersistedQueryFilter> persistedQueryFilter(ObjectMapper objectMapper,
+                                                                             PersistedQueryConfig config) {
+        FilterRegistrationBean<PersistedQueryFilter> registration =
+                new FilterRegistrationBean<>(new PersistedQueryFilter(objectMapper, config.getMaxRequestBytes()));
+        registration.addUrlPatterns("/graphql");
+        registration.setOrder(PersistedQueryFilter.ORDER);
+        return registration;
+    }
+}
@@ -0,0 +1,84 @@
+package org.amalitech.bloggingplatformspring.graphql.execution;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.MDC;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs GraphQL data fetchers on virtual threads so graphql-java can resolve sibling fields
+ * concurrently, carrying the caller's request attributes and MDC across. Admission is left to
+ * the datastores' own queues, the JDBC connection limiter and the Mongo pool, so a fetch
+ * waits in the same line as REST traffic.
+ */
+@Component
+public class GraphQLFetchExecutor {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public <T> CompletableFuture<T> fetch(Callable<T> fetch) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        executor.execute(() -> {
+            RequestContextHolder.setRequestAttributes(attributes);
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            try {
+                T value = null;
+                Throwable error = null;
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    value = fetch.call();
+                    completed.increment();
+                } catch (Throwable e) {
+                    failed.increment();
+                    error = e;
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+                // Completing runs dependent fetchers on this thread, so the bookkeeping is
+                // settled first; the request context stays set for the fetches they submit.
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+                MDC.clear();
+            }
+        });
+        return result;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("inFlight", inFlight.get());
+        snapshot.put("maxInFlight", maxInFlight.get());
+        snapshot.put("completed", completed.sum());
+        snapshot.put("failed", failed.sum());
+        return snapshot;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.close();
+    }
+}
@@ -0,0 +1,113 @@
+package org.amalitech.bloggingplatformspring.graphql.execution;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.language.*;
+import graphql.parser.InvalidSyntaxException;
+import graphql.parser.Parser;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Reads which root fields a GraphQL request body selects, before the request reaches the
+ * GraphQL handler. Fields are matched by name, not alias, in the operation that will run;
+ * comments, string values and variables are never mistaken for fields. Hash-only persisted
+ * queries are resolved from the {@link PersistedDocumentProvider} cache.
+ */
+@Component
+public class GraphQLOperationInspector {
+
+    private static final TypeReference<Map<String, Object>> BODY_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final PersistedDocumentProvider documentProvider;
+
+    public GraphQLOperationInspector(ObjectMapper objectMapper, PersistedDocumentProvider documentProvider) {
+        this.objectMapper = objectMapper;
+        this.documentProvider = documentProvider;
+    }
+
+    /**
+     * Returns the root field names of the operation in {@code body}, or an empty set when the
+     * body is not a readable GraphQL request (the handler reports those errors itself).
+     */
+    public Set<String> rootFields(byte[] body) {
+        Map<String, Object> request;
+        try {
+            request = objectMapper.readValue(body, BODY_TYPE);
+        } catch (IOException e) {
+            return Set.of();
+        }
+
+        Document document = document(request);
+        if (document == null) {
+            return Set.of();
+        }
+        OperationDefinition operation = operation(document, request.get("operationName"));
+        if (operation == null) {
+            return Set.of();
+        }
+
+        Map<String, FragmentDefinition> fragments = new HashMap<>();
+        document.getDefinitionsOfType(FragmentDefinition.class)
+                .forEach(fragment -> fragments.put(fragment.getName(), fragment));
+        Set<String> fields = new LinkedHashSet<>();
+        collectFields(operation.getSelectionSet(), fragments, new HashSet<>(), fields);
+        return fields;
+    }
+
+    private Document document(Map<String, Object> request) {
+        Object query = request.get("query");
+        if (query instanceof String text && !text.isBlank() && !PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(text)) {
+            Document cached = documentProvider.cachedDocument(PersistedDocumentProvider.sha256(text));
+            if (cached != null) {
+                return cached;
+            }
+            try {
+                return Parser.parse(text);
+            } catch (InvalidSyntaxException e) {
+                return null;
+            }
+        }
+
+        if (request.get("extensions") instanceof Map<?, ?> extensions
+                && extensions.get("persistedQuery") instanceof Map<?, ?> persistedQuery
+                && persistedQuery.get("sha256Hash") instanceof String hash) {
+            return documentProvider.cachedDocument(hash.toLowerCase(Locale.ROOT));
+        }
+        return null;
+    }
+
+    private OperationDefinition operation(Document document, Object operationName) {
+        List<OperationDefinition> operations = document.getDefinitionsOfType(OperationDefinition.class);
+        if (operationName instanceof String name && !name.isBlank()) {
+            return operations.stream().filter(operation -> name.equals(operation.getName())).findFirst().orElse(null);
+        }
+        return operations.size() == 1 ? operations.getFirst() : null;
+    }
+
+    private void collectFields(SelectionSet selectionSet, Map<String, FragmentDefinition> fragments,
+                               Set<String> visitedFragments, Set<String> fields) {
+        if (selectionSet == null) {
+            return;
+        }
+        for (Selection<?> selection : selectionSet.getSelections()) {
+            switch (selection) {
+                case Field field -> fields.add(field.getName());
+                case InlineFragment inline -> collectFields(inline.getSelectionSet(), fragments, visitedFragments, fields);
+                case FragmentSpread spread -> {
+                    FragmentDefinition fragment = fragments.get(spread.getName());
+                    if (fragment != null && visitedFragments.add(spread.getName())) {
+                        collectFields(fragment.getSelectionSet(), fragments, visitedFragments, fields);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.amalitech.bloggingplatformspring.graphql.execution;
+
+import graphql.ExecutionInput;
+import graphql.GraphqlErrorBuilder;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.language.Document;
+import org.amalitech.bloggingplatformspring.config.PersistedQueryConfig;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * LRU cache of parsed and validated GraphQL documents keyed by the SHA-256 of the query
+ * text, so a repeated query skips parsing and validation.
+ * <p>
+ * The same cache serves automatic persisted queries: a request that carries only
+ * {@code extensions.persistedQuery.sha256Hash} is answered from the cache, or gets
+ * {@code PersistedQueryNotFound} so the client resends it with the query text, which
+ * registers it. With the allow-list enabled, only queries whose hash is listed are run.
+ */
+@Component
+public class PersistedDocumentProvider implements PreparsedDocumentProvider {
+
+    private final PersistedQueryConfig config;
+    private final Set<String> allowedHashes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, PreparsedDocumentEntry> documents = new LinkedHashMap<>(64, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder notFound = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public PersistedDocumentProvider(PersistedQueryConfig config) {
+        this.config = config;
+        this.allowedHashes = config.getAllowedHashes().stream()
+                .map(hash -> hash.trim().toLowerCase(Locale.ROOT))
+                .filter(hash -> !hash.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+            ExecutionInput executionInput, Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate) {
+        String query = executionInput.getQuery();
+        String requestedHash = config.isEnabled() ? persistedQueryHash(executionInput.getExtensions()) : null;
+        boolean hashOnly = requestedHash != null && PersistedQuerySupport.PERSISTED_QUERY_MARKER.equals(query);
+
+        String hash = hashOnly ? requestedHash : sha256(query);
+        if (requestedHash != null && !hashOnly && !requestedHash.equals(hash)) {
+            return error("PersistedQueryIdInvalid", requestedHash);
+        }
+        if (config.isAllowListEnabled() && !allowedHashes.contains(hash)) {
+            rejected.increment();
+            return error("PersistedQueryNotAllowed", hash);
+        }
+
+        PreparsedDocumentEntry cached = lookup(hash);
+        if (cached != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+        if (hashOnly) {
+            notFound.increment();
+            return error("PersistedQueryNotFound", hash);
+        }
+
+        misses.increment();
+        PreparsedDocumentEntry entry = parseAndValidate.apply(executionInput);
+        if (!entry.hasErrors()) {
+            store(hash, entry);
+        }
+        return CompletableFuture.completedFuture(entry);
+    }
+
+    /**
+     * Returns the cached document for {@code hash} without counting a hit, or null.
+     */
+    public Document cachedDocument(String hash) {
+        PreparsedDocumentEntry entry = lookup(hash);
+        return entry == null || entry.hasErrors() ? null : entry.getDocument();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("persistedQueries", config.isEnabled());
+        snapshot.put("allowList", config.isAllowListEnabled() ? allowedHashes.size() : "disabled");
+        lock.lock();
+        try {
+            snapshot.put("entries", documents.size());
+        } finally {
+            lock.unlock();
+        }
+        snapshot.put("hits", hits.sum());
+        snapshot.put("misses", misses.sum());
+        snapshot.put("notFound", notFound.sum());
+        snapshot.put("rejected", rejected.sum());
+        return snapshot;
+    }
+
+    static String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private String persistedQueryHash(Map<String, Object> extensions) {
+        if (extensions != null
+                && extensions.get("persistedQuery") instanceof Map<?, ?> persistedQuery
+                && persistedQuery.get("sha256Hash") instanceof String hash
+                && !hash.isBlank()) {
+            return hash.toLowerCase(Locale.ROOT);
+        }
+        return null;
+    }
+
+    private PreparsedDocumentEntry lookup(String hash) {
+        lock.lock();
+        try {
+            return documents.get(hash);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void store(String hash, PreparsedDocumentEntry entry) {
+        lock.lock();
+        try {
+            documents.put(hash, entry);
+            if (documents.size() > config.getMaxEntries()) {
+                documents.pollFirstEntry();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Errors use the Apollo wire format: the code is both the message and the classification.
+     */
+    private CompletableFuture<PreparsedDocumentEntry> error(String code, String hash) {
+        return CompletableFuture.completedFuture(new PreparsedDocumentEntry(GraphqlErrorBuilder.newError()
+                .message(code)
+                .extensions(Map.of("classification", code, "persistedQueryId", hash))
+                .build()));
+    }
+}
@@ -0,0 +1,85 @@
+package org.amalitech.bloggingplatformspring.graphql.execution;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.amalitech.bloggingplatformspring.exceptions.ErrorResponse;
+import org.amalitech.bloggingplatformspring.exceptions.PayloadTooLargeException;
+import org.amalitech.bloggingplatformspring.utils.CachedBodyRequest;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Lets hash-only persisted query requests through to GraphQL. The HTTP handler rejects a
+ * body without {@code query}, so such requests get graphql-java's persisted query marker
+ * in its place and {@link PersistedDocumentProvider} resolves the hash.
+ */
+public class PersistedQueryFilter extends OncePerRequestFilter {
+
+    /**
+     * After the load-shedding filter, whose buffered body is reused here, so a shed request is
+     * never rewritten.
+     */
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 20;
+
+    private static final TypeReference<Map<String, Object>> BODY_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final int maxRequestBytes;
+
+    public PersistedQueryFilter(ObjectMapper objectMapper, int maxRequestBytes) {
+        this.objectMapper = objectMapper;
+        this.maxRequestBytes = maxRequestBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CachedBodyRequest cached;
+        try {
+            cached = request instanceof CachedBodyRequest body ? body : new CachedBodyRequest(request, maxRequestBytes);
+        } catch (PayloadTooLargeException e) {
+            HttpStatus status = HttpStatus.PAYLOAD_TOO_LARGE;
+            response.setStatus(status.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    new ErrorResponse("PAYLOAD TOO LARGE", e.getMessage(), status.value()));
+            return;
+        }
+        chain.doFilter(withPersistedQueryMarker(cached), response);
+    }
+
+    HttpServletRequest withPersistedQueryMarker(CachedBodyRequest request) throws IOException {
+        if (!request.body().contains("\"persistedQuery\"")) {
+            return request;
+        }
+
+        Map<String, Object> body;
+        try {
+            body = objectMapper.readValue(request.bodyBytes(), BODY_TYPE);
+        } catch (IOException e) {
+            // Left for the GraphQL handler to reject.
+            return request;
+        }
+        if (body.get("query") instanceof String query && !query.isBlank()) {
+            return request;
+        }
+        body.put("query", PersistedQuerySupport.PERSISTED_QUERY_MARKER);
+        return new CachedBodyRequest(request, objectMapper.writeValueAsBytes(body));
+    }
+}
@@ -0,0 +1,134 @@
+package org.amalitech.bloggingplatformspring.graphql.execution;
+
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.FieldComplexityEnvironment;
+import graphql.analysis.QueryComplexityCalculator;
+import graphql.execution.CoercedVariables;
+import graphql.language.Document;
+import graphql.schema.GraphQLFieldDefinition;
+import graphql.schema.GraphQLList;
+import graphql.schema.GraphQLOutputType;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.GraphQLTypeUtil;
+import org.amalitech.bloggingplatformspring.config.QueryCostConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Static cost of an operation, computed from the document before anything is fetched.
+ * <p>
+ * A field costs its weight plus the cost of its selections, multiplied by the number of
+ * items for list fields. Leaf fields weigh 0 and object fields 1 unless overridden in
+ * {@link QueryCostConfig#getFieldWeights()}. The item count comes from the list field's
+ * {@code size} argument or {@code pageRequest.size}, from the enclosing page field for
+ * lists such as {@code PostPage.content}, or from {@link QueryCostConfig#getListSizes()}.
+ * Requested sizes are capped at the maximum list size, but hints are expected row counts and
+ * are used as given. Other nested lists count as the maximum list size; root lists with
+ * neither a size nor a hint are reported as unbounded, since nothing limits what they return.
+ */
+public class QueryCostCalculator {
+
+    private static final List<String> SIZE_ARGUMENTS = List.of("size", "first", "limit");
+
+    private final QueryCostConfig config;
+
+    public QueryCostCalculator(QueryCostConfig config) {
+        this.config = config;
+    }
+
+    public QueryCost calculate(GraphQLSchema schema, Document document, String operationName,
+                               CoercedVariables variables) {
+        Accumulator accumulator = new Accumulator();
+        int complexity = QueryComplexityCalculator.newCalculator()
+                .schema(schema)
+                .document(document)
+                .operationName(operationName)
+                .variables(variables)
+                .fieldComplexityCalculator(accumulator)
+                .build()
+                .calculate();
+        return new QueryCost(complexity, accumulator.maxDepth, List.copyOf(accumulator.unboundedLists));
+    }
+
+    int weight(FieldComplexityEnvironment environment) {
+        GraphQLFieldDefinition definition = environment.getFieldDefinition();
+        Integer configured = config.getFieldWeights().get(coordinate(environment));
+        if (configured != null) {
+            return configured;
+        }
+        return GraphQLTypeUtil.isLeaf(GraphQLTypeUtil.unwrapAll(definition.getType())) ? 0 : 1;
+    }
+
+    int items(FieldComplexityEnvironment environment) {
+        if (!isList(environment.getFieldDefinition().getType())) {
+            return 1;
+        }
+        Integer requested = requestedSize(environment);
+        if (requested != null) {
+            return Math.max(1, Math.min(config.getMaxListSize(), requested));
+        }
+        Integer hint = config.getListSizes().get(coordinate(environment));
+        return hint == null ? config.getMaxListSize() : Math.max(1, hint);
+    }
+
+    boolean isUnboundedRootList(FieldComplexityEnvironment environment) {
+        return environment.getParentEnvironment() == null
+                && isList(environment.getFieldDefinition().getType())
+                && requestedSize(environment) == null
+                && !config.getListSizes().containsKey(coordinate(environment));
+    }
+
+    private Integer requestedSize(FieldComplexityEnvironment environment) {
+        Integer requested = requestedSize(environment.getArguments());
+        FieldComplexityEnvironment parent = environment.getParentEnvironment();
+        if (requested == null && parent != null && !isList(parent.getFieldDefinition().getType())) {
+            requested = requestedSize(parent.getArguments());
+        }
+        return requested;
+    }
+
+    private String coordinate(FieldComplexityEnvironment environment) {
+        return environment.getParentType().getName() + "." + environment.getFieldDefinition().getName();
+    }
+
+    private Integer requestedSize(Map<String, Object> arguments) {
+        for (String name : SIZE_ARGUMENTS) {
+            if (arguments.get(name) instanceof Number size) {
+                return size.intValue();
+            }
+        }
+        if (arguments.get("pageRequest") instanceof Map<?, ?> pageRequest
+                && pageRequest.get("size") instanceof Number size) {
+            return size.intValue();
+        }
+        return null;
+    }
+
+    private boolean isList(GraphQLOutputType type) {
+        return GraphQLTypeUtil.unwrapNonNull(type) instanceof GraphQLList;
+    }
+
+    public record QueryCost(int complexity, int depth, List<String> unboundedLists) {
+    }
+
+    private final class Accumulator implements FieldComplexityCalculator {
+
+        private int maxDepth;
+        private final List<String> unboundedLists = new ArrayList<>();
+
+        @Override
+        public int calculate(FieldComplexityEnvironment environment, int childComplexity) {
+            int depth = 0;
+            for (FieldComplexityEnvironment e = environment; e != null; e = e.getParentEnvironment()) {
+                depth++;
+            }
+            maxDepth = Math.max(maxDepth, depth);
+            if (isUnboundedRootList(environment)) {
+                unboundedLists.add(coordinate(environment));
+            }
+            return items(environment) * (weight(environment) + childComplexity);
+        }
+    }
+}
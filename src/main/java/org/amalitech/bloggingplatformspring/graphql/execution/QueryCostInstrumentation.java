@@ -0,0 +1,115 @@
+package org.amalitech.bloggingplatformspring.graphql.execution;
+
+import graphql.ExecutionResult;
+import graphql.execution.AbortExecutionException;
+import graphql.execution.ExecutionContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecuteOperationParameters;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.bloggingplatformspring.config.QueryCostConfig;
+import org.amalitech.bloggingplatformspring.graphql.execution.QueryCostCalculator.QueryCost;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rejects operations deeper or costlier than the configured limits, or selecting a root list
+ * with no size and no row-count hint, before any field is fetched, and records every computed cost so the weights can be tuned against traffic.
+ */
+@Slf4j
+@Component
+public class QueryCostInstrumentation extends SimplePerformantInstrumentation {
+
+    private static final long[] COST_BUCKETS = {10, 50, 100, 250, 500, 1000, 5000};
+
+    private final QueryCostConfig config;
+    private final QueryCostCalculator calculator;
+    private final LongAdder operations = new LongAdder();
+    private final LongAdder totalCost = new LongAdder();
+    private final AtomicLong maxCost = new AtomicLong();
+    private final AtomicLong maxDepth = new AtomicLong();
+    private final AtomicLongArray costHistogram = new AtomicLongArray(COST_BUCKETS.length + 1);
+    private final LongAdder rejectedDepth = new LongAdder();
+    private final LongAdder rejectedComplexity = new LongAdder();
+    private final LongAdder rejectedUnbounded = new LongAdder();
+
+    public QueryCostInstrumentation(QueryCostConfig config) {
+        this.config = config;
+        this.calculator = new QueryCostCalculator(config);
+    }
+
+    @Override
+    public InstrumentationContext<ExecutionResult> beginExecuteOperation(
+            InstrumentationExecuteOperationParameters parameters, InstrumentationState state) {
+        if (config.isEnabled()) {
+            ExecutionContext context = parameters.getExecutionContext();
+            String operationName = context.getOperationDefinition().getName();
+            QueryCost cost = calculator.calculate(context.getGraphQLSchema(), context.getDocument(),
+                    operationName, context.getCoercedVariables());
+            record(cost);
+
+            if (cost.depth() > config.getMaxDepth()) {
+                rejectedDepth.increment();
+                log.warn("Rejected GraphQL operation {} with depth {}", operationName, cost.depth());
+                throw new AbortExecutionException("Query depth " + cost.depth()
+                        + " exceeds the maximum of " + config.getMaxDepth());
+            }
+            if (!cost.unboundedLists().isEmpty()) {
+                rejectedUnbounded.increment();
+                log.warn("Rejected GraphQL operation {} selecting unbounded lists {}", operationName,
+                        cost.unboundedLists());
+                throw new AbortExecutionException("Unbounded list " + cost.unboundedLists().getFirst()
+                        + " needs a size argument or a configured list-size hint");
+            }
+            if (cost.complexity() > config.getMaxComplexity()) {
+                rejectedComplexity.increment();
+                log.warn("Rejected GraphQL operation {} with cost {}", operationName, cost.complexity());
+                throw new AbortExecutionException("Query cost " + cost.complexity()
+                        + " exceeds the maximum of " + config.getMaxComplexity());
+            }
+        }
+        return super.beginExecuteOperation(parameters, state);
+    }
+
+    public Map<String, Object> snapshot() {
+        long count = operations.sum();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("enabled", config.isEnabled());
+        snapshot.put("maxDepthLimit", config.getMaxDepth());
+        snapshot.put("maxComplexityLimit", config.getMaxComplexity());
+        snapshot.put("operations", count);
+        snapshot.put("averageCost", count == 0 ? 0.0 : (double) totalCost.sum() / count);
+        snapshot.put("maxCost", maxCost.get());
+        snapshot.put("maxDepth", maxDepth.get());
+        snapshot.put("rejectedDepth", rejectedDepth.sum());
+        snapshot.put("rejectedComplexity", rejectedComplexity.sum());
+        snapshot.put("rejectedUnbounded", rejectedUnbounded.sum());
+
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < COST_BUCKETS.length; i++) {
+            histogram.put("<=" + COST_BUCKETS[i], costHistogram.get(i));
+        }
+        histogram.put(">" + COST_BUCKETS[COST_BUCKETS.length - 1], costHistogram.get(COST_BUCKETS.length));
+        snapshot.put("costHistogram", histogram);
+        return snapshot;
+    }
+
+    private void record(QueryCost cost) {
+        operations.increment();
+        totalCost.add(cost.complexity());
+        maxCost.accumulateAndGet(cost.complexity(), Math::max);
+        maxDepth.accumulateAndGet(cost.depth(), Math::max);
+
+        int bucket = 0;
+        while (bucket < COST_BUCKETS.length && cost.complexity() > COST_BUCKETS[bucket]) {
+            bucket++;
+        }
+        costHistogram.incrementAndGet(bucket);
+    }
+}
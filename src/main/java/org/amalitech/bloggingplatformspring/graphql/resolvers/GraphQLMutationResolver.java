@@ -11,28 +11,24 @@ import org.amalitech.bloggingplatformspring.repository.PostRepository;
 import org.amalitech.bloggingplatformspring.services.CommentService;
 import org.amalitech.bloggingplatformspring.services.PostService;
 import org.amalitech.bloggingplatformspring.services.UserService;
-import org.amalitech.bloggingplatformspring.utils.Constants;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.stereotype.Controller;
 
 import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Controller
 @RequiredArgsConstructor
 public class GraphQLMutationResolver {
 
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(Constants.DateTimeFormatPattern);
-
     private final UserService userService;
     private final PostService postService;
     private final CommentService commentService;
     private final PostRepository postRepository;
+    private final GraphQLTypeMapper mapper = new GraphQLTypeMapper();
 
     @MutationMapping
     public GraphQLUser registerUser(@Argument RegisterUserInput input) {
@@ -100,7 +96,7 @@ public class GraphQLMutationResolver {
                 input.getCommentContent());
 
         CommentDocument comment = commentService.addCommentToPost(dto);
-        return mapToGraphQLComment(comment);
+        return mapper.toComment(comment);
     }
 
     @MutationMapping
@@ -111,11 +107,8 @@ public class GraphQLMutationResolver {
     }
 
     private GraphQLPost mapToGraphQLPost(PostResponseDTO postResponse) {
-        List<GraphQLTag> tags = postResponse.getTags().stream()
-                .map(tagName -> new GraphQLTag(null, tagName))
-                .collect(Collectors.toList());
-
-        LocalDateTime updatedAt = LocalDateTime.parse(postResponse.getLastUpdated(), FORMATTER);
+        List<GraphQLTag> tags = mapper.toTags(postResponse.getTags());
+        LocalDateTime updatedAt = mapper.parseDateTime(postResponse.getLastUpdated());
 
         // Fetch the Post entity to get authorId and createdAt
         try {
@@ -135,15 +128,4 @@ public class GraphQLMutationResolver {
             throw new RuntimeException("Error fetching post details", e);
         }
     }
-
-    private GraphQLComment mapToGraphQLComment(CommentDocument comment) {
-        LocalDateTime createdAt = LocalDateTime.parse(comment.getCreatedAt(), FORMATTER);
-
-        return new GraphQLComment(
-                comment.getId(),
-                comment.getPostId(),
-                comment.getAuthor(),
-                comment.getContent(),
-                createdAt);
-    }
-}
\ No newline at end of file
+}
@@ -1,69 +1,78 @@
 package org.amalitech.bloggingplatformspring.graphql.resolvers;
 
+import graphql.schema.DataFetchingEnvironment;
+import graphql.schema.DataFetchingFieldSelectionSet;
 import lombok.RequiredArgsConstructor;
+import org.amalitech.bloggingplatformspring.dtos.requests.CommentPageRequest;
 import org.amalitech.bloggingplatformspring.dtos.requests.PageRequest;
+import org.amalitech.bloggingplatformspring.dtos.requests.PostFieldSelection;
 import org.amalitech.bloggingplatformspring.dtos.requests.PostFilterRequest;
+import org.amalitech.bloggingplatformspring.dtos.responses.CursorPage;
 import org.amalitech.bloggingplatformspring.dtos.responses.PageResponse;
-import org.amalitech.bloggingplatformspring.dtos.responses.PostResponseDTO;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostViewDTO;
 import org.amalitech.bloggingplatformspring.entity.CommentDocument;
-import org.amalitech.bloggingplatformspring.entity.Post;
 import org.amalitech.bloggingplatformspring.entity.Tag;
 import org.amalitech.bloggingplatformspring.entity.User;
+import org.amalitech.bloggingplatformspring.enums.SortDirection;
+import org.amalitech.bloggingplatformspring.graphql.execution.GraphQLFetchExecutor;
 import org.amalitech.bloggingplatformspring.graphql.types.*;
-import org.amalitech.bloggingplatformspring.repository.PostRepository;
 import org.amalitech.bloggingplatformspring.repository.TagRepository;
 import org.amalitech.bloggingplatformspring.repository.UserRepository;
 import org.amalitech.bloggingplatformspring.services.CommentService;
 import org.amalitech.bloggingplatformspring.services.PostService;
 import org.amalitech.bloggingplatformspring.utils.Constants;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
-import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
 
-import java.sql.SQLException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Controller
 @RequiredArgsConstructor
 public class GraphQLQueryResolver {
 
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(Constants.DateTimeFormatPattern);
     private final PostService postService;
     private final CommentService commentService;
     private final UserRepository userRepository;
     private final TagRepository tagRepository;
-    private final PostRepository postRepository;
+    private final GraphQLFetchExecutor fetchExecutor;
+    private final GraphQLTypeMapper mapper = new GraphQLTypeMapper();
 
     @QueryMapping
-    public GraphQLUser getUser(@Argument UUID userId) throws SQLException {
-        return userRepository.findUserById(userId)
-                .map(this::mapToGraphQLUser)
-                .orElse(null);
+    public CompletableFuture<GraphQLUser> getUser(@Argument UUID userId) {
+        return fetchExecutor.fetch(() -> userRepository.findUserById(userId)
+                .map(mapper::toUser)
+                .orElse(null));
     }
 
     @QueryMapping
-    public GraphQLPost getPost(@Argument Integer postId) {
-        PostResponseDTO post = postService.getPostById(postId);
-        return mapToGraphQLPost(post);
+    public CompletableFuture<GraphQLPost> getPost(@Argument Integer postId, DataFetchingEnvironment environment) {
+        PostFieldSelection selection = postSelection(environment.getSelectionSet(), "");
+        return fetchExecutor.fetch(() -> mapper.toPost(postService.getPostView(postId, selection)));
     }
 
     @QueryMapping
-    public List<GraphQLPost> getAllPosts() {
-        List<PostResponseDTO> posts = postService.getAllPosts();
-        return posts.stream()
-                .map(this::mapToGraphQLPost)
-                .collect(Collectors.toList());
+    public CompletableFuture<List<GraphQLPost>> getAllPosts(DataFetchingEnvironment environment) {
+        PostFieldSelection selection = postSelection(environment.getSelectionSet(), "");
+        return fetchExecutor.fetch(() -> postService.getAllPostViews(selection).stream()
+                .map(mapper::toPost)
+                .collect(Collectors.toList()));
     }
 
     @QueryMapping
-    public GraphQLPostPage getPaginatedPosts(
+    public CompletableFuture<GraphQLPostPage> getPaginatedPosts(
             @Argument PageRequestInput pageRequest,
-            @Argument PostFilterInput filter) {
+            @Argument PostFilterInput filter,
+            DataFetchingEnvironment environment) {
 
         int page = (pageRequest != null && pageRequest.getPage() != null) ? pageRequest.getPage() : 0;
         int size = (pageRequest != null && pageRequest.getSize() != null) ? pageRequest.getSize() : 10;
@@ -80,91 +89,107 @@ public class GraphQLQueryResolver {
         List<String> tags = (filter != null && filter.getTag() != null) ? List.of(filter.getTag()) : null;
 
         PostFilterRequest pfr = new PostFilterRequest(author, search, tags);
-
-        PageResponse<PostResponseDTO> response = postService.getPaginatedPosts(pr, pfr);
-
-        GraphQLPostPage page2 = new GraphQLPostPage();
-        page2.setContent(response.content().stream()
-                .map(this::mapToGraphQLPost)
-                .collect(Collectors.toList()));
-        page2.setPageNumber(response.page());
-        page2.setPageSize(response.size());
-        page2.setTotalElements((long) response.totalElements());
-        page2.setTotalPages((int) Math.ceil((double) response.totalElements() / response.size()));
-
-        return page2;
+        PostFieldSelection selection = postSelection(environment.getSelectionSet(), "content/");
+
+        return fetchExecutor.fetch(() -> {
+            PageResponse<PostViewDTO> response = postService.getPaginatedPostViews(pr, pfr, selection);
+
+            GraphQLPostPage page2 = new GraphQLPostPage();
+            page2.setContent(response.content().stream()
+                    .map(mapper::toPost)
+                    .collect(Collectors.toList()));
+            page2.setPageNumber(response.page());
+            page2.setPageSize(response.size());
+            page2.setTotalElements((long) response.totalElements());
+            page2.setTotalPages((int) Math.ceil((double) response.totalElements() / response.size()));
+
+            return page2;
+        });
     }
 
     @QueryMapping
-    public GraphQLComment getComment(@Argument String commentId) {
-        CommentDocument comment = commentService.getCommentById(commentId);
-        return mapToGraphQLComment(comment);
+    public CompletableFuture<GraphQLComment> getComment(@Argument String commentId) {
+        return fetchExecutor.fetch(() -> mapper.toComment(commentService.getCommentById(commentId)));
     }
 
     @QueryMapping
-    public List<GraphQLComment> getCommentsByPost(@Argument Integer postId) {
-        List<CommentDocument> comments = commentService.getAllCommentsByPostId(postId);
-        return comments.stream()
-                .map(this::mapToGraphQLComment)
-                .collect(Collectors.toList());
+    public CompletableFuture<GraphQLCommentPage> getCommentsByPost(
+            @Argument Integer postId,
+            @Argument Integer size,
+            @Argument String cursor,
+            @Argument String order) {
+        int pageSize = size != null ? size : Constants.DefaultCommentPageSize;
+        SortDirection direction = CommentPageRequest.parseOrder(order);
+        CommentPageRequest pageRequest = new CommentPageRequest(
+                Math.min(Constants.MaxCommentPageSize, pageSize), cursor, direction);
+
+        return fetchExecutor.fetch(() -> {
+            CursorPage<CommentDocument> comments = commentService.getCommentsByPostId(postId, pageRequest);
+            return new GraphQLCommentPage(
+                    comments.content().stream()
+                            .map(mapper::toComment)
+                            .collect(Collectors.toList()),
+                    comments.size(),
+                    comments.nextCursor(),
+                    comments.hasMore());
+        });
     }
 
     @QueryMapping
-    public List<GraphQLTag> getAllTags() throws SQLException {
-        List<Tag> tags = tagRepository.getAllTags();
-        return tags.stream()
-                .map(tag -> new GraphQLTag(tag.getId(), tag.getName()))
-                .collect(Collectors.toList());
+    public CompletableFuture<List<GraphQLTag>> getAllTags() {
+        return fetchExecutor.fetch(() -> {
+            List<Tag> tags = tagRepository.getAllTags();
+            return tags.stream()
+                    .map(tag -> new GraphQLTag(tag.getId(), tag.getName()))
+                    .collect(Collectors.toList());
+        });
     }
 
-    @SchemaMapping(typeName = "Post", field = "author")
-    public GraphQLUser getPostAuthor(GraphQLPost post) throws SQLException {
-        return userRepository.findUserByUsername(post.getAuthor())
-                .map(this::mapToGraphQLUser)
-                .orElse(null);
+    /**
+     * Loads the authors of every post at the same level in one query, so a list of posts
+     * costs one extra fetch rather than one per post.
+     */
+    @BatchMapping(typeName = "Post", field = "author")
+    public Mono<Map<GraphQLPost, GraphQLUser>> getPostAuthors(List<GraphQLPost> posts) {
+        return Mono.fromFuture(fetchExecutor.fetch(() -> {
+            Set<UUID> ids = new HashSet<>();
+            Set<String> usernames = new HashSet<>();
+            for (GraphQLPost post : posts) {
+                if (post.getAuthorId() != null) {
+                    ids.add(UUID.fromString(post.getAuthorId()));
+                } else if (post.getAuthor() != null) {
+                    usernames.add(post.getAuthor());
+                }
+            }
+
+            Map<String, GraphQLUser> byId = new HashMap<>();
+            Map<String, GraphQLUser> byUsername = new HashMap<>();
+            for (User user : userRepository.findUsers(ids, usernames)) {
+                GraphQLUser author = mapper.toUser(user);
+                byId.put(user.getId().toString(), author);
+                byUsername.put(user.getUsername(), author);
+            }
+
+            Map<GraphQLPost, GraphQLUser> authors = new HashMap<>();
+            for (GraphQLPost post : posts) {
+                GraphQLUser author = post.getAuthorId() != null
+                        ? byId.get(UUID.fromString(post.getAuthorId()).toString())
+                        : byUsername.get(post.getAuthor());
+                if (author != null) {
+                    authors.put(post, author);
+                }
+            }
+            return authors;
+        }));
     }
 
-    private GraphQLUser mapToGraphQLUser(User user) {
-        return new GraphQLUser(
-                user.getId(),
-                user.getUsername(),
-                user.getEmail());
-    }
-
-    private GraphQLPost mapToGraphQLPost(PostResponseDTO postResponse) {
-        List<GraphQLTag> tags = postResponse.getTags().stream()
-                .map(tagName -> new GraphQLTag(null, tagName))
-                .collect(Collectors.toList());
-
-        LocalDateTime updatedAt = LocalDateTime.parse(postResponse.getLastUpdated(), FORMATTER);
-
-        // Fetch the Post entity to get authorId and createdAt
-        try {
-            Post post = postRepository.findPostById(postResponse.getId())
-                    .orElseThrow(() -> new RuntimeException("Post not found"));
-
-            return new GraphQLPost(
-                    postResponse.getId(),
-                    postResponse.getTitle(),
-                    postResponse.getBody(),
-                    post.getAuthorId().toString(),
-                    postResponse.getAuthor(),
-                    tags,
-                    post.getCreatedAt(),
-                    updatedAt);
-        } catch (SQLException e) {
-            throw new RuntimeException("Error fetching post details", e);
-        }
-    }
-
-    private GraphQLComment mapToGraphQLComment(CommentDocument comment) {
-        LocalDateTime createdAt = LocalDateTime.parse(comment.getCreatedAt(), FORMATTER);
-
-        return new GraphQLComment(
-                comment.getId(),
-                comment.getPostId(),
-                comment.getAuthor(),
-                comment.getContent(),
-                createdAt);
+    private PostFieldSelection postSelection(DataFetchingFieldSelectionSet selectionSet, String prefix) {
+        return new PostFieldSelection(
+                selectionSet.contains(prefix + "body"),
+                selectionSet.contains(prefix + "author"),
+                selectionSet.contains(prefix + "tags"),
+                selectionSet.contains(prefix + "createdAt"),
+                selectionSet.contains(prefix + "updatedAt"),
+                false);
     }
-}
\ No newline at end of file
+}
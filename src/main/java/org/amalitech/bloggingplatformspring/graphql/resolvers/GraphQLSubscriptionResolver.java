@@ -0,0 +1,39 @@
+package org.amalitech.bloggingplatformspring.graphql.resolvers;
+
+import lombok.RequiredArgsConstructor;
+import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+import org.amalitech.bloggingplatformspring.enums.EventTopic;
+import org.amalitech.bloggingplatformspring.events.PostEvent;
+import org.amalitech.bloggingplatformspring.events.SubscriptionEventBus;
+import org.amalitech.bloggingplatformspring.graphql.types.GraphQLComment;
+import org.amalitech.bloggingplatformspring.graphql.types.GraphQLPost;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+
+@Controller
+@RequiredArgsConstructor
+public class GraphQLSubscriptionResolver {
+
+    private final SubscriptionEventBus eventBus;
+    private final GraphQLTypeMapper mapper = new GraphQLTypeMapper();
+
+    @SubscriptionMapping
+    public Flux<GraphQLComment> commentAdded(@Argument Integer postId) {
+        return eventBus.subscribe(EventTopic.COMMENT_ADDED, postId, CommentDocument.class)
+                .map(mapper::toComment);
+    }
+
+    @SubscriptionMapping
+    public Flux<GraphQLPost> postUpdated(@Argument Integer postId) {
+        return eventBus.subscribe(EventTopic.POST_UPDATED, postId, PostEvent.class)
+                .map(mapper::toPost);
+    }
+
+    @SubscriptionMapping
+    public Flux<GraphQLPost> postCreated(@Argument String tag) {
+        return eventBus.subscribe(EventTopic.POST_CREATED, tag, PostEvent.class)
+                .map(mapper::toPost);
+    }
+}
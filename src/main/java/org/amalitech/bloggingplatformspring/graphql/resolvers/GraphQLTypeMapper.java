@@ -0,0 +1,81 @@
+package org.amalitech.bloggingplatformspring.graphql.resolvers;
+
+import org.amalitech.bloggingplatformspring.dtos.responses.PostViewDTO;
+import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+import org.amalitech.bloggingplatformspring.entity.Post;
+import org.amalitech.bloggingplatformspring.entity.User;
+import org.amalitech.bloggingplatformspring.events.PostEvent;
+import org.amalitech.bloggingplatformspring.graphql.types.GraphQLComment;
+import org.amalitech.bloggingplatformspring.graphql.types.GraphQLPost;
+import org.amalitech.bloggingplatformspring.graphql.types.GraphQLTag;
+import org.amalitech.bloggingplatformspring.graphql.types.GraphQLUser;
+import org.amalitech.bloggingplatformspring.utils.Constants;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Maps domain objects to GraphQL types, shared by the query, mutation and subscription
+ * resolvers so every operation returns the same shape.
+ */
+public class GraphQLTypeMapper {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(Constants.DateTimeFormatPattern);
+
+    public GraphQLPost toPost(PostViewDTO postView) {
+        return new GraphQLPost(
+                postView.getId(),
+                postView.getTitle(),
+                postView.getBody(),
+                postView.getAuthorId() == null ? null : postView.getAuthorId().toString(),
+                postView.getAuthor(),
+                toTags(postView.getTags()),
+                postView.getCreatedAt(),
+                postView.getUpdatedAt());
+    }
+
+    public GraphQLPost toPost(PostEvent event) {
+        Post post = event.post();
+        return new GraphQLPost(
+                post.getId(),
+                post.getTitle(),
+                post.getBody(),
+                post.getAuthorId() == null ? null : post.getAuthorId().toString(),
+                event.author(),
+                toTags(event.tags()),
+                post.getCreatedAt(),
+                post.getUpdatedAt());
+    }
+
+    /**
+     * A deleted comment keeps its id, post and timestamp, but has no author or content.
+     */
+    public GraphQLComment toComment(CommentDocument comment) {
+        return new GraphQLComment(
+                comment.getId(),
+                comment.getPostId(),
+                comment.isDeleted() ? null : comment.getAuthor(),
+                comment.isDeleted() ? null : comment.getContent(),
+                parseDateTime(comment.getCreatedAt()),
+                comment.isDeleted());
+    }
+
+    public GraphQLUser toUser(User user) {
+        return new GraphQLUser(
+                user.getId(),
+                user.getUsername(),
+                user.getEmail());
+    }
+
+    public List<GraphQLTag> toTags(List<String> tagNames) {
+        return tagNames == null ? null : tagNames.stream()
+                .map(tagName -> new GraphQLTag(null, tagName))
+                .collect(Collectors.toList());
+    }
+
+    public LocalDateTime parseDateTime(String value) {
+        return LocalDateTime.parse(value, FORMATTER);
+    }
+}
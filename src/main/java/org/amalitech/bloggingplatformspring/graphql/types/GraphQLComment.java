@@ -15,4 +15,5 @@ public class GraphQLComment {
     private String author;
     private String content;
     private LocalDateTime createdAt;
+    private boolean deleted;
 }
\ No newline at end of file
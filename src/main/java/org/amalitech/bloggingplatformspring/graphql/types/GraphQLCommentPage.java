@@ -0,0 +1,17 @@
+package org.amalitech.bloggingplatformspring.graphql.types;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GraphQLCommentPage {
+    private List<GraphQLComment> content;
+    private Integer size;
+    private String nextCursor;
+    private Boolean hasMore;
+}
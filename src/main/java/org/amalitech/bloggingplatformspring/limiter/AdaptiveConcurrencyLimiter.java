@@ -0,0 +1,117 @@
+package org.amalitech.bloggingplatformspring.limiter;
+
+import org.amalitech.bloggingplatformspring.config.ConcurrencyLimitConfig;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gradient concurrency limit. A long-term average of request latency serves as the
+ * no-load baseline; when recent latency rises above it the in-flight limit shrinks
+ * proportionally, and while latency holds steady it grows by roughly sqrt(limit).
+ * Failed or timed-out requests cut the limit by 10%.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double LONG_RTT_ALPHA = 2.0 / (600 + 1);
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final ConcurrencyLimitConfig config;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejectedNormal = new AtomicLong();
+    private final AtomicLong rejectedLow = new AtomicLong();
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile double limit;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitConfig config) {
+        this.config = config;
+        this.limit = config.getInitialLimit();
+    }
+
+    /**
+     * Reserves an in-flight slot, or returns false when the request should be shed.
+     * Every successful acquire must be paired with {@link #release}.
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        int threshold = priority == RequestPriority.LOW
+                ? Math.max(1, (int) (limit * config.getLowPriorityShare()))
+                : (int) limit;
+
+        while (true) {
+            int current = inFlight.get();
+            if (current >= threshold) {
+                (priority == RequestPriority.LOW ? rejectedLow : rejectedNormal).incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        updateLock.lock();
+        try {
+            limit = dropped
+                    ? Math.max(config.getMinLimit(), limit * BACKOFF_RATIO)
+                    : nextLimit(rttNanos, inFlightAtCompletion);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private double nextLimit(long rttNanos, int inFlightAtCompletion) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos += LONG_RTT_ALPHA * (rttNanos - longRttNanos);
+        }
+        // Let the baseline recover quickly after a sustained slowdown has ended.
+        if (longRttNanos / rttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRttNanos / rttNanos));
+        double candidate = limit * gradient + Math.sqrt(limit);
+        // Do not grow the limit while traffic is too light to have tested it.
+        if (candidate > limit && inFlightAtCompletion < limit / 2) {
+            return limit;
+        }
+
+        double smoothed = limit * (1 - SMOOTHING) + candidate * SMOOTHING;
+        return Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), smoothed));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("enabled", config.isEnabled());
+        state.put("limit", getLimit());
+        state.put("inFlight", getInFlight());
+        state.put("baselineLatencyMs", TimeUnit.NANOSECONDS.toMillis((long) longRttNanos));
+        state.put("accepted", accepted.get());
+        state.put("rejected", rejectedNormal.get());
+        state.put("rejectedLowPriority", rejectedLow.get());
+        return state;
+    }
+}
@@ -0,0 +1,119 @@
+package org.amalitech.bloggingplatformspring.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.amalitech.bloggingplatformspring.config.ConcurrencyLimitConfig;
+import org.amalitech.bloggingplatformspring.exceptions.ErrorResponse;
+import org.amalitech.bloggingplatformspring.exceptions.PayloadTooLargeException;
+import org.amalitech.bloggingplatformspring.graphql.execution.GraphQLOperationInspector;
+import org.amalitech.bloggingplatformspring.utils.CachedBodyRequest;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Admits requests through the {@link AdaptiveConcurrencyLimiter} and answers the rest
+ * with 503 and Retry-After. Unbounded listings and metrics export are
+ * low priority and are shed before anything else.
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    /**
+     * Runs ahead of the other application filters so shed requests cost as little as possible;
+     * it buffers GraphQL bodies, which later filters reuse.
+     */
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 10;
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ConcurrencyLimitConfig config;
+    private final GraphQLOperationInspector operationInspector;
+    private final ObjectMapper objectMapper;
+    private final int maxRequestBytes;
+
+    public LoadSheddingFilter(AdaptiveConcurrencyLimiter limiter, ConcurrencyLimitConfig config,
+                              GraphQLOperationInspector operationInspector, ObjectMapper objectMapper,
+                              int maxRequestBytes) {
+        this.limiter = limiter;
+        this.config = config;
+        this.operationInspector = operationInspector;
+        this.objectMapper = objectMapper;
+        this.maxRequestBytes = maxRequestBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !config.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HttpServletRequest admitted;
+        try {
+            admitted = isGraphQL(request) ? new CachedBodyRequest(request, maxRequestBytes) : request;
+        } catch (PayloadTooLargeException e) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "PAYLOAD TOO LARGE", e.getMessage());
+            return;
+        }
+
+        if (!limiter.tryAcquire(classify(admitted))) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(config.getRetryAfterSeconds()));
+            writeError(response, HttpStatus.SERVICE_UNAVAILABLE, "SERVICE UNAVAILABLE",
+                    "Server is at capacity, please retry shortly");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            chain.doFilter(admitted, response);
+            dropped = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            limiter.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    RequestPriority classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith("/api/metrics/performance/export")) {
+            return RequestPriority.LOW;
+        }
+        if (isGraphQL(request) && request instanceof CachedBodyRequest cached
+                && operationInspector.rootFields(cached.bodyBytes()).contains("getAllPosts")) {
+            return RequestPriority.LOW;
+        }
+        if (isUnfilteredPostListing(request, path)) {
+            return RequestPriority.LOW;
+        }
+        return RequestPriority.NORMAL;
+    }
+
+    /**
+     * The REST counterpart of {@code getAllPosts}: the post listing with no filter narrowing it.
+     */
+    private boolean isUnfilteredPostListing(HttpServletRequest request, String path) {
+        return "GET".equals(request.getMethod())
+                && ("/api/v1/posts".equals(path) || "/api/v1/posts/".equals(path))
+                && request.getParameter("author") == null
+                && request.getParameter("tags") == null
+                && request.getParameter("search") == null;
+    }
+
+    private boolean isGraphQL(HttpServletRequest request) {
+        return request.getRequestURI().endsWith("/graphql") && "POST".equals(request.getMethod());
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String errorStatus, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(errorStatus, message, status.value()));
+    }
+}
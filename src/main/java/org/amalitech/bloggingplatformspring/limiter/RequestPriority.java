@@ -0,0 +1,6 @@
+package org.amalitech.bloggingplatformspring.limiter;
+
+public enum RequestPriority {
+    NORMAL,
+    LOW
+}
@@ -1,21 +1,59 @@
 package org.amalitech.bloggingplatformspring.repository;
 
+import org.amalitech.bloggingplatformspring.dtos.requests.CommentPageRequest;
+import org.amalitech.bloggingplatformspring.dtos.responses.CursorPage;
 import org.amalitech.bloggingplatformspring.entity.Comment;
 import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+import org.amalitech.bloggingplatformspring.entity.CommentSetVersion;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface CommentRepository {
 
     CommentDocument createComment(Comment comment, String author);
 
-    List<CommentDocument> getAllCommentsByPostId(int postId);
+    CompletableFuture<CommentDocument> submitComment(Comment comment, String author);
+
+    CursorPage<CommentDocument> getCommentsByPostId(int postId, CommentPageRequest pageRequest);
+
+    CursorPage<CommentDocument> getReplies(String commentId, CommentPageRequest pageRequest);
+
+    /**
+     * Returns the comment followed by its replies down to {@code maxDepth} levels below
+     * it, ordered by depth then time, or an empty list when the comment does not exist.
+     */
+    List<CommentDocument> getCommentSubtree(String commentId, int maxDepth);
 
     Optional<CommentDocument> getCommentById(String commentId);
 
-    void deleteComment(String commentId, String authorId);
+    /**
+     * Turns the comment into a tombstone, clearing its author and content but keeping its
+     * replies in place, and returns the id of the post it belonged to.
+     */
+    int deleteComment(String commentId, String authorId);
 
     long getTotalCommentsByPostId(int postId);
 
+    Map<Integer, Long> getTotalCommentsByPostIds(Collection<Integer> postIds);
+
+    CommentSetVersion getCommentSetVersion(int postId);
+
+    long rebuildCommentCounters();
+
+    void purgeCommentsByPostId(int postId);
+
+    List<Integer> getCommentedPostIds();
+
+    /**
+     * True when comments live in the same Postgres database as posts, so post queries
+     * may join the comments table directly.
+     */
+    default boolean sharesPostStore() {
+        return false;
+    }
+
 }
\ No newline at end of file
@@ -2,15 +2,17 @@ package org.amalitech.bloggingplatformspring.repository;
 
 import org.amalitech.bloggingplatformspring.dtos.requests.CreatePostDTO;
 import org.amalitech.bloggingplatformspring.dtos.requests.PageRequest;
+import org.amalitech.bloggingplatformspring.dtos.requests.PostFieldSelection;
 import org.amalitech.bloggingplatformspring.dtos.requests.PostFilterRequest;
 import org.amalitech.bloggingplatformspring.dtos.responses.PageResponse;
 import org.amalitech.bloggingplatformspring.dtos.responses.PostResponseDTO;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostViewDTO;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostWithCommentsDTO;
 import org.amalitech.bloggingplatformspring.entity.Post;
+import org.amalitech.bloggingplatformspring.entity.PostChangeEntry;
 
 import java.sql.SQLException;
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.*;
 
 public interface PostRepository {
     Post savePost(CreatePostDTO createPostDTO) throws SQLException;
@@ -21,11 +23,34 @@ public interface PostRepository {
 
     Optional<Post> findPostById(int id) throws SQLException;
 
-    void updatePost(Post post, List<String> tagNames) throws SQLException;
+    /**
+     * Writes the post only if its stored version still equals {@code post.getVersion()}, then
+     * sets the new version on {@code post}. Returns false when another update got there first.
+     */
+    boolean updatePost(Post post, List<String> tagNames) throws SQLException;
 
     void deletePost(int id, UUID signedInUserId) throws SQLException;
 
     List<String> getTagsByPostId(int postId) throws SQLException;
 
+    Set<Integer> findExistingPostIds(Collection<Integer> postIds) throws SQLException;
+
+    /**
+     * Returns up to {@code limit} post changes with a sequence number above {@code seq},
+     * oldest first.
+     */
+    List<PostChangeEntry> getPostChangesSince(long seq, int limit) throws SQLException;
+
+    List<PostResponseDTO> getPostResponsesByIds(Collection<Integer> postIds) throws SQLException;
+
     PageResponse<PostResponseDTO> getAllPosts(PageRequest pageRequest, PostFilterRequest postFilterRequest) throws SQLException;
+
+    List<PostViewDTO> getAllPostViews(PostFieldSelection selection) throws SQLException;
+
+    PageResponse<PostViewDTO> getAllPostViews(PageRequest pageRequest, PostFilterRequest postFilterRequest,
+                                              PostFieldSelection selection) throws SQLException;
+
+    Optional<PostViewDTO> getPostViewById(int id, PostFieldSelection selection) throws SQLException;
+
+    Optional<PostWithCommentsDTO> getPostWithComments(int id, int commentLimit) throws SQLException;
 }
\ No newline at end of file
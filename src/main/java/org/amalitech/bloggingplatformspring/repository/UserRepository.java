@@ -3,6 +3,8 @@ package org.amalitech.bloggingplatformspring.repository;
 import org.amalitech.bloggingplatformspring.entity.User;
 
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -20,4 +22,9 @@ public interface UserRepository {
     Boolean userExistsByEmail(String email) throws SQLException;
 
     Optional<User> findUserByUsername(String username) throws SQLException;
+
+    /**
+     * Users matching any of the given ids or usernames, in no particular order.
+     */
+    List<User> findUsers(Collection<UUID> ids, Collection<String> usernames) throws SQLException;
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package org.amalitech.bloggingplatformspring.resilience;
+
+import org.amalitech.bloggingplatformspring.exceptions.ServiceUnavailableException;
+import org.slf4j.MDC;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Runs calls to one datastore on their own virtual threads, with a fixed number of
+ * permits and a per-call timeout. Callers are released when the timeout expires, but the
+ * permit is held until the underlying call actually finishes, so a stuck datastore can
+ * never occupy more than its share of work. Writes use {@link #callWithoutTimeout}, since
+ * abandoning one midway leaves the caller unsure whether it was applied. The caller's request
+ * attributes and MDC are carried onto the worker thread.
+ */
+public class Bulkhead implements AutoCloseable {
+
+    private final String name;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long timeoutMs;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public Bulkhead(String name, int maxConcurrent, long timeoutMs) {
+        this.name = name;
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxConcurrent = maxConcurrent;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public <T> T call(Callable<T> task) {
+        if (!permits.tryAcquire()) {
+            throw new ServiceUnavailableException(name + " is saturated, please retry shortly");
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                RequestContextHolder.setRequestAttributes(attributes);
+                if (mdc != null) {
+                    MDC.setContextMap(mdc);
+                }
+                try {
+                    return task.call();
+                } finally {
+                    RequestContextHolder.resetRequestAttributes();
+                    MDC.clear();
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw new ServiceUnavailableException(name + " is shutting down");
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ServiceUnavailableException(name + " did not respond within " + timeoutMs + " ms");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for " + name);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Runs the task on the caller's thread under a permit, without a timeout or interrupt.
+     */
+    public <T> T callWithoutTimeout(Callable<T> task) {
+        if (!permits.tryAcquire()) {
+            throw new ServiceUnavailableException(name + " is saturated, please retry shortly");
+        }
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getInUse() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,38 @@
+package org.amalitech.bloggingplatformspring.resilience;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of named {@link SingleFlight} groups, so coalescing counts can be reported
+ * alongside the other performance metrics.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final Map<String, SingleFlight<?, ?>> groups = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <K, V> SingleFlight<K, V> group(String name) {
+        return (SingleFlight<K, V>) groups.computeIfAbsent(name, ignored -> new SingleFlight<>());
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        long totalCoalesced = 0;
+        for (Map.Entry<String, SingleFlight<?, ?>> entry : groups.entrySet()) {
+            SingleFlight<?, ?> group = entry.getValue();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("executions", group.getExecutions());
+            stats.put("coalesced", group.getCoalesced());
+            stats.put("inFlight", group.getInFlight());
+            snapshot.put(entry.getKey(), stats);
+            totalCoalesced += group.getCoalesced();
+        }
+        snapshot.put("totalCoalesced", totalCoalesced);
+        return snapshot;
+    }
+}
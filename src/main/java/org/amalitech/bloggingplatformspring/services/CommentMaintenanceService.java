@@ -0,0 +1,70 @@
+package org.amalitech.bloggingplatformspring.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.bloggingplatformspring.config.CommentMaintenanceConfig;
+import org.amalitech.bloggingplatformspring.dtos.responses.OrphanSweepResult;
+import org.amalitech.bloggingplatformspring.exceptions.SQLQueryException;
+import org.amalitech.bloggingplatformspring.repository.CommentRepository;
+import org.amalitech.bloggingplatformspring.repository.PostRepository;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+@Slf4j
+@Service
+public class CommentMaintenanceService {
+
+    private final CommentRepository commentRepository;
+    private final PostRepository postRepository;
+    private final CommentMaintenanceConfig config;
+
+    public CommentMaintenanceService(CommentRepository commentRepository, PostRepository postRepository,
+                                     CommentMaintenanceConfig config) {
+        this.commentRepository = commentRepository;
+        this.postRepository = postRepository;
+        this.config = config;
+    }
+
+    /**
+     * Finds post ids that still have comments but no longer exist in Postgres and
+     * queues them for purging. The id list is checked in chunks, several at a time.
+     */
+    public OrphanSweepResult sweepOrphanedComments() {
+        List<Integer> commentedPostIds = commentRepository.getCommentedPostIds();
+        int chunkSize = Math.max(1, config.getSweepChunkSize());
+
+        List<Future<List<Integer>>> chunks = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, config.getSweepParallelism()))) {
+            for (int start = 0; start < commentedPostIds.size(); start += chunkSize) {
+                List<Integer> chunk = commentedPostIds.subList(start, Math.min(start + chunkSize, commentedPostIds.size()));
+                chunks.add(executor.submit(() -> findOrphans(chunk)));
+            }
+
+            List<Integer> orphans = new ArrayList<>();
+            for (Future<List<Integer>> chunk : chunks) {
+                orphans.addAll(chunk.get());
+            }
+
+            orphans.forEach(commentRepository::purgeCommentsByPostId);
+            log.info("Orphan sweep checked {} posts and queued {} for purging", commentedPostIds.size(), orphans.size());
+            return new OrphanSweepResult(commentedPostIds.size(), orphans.size());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLQueryException("Orphan sweep was interrupted");
+        } catch (ExecutionException e) {
+            throw new SQLQueryException("Error occurred while sweeping orphaned comments: " + e.getCause().getMessage());
+        }
+    }
+
+    private List<Integer> findOrphans(List<Integer> postIds) throws SQLException {
+        Set<Integer> existing = postRepository.findExistingPostIds(postIds);
+        return postIds.stream()
+                .filter(postId -> !existing.contains(postId))
+                .toList();
+    }
+}
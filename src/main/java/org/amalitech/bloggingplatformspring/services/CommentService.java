@@ -1,22 +1,39 @@
 package org.amalitech.bloggingplatformspring.services;
 
+import org.amalitech.bloggingplatformspring.cache.EncodedResponseCache;
+import org.amalitech.bloggingplatformspring.cache.ResourceVersion;
+import org.amalitech.bloggingplatformspring.dtos.requests.CommentPageRequest;
 import org.amalitech.bloggingplatformspring.dtos.requests.CreateCommentDTO;
 import org.amalitech.bloggingplatformspring.dtos.requests.DeleteCommentRequestDTO;
+import org.amalitech.bloggingplatformspring.dtos.responses.CommentThreadNode;
+import org.amalitech.bloggingplatformspring.dtos.responses.CursorPage;
 import org.amalitech.bloggingplatformspring.entity.Comment;
 import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+import org.amalitech.bloggingplatformspring.entity.CommentSetVersion;
 import org.amalitech.bloggingplatformspring.entity.Post;
 import org.amalitech.bloggingplatformspring.entity.User;
+import org.amalitech.bloggingplatformspring.enums.EventTopic;
+import org.amalitech.bloggingplatformspring.events.CommentEventBroadcaster;
+import org.amalitech.bloggingplatformspring.events.SubscriptionEventBus;
+import org.amalitech.bloggingplatformspring.exceptions.BadRequestException;
 import org.amalitech.bloggingplatformspring.exceptions.InvalidUserIdFormatException;
 import org.amalitech.bloggingplatformspring.exceptions.ResourceNotFoundException;
 import org.amalitech.bloggingplatformspring.exceptions.SQLQueryException;
+import org.amalitech.bloggingplatformspring.exceptions.ServiceUnavailableException;
 import org.amalitech.bloggingplatformspring.repository.CommentRepository;
 import org.amalitech.bloggingplatformspring.repository.PostRepository;
 import org.amalitech.bloggingplatformspring.repository.UserRepository;
+import org.amalitech.bloggingplatformspring.utils.CommentUtils;
+import org.amalitech.bloggingplatformspring.utils.Constants;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.sql.SQLException;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -25,11 +42,21 @@ public class CommentService {
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final PostRepository postRepository;
-
-    public CommentService(CommentRepository commentRepository, UserRepository userRepository, PostRepository postRepository) {
+    private final CommentEventBroadcaster commentEvents;
+    private final SubscriptionEventBus eventBus;
+    private final EncodedResponseCache encodedResponseCache;
+    private final CommentUtils commentUtils;
+
+    public CommentService(CommentRepository commentRepository, UserRepository userRepository, PostRepository postRepository,
+                          CommentEventBroadcaster commentEvents, SubscriptionEventBus eventBus,
+                          EncodedResponseCache encodedResponseCache) {
         this.commentRepository = commentRepository;
         this.userRepository = userRepository;
         this.postRepository = postRepository;
+        this.commentEvents = commentEvents;
+        this.eventBus = eventBus;
+        this.encodedResponseCache = encodedResponseCache;
+        this.commentUtils = new CommentUtils();
     }
 
     public CommentDocument addCommentToPost(CreateCommentDTO newComment) {
@@ -40,13 +67,18 @@ public class CommentService {
                 newComment.getCommentContent(),
                 LocalDateTime.now()
         );
+        comment.setParentId(newComment.getParentId());
 
         try {
             User user = userRepository.findUserById(UUID.fromString(authorId)).orElseThrow(
                     () -> new ResourceNotFoundException("User not found")
             );
 
-            return commentRepository.createComment(comment, user.getUsername());
+            CommentDocument created = commentRepository.createComment(comment, user.getUsername());
+            encodedResponseCache.evictPost(created.getPostId());
+            commentEvents.publishCreated(created);
+            eventBus.publish(EventTopic.COMMENT_ADDED, created.getPostId(), created);
+            return created;
 
         } catch (IllegalArgumentException ex) {
             throw new InvalidUserIdFormatException("User ID format is invalid: " + ex.getMessage());
@@ -55,21 +87,89 @@ public class CommentService {
         }
     }
 
-    public List<CommentDocument> getAllCommentsByPostId(int postId) {
+    public CursorPage<CommentDocument> getCommentsByPostId(int postId, CommentPageRequest pageRequest) {
+        if (pageRequest.size() <= 0) {
+            throw new BadRequestException("Page size must be a positive number");
+        }
+
         try {
             Post post = postRepository.findPostById(postId).orElseThrow(
                     () -> new ResourceNotFoundException("Post not found with ID: " + postId)
             );
 
-            List<CommentDocument> commentDocuments = commentRepository.getAllCommentsByPostId(post.getId());
-
-            return commentDocuments.isEmpty() ? List.of() : commentDocuments;
+            int size = Math.min(Constants.MaxCommentPageSize, pageRequest.size());
+            return commentRepository.getCommentsByPostId(post.getId(),
+                    new CommentPageRequest(size, pageRequest.cursor(), pageRequest.direction()));
 
         } catch (SQLException e) {
             throw new SQLQueryException("Failed to find comment: " + e.getMessage());
         }
     }
 
+    /**
+     * Returns validators for one page of a post's comments without loading it. The ETag
+     * combines the comment-set version with the page parameters. Empty when the post does
+     * not exist or the comment store is unavailable.
+     */
+    public Optional<ResourceVersion> getCommentsVersion(int postId, CommentPageRequest pageRequest) {
+        if (pageRequest.size() <= 0) {
+            return Optional.empty();
+        }
+
+        try {
+            if (postRepository.findPostById(postId).isEmpty()) {
+                return Optional.empty();
+            }
+
+            CommentSetVersion comments = commentRepository.getCommentSetVersion(postId);
+            int size = Math.min(Constants.MaxCommentPageSize, pageRequest.size());
+            int page = Objects.hash(size, pageRequest.cursor(), String.valueOf(pageRequest.direction()));
+            String etag = "\"comments-" + postId + "-" + comments.tag() + "-" + Integer.toHexString(page) + "\"";
+            long lastModified = comments.lastModified() == null || Instant.EPOCH.equals(comments.lastModified())
+                    ? ResourceVersion.UNKNOWN
+                    : comments.lastModified().toEpochMilli();
+            return Optional.of(new ResourceVersion(etag, lastModified));
+        } catch (ServiceUnavailableException e) {
+            return Optional.empty();
+        } catch (SQLException e) {
+            throw new SQLQueryException("Failed to fetch comments version: " + e.getMessage());
+        }
+    }
+
+    public SseEmitter streamComments(int postId) {
+        try {
+            postRepository.findPostById(postId).orElseThrow(
+                    () -> new ResourceNotFoundException("Post not found with ID: " + postId)
+            );
+        } catch (SQLException e) {
+            throw new SQLQueryException("Failed to open comment stream: " + e.getMessage());
+        }
+        return commentEvents.subscribe(postId);
+    }
+
+    public CursorPage<CommentDocument> getReplies(String commentId, CommentPageRequest pageRequest) {
+        if (pageRequest.size() <= 0) {
+            throw new BadRequestException("Page size must be a positive number");
+        }
+
+        int size = Math.min(Constants.MaxCommentPageSize, pageRequest.size());
+        return commentRepository.getReplies(commentId,
+                new CommentPageRequest(size, pageRequest.cursor(), pageRequest.direction()));
+    }
+
+    public CommentThreadNode getCommentThread(String commentId, int depth) {
+        if (depth <= 0) {
+            throw new BadRequestException("Thread depth must be a positive number");
+        }
+
+        List<CommentDocument> subtree = commentRepository.getCommentSubtree(commentId,
+                Math.min(Constants.MaxCommentDepth, depth));
+        if (subtree.isEmpty()) {
+            throw new ResourceNotFoundException("Comment not found with id: " + commentId);
+        }
+        return commentUtils.buildThread(subtree);
+    }
+
     public CommentDocument getCommentById(String commentId) {
 
         return commentRepository.getCommentById(commentId).orElseThrow(
@@ -85,7 +185,9 @@ public class CommentService {
                     () -> new ResourceNotFoundException("User not found")
             );
 
-            commentRepository.deleteComment(commentId, authorId);
+            int postId = commentRepository.deleteComment(commentId, authorId);
+            encodedResponseCache.evictPost(postId);
+            commentEvents.publishDeleted(postId, commentId);
 
         } catch (IllegalArgumentException ex) {
             throw new InvalidUserIdFormatException("User ID format is invalid: " + ex.getMessage());
@@ -94,4 +196,8 @@ public class CommentService {
         }
     }
 
-}
\ No newline at end of file
+    public long rebuildCommentCounters() {
+        return commentRepository.rebuildCommentCounters();
+    }
+
+}
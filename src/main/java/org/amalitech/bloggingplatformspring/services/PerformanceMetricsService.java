@@ -2,7 +2,16 @@ package org.amalitech.bloggingplatformspring.services;
 
 import lombok.RequiredArgsConstructor;
 import org.amalitech.bloggingplatformspring.aop.PerformanceMonitoringAspect;
+import org.amalitech.bloggingplatformspring.cache.EncodedResponseCache;
+import org.amalitech.bloggingplatformspring.cache.PostPageCache;
 import org.amalitech.bloggingplatformspring.aop.PerformanceMonitoringAspect.MethodMetrics;
+import org.amalitech.bloggingplatformspring.events.CommentEventBroadcaster;
+import org.amalitech.bloggingplatformspring.events.SubscriptionEventBus;
+import org.amalitech.bloggingplatformspring.graphql.execution.GraphQLFetchExecutor;
+import org.amalitech.bloggingplatformspring.graphql.execution.PersistedDocumentProvider;
+import org.amalitech.bloggingplatformspring.graphql.execution.QueryCostInstrumentation;
+import org.amalitech.bloggingplatformspring.limiter.AdaptiveConcurrencyLimiter;
+import org.amalitech.bloggingplatformspring.resilience.RequestCoalescer;
 import org.springframework.stereotype.Service;
 
 import java.util.Date;
@@ -15,6 +24,15 @@ import java.util.concurrent.ConcurrentHashMap;
 public class PerformanceMetricsService {
 
     private final PerformanceMonitoringAspect performanceAspect;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final RequestCoalescer requestCoalescer;
+    private final PostPageCache postPageCache;
+    private final EncodedResponseCache encodedResponseCache;
+    private final CommentEventBroadcaster commentEvents;
+    private final SubscriptionEventBus eventBus;
+    private final PersistedDocumentProvider graphqlDocuments;
+    private final QueryCostInstrumentation graphqlCost;
+    private final GraphQLFetchExecutor graphqlFetchers;
 
     /**
      * Get all metrics
@@ -26,6 +44,15 @@ public class PerformanceMetricsService {
         result.put("totalMethods", allMetrics.size());
         result.put("timestamp", new Date());
         result.put("metrics", allMetrics);
+        result.put("concurrencyLimiter", concurrencyLimiter.snapshot());
+        result.put("requestCoalescing", requestCoalescer.snapshot());
+        result.put("postPageCache", postPageCache.snapshot());
+        result.put("encodedResponseCache", encodedResponseCache.snapshot());
+        result.put("commentStreams", commentEvents.snapshot());
+        result.put("graphqlSubscriptions", eventBus.snapshot());
+        result.put("graphqlDocuments", graphqlDocuments.snapshot());
+        result.put("graphqlQueryCost", graphqlCost.snapshot());
+        result.put("graphqlFetchers", graphqlFetchers.snapshot());
 
         return result;
     }
@@ -61,6 +88,15 @@ public class PerformanceMetricsService {
         summary.put("totalExecutions", totalExecutions);
         summary.put("totalFailures", totalFailures);
         summary.put("overallAverageExecutionTime", String.format("%.2f ms", overallAvgTime));
+        summary.put("concurrencyLimiter", concurrencyLimiter.snapshot());
+        summary.put("requestCoalescing", requestCoalescer.snapshot());
+        summary.put("postPageCache", postPageCache.snapshot());
+        summary.put("encodedResponseCache", encodedResponseCache.snapshot());
+        summary.put("commentStreams", commentEvents.snapshot());
+        summary.put("graphqlSubscriptions", eventBus.snapshot());
+        summary.put("graphqlDocuments", graphqlDocuments.snapshot());
+        summary.put("graphqlQueryCost", graphqlCost.snapshot());
+        summary.put("graphqlFetchers", graphqlFetchers.snapshot());
         summary.put("timestamp", new Date());
 
         return summary;
@@ -1,24 +1,39 @@
 package org.amalitech.bloggingplatformspring.services;
 
 import lombok.extern.slf4j.Slf4j;
+import org.amalitech.bloggingplatformspring.cache.PostPageCache;
+import org.amalitech.bloggingplatformspring.cache.PostPageKey;
+import org.amalitech.bloggingplatformspring.cache.ResourceVersion;
+import org.amalitech.bloggingplatformspring.cache.Versioned;
 import org.amalitech.bloggingplatformspring.dtos.requests.*;
 import org.amalitech.bloggingplatformspring.dtos.responses.PageResponse;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostChange;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostChangesResponse;
 import org.amalitech.bloggingplatformspring.dtos.responses.PostResponseDTO;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostViewDTO;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostWithCommentsDTO;
+import org.amalitech.bloggingplatformspring.entity.CommentSetVersion;
 import org.amalitech.bloggingplatformspring.entity.Post;
+import org.amalitech.bloggingplatformspring.entity.PostChangeEntry;
 import org.amalitech.bloggingplatformspring.entity.User;
+import org.amalitech.bloggingplatformspring.enums.EventTopic;
+import org.amalitech.bloggingplatformspring.enums.PostChangeType;
+import org.amalitech.bloggingplatformspring.events.PostEvent;
+import org.amalitech.bloggingplatformspring.events.SubscriptionEventBus;
 import org.amalitech.bloggingplatformspring.exceptions.*;
 import org.amalitech.bloggingplatformspring.repository.CommentRepository;
 import org.amalitech.bloggingplatformspring.repository.PostRepository;
 import org.amalitech.bloggingplatformspring.repository.UserRepository;
+import org.amalitech.bloggingplatformspring.resilience.RequestCoalescer;
+import org.amalitech.bloggingplatformspring.resilience.SingleFlight;
+import org.amalitech.bloggingplatformspring.utils.Constants;
 import org.amalitech.bloggingplatformspring.utils.PostUtils;
 import org.springframework.stereotype.Service;
 
 import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.UUID;
+import java.time.ZoneId;
+import java.util.*;
 
 @Slf4j
 @Service
@@ -28,12 +43,21 @@ public class PostService {
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
     private final PostUtils postUtils;
+    private final PostPageCache postPageCache;
+    private final SubscriptionEventBus eventBus;
+    private final SingleFlight<Versioned<Integer>, PostResponseDTO> postLoads;
+    private final SingleFlight<Versioned<PostPageKey>, PageResponse<PostResponseDTO>> pageLoads;
 
-    public PostService(PostRepository postRepository, UserRepository userRepository, CommentRepository commentRepository) {
+    public PostService(PostRepository postRepository, UserRepository userRepository, CommentRepository commentRepository,
+                       RequestCoalescer requestCoalescer, PostPageCache postPageCache, SubscriptionEventBus eventBus) {
         this.postRepository = postRepository;
         this.userRepository = userRepository;
         this.commentRepository = commentRepository;
         this.postUtils = new PostUtils();
+        this.postPageCache = postPageCache;
+        this.eventBus = eventBus;
+        this.postLoads = requestCoalescer.group("postById");
+        this.pageLoads = requestCoalescer.group("postPage");
     }
 
     public PostResponseDTO createPost(CreatePostDTO createPostDTO) {
@@ -50,6 +74,9 @@ public class PostService {
                     .orElseThrow(() ->
                             new ResourceNotFoundException("User not found with ID: " + userId));
             Post post = postRepository.savePost(createPostDTO);
+            postPageCache.invalidateAll();
+            List<String> tags = createPostDTO.getTags() == null ? List.of() : createPostDTO.getTags();
+            eventBus.publish(EventTopic.POST_CREATED, tags, new PostEvent(post, user.getUsername(), tags));
 
             return postUtils.createResponseFromPostAndTags(
                     post,
@@ -62,7 +89,26 @@ public class PostService {
         }
     }
 
+    /**
+     * Hot pages are served from {@link PostPageCache} until the next post write. On a miss,
+     * concurrent requests for the same page and write version share a single load.
+     */
     public PageResponse<PostResponseDTO> getPaginatedPosts(PageRequest pageRequest, PostFilterRequest postFilterRequest) {
+        if (pageRequest == null) {
+            return loadPaginatedPosts(null, postFilterRequest);
+        }
+
+        PostPageKey key = PostPageKey.of(pageRequest, postFilterRequest);
+        long version = postPageCache.currentVersion();
+        return postPageCache.get(key, version).orElseGet(() ->
+                pageLoads.execute(new Versioned<>(key, version), () -> {
+                    PageResponse<PostResponseDTO> page = loadPaginatedPosts(pageRequest, postFilterRequest);
+                    postPageCache.put(key, version, page);
+                    return page;
+                }));
+    }
+
+    private PageResponse<PostResponseDTO> loadPaginatedPosts(PageRequest pageRequest, PostFilterRequest postFilterRequest) {
         try {
             return postRepository.getAllPosts(pageRequest, postFilterRequest);
         } catch (SQLException e) {
@@ -79,11 +125,51 @@ public class PostService {
         }
     }
 
+    /**
+     * Concurrent requests for the same post share a single load, unless a post write lands
+     * in between.
+     */
     public PostResponseDTO getPostById(int postId) {
         if (postId <= 0) {
             throw new BadRequestException("Post ID must be a positive number");
         }
 
+        return postLoads.execute(new Versioned<>(postId, postPageCache.currentVersion()), () -> loadPostById(postId));
+    }
+
+    /**
+     * Returns the post's validators without loading it: an ETag built from the post's
+     * version and its comment-set version, plus a Last-Modified time when the comment store
+     * tracks one. Empty when the post does not exist or comments are unavailable, so the caller
+     * falls back to a full response.
+     */
+    public Optional<ResourceVersion> getPostVersion(int postId) {
+        if (postId <= 0) {
+            return Optional.empty();
+        }
+
+        try {
+            Optional<Post> post = postRepository.findPostById(postId);
+            if (post.isEmpty()) {
+                return Optional.empty();
+            }
+
+            CommentSetVersion comments = commentRepository.getCommentSetVersion(postId);
+            LocalDateTime updatedAt = post.get().getUpdatedAt();
+            long updatedMillis = updatedAt == null ? 0L : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            String etag = postUtils.postETag(postId, post.get().getVersion(), comments.tag());
+            long lastModified = comments.lastModified() == null
+                    ? ResourceVersion.UNKNOWN
+                    : Math.max(updatedMillis, comments.lastModified().toEpochMilli());
+            return Optional.of(new ResourceVersion(etag, lastModified));
+        } catch (ServiceUnavailableException e) {
+            return Optional.empty();
+        } catch (SQLException e) {
+            throw new SQLQueryException("Error occurred while fetching post version: " + e.getMessage());
+        }
+    }
+
+    private PostResponseDTO loadPostById(int postId) {
         try {
 
             return postRepository.getPostResponseById(postId).orElseThrow(
@@ -95,7 +181,66 @@ public class PostService {
         }
     }
 
+    public PostWithCommentsDTO getPostWithComments(int postId, int commentSize) {
+        if (postId <= 0) {
+            throw new BadRequestException("Post ID must be a positive number");
+        }
+        if (commentSize <= 0) {
+            throw new BadRequestException("Page size must be a positive number");
+        }
+
+        try {
+            int size = Math.min(Constants.MaxCommentPageSize, commentSize);
+            return postRepository.getPostWithComments(postId, size).orElseThrow(
+                    () -> new ResourceNotFoundException("Post not Found with ID: " + postId)
+            );
+        } catch (SQLException e) {
+            throw new SQLQueryException("Error occurred while fetching posts: " + e.getMessage());
+        }
+    }
+
+    public PostViewDTO getPostView(int postId, PostFieldSelection selection) {
+        if (postId <= 0) {
+            throw new BadRequestException("Post ID must be a positive number");
+        }
+
+        try {
+            return postRepository.getPostViewById(postId, selection).orElseThrow(
+                    () -> new ResourceNotFoundException("Post not Found with ID: " + postId)
+            );
+        } catch (SQLException e) {
+            throw new SQLQueryException("Error occurred while fetching posts: " + e.getMessage());
+        }
+    }
+
+    public List<PostViewDTO> getAllPostViews(PostFieldSelection selection) {
+        try {
+            return postRepository.getAllPostViews(selection);
+        } catch (SQLException e) {
+            throw new SQLQueryException("Error occurred while fetching posts: " + e.getMessage());
+        }
+    }
+
+    public PageResponse<PostViewDTO> getPaginatedPostViews(PageRequest pageRequest, PostFilterRequest postFilterRequest,
+                                                           PostFieldSelection selection) {
+        try {
+            return postRepository.getAllPostViews(pageRequest, postFilterRequest, selection);
+        } catch (SQLException e) {
+            throw new SQLQueryException("Error occurred while fetching posts: " + e.getMessage());
+        }
+    }
+
     public PostResponseDTO updatePost(int postId, UpdatePostDTO updatePostDTO) {
+        return updatePost(postId, updatePostDTO, null);
+    }
+
+    /**
+     * Updates the post with a compare-and-set on its version. With an {@code If-Match} value,
+     * a stale version is rejected with 412 straight after the post is read, before the user
+     * and tag lookups. Without one, an update that lands between our read and write fails
+     * with 409 instead of being silently overwritten.
+     */
+    public PostResponseDTO updatePost(int postId, UpdatePostDTO updatePostDTO, String ifMatch) {
         try {
 
             UUID userID = UUID.fromString(updatePostDTO.getAuthorId());
@@ -104,6 +249,12 @@ public class PostService {
                     () -> new ResourceNotFoundException("Post with ID: " + postId + " not found.")
             );
 
+            Set<Long> expectedVersions = ifMatch == null ? null : postUtils.versionsFromIfMatch(postId, ifMatch);
+            if (expectedVersions != null && !expectedVersions.contains(post.getVersion())) {
+                throw new PreconditionFailedException("Post with ID: " + postId
+                        + " has been modified; its current version is " + post.getVersion() + ".");
+            }
+
             User user = userRepository.findUserById(userID).orElseThrow(
                     () -> new ResourceNotFoundException("User not found with ID: " + userID)
             );
@@ -128,12 +279,17 @@ public class PostService {
                     body,
                     post.getAuthorId(),
                     post.getCreatedAt(),
-                    LocalDateTime.now()
+                    LocalDateTime.now(),
+                    post.getVersion()
             );
 
-            postRepository.updatePost(updatedPost, updatedTags);
-            long totalComments = commentRepository.getTotalCommentsByPostId(post.getId());
-            return postUtils.createResponseFromPostAndTags(updatedPost, user.getUsername(), updatedTags, totalComments);
+            if (!postRepository.updatePost(updatedPost, updatedTags)) {
+                String message = "Post with ID: " + postId + " was modified by another request.";
+                throw ifMatch == null ? new ConflictException(message) : new PreconditionFailedException(message);
+            }
+            postPageCache.invalidateAll();
+            eventBus.publish(EventTopic.POST_UPDATED, postId, new PostEvent(updatedPost, user.getUsername(), updatedTags));
+            return withCommentCount(postUtils.createResponseFromPostAndTags(updatedPost, user.getUsername(), updatedTags, 0L));
 
         } catch (IllegalArgumentException e) {
             throw new InvalidUserIdFormatException("Invalid user ID format: " + e.getMessage());
@@ -142,6 +298,73 @@ public class PostService {
         }
     }
 
+    /**
+     * Fills in the comment count once the update has committed. An unavailable comment store
+     * marks the count as such rather than failing a write that already succeeded.
+     */
+    private PostResponseDTO withCommentCount(PostResponseDTO response) {
+        try {
+            response.setTotalComments(commentRepository.getTotalCommentsByPostId(response.getId()));
+        } catch (ServiceUnavailableException e) {
+            log.warn("Returning updated post {} without its comment count: {}", response.getId(), e.getMessage());
+            response.setCommentCountUnavailable(true);
+        }
+        return response;
+    }
+
+    /**
+     * Returns the posts created, updated or deleted after the {@code since} watermark, oldest
+     * change first, with current summaries for posts that still exist. A missing token starts
+     * from the beginning of the feed.
+     */
+    public PostChangesResponse getPostChanges(String since, int limit) {
+        if (limit <= 0) {
+            throw new BadRequestException("Limit must be a positive number");
+        }
+
+        long watermark = since == null || since.isBlank() ? 0L : postUtils.decodeChangeToken(since);
+        int size = Math.min(Constants.MaxPostChangesPageSize, limit);
+
+        try {
+            List<PostChangeEntry> entries = postRepository.getPostChangesSince(watermark, size + 1);
+            boolean hasMore = entries.size() > size;
+            if (hasMore) {
+                entries = entries.subList(0, size);
+            }
+
+            List<Integer> liveIds = entries.stream()
+                    .filter(entry -> !entry.deleted())
+                    .map(PostChangeEntry::postId)
+                    .toList();
+            Map<Integer, PostResponseDTO> summaries = new HashMap<>();
+            for (PostResponseDTO post : postRepository.getPostResponsesByIds(liveIds)) {
+                summaries.put(post.getId(), post);
+            }
+
+            List<PostChange> changes = new ArrayList<>(entries.size());
+            for (PostChangeEntry entry : entries) {
+                // A post deleted after the feed was read has its tombstone further along.
+                PostResponseDTO post = summaries.get(entry.postId());
+                PostChangeType type = post == null
+                        ? PostChangeType.DELETED
+                        : entry.createdSeq() > watermark ? PostChangeType.CREATED : PostChangeType.UPDATED;
+                changes.add(new PostChange(entry.postId(), type, post));
+            }
+
+            long next = entries.isEmpty() ? watermark : entries.getLast().seq();
+            return new PostChangesResponse(changes, postUtils.encodeChangeToken(next), hasMore);
+        } catch (SQLException e) {
+            throw new SQLQueryException("Error occurred while fetching post changes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * ETag for a post returned from a write, usable as {@code If-Match} on the next update.
+     */
+    public String getETag(PostResponseDTO post) {
+        return postUtils.postETag(post.getId(), post.getVersion(), null);
+    }
+
     public void deletePost(int postId, DeletePostRequestDTO deletePostRequestDTO) {
         try {
             UUID userID = UUID.fromString(deletePostRequestDTO.getAuthorId());
@@ -158,6 +381,7 @@ public class PostService {
             }
 
             postRepository.deletePost(postId, userID);
+            postPageCache.invalidateAll();
 
         } catch (IllegalArgumentException e) {
             throw new InvalidUserIdFormatException("Invalid user ID format: " + e.getMessage());
@@ -165,4 +389,4 @@ public class PostService {
             throw new SQLQueryException("Error occurred while deleting post: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
@@ -1,31 +1,78 @@
 package org.amalitech.bloggingplatformspring.utils;
 
+import org.amalitech.bloggingplatformspring.dtos.responses.CommentThreadNode;
 import org.amalitech.bloggingplatformspring.entity.CommentDocument;
-import org.bson.Document;
 
-import java.time.LocalDateTime;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.Date;
+import java.util.*;
 
 public class CommentUtils {
 
-    public CommentDocument mapDocumentToComment(Document document) {
-        return new CommentDocument(
-                document.getObjectId("_id").toHexString(),
-                document.getInteger("postId"),
-                document.getString("author"),
-                document.getString("content"),
-                formatCommentedAt(document.getDate("commentedAt"))
-        );
-    }
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(Constants.DateTimeFormatPattern);
 
-    private String formatCommentedAt(Date date) {
+    public String formatCommentedAt(Date date) {
         if (date == null) return null;
-        LocalDateTime commentedAt = date.toInstant()
+        return date.toInstant()
                 .atZone(ZoneId.systemDefault())
-                .toLocalDateTime();
-        return commentedAt.format(DateTimeFormatter.ofPattern(Constants.DateTimeFormatPattern));
+                .toLocalDateTime()
+                .format(FORMATTER);
+    }
+
+    /**
+     * Maps the {@code comment_*} columns of a Postgres row, or returns null when the
+     * row carries no comment (e.g. the empty side of a LEFT JOIN).
+     */
+    public CommentDocument mapRowToComment(ResultSet rs) throws SQLException {
+        long id = rs.getLong("comment_id");
+        if (rs.wasNull()) {
+            return null;
+        }
+
+        Timestamp commentedAt = rs.getTimestamp("comment_commented_at");
+        CommentDocument comment = new CommentDocument(
+                String.valueOf(id),
+                rs.getInt("comment_post_id"),
+                rs.getString("comment_author"),
+                rs.getString("comment_content"),
+                formatCommentedAt(commentedAt)
+        );
+        comment.setCommentedAt(commentedAt == null ? null : new Date(commentedAt.getTime()));
+
+        Object parentId = rs.getObject("comment_parent_id");
+        comment.setParentId(parentId == null ? null : parentId.toString());
+        comment.setDepth(rs.getInt("comment_depth"));
+        comment.setReplyCount(rs.getLong("comment_reply_count"));
+        if (rs.getBoolean("comment_deleted")) {
+            comment.setDeleted(true);
+            comment.setAuthor(null);
+            comment.setContent(null);
+        }
+        return comment;
+    }
+
+    /**
+     * Builds a reply tree from a subtree listing whose first element is the root and whose
+     * remaining elements are ordered by depth. Nodes that have more replies than were loaded
+     * (because of the depth limit or the thread size cap) are flagged for lazy loading.
+     */
+    public CommentThreadNode buildThread(List<CommentDocument> subtree) {
+        Map<String, List<CommentDocument>> childrenByParent = new HashMap<>();
+        for (CommentDocument comment : subtree.subList(1, subtree.size())) {
+            childrenByParent.computeIfAbsent(comment.getParentId(), key -> new ArrayList<>()).add(comment);
+        }
+        return toNode(subtree.getFirst(), childrenByParent);
+    }
+
+    private CommentThreadNode toNode(CommentDocument comment, Map<String, List<CommentDocument>> childrenByParent) {
+        List<CommentDocument> children = childrenByParent.getOrDefault(comment.getId(), List.of());
+        List<CommentThreadNode> replies = children.stream()
+                .map(child -> toNode(child, childrenByParent))
+                .toList();
+        return new CommentThreadNode(comment, replies, comment.getReplyCount() > replies.size());
     }
 
-}
\ No newline at end of file
+}
@@ -3,4 +3,11 @@ package org.amalitech.bloggingplatformspring.utils;
 public class Constants {
     public static String DateTimeFormatPattern = "EEEE, MMMM d, yyyy HH:mm:ss";
     public static String CommentsMongoCollection = "comments";
-}
\ No newline at end of file
+    public static String CommentCountersMongoCollection = "comment_counters";
+    public static final int DefaultCommentPageSize = 20;
+    public static final int MaxCommentPageSize = 50;
+    public static final int MaxCommentDepth = 8;
+    public static final int DefaultThreadDepth = 3;
+    public static final int MaxThreadComments = 500;
+    public static final int MaxPostChangesPageSize = 500;
+}
@@ -1,19 +1,25 @@
 package org.amalitech.bloggingplatformspring.utils;
 
+import org.amalitech.bloggingplatformspring.dtos.requests.PostFieldSelection;
 import org.amalitech.bloggingplatformspring.dtos.responses.PostResponseDTO;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostViewDTO;
 import org.amalitech.bloggingplatformspring.entity.Post;
+import org.amalitech.bloggingplatformspring.exceptions.BadRequestException;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.Array;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class PostUtils {
 
+    private static final Pattern POST_ETAG = Pattern.compile("(?:W/)?\"post-(\\d+)-(\\d+)(?:-[^\"]*)?\"");
+
     public Post mapRowToPost(ResultSet rs) throws SQLException {
         int id = rs.getInt("id");
         String title = rs.getString("title");
@@ -21,10 +27,11 @@ public class PostUtils {
         LocalDateTime createdAt = rs.getTimestamp("posted_at").toLocalDateTime();
         LocalDateTime updatedAt = rs.getTimestamp("updated_at").toLocalDateTime();
         UUID authorId = (UUID) rs.getObject("author_id");
+        long version = rs.getLong("version");
 
         return new Post(
                 id, title, body,
-                authorId, createdAt, updatedAt
+                authorId, createdAt, updatedAt, version
         );
     }
 
@@ -46,10 +53,98 @@ public class PostUtils {
         );
     }
 
+    public PostViewDTO mapRowToPostView(ResultSet rs, PostFieldSelection selection, Long totalComments) throws SQLException {
+        PostViewDTO view = new PostViewDTO();
+        view.setId(rs.getInt("id"));
+        view.setTitle(rs.getString("title"));
+
+        if (selection.body()) {
+            view.setBody(rs.getString("body"));
+        }
+        if (selection.author()) {
+            view.setAuthorId((UUID) rs.getObject("author_id"));
+            view.setAuthor(rs.getString("author"));
+        }
+        if (selection.createdAt()) {
+            view.setCreatedAt(rs.getTimestamp("posted_at").toLocalDateTime());
+        }
+        if (selection.updatedAt()) {
+            view.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        }
+        if (selection.tags()) {
+            Array tagsArray = rs.getArray("tags");
+            view.setTags(tagsArray == null
+                    ? List.of()
+                    : Arrays.asList((String[]) tagsArray.getArray()));
+        }
+        view.setTotalComments(totalComments);
+
+        return view;
+    }
+
     public PostResponseDTO createResponseFromPostAndTags(Post post, String authorName, List<String> tags, Long totalComments) {
-        return new PostResponseDTO(
+        PostResponseDTO response = new PostResponseDTO(
                 post.getId(), post.getTitle(), post.getBody(), authorName, tags, formatDate(post.getUpdatedAt()), totalComments
         );
+        response.setVersion(post.getVersion());
+        return response;
+    }
+
+    /**
+     * Builds a post ETag, {@code "post-<id>-<version>"} followed by the comment-set tag when
+     * the representation includes comment data.
+     */
+    public String postETag(int postId, long version, String commentTag) {
+        String etag = "post-" + postId + "-" + version;
+        return "\"" + (commentTag == null ? etag : etag + "-" + commentTag) + "\"";
+    }
+
+    /**
+     * Encodes a change-feed watermark as an opaque, URL-safe token.
+     */
+    public String encodeChangeToken(long seq) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("changes:" + seq).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public long decodeChangeToken(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.startsWith("changes:")) {
+                throw new BadRequestException("Invalid change token");
+            }
+            long seq = Long.parseLong(raw.substring("changes:".length()));
+            if (seq < 0) {
+                throw new BadRequestException("Invalid change token");
+            }
+            return seq;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid change token");
+        }
+    }
+
+    /**
+     * Returns the post versions named by an {@code If-Match} header, or null for {@code *}.
+     * Weak tags are accepted because the gzip variant is only weak for its encoding, not its
+     * content. Tags for other posts or in another format are dropped, so they never match.
+     */
+    public Set<Long> versionsFromIfMatch(int postId, String ifMatch) {
+        if ("*".equals(ifMatch.trim())) {
+            return null;
+        }
+
+        Set<Long> versions = new HashSet<>();
+        Matcher matcher = POST_ETAG.matcher(ifMatch);
+        while (matcher.find()) {
+            try {
+                if (Integer.parseInt(matcher.group(1)) == postId) {
+                    versions.add(Long.parseLong(matcher.group(2)));
+                }
+            } catch (NumberFormatException ignored) {
+                // Out of range, so it cannot name a real version.
+            }
+        }
+        return versions;
     }
 
     private String formatDate(LocalDateTime localDateTime) {
@@ -0,0 +1,76 @@
+package org.amalitech.bloggingplatformspring.cache;
+
+import org.amalitech.bloggingplatformspring.config.CacheInvalidationConfig;
+import org.amalitech.bloggingplatformspring.config.DatabaseConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationListenerTest {
+
+    @Mock
+    private DatabaseConfig databaseConfig;
+
+    @Mock
+    private CacheInvalidationConfig config;
+
+    @Mock
+    private LocalCache postCache;
+
+    @Mock
+    private LocalCache otherCache;
+
+    private CacheInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new CacheInvalidationListener(databaseConfig, config, List.of(postCache, otherCache));
+    }
+
+    @Test
+    void dispatch_RemoteInvalidation_ReachesEveryCache() {
+        listener.dispatch(new CacheInvalidation(CacheEntity.POST, "12", "other-node").toPayload());
+
+        verify(postCache).onInvalidation(CacheEntity.POST, "12");
+        verify(otherCache).onInvalidation(CacheEntity.POST, "12");
+    }
+
+    @Test
+    void dispatch_OwnInvalidation_IsSkipped() {
+        listener.dispatch(CacheInvalidation.local(CacheEntity.POST, 12).toPayload());
+
+        verifyNoInteractions(postCache, otherCache);
+    }
+
+    @Test
+    void dispatch_MalformedPayload_IsIgnored() {
+        listener.dispatch("COMMENT:12:other-node");
+        listener.dispatch("garbage");
+
+        verifyNoInteractions(postCache, otherCache);
+    }
+
+    @Test
+    void dispatch_FailingCache_DoesNotStopOthers() {
+        doThrow(new IllegalStateException("boom")).when(postCache).onInvalidation(any(), any());
+
+        listener.dispatch(new CacheInvalidation(CacheEntity.POST, "12", "other-node").toPayload());
+
+        verify(otherCache).onInvalidation(CacheEntity.POST, "12");
+    }
+
+    @Test
+    void flushAll_FlushesEveryCache() {
+        listener.flushAll();
+
+        verify(postCache).flush();
+        verify(otherCache).flush();
+    }
+}
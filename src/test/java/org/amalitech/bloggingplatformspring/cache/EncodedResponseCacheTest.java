@@ -0,0 +1,167 @@
+package org.amalitech.bloggingplatformspring.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.amalitech.bloggingplatformspring.config.EncodedResponseCacheConfig;
+import org.amalitech.bloggingplatformspring.config.HttpCacheConfig;
+import org.amalitech.bloggingplatformspring.config.PostPageCacheConfig;
+import org.amalitech.bloggingplatformspring.dtos.responses.ApiResponseGeneric;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EncodedResponseCacheTest {
+
+    private final PostPageCache postPageCache = new PostPageCache(postPageCacheConfig());
+    private final EncodedResponseCache cache =
+            new EncodedResponseCache(encodedResponseCacheConfig(), httpCacheConfig(), postPageCache,
+                    new ObjectMapper());
+
+    @Test
+    void getOrEncode_Hit_ReturnsSameBytesWithoutLoading() {
+        AtomicInteger loads = new AtomicInteger();
+
+        EncodedBody first = cache.getOrEncode("post:1", () -> load(loads, "hello"), data -> true);
+        EncodedBody second = cache.getOrEncode("post:1", () -> load(loads, "changed"), data -> true);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getOrEncode_AfterPostWrite_EncodesAgain() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getOrEncode("post:1", () -> load(loads, "hello"), data -> true);
+        postPageCache.invalidateAll();
+        EncodedBody reloaded = cache.getOrEncode("post:1", () -> load(loads, "changed"), data -> true);
+
+        assertEquals(2, loads.get());
+        assertTrue(new String(reloaded.json()).contains("changed"));
+    }
+
+    @Test
+    void getOrEncode_NotCacheable_IsNotStored() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getOrEncode("post:1", () -> load(loads, "degraded"), data -> false);
+        cache.getOrEncode("post:1", () -> load(loads, "degraded"), data -> false);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictPost_DropsEncodedPostResponse() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getOrEncode(new PostKey(1), () -> load(loads, "hello"), data -> true);
+        cache.evictPost(1);
+        EncodedBody reloaded = cache.getOrEncode(new PostKey(1), () -> load(loads, "commented"), data -> true);
+
+        assertEquals(2, loads.get());
+        assertTrue(new String(reloaded.json()).contains("commented"));
+    }
+
+    @Test
+    void getOrEncode_WithValidators_HitReturnsStoredValidators() {
+        AtomicInteger lookups = new AtomicInteger();
+        ResourceVersion version = new ResourceVersion("\"post-1-1000-0\"", 5000L);
+        Supplier<Optional<ResourceVersion>> validators = () -> {
+            lookups.incrementAndGet();
+            return Optional.of(version);
+        };
+
+        cache.getOrEncode(new PostKey(1), validators, v -> false, () -> ApiResponseGeneric.success("ok", "a"),
+                data -> true);
+        Optional<EncodedBody> hit = cache.getOrEncode(new PostKey(1), validators, v -> false,
+                () -> ApiResponseGeneric.success("ok", "b"), data -> true);
+
+        assertEquals(1, lookups.get());
+        assertEquals(version, hit.orElseThrow().validators());
+        assertEquals("\"post-1-1000-0\"", cache.toResponse(hit.get(), null).getHeaders().getETag());
+    }
+
+    @Test
+    void getOrEncode_WithValidators_NotModifiedSkipsLoading() {
+        AtomicInteger loads = new AtomicInteger();
+
+        Optional<EncodedBody> body = cache.getOrEncode(new PostKey(1),
+                () -> Optional.of(new ResourceVersion("\"post-1-1000-0\"", 5000L)), v -> true,
+                () -> load(loads, "hello"), data -> true);
+
+        assertTrue(body.isEmpty());
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void acceptsGzip_HonoursQualityValues() {
+        assertTrue(EncodedResponseCache.acceptsGzip("gzip"));
+        assertTrue(EncodedResponseCache.acceptsGzip("br, gzip;q=0.5"));
+        assertTrue(EncodedResponseCache.acceptsGzip("*"));
+        assertFalse(EncodedResponseCache.acceptsGzip("gzip;q=0"));
+        assertFalse(EncodedResponseCache.acceptsGzip("gzip;q=0, *"));
+        assertFalse(EncodedResponseCache.acceptsGzip("identity"));
+        assertFalse(EncodedResponseCache.acceptsGzip(null));
+    }
+
+    @Test
+    void toResponse_SmallBody_SkipsGzipAndSetsContentLength() {
+        EncodedBody body = cache.getOrEncode("post:1", () -> ApiResponseGeneric.success("ok", "small"), data -> true);
+
+        ResponseEntity<byte[]> response = cache.toResponse(body, "gzip");
+
+        assertFalse(body.hasGzip());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(body.json().length, response.getHeaders().getContentLength());
+    }
+
+    @Test
+    void toResponse_GzipVariant_UsesWeakETag() {
+        EncodedBody body = cache.getOrEncode("post:2", () -> ApiResponseGeneric.success("ok", "x".repeat(2048)),
+                data -> true);
+
+        ResponseEntity<byte[]> plain = cache.toResponse(body, null);
+        ResponseEntity<byte[]> gzip = cache.toResponse(body, "gzip");
+
+        assertEquals(body.etag(), plain.getHeaders().getETag());
+        assertEquals("W/" + body.etag(), gzip.getHeaders().getETag());
+        assertTrue(plain.getHeaders().getCacheControl().contains("s-maxage=5"));
+    }
+
+    private ApiResponseGeneric<String> load(AtomicInteger loads, String data) {
+        loads.incrementAndGet();
+        return ApiResponseGeneric.success("Post retrieved successfully", data);
+    }
+
+    private static PostPageCacheConfig postPageCacheConfig() {
+        PostPageCacheConfig config = mock(PostPageCacheConfig.class);
+        when(config.isEnabled()).thenReturn(true);
+        when(config.getCachedPages()).thenReturn(5);
+        when(config.getMaxEntries()).thenReturn(256);
+        when(config.getTtlMs()).thenReturn(30000L);
+        return config;
+    }
+
+    private static EncodedResponseCacheConfig encodedResponseCacheConfig() {
+        EncodedResponseCacheConfig config = mock(EncodedResponseCacheConfig.class);
+        when(config.isEnabled()).thenReturn(true);
+        when(config.getMaxEntries()).thenReturn(512);
+        when(config.getTtlMs()).thenReturn(30000L);
+        when(config.getGzipMinBytes()).thenReturn(1024);
+        return config;
+    }
+
+    private static HttpCacheConfig httpCacheConfig() {
+        HttpCacheConfig config = new HttpCacheConfig();
+        ReflectionTestUtils.setField(config, "sharedMaxAgeSeconds", 5L);
+        return config;
+    }
+}
@@ -0,0 +1,92 @@
+package org.amalitech.bloggingplatformspring.cache;
+
+import org.amalitech.bloggingplatformspring.config.PostPageCacheConfig;
+import org.amalitech.bloggingplatformspring.dtos.requests.PageRequest;
+import org.amalitech.bloggingplatformspring.dtos.requests.PostFilterRequest;
+import org.amalitech.bloggingplatformspring.dtos.responses.PageResponse;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PostPageCacheTest {
+
+    @Mock
+    private PostPageCacheConfig config;
+
+    private PostPageCache cache;
+
+    @BeforeEach
+    void setUp() {
+        when(config.isEnabled()).thenReturn(true);
+        when(config.getCachedPages()).thenReturn(2);
+        when(config.getMaxEntries()).thenReturn(2);
+        when(config.getTtlMs()).thenReturn(60_000L);
+        cache = new PostPageCache(config);
+    }
+
+    @Test
+    void put_ThenGet_ReturnsPageForSameVersion() {
+        PostPageKey key = key(0, null);
+        PageResponse<PostResponseDTO> page = page(false);
+        long version = cache.currentVersion();
+
+        cache.put(key, version, page);
+
+        assertSame(page, cache.get(key, version).orElseThrow());
+    }
+
+    @Test
+    void loadStartedBeforeWrite_IsNeverServed() {
+        PostPageKey key = key(0, null);
+        long readVersion = cache.currentVersion();
+
+        cache.invalidateAll();
+        cache.put(key, readVersion, page(false));
+
+        assertTrue(cache.get(key, cache.currentVersion()).isEmpty());
+    }
+
+    @Test
+    void degradedPagesAndDeepPages_AreNotCached() {
+        long version = cache.currentVersion();
+        cache.put(key(0, null), version, page(true));
+        cache.put(key(5, null), version, page(false));
+
+        assertTrue(cache.get(key(0, null), version).isEmpty());
+        assertTrue(cache.get(key(5, null), version).isEmpty());
+    }
+
+    @Test
+    void put_BeyondMaxEntries_EvictsLeastRecentlyUsed() {
+        long version = cache.currentVersion();
+        cache.put(key(0, null), version, page(false));
+        cache.put(key(1, null), version, page(false));
+        cache.get(key(0, null), version);
+
+        cache.put(key(0, "java"), version, page(false));
+
+        assertTrue(cache.get(key(0, null), version).isPresent());
+        assertTrue(cache.get(key(1, null), version).isEmpty());
+    }
+
+    private PostPageKey key(int page, String tag) {
+        PostFilterRequest filter = tag == null ? null : new PostFilterRequest(null, null, List.of(tag));
+        return PostPageKey.of(new PageRequest(page, 10, "updatedAt", "DESC"), filter);
+    }
+
+    private PageResponse<PostResponseDTO> page(boolean degraded) {
+        return new PageResponse<>(List.of(), 0, 10, "updated_at : DESC", 0, degraded);
+    }
+}
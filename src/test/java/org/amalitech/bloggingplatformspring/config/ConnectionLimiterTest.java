@@ -0,0 +1,69 @@
+package org.amalitech.bloggingplatformspring.config;
+
+import org.amalitech.bloggingplatformspring.exceptions.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionLimiterTest {
+
+    @Test
+    void open_AtLimit_ThrowsServiceUnavailableAfterTimeout() throws SQLException {
+        ConnectionLimiter limiter = new ConnectionLimiter(1, 10);
+        ConnectionProvider driver = () -> mock(Connection.class);
+
+        Connection held = limiter.open(driver);
+
+        assertThrows(ServiceUnavailableException.class, () -> limiter.open(driver));
+        assertEquals(1, limiter.getInUse());
+        held.close();
+    }
+
+    @Test
+    void close_ReleasesPermitOnce() throws SQLException {
+        Connection driverConnection = mock(Connection.class);
+        ConnectionLimiter limiter = new ConnectionLimiter(2, 10);
+        ConnectionProvider driver = () -> driverConnection;
+
+        Connection connection = limiter.open(driver);
+        connection.close();
+        connection.close();
+
+        verify(driverConnection, times(2)).close();
+        assertEquals(0, limiter.getInUse());
+        assertDoesNotThrow(() -> {
+            limiter.open(driver);
+            limiter.open(driver);
+        });
+    }
+
+    @Test
+    void open_DriverFailure_ReleasesPermit() {
+        ConnectionLimiter limiter = new ConnectionLimiter(1, 10);
+        ConnectionProvider driver = () -> {
+            throw new SQLException("connection refused");
+        };
+
+        assertThrows(SQLException.class, () -> limiter.open(driver));
+        assertEquals(0, limiter.getInUse());
+    }
+
+    @Test
+    void connection_DelegatesOtherCalls() throws SQLException {
+        Connection driverConnection = mock(Connection.class);
+        when(driverConnection.getAutoCommit()).thenReturn(false);
+        ConnectionLimiter limiter = new ConnectionLimiter(1, 10);
+        ConnectionProvider driver = () -> driverConnection;
+
+        try (Connection connection = limiter.open(driver)) {
+            assertFalse(connection.getAutoCommit());
+            connection.prepareStatement("SELECT 1");
+        }
+
+        verify(driverConnection).prepareStatement("SELECT 1");
+    }
+}
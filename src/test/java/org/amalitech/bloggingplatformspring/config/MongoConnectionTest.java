@@ -1,5 +1,7 @@
 package org.amalitech.bloggingplatformspring.config;
 
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoDatabase;
@@ -9,9 +11,12 @@ public class MongoConnectionTest {
 
     public static MongoDatabase getDatabase() {
         if (mongoClient == null) {
-            mongoClient = MongoClients.create(MongoTestConfig.CONNECTION_STRING);
+            mongoClient = MongoClients.create(MongoClientSettings.builder()
+                    .applyConnectionString(new ConnectionString(MongoTestConfig.CONNECTION_STRING))
+                    .codecRegistry(MongoConnection.codecRegistry())
+                    .build());
         }
 
         return mongoClient.getDatabase(MongoTestConfig.DATABASE_NAME);
     }
-}
\ No newline at end of file
+}
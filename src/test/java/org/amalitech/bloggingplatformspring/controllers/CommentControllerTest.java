@@ -1,32 +1,42 @@
 package org.amalitech.bloggingplatformspring.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.amalitech.bloggingplatformspring.cache.ResourceVersion;
+import org.amalitech.bloggingplatformspring.config.HttpCacheConfig;
+import org.amalitech.bloggingplatformspring.dtos.requests.CommentPageRequest;
 import org.amalitech.bloggingplatformspring.dtos.requests.CreateCommentDTO;
 import org.amalitech.bloggingplatformspring.dtos.requests.DeleteCommentRequestDTO;
+import org.amalitech.bloggingplatformspring.dtos.responses.CommentThreadNode;
+import org.amalitech.bloggingplatformspring.dtos.responses.CursorPage;
 import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+import org.amalitech.bloggingplatformspring.enums.SortDirection;
 import org.amalitech.bloggingplatformspring.services.CommentService;
 import org.amalitech.bloggingplatformspring.utils.Constants;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CommentController.class)
+@Import(HttpCacheConfig.class)
 class CommentControllerTest {
 
     @Autowired
@@ -81,7 +91,7 @@ class CommentControllerTest {
     }
 
     @Test
-    void getAllCommentsByPostId_Success_Returns200() throws Exception {
+    void getCommentsByPostId_Success_Returns200() throws Exception {
         List<CommentDocument> comments = List.of(
                 new CommentDocument(
                         "507f1f77bcf86cd799439011",
@@ -92,14 +102,108 @@ class CommentControllerTest {
                 )
         );
 
-        when(commentService.getAllCommentsByPostId(1))
-                .thenReturn(comments);
+        when(commentService.getCommentsByPostId(eq(1), any(CommentPageRequest.class)))
+                .thenReturn(new CursorPage<>(comments, 20, "next-cursor", true));
 
         mockMvc.perform(get("/api/v1/comments/post/{postId}", 1))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("success"))
                 .andExpect(jsonPath("$.message").value("Comments for post retrieved successfully"))
-                .andExpect(jsonPath("$.data[0].content").value("Nice post!"));
+                .andExpect(jsonPath("$.data.content[0].content").value("Nice post!"))
+                .andExpect(jsonPath("$.data.nextCursor").value("next-cursor"))
+                .andExpect(jsonPath("$.data.hasMore").value(true))
+                .andExpect(header().exists(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void getCommentsByPostId_MatchingETag_Returns304WithoutQueryingComments() throws Exception {
+        when(commentService.getCommentsVersion(eq(1), any(CommentPageRequest.class)))
+                .thenReturn(Optional.of(new ResourceVersion("\"comments-1-3.3.1000-af\"", 1000L)));
+
+        mockMvc.perform(get("/api/v1/comments/post/{postId}", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"comments-1-3.3.1000-af\""))
+                .andExpect(status().isNotModified());
+
+        verify(commentService, never()).getCommentsByPostId(anyInt(), any(CommentPageRequest.class));
+    }
+
+    @Test
+    void getCommentsByPostId_NotModifiedSince_Returns304() throws Exception {
+        when(commentService.getCommentsVersion(eq(1), any(CommentPageRequest.class)))
+                .thenReturn(Optional.of(new ResourceVersion("\"comments-1-3.3.1000-af\"", 1000L)));
+
+        mockMvc.perform(get("/api/v1/comments/post/{postId}", 1)
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Thu, 01 Jan 1970 00:00:05 GMT"))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void streamComments_StartsEventStream() throws Exception {
+        when(commentService.streamComments(1)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/v1/comments/post/{postId}/stream", 1)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(commentService).streamComments(1);
+    }
+
+    @Test
+    void getCommentsByPostId_OversizedPage_IsCapped() throws Exception {
+        when(commentService.getCommentsByPostId(1, new CommentPageRequest(50, "abc", SortDirection.ASC)))
+                .thenReturn(new CursorPage<>(List.of(), 50, null, false));
+
+        mockMvc.perform(get("/api/v1/comments/post/{postId}", 1)
+                        .param("size", "1000")
+                        .param("cursor", "abc")
+                        .param("order", "asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.size").value(50))
+                .andExpect(jsonPath("$.data.hasMore").value(false));
+    }
+
+    @Test
+    void getReplies_DefaultsToNewestFirst() throws Exception {
+        when(commentService.getReplies("507f1f77bcf86cd799439011", new CommentPageRequest(20, null, SortDirection.DESC)))
+                .thenReturn(new CursorPage<>(List.of(), 20, null, false));
+
+        mockMvc.perform(get("/api/v1/comments/{commentId}/replies", "507f1f77bcf86cd799439011"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.size").value(20));
+    }
+
+    @Test
+    void getCommentsByPostId_InvalidOrder_Returns400() throws Exception {
+        mockMvc.perform(get("/api/v1/comments/post/{postId}", 1)
+                        .param("order", "newest"))
+                .andExpect(status().isBadRequest());
+
+        verify(commentService, never()).getCommentsByPostId(anyInt(), any());
+    }
+
+    @Test
+    void getReplies_InvalidOrder_Returns400() throws Exception {
+        mockMvc.perform(get("/api/v1/comments/{commentId}/replies", "507f1f77bcf86cd799439011")
+                        .param("order", "oldest"))
+                .andExpect(status().isBadRequest());
+
+        verify(commentService, never()).getReplies(anyString(), any());
+    }
+
+    @Test
+    void getCommentThread_Success_Returns200() throws Exception {
+        CommentDocument root = new CommentDocument("507f1f77bcf86cd799439011", 1, "testuser", "Root", null);
+        CommentDocument reply = new CommentDocument("507f1f77bcf86cd799439012", 1, "other", "Reply", null);
+        CommentThreadNode thread = new CommentThreadNode(root,
+                List.of(new CommentThreadNode(reply, List.of(), true)), false);
+        when(commentService.getCommentThread("507f1f77bcf86cd799439011", 2)).thenReturn(thread);
+
+        mockMvc.perform(get("/api/v1/comments/{commentId}/thread", "507f1f77bcf86cd799439011")
+                        .param("depth", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.comment.content").value("Root"))
+                .andExpect(jsonPath("$.data.replies[0].comment.content").value("Reply"))
+                .andExpect(jsonPath("$.data.replies[0].hasMoreReplies").value(true));
     }
 
     @Test
@@ -1,30 +1,52 @@
 package org.amalitech.bloggingplatformspring.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.amalitech.bloggingplatformspring.cache.EncodedResponseCache;
+import org.amalitech.bloggingplatformspring.cache.PostPageCache;
+import org.amalitech.bloggingplatformspring.cache.ResourceVersion;
+import org.amalitech.bloggingplatformspring.config.EncodedResponseCacheConfig;
+import org.amalitech.bloggingplatformspring.config.HttpCacheConfig;
+import org.amalitech.bloggingplatformspring.config.PostPageCacheConfig;
 import org.amalitech.bloggingplatformspring.dtos.requests.*;
+import org.amalitech.bloggingplatformspring.dtos.responses.CursorPage;
 import org.amalitech.bloggingplatformspring.dtos.responses.PageResponse;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostChange;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostChangesResponse;
 import org.amalitech.bloggingplatformspring.dtos.responses.PostResponseDTO;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostWithCommentsDTO;
+import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+import org.amalitech.bloggingplatformspring.enums.PostChangeType;
+import org.amalitech.bloggingplatformspring.exceptions.PreconditionFailedException;
 import org.amalitech.bloggingplatformspring.services.PostService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(PostController.class)
+@Import({EncodedResponseCache.class, EncodedResponseCacheConfig.class, PostPageCache.class, PostPageCacheConfig.class,
+        HttpCacheConfig.class})
 class PostControllerTest {
 
     @Autowired
@@ -36,6 +58,13 @@ class PostControllerTest {
     @MockitoBean
     private PostService postService;
 
+    @Autowired
+    private PostPageCache postPageCache;
+
+    @BeforeEach
+    void setUp() {
+        postPageCache.invalidateAll();
+    }
 
     @Test
     void createPost_Success_Returns201() throws Exception {
@@ -136,6 +165,151 @@ class PostControllerTest {
                 .andExpect(jsonPath("$.data.id").value(1));
     }
 
+    @Test
+    void getPostById_RepeatedRequest_ServedFromEncodedCache() throws Exception {
+        PostResponseDTO responseDTO = new PostResponseDTO(
+                2, "Post title", "Post content", "testuser", List.of(), LocalDateTime.now().toString(), 0);
+        when(postService.getPostById(2)).thenReturn(responseDTO);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/v1/posts/{postId}", 2))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(HttpHeaders.CONTENT_LENGTH))
+                    .andExpect(jsonPath("$.data.id").value(2));
+        }
+
+        verify(postService, times(1)).getPostById(2);
+    }
+
+    @Test
+    void getPostChanges_ReturnsFeedBatch() throws Exception {
+        PostResponseDTO post = new PostResponseDTO(
+                5, "Post title", "Post content", "testuser", List.of(), LocalDateTime.now().toString(), 0);
+        when(postService.getPostChanges("abc", 100)).thenReturn(new PostChangesResponse(
+                List.of(new PostChange(5, PostChangeType.UPDATED, post), new PostChange(6, PostChangeType.DELETED, null)),
+                "next", false));
+
+        mockMvc.perform(get("/api/v1/posts/changes").param("since", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.changes[0].type").value("UPDATED"))
+                .andExpect(jsonPath("$.data.changes[0].post.title").value("Post title"))
+                .andExpect(jsonPath("$.data.changes[1].type").value("DELETED"))
+                .andExpect(jsonPath("$.data.changes[1].post").doesNotExist())
+                .andExpect(jsonPath("$.data.nextToken").value("next"));
+    }
+
+    @Test
+    void getPostById_MatchingETag_Returns304WithoutLoadingPost() throws Exception {
+        when(postService.getPostVersion(3)).thenReturn(Optional.of(new ResourceVersion("\"post-3-1000-2\"", 5000L)));
+
+        mockMvc.perform(get("/api/v1/posts/{postId}", 3).header(HttpHeaders.IF_NONE_MATCH, "\"post-3-1000-2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"post-3-1000-2\""))
+                .andExpect(header().exists(HttpHeaders.CACHE_CONTROL));
+
+        verify(postService, never()).getPostById(3);
+    }
+
+    @Test
+    void getPostById_StaleETag_ReturnsBodyWithValidators() throws Exception {
+        PostResponseDTO responseDTO = new PostResponseDTO(
+                4, "Post title", "Post content", "testuser", List.of(), LocalDateTime.now().toString(), 0);
+        when(postService.getPostVersion(4)).thenReturn(Optional.of(new ResourceVersion("\"post-4-2000-1\"", 5000L)));
+        when(postService.getPostById(4)).thenReturn(responseDTO);
+
+        mockMvc.perform(get("/api/v1/posts/{postId}", 4).header(HttpHeaders.IF_NONE_MATCH, "\"post-4-1000-1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"post-4-2000-1\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=0, must-revalidate, public, s-maxage=5"))
+                .andExpect(jsonPath("$.data.id").value(4));
+    }
+
+    @Test
+    void getPostById_CacheHit_UsesStoredValidatorsWithoutVersionLookup() throws Exception {
+        PostResponseDTO responseDTO = new PostResponseDTO(
+                6, "Post title", "Post content", "testuser", List.of(), LocalDateTime.now().toString(), 0);
+        when(postService.getPostVersion(6)).thenReturn(Optional.of(new ResourceVersion("\"post-6-2000-1\"", 5000L)));
+        when(postService.getPostById(6)).thenReturn(responseDTO);
+
+        mockMvc.perform(get("/api/v1/posts/{postId}", 6))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"post-6-2000-1\""));
+        mockMvc.perform(get("/api/v1/posts/{postId}", 6).header(HttpHeaders.IF_NONE_MATCH, "\"post-6-2000-1\""))
+                .andExpect(status().isNotModified());
+
+        verify(postService, times(1)).getPostVersion(6);
+        verify(postService, times(1)).getPostById(6);
+    }
+
+    @Test
+    void getAllPosts_RepeatedETag_Returns304() throws Exception {
+        when(postService.getPaginatedPosts(any(PageRequest.class), any(PostFilterRequest.class)))
+                .thenReturn(new PageResponse<>(List.of(), 0, 10, "updated_at : DESC", 0));
+
+        String etag = mockMvc.perform(get("/api/v1/posts"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/posts").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        verify(postService, times(1)).getPaginatedPosts(any(PageRequest.class), any(PostFilterRequest.class));
+    }
+
+    @Test
+    void getAllPosts_AcceptsGzip_ReturnsPreCompressedBody() throws Exception {
+        PostResponseDTO largePost = new PostResponseDTO(
+                1, "Post title", "x".repeat(4096), "testuser", List.of("java"), LocalDateTime.now().toString(), 0);
+        when(postService.getPaginatedPosts(any(PageRequest.class), any(PostFilterRequest.class)))
+                .thenReturn(new PageResponse<>(List.of(largePost), 0, 10, "updated_at : DESC", 1));
+
+        byte[] body = mockMvc.perform(get("/api/v1/posts").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertTrue(gunzip(body).contains("\"title\":\"Post title\""));
+    }
+
+    @Test
+    void getPostById_IncludeComments_ReturnsPostWithFirstCommentPage() throws Exception {
+        PostResponseDTO responseDTO = new PostResponseDTO(
+                1, "Post title", "Post content", "testuser", List.of(), LocalDateTime.now().toString(), 3);
+        CommentDocument comment = new CommentDocument("507f1f77bcf86cd799439011", 1, "alice", "Nice post", null);
+        when(postService.getPostWithComments(1, 5))
+                .thenReturn(new PostWithCommentsDTO(responseDTO, new CursorPage<>(List.of(comment), 5, "next", true)));
+
+        mockMvc.perform(get("/api/v1/posts/{postId}", 1)
+                        .param("include", "comments")
+                        .param("commentSize", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.post.totalComments").value(3))
+                .andExpect(jsonPath("$.data.comments.content[0].content").value("Nice post"))
+                .andExpect(jsonPath("$.data.comments.hasMore").value(true));
+    }
+
+    @Test
+    void getPostById_IncludeListWithComments_ReturnsPostWithComments() throws Exception {
+        PostResponseDTO responseDTO = new PostResponseDTO(
+                1, "Post title", "Post content", "testuser", List.of(), LocalDateTime.now().toString(), 0);
+        when(postService.getPostWithComments(1, 20))
+                .thenReturn(new PostWithCommentsDTO(responseDTO, new CursorPage<>(List.of(), 20, null, false)));
+
+        mockMvc.perform(get("/api/v1/posts/{postId}", 1).param("include", " Comments ,"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.post.title").value("Post title"))
+                .andExpect(jsonPath("$.data.comments.hasMore").value(false));
+    }
+
+    @Test
+    void getPostById_UnsupportedInclude_Returns400() throws Exception {
+        mockMvc.perform(get("/api/v1/posts/{postId}", 1).param("include", "comments,likes"))
+                .andExpect(status().isBadRequest());
+
+        verify(postService, never()).getPostWithComments(anyInt(), anyInt());
+    }
+
     @Test
     void updatePost_Success_Returns200() throws Exception {
         UpdatePostDTO request = new UpdatePostDTO(
@@ -155,16 +329,33 @@ class PostControllerTest {
                 0
         );
 
-        when(postService.updatePost(eq(1), any(UpdatePostDTO.class)))
+        when(postService.updatePost(eq(1), any(UpdatePostDTO.class), isNull()))
                 .thenReturn(responseDTO);
+        when(postService.getETag(responseDTO)).thenReturn("\"post-1-5\"");
 
         mockMvc.perform(put("/api/v1/posts/{postId}", 1)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"post-1-5\""))
                 .andExpect(jsonPath("$.status").value("success"))
                 .andExpect(jsonPath("$.message").value("Post updated successfully"))
-                .andExpect(jsonPath("$.data.title").value("Updated title"));
+                .andExpect(jsonPath("$.data.title").value("Updated title"))
+                .andExpect(jsonPath("$.data.version").doesNotExist());
+    }
+
+    @Test
+    void updatePost_StaleIfMatch_Returns412() throws Exception {
+        UpdatePostDTO request = new UpdatePostDTO("Updated title", "Updated content", UUID.randomUUID().toString(), null);
+        when(postService.updatePost(eq(1), any(UpdatePostDTO.class), eq("\"post-1-4\"")))
+                .thenThrow(new PreconditionFailedException("Post with ID: 1 has been modified; its current version is 5."));
+
+        mockMvc.perform(put("/api/v1/posts/{postId}", 1)
+                        .header(HttpHeaders.IF_MATCH, "\"post-1-4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.errorCode").value(412));
     }
 
 
@@ -182,4 +373,10 @@ class PostControllerTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isNoContent());
     }
-}
\ No newline at end of file
+
+    private String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.amalitech.bloggingplatformspring.dao;
+
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import org.amalitech.bloggingplatformspring.utils.Constants;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CommentCounterDAOTest {
+
+    @Mock
+    private MongoDatabase mongoDatabase;
+
+    @Mock
+    private MongoCollection<Document> commentsCollection;
+
+    @Mock
+    private MongoCollection<Document> countersCollection;
+
+    @Mock
+    private AggregateIterable<Document> recount;
+
+    private CommentCounterDAO commentCounters;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoDatabase.getCollection(Constants.CommentsMongoCollection)).thenReturn(commentsCollection);
+        when(mongoDatabase.getCollection(Constants.CommentCountersMongoCollection)).thenReturn(countersCollection);
+        commentCounters = new CommentCounterDAO(mongoDatabase);
+    }
+
+    @Test
+    void countedWrite_DuringRebuild_WaitsForTheSwap() throws Exception {
+        CountDownLatch recounting = new CountDownLatch(1);
+        CountDownLatch finishRecount = new CountDownLatch(1);
+        AtomicBoolean swapped = new AtomicBoolean();
+        when(commentsCollection.aggregate(anyList())).thenReturn(recount);
+        doAnswer(invocation -> {
+            recounting.countDown();
+            finishRecount.await(5, TimeUnit.SECONDS);
+            swapped.set(true);
+            return null;
+        }).when(recount).toCollection();
+        when(countersCollection.countDocuments()).thenReturn(3L);
+
+        CompletableFuture<Long> rebuild = CompletableFuture.supplyAsync(commentCounters::rebuild);
+        assertTrue(recounting.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> write = CompletableFuture.supplyAsync(
+                () -> commentCounters.countedWrite(swapped::get));
+
+        Thread.sleep(100);
+        assertFalse(write.isDone());
+        finishRecount.countDown();
+
+        assertEquals(3L, rebuild.get(5, TimeUnit.SECONDS));
+        assertTrue(write.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -1,29 +1,43 @@
 package org.amalitech.bloggingplatformspring.dao;
 
 import com.mongodb.client.MongoDatabase;
+import org.amalitech.bloggingplatformspring.config.CommentIngestionConfig;
+import org.amalitech.bloggingplatformspring.config.CommentMaintenanceConfig;
 import org.amalitech.bloggingplatformspring.config.MongoConnectionTest;
+import org.amalitech.bloggingplatformspring.dtos.requests.CommentPageRequest;
+import org.amalitech.bloggingplatformspring.dtos.responses.CursorPage;
 import org.amalitech.bloggingplatformspring.entity.Comment;
 import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+import org.amalitech.bloggingplatformspring.enums.SortDirection;
+import org.amalitech.bloggingplatformspring.exceptions.BadRequestException;
 import org.amalitech.bloggingplatformspring.exceptions.ForbiddenException;
 import org.amalitech.bloggingplatformspring.utils.Constants;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class CommentDAOTest {
 
   private CommentDAO commentDAO;
+  private CommentPurger commentPurger;
   private MongoDatabase mongoDatabase;
 
   @BeforeEach
   void setUp() {
     mongoDatabase = MongoConnectionTest.getDatabase();
-    commentDAO = new CommentDAO(mongoDatabase);
+    CommentCounterDAO commentCounters = new CommentCounterDAO(mongoDatabase);
+    commentPurger = new CommentPurger(mongoDatabase, commentCounters, new CommentMaintenanceConfig());
+    commentDAO = new CommentDAO(mongoDatabase,
+        new CommentWriteBuffer(mongoDatabase, commentCounters, new CommentIngestionConfig()), commentCounters,
+        commentPurger);
     cleanupCollection();
   }
 
@@ -34,6 +48,11 @@ class CommentDAOTest {
 
   private void cleanupCollection() {
     mongoDatabase.getCollection(Constants.CommentsMongoCollection).drop();
+    mongoDatabase.getCollection(Constants.CommentCountersMongoCollection).drop();
+  }
+
+  private CommentPageRequest firstPage() {
+    return new CommentPageRequest(Constants.MaxCommentPageSize, null, SortDirection.DESC);
   }
 
   @Test
@@ -69,7 +88,7 @@ class CommentDAOTest {
   }
 
   @Test
-  void getAllCommentsByPostId_Success() {
+  void getCommentsByPostId_Success() {
     Comment comment1 = new Comment();
     comment1.setContent("Comment 1");
     comment1.setPostId(1);
@@ -88,7 +107,7 @@ class CommentDAOTest {
     comment3.setAuthorId("user789");
     commentDAO.createComment(comment3, "user3");
 
-    List<CommentDocument> results = commentDAO.getAllCommentsByPostId(1);
+    List<CommentDocument> results = commentDAO.getCommentsByPostId(1, firstPage()).content();
 
     assertNotNull(results);
     assertEquals(2, results.size());
@@ -97,15 +116,15 @@ class CommentDAOTest {
   }
 
   @Test
-  void getAllCommentsByPostId_NoComments_ReturnsEmptyList() {
-    List<CommentDocument> results = commentDAO.getAllCommentsByPostId(999);
+  void getCommentsByPostId_NoComments_ReturnsEmptyList() {
+    List<CommentDocument> results = commentDAO.getCommentsByPostId(999, firstPage()).content();
 
     assertNotNull(results);
     assertEquals(0, results.size());
   }
 
   @Test
-  void getAllCommentsByPostId_MultiplePostsWithComments() {
+  void getCommentsByPostId_MultiplePostsWithComments() {
     for (int i = 1; i <= 3; i++) {
       Comment comment = new Comment();
       comment.setContent("Comment for post 1 - " + i);
@@ -122,13 +141,61 @@ class CommentDAOTest {
       commentDAO.createComment(comment, "user" + i);
     }
 
-    List<CommentDocument> post1Comments = commentDAO.getAllCommentsByPostId(1);
-    List<CommentDocument> post2Comments = commentDAO.getAllCommentsByPostId(2);
+    List<CommentDocument> post1Comments = commentDAO.getCommentsByPostId(1, firstPage()).content();
+    List<CommentDocument> post2Comments = commentDAO.getCommentsByPostId(2, firstPage()).content();
 
     assertEquals(3, post1Comments.size());
     assertEquals(2, post2Comments.size());
   }
 
+  @Test
+  void getCommentsByPostId_WalksPagesWithCursor() {
+    for (int i = 1; i <= 5; i++) {
+      Comment comment = new Comment();
+      comment.setContent("Comment " + i);
+      comment.setPostId(1);
+      comment.setAuthorId("user" + i);
+      commentDAO.createComment(comment, "user" + i);
+    }
+
+    CursorPage<CommentDocument> first = commentDAO.getCommentsByPostId(1,
+        new CommentPageRequest(2, null, SortDirection.ASC));
+    CursorPage<CommentDocument> second = commentDAO.getCommentsByPostId(1,
+        new CommentPageRequest(2, first.nextCursor(), SortDirection.ASC));
+    CursorPage<CommentDocument> third = commentDAO.getCommentsByPostId(1,
+        new CommentPageRequest(2, second.nextCursor(), SortDirection.ASC));
+
+    assertEquals(List.of("Comment 1", "Comment 2"), first.content().stream().map(CommentDocument::getContent).toList());
+    assertEquals(List.of("Comment 3", "Comment 4"), second.content().stream().map(CommentDocument::getContent).toList());
+    assertEquals(List.of("Comment 5"), third.content().stream().map(CommentDocument::getContent).toList());
+    assertTrue(first.hasMore());
+    assertFalse(third.hasMore());
+    assertNull(third.nextCursor());
+  }
+
+  @Test
+  void getCommentsByPostId_NewestFirst() {
+    for (int i = 1; i <= 3; i++) {
+      Comment comment = new Comment();
+      comment.setContent("Comment " + i);
+      comment.setPostId(1);
+      comment.setAuthorId("user" + i);
+      commentDAO.createComment(comment, "user" + i);
+    }
+
+    CursorPage<CommentDocument> page = commentDAO.getCommentsByPostId(1,
+        new CommentPageRequest(10, null, SortDirection.DESC));
+
+    assertEquals("Comment 3", page.content().getFirst().getContent());
+    assertEquals("Comment 1", page.content().getLast().getContent());
+  }
+
+  @Test
+  void getCommentsByPostId_InvalidCursor_ThrowsBadRequestException() {
+    assertThrows(BadRequestException.class, () -> commentDAO.getCommentsByPostId(1,
+        new CommentPageRequest(10, "not-a-cursor", SortDirection.DESC)));
+  }
+
   @Test
   void getCommentById_Success() {
     Comment comment = new Comment();
@@ -165,8 +232,10 @@ class CommentDAOTest {
 
     assertDoesNotThrow(() -> commentDAO.deleteComment(savedComment.getId(), "user123"));
 
-    Optional<CommentDocument> result = commentDAO.getCommentById(savedComment.getId());
-    assertFalse(result.isPresent());
+    CommentDocument result = commentDAO.getCommentById(savedComment.getId()).orElseThrow();
+    assertTrue(result.isDeleted());
+    assertNull(result.getContent());
+    assertNull(result.getAuthor());
   }
 
   @Test
@@ -205,7 +274,7 @@ class CommentDAOTest {
       commentDAO.createComment(comment, "user" + i);
     }
 
-    List<CommentDocument> results = commentDAO.getAllCommentsByPostId(1);
+    List<CommentDocument> results = commentDAO.getCommentsByPostId(1, firstPage()).content();
 
     assertEquals(5, results.size());
   }
@@ -239,4 +308,119 @@ class CommentDAOTest {
     assertNotNull(result);
     assertEquals(specialContent, result.getContent());
   }
+
+  @Test
+  void commentCounters_TrackCreateAndDelete() {
+    CommentDocument first = commentDAO.createComment(new Comment(1, "user1", "First", null), "user1");
+    commentDAO.createComment(new Comment(1, "user2", "Second", null), "user2");
+    commentDAO.createComment(new Comment(2, "user1", "Other post", null), "user1");
+
+    commentDAO.deleteComment(first.getId(), "user1");
+
+    assertEquals(1L, commentDAO.getTotalCommentsByPostId(1));
+    assertEquals(Map.of(1, 1L, 2, 1L), commentDAO.getTotalCommentsByPostIds(List.of(1, 2, 3)));
+  }
+
+  @Test
+  void rebuildCommentCounters_RecomputesFromComments() {
+    commentDAO.createComment(new Comment(1, "user1", "First", null), "user1");
+    commentDAO.createComment(new Comment(1, "user2", "Second", null), "user2");
+    mongoDatabase.getCollection(Constants.CommentCountersMongoCollection).drop();
+
+    long posts = commentDAO.rebuildCommentCounters();
+
+    assertEquals(1L, posts);
+    assertEquals(2L, commentDAO.getTotalCommentsByPostId(1));
+  }
+
+  @Test
+  void purge_RemovesAllCommentsOfPostAndItsCounter() throws InterruptedException {
+    for (int i = 1; i <= 3; i++) {
+      commentDAO.createComment(new Comment(1, "user" + i, "Comment " + i, null), "user" + i);
+    }
+    commentDAO.createComment(new Comment(2, "user1", "Keep me", null), "user1");
+
+    long deleted = commentPurger.purge(1);
+
+    assertEquals(3L, deleted);
+    assertEquals(0L, commentDAO.getTotalCommentsByPostId(1));
+    assertEquals(List.of(2), commentDAO.getCommentedPostIds());
+  }
+
+  @Test
+  void getCommentedPostIds_ReturnsEachPostOnce() {
+    commentDAO.createComment(new Comment(2, "user1", "First", null), "user1");
+    commentDAO.createComment(new Comment(1, "user2", "Second", null), "user2");
+    commentDAO.createComment(new Comment(2, "user3", "Third", null), "user3");
+
+    List<Integer> postIds = commentDAO.getCommentedPostIds();
+
+    assertEquals(2, postIds.size());
+    assertEquals(Set.of(1, 2), Set.copyOf(postIds));
+  }
+
+  @Test
+  void replies_AreExcludedFromTopLevelPageAndCountedOnParent() {
+    CommentDocument root = commentDAO.createComment(new Comment(1, "user1", "Root", null), "user1");
+    commentDAO.createComment(reply(root, "First reply"), "user2");
+    commentDAO.createComment(reply(root, "Second reply"), "user3");
+
+    CursorPage<CommentDocument> topLevel = commentDAO.getCommentsByPostId(1, firstPage());
+    CursorPage<CommentDocument> replies = commentDAO.getReplies(root.getId(),
+        new CommentPageRequest(10, null, SortDirection.ASC));
+
+    assertEquals(1, topLevel.content().size());
+    assertEquals(2L, topLevel.content().getFirst().getReplyCount());
+    assertEquals(List.of("First reply", "Second reply"),
+        replies.content().stream().map(CommentDocument::getContent).toList());
+    assertEquals(3L, commentDAO.getTotalCommentsByPostId(1));
+  }
+
+  @Test
+  void getCommentSubtree_StopsAtRequestedDepth() {
+    CommentDocument root = commentDAO.createComment(new Comment(1, "user1", "Root", null), "user1");
+    CommentDocument child = commentDAO.createComment(reply(root, "Child"), "user2");
+    CommentDocument grandchild = commentDAO.createComment(reply(child, "Grandchild"), "user3");
+    commentDAO.createComment(reply(grandchild, "Great-grandchild"), "user1");
+
+    List<CommentDocument> subtree = commentDAO.getCommentSubtree(root.getId(), 2);
+
+    assertEquals(List.of("Root", "Child", "Grandchild"),
+        subtree.stream().map(CommentDocument::getContent).toList());
+    assertEquals(2, subtree.get(2).getDepth());
+    assertEquals(1L, subtree.get(2).getReplyCount());
+  }
+
+  @Test
+  void createComment_ReplyToOtherPost_ThrowsBadRequestException() {
+    CommentDocument root = commentDAO.createComment(new Comment(1, "user1", "Root", null), "user1");
+    Comment crossPost = new Comment(2, "user2", "Wrong post", null);
+    crossPost.setParentId(root.getId());
+
+    assertThrows(BadRequestException.class, () -> commentDAO.createComment(crossPost, "user2"));
+  }
+
+  @Test
+  void deleteComment_KeepsRepliesUnderTombstone() {
+    CommentDocument root = commentDAO.createComment(new Comment(1, "user1", "Root", null), "user1");
+    CommentDocument child = commentDAO.createComment(reply(root, "Child"), "user2");
+    Comment grandchild = reply(child, "Grandchild");
+    grandchild.setAuthorId("user3");
+    commentDAO.createComment(grandchild, "user3");
+
+    commentDAO.deleteComment(child.getId(), "user2");
+
+    assertEquals(Arrays.asList("Root", null, "Grandchild"),
+        commentDAO.getCommentSubtree(root.getId(), Constants.MaxCommentDepth).stream()
+            .map(CommentDocument::getContent).toList());
+    assertEquals(1L, commentDAO.getCommentById(root.getId()).orElseThrow().getReplyCount());
+    assertEquals(2L, commentDAO.getTotalCommentsByPostId(1));
+    assertThrows(ForbiddenException.class, () -> commentDAO.deleteComment(child.getId(), "user2"));
+  }
+
+  private Comment reply(CommentDocument parent, String content) {
+    Comment comment = new Comment(parent.getPostId(), "user2", content, null);
+    comment.setParentId(parent.getId());
+    return comment;
+  }
 }
@@ -0,0 +1,107 @@
+package org.amalitech.bloggingplatformspring.dao;
+
+import org.amalitech.bloggingplatformspring.dao.codecs.CommentDocumentCodec;
+import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+import org.bson.*;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommentDocumentCodecTest {
+
+    private CommentDocumentCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        codec = new CommentDocumentCodec();
+    }
+
+    @Test
+    void encodeThenDecode_RoundTripsAllFields() {
+        CommentDocument comment = new CommentDocument();
+        comment.setId(new ObjectId().toHexString());
+        comment.setPostId(7);
+        comment.setAuthorId("author-1");
+        comment.setAuthor("alice");
+        comment.setContent("Nice post");
+        comment.setCommentedAt(new Date(1_700_000_000_000L));
+
+        BsonDocument bson = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(bson), comment, EncoderContext.builder().build());
+
+        assertEquals(new ObjectId(comment.getId()), bson.getObjectId("_id").getValue());
+        assertEquals(1_700_000_000_000L, bson.getDateTime("commentedAt").getValue());
+
+        CommentDocument decoded = codec.decode(new BsonDocumentReader(bson), DecoderContext.builder().build());
+
+        assertEquals(comment.getId(), decoded.getId());
+        assertEquals(7, decoded.getPostId());
+        assertEquals("author-1", decoded.getAuthorId());
+        assertEquals("alice", decoded.getAuthor());
+        assertEquals("Nice post", decoded.getContent());
+        assertEquals(comment.getCommentedAt(), decoded.getCommentedAt());
+        assertNotNull(decoded.getCreatedAt());
+    }
+
+    @Test
+    void encodeThenDecode_RoundTripsThreadFields() {
+        ObjectId grandparent = new ObjectId();
+        ObjectId parent = new ObjectId();
+        CommentDocument comment = new CommentDocument();
+        comment.setPostId(7);
+        comment.setContent("Reply");
+        comment.setParentId(parent.toHexString());
+        comment.setAncestors(List.of(grandparent.toHexString(), parent.toHexString()));
+        comment.setDepth(2);
+        comment.setReplyCount(5);
+        comment.setDeleted(true);
+
+        BsonDocument bson = new BsonDocument();
+        codec.encode(new BsonDocumentWriter(bson), comment, EncoderContext.builder().build());
+
+        assertEquals(parent, bson.getObjectId("parentId").getValue());
+        assertEquals(grandparent, bson.getArray("ancestors").get(0).asObjectId().getValue());
+
+        CommentDocument decoded = codec.decode(new BsonDocumentReader(bson), DecoderContext.builder().build());
+
+        assertEquals(parent.toHexString(), decoded.getParentId());
+        assertEquals(comment.getAncestors(), decoded.getAncestors());
+        assertEquals(2, decoded.getDepth());
+        assertEquals(5, decoded.getReplyCount());
+        assertTrue(decoded.isDeleted());
+    }
+
+    @Test
+    void decode_SkipsUnknownAndNullFields() {
+        BsonDocument bson = new BsonDocument("_id", new BsonObjectId(new ObjectId()))
+                .append("content", new BsonString("Hello"))
+                .append("postId", new BsonInt32(3))
+                .append("author", BsonNull.VALUE)
+                .append("legacyField", new BsonString("ignored"));
+
+        CommentDocument decoded = codec.decode(new BsonDocumentReader(bson), DecoderContext.builder().build());
+
+        assertEquals("Hello", decoded.getContent());
+        assertEquals(3, decoded.getPostId());
+        assertNull(decoded.getAuthor());
+        assertNull(decoded.getCreatedAt());
+    }
+
+    @Test
+    void generateIdIfAbsentFromDocument_AssignsObjectId() {
+        CommentDocument comment = new CommentDocument();
+
+        codec.generateIdIfAbsentFromDocument(comment);
+
+        assertTrue(codec.documentHasId(comment));
+        assertTrue(ObjectId.isValid(comment.getId()));
+        assertEquals(new BsonObjectId(new ObjectId(comment.getId())), codec.getDocumentId(comment));
+    }
+}
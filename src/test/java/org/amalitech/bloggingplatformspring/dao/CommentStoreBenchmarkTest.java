@@ -0,0 +1,144 @@
+package org.amalitech.bloggingplatformspring.dao;
+
+import com.mongodb.client.MongoDatabase;
+import lombok.extern.slf4j.Slf4j;
+import org.amalitech.bloggingplatformspring.config.CommentIngestionConfig;
+import org.amalitech.bloggingplatformspring.config.CommentMaintenanceConfig;
+import org.amalitech.bloggingplatformspring.config.ConnectionProvider;
+import org.amalitech.bloggingplatformspring.config.MongoConnectionTest;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostWithCommentsDTO;
+import org.amalitech.bloggingplatformspring.entity.Comment;
+import org.amalitech.bloggingplatformspring.repository.CommentRepository;
+import org.amalitech.bloggingplatformspring.utils.Constants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.*;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares "post + comment count + first page of comments" latency between the Mongo
+ * and Postgres comment stores, using the same PostDAO call for both.
+ * <p>
+ * Needs local Postgres and MongoDB instances, so it only runs when asked for:
+ * {@code mvn test -Dtest=CommentStoreBenchmarkTest -Dcomments.benchmark=true}
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "comments.benchmark", matches = "true")
+class CommentStoreBenchmarkTest {
+
+    private static final String DB_URL = System.getProperty("benchmark.db.url", "jdbc:postgresql://localhost:5432/test_db");
+    private static final String DB_USER = System.getProperty("benchmark.db.user", "test_user");
+    private static final String DB_PASSWORD = System.getProperty("benchmark.db.password", "test_password");
+    private static final int COMMENTS = Integer.getInteger("comments.benchmark.comments", 2000);
+    private static final int ITERATIONS = Integer.getInteger("comments.benchmark.iterations", 500);
+    private static final int WARMUP = 50;
+    private static final int PAGE_SIZE = 20;
+
+    private final ConnectionProvider connectionProvider = () -> DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+    private MongoDatabase mongoDatabase;
+    private UUID userId;
+    private String username;
+    private Integer postId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        new InitDB(connectionProvider, "postgres").initDatabase().run();
+        mongoDatabase = MongoConnectionTest.getDatabase();
+
+        userId = UUID.randomUUID();
+        username = "bench_" + userId.toString().substring(0, 8);
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO users (id, username, email, password) VALUES (?, ?, ?, ?)")) {
+            stmt.setObject(1, userId);
+            stmt.setString(2, username);
+            stmt.setString(3, username + "@example.com");
+            stmt.setString(4, "benchmark");
+            stmt.executeUpdate();
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Connection conn = connectionProvider.getConnection()) {
+            if (postId != null) {
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM posts WHERE id = ?")) {
+                    stmt.setInt(1, postId);
+                    stmt.executeUpdate();
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM users WHERE id = ?")) {
+                stmt.setObject(1, userId);
+                stmt.executeUpdate();
+            }
+        }
+        mongoDatabase.getCollection(Constants.CommentsMongoCollection).drop();
+        mongoDatabase.getCollection(Constants.CommentCountersMongoCollection).drop();
+    }
+
+    @Test
+    void mongoCommentStore() throws SQLException {
+        CommentCounterDAO counters = new CommentCounterDAO(mongoDatabase);
+        CommentRepository repository = new CommentDAO(mongoDatabase,
+                new CommentWriteBuffer(mongoDatabase, counters, new CommentIngestionConfig()), counters,
+                new CommentPurger(mongoDatabase, counters, new CommentMaintenanceConfig()));
+
+        benchmark("mongo", repository);
+    }
+
+    @Test
+    void postgresCommentStore() throws SQLException {
+        benchmark("postgres", new PostgresCommentDAO(connectionProvider));
+    }
+
+    private void benchmark(String store, CommentRepository repository) throws SQLException {
+        PostDAO postDAO = new PostDAO(connectionProvider, new TagDAO(connectionProvider), repository);
+        postId = createPost();
+        for (int i = 0; i < COMMENTS; i++) {
+            repository.createComment(new Comment(postId, userId.toString(), "Benchmark comment " + i, null), username);
+        }
+
+        for (int i = 0; i < WARMUP; i++) {
+            postDAO.getPostWithComments(postId, PAGE_SIZE);
+        }
+
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            Optional<PostWithCommentsDTO> result = postDAO.getPostWithComments(postId, PAGE_SIZE);
+            samples[i] = System.nanoTime() - start;
+            assertTrue(result.isPresent());
+        }
+
+        Arrays.sort(samples);
+        log.info("Comment store benchmark: store={} comments={} iterations={} p50={}ms p95={}ms p99={}ms",
+                store, COMMENTS, ITERATIONS, String.format("%.2f", millis(samples, 0.50)),
+                String.format("%.2f", millis(samples, 0.95)), String.format("%.2f", millis(samples, 0.99)));
+    }
+
+    private int createPost() throws SQLException {
+        try (Connection conn = connectionProvider.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "INSERT INTO posts (title, body, author_id) VALUES (?, ?, ?) RETURNING id")) {
+            stmt.setString(1, "Benchmark post");
+            stmt.setString(2, "Benchmark body");
+            stmt.setObject(3, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt("id");
+            }
+        }
+    }
+
+    private double millis(long[] sorted, double percentile) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
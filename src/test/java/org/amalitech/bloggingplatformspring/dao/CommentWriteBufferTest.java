@@ -0,0 +1,166 @@
+package org.amalitech.bloggingplatformspring.dao;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import org.amalitech.bloggingplatformspring.config.CommentIngestionConfig;
+import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+import org.amalitech.bloggingplatformspring.exceptions.ServiceUnavailableException;
+import org.amalitech.bloggingplatformspring.utils.Constants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CommentWriteBufferTest {
+
+    @Mock
+    private MongoDatabase mongoDatabase;
+
+    @Mock
+    private MongoCollection<CommentDocument> commentsCollection;
+
+    @Mock
+    private CommentCounterDAO commentCounters;
+
+    @Mock
+    private CommentIngestionConfig config;
+
+    private CommentWriteBuffer writeBuffer;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoDatabase.getCollection(Constants.CommentsMongoCollection, CommentDocument.class))
+                .thenReturn(commentsCollection);
+        when(config.isWriteBehindEnabled()).thenReturn(true);
+        when(config.getBatchSize()).thenReturn(10);
+        when(config.getFlushIntervalMs()).thenReturn(20L);
+        when(config.getQueueCapacity()).thenReturn(1);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(commentCounters).countedWrite(any(Runnable.class));
+        writeBuffer = new CommentWriteBuffer(mongoDatabase, commentCounters, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBuffer.shutdown();
+    }
+
+    @Test
+    void submit_FlushesWithUnorderedBulkWriteAndCompletesWithId() throws Exception {
+        writeBuffer.start();
+
+        CompletableFuture<CommentDocument> future = writeBuffer.submit(comment("Hello"));
+        CommentDocument saved = future.get(5, TimeUnit.SECONDS);
+
+        assertNotNull(saved.getId());
+        verify(commentsCollection).bulkWrite(anyList(), argThat((BulkWriteOptions options) -> !options.isOrdered()));
+        verify(commentCounters).incrementAll(Map.of(1, 1L));
+    }
+
+    @Test
+    void submit_QueueFull_ThrowsServiceUnavailable() throws Exception {
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(commentsCollection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(invocation -> {
+            flushing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+        writeBuffer.start();
+
+        writeBuffer.submit(comment("first"));
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+        writeBuffer.submit(comment("second"));
+
+        assertThrows(ServiceUnavailableException.class, () -> writeBuffer.submit(comment("third")));
+        release.countDown();
+    }
+
+    @Test
+    void submit_WhenDisabled_ThrowsServiceUnavailable() {
+        when(config.isWriteBehindEnabled()).thenReturn(false);
+        writeBuffer.start();
+
+        assertFalse(writeBuffer.isEnabled());
+        assertThrows(ServiceUnavailableException.class, () -> writeBuffer.submit(comment("Hello")));
+    }
+
+    @Test
+    void shutdown_FlushesQueuedComments() throws Exception {
+        writeBuffer.start();
+        CompletableFuture<CommentDocument> future = writeBuffer.submit(comment("Hello"));
+
+        writeBuffer.shutdown();
+
+        assertTrue(future.isDone());
+        assertEquals("Hello", future.get().getContent());
+        assertEquals(0, writeBuffer.getQueuedCount());
+        assertFalse(writeBuffer.isEnabled());
+    }
+
+    @Test
+    void write_StillQueuedAtDeadline_IsWithdrawnAndRejected() throws Exception {
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(config.getSubmitTimeoutMs()).thenReturn(50L);
+        when(commentsCollection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(invocation -> {
+            flushing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+        writeBuffer.start();
+
+        writeBuffer.submit(comment("first"));
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+
+        assertThrows(ServiceUnavailableException.class, () -> writeBuffer.write(comment("second")));
+        assertEquals(0, writeBuffer.getQueuedCount());
+        release.countDown();
+    }
+
+    @Test
+    void write_Flushed_ReturnsStoredComment() {
+        when(config.getSubmitTimeoutMs()).thenReturn(5000L);
+        writeBuffer.start();
+
+        CommentDocument saved = writeBuffer.write(comment("Hello"));
+
+        assertNotNull(saved.getId());
+        assertEquals("Hello", saved.getContent());
+    }
+
+    @Test
+    void submit_AfterShutdown_ThrowsServiceUnavailable() {
+        writeBuffer.start();
+        writeBuffer.shutdown();
+
+        assertThrows(ServiceUnavailableException.class, () -> writeBuffer.submit(comment("late")));
+        assertEquals(0, writeBuffer.getQueuedCount());
+    }
+
+    private CommentDocument comment(String content) {
+        CommentDocument comment = new CommentDocument();
+        comment.setPostId(1);
+        comment.setContent(content);
+        return comment;
+    }
+}
@@ -2,6 +2,7 @@ package org.amalitech.bloggingplatformspring.dao;
 
 import org.amalitech.bloggingplatformspring.dao.helpers.DAOHelperMethods;
 import org.amalitech.bloggingplatformspring.dao.helpers.FilterClause;
+import org.amalitech.bloggingplatformspring.dtos.requests.PostFieldSelection;
 import org.amalitech.bloggingplatformspring.dtos.requests.PostFilterRequest;
 import org.amalitech.bloggingplatformspring.enums.PostSortField;
 import org.amalitech.bloggingplatformspring.enums.SortDirection;
@@ -193,4 +194,33 @@ class DAOHelperMethodsTest {
 
         assertEquals("p.updated_at DESC", orderBy);
     }
-}
\ No newline at end of file
+
+    @Test
+    void buildProjectionColumns_IdAndTitleOnly() {
+        String columns = daoHelperMethods.buildProjectionColumns(PostFieldSelection.idAndTitle());
+
+        assertEquals("p.id,\np.title", columns);
+    }
+
+    @Test
+    void buildProjectionColumns_AllFields_IncludesAuthorAndTags() {
+        String columns = daoHelperMethods.buildProjectionColumns(PostFieldSelection.all());
+
+        assertTrue(columns.contains("p.body"));
+        assertTrue(columns.contains("u.username AS author"));
+        assertTrue(columns.contains("p.posted_at"));
+        assertTrue(columns.contains("p.updated_at"));
+        assertTrue(columns.contains("AS tags"));
+    }
+
+    @Test
+    void requiresAuthorJoin_OnlyWhenAuthorSelectedFilteredOrSorted() {
+        PostFieldSelection minimal = PostFieldSelection.idAndTitle();
+
+        assertFalse(daoHelperMethods.requiresAuthorJoin(minimal, null, PostSortField.UPDATED_AT));
+        assertTrue(daoHelperMethods.requiresAuthorJoin(minimal, null, PostSortField.AUTHOR));
+        assertTrue(daoHelperMethods.requiresAuthorJoin(minimal,
+                new PostFilterRequest("john", null, null), PostSortField.UPDATED_AT));
+        assertTrue(daoHelperMethods.requiresAuthorJoin(PostFieldSelection.all(), null, PostSortField.ID));
+    }
+}
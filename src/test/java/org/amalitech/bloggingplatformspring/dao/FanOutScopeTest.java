@@ -0,0 +1,93 @@
+package org.amalitech.bloggingplatformspring.dao;
+
+import org.amalitech.bloggingplatformspring.dao.helpers.FanOutScope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FanOutScopeTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        MDC.clear();
+    }
+
+    @Test
+    void forkedTasks_RunConcurrently() throws InterruptedException {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        try (FanOutScope scope = new FanOutScope()) {
+            Future<String> first = scope.fork(() -> awaitPeer(bothStarted, "post"));
+            Future<String> second = scope.fork(() -> awaitPeer(bothStarted, "comments"));
+            scope.join().throwIfFailed(IllegalStateException::new);
+
+            assertEquals("post", first.resultNow());
+            assertEquals("comments", second.resultNow());
+        }
+    }
+
+    @Test
+    void failure_CancelsSiblingsAndIsRethrown() throws InterruptedException {
+        AtomicBoolean siblingInterrupted = new AtomicBoolean();
+        CountDownLatch siblingStarted = new CountDownLatch(1);
+
+        try (FanOutScope scope = new FanOutScope()) {
+            scope.fork(() -> {
+                siblingStarted.countDown();
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                } catch (InterruptedException e) {
+                    siblingInterrupted.set(true);
+                }
+                return null;
+            });
+            scope.fork(() -> {
+                // Fail only once the sibling is running, so it is interrupted rather than never started.
+                siblingStarted.await();
+                throw new IllegalArgumentException("store unavailable");
+            });
+            scope.join();
+
+            IllegalStateException error = assertThrows(IllegalStateException.class,
+                    () -> scope.throwIfFailed(IllegalStateException::new));
+            assertEquals("store unavailable", error.getCause().getMessage());
+        }
+        assertTrue(siblingInterrupted.get());
+    }
+
+    @Test
+    void forkedTasks_SeeRequestAttributesAndMdc() throws InterruptedException {
+        ServletRequestAttributes attributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(attributes);
+        MDC.put("requestId", "abc-123");
+
+        try (FanOutScope scope = new FanOutScope()) {
+            Future<RequestAttributes> seenAttributes = scope.fork(RequestContextHolder::getRequestAttributes);
+            Future<String> seenRequestId = scope.fork(() -> MDC.get("requestId"));
+            scope.join().throwIfFailed(IllegalStateException::new);
+
+            assertSame(attributes, seenAttributes.resultNow());
+            assertEquals("abc-123", seenRequestId.resultNow());
+        }
+    }
+
+    private String awaitPeer(CountDownLatch bothStarted, String result) throws InterruptedException {
+        bothStarted.countDown();
+        if (!bothStarted.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("tasks did not run concurrently");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,115 @@
+package org.amalitech.bloggingplatformspring.dao;
+
+import com.mongodb.client.ListIndexesIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.Indexes;
+import org.amalitech.bloggingplatformspring.dao.MongoIndexManager.IndexDefinition;
+import org.amalitech.bloggingplatformspring.utils.Constants;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MongoIndexManagerTest {
+
+    @Test
+    void isIndexCovered_IndexScanPlan_ReturnsTrue() {
+        Document explain = new Document("queryPlanner", new Document("winningPlan",
+                new Document("stage", "LIMIT")
+                        .append("inputStage", new Document("stage", "FETCH")
+                                .append("inputStage", new Document("stage", "IXSCAN")))));
+
+        assertTrue(MongoIndexManager.isIndexCovered(explain));
+    }
+
+    @Test
+    void isIndexCovered_CollectionScanPlan_ReturnsFalse() {
+        Document explain = new Document("queryPlanner", new Document("winningPlan",
+                new Document("stage", "SORT")
+                        .append("inputStage", new Document("stage", "COLLSCAN"))));
+
+        assertFalse(MongoIndexManager.isIndexCovered(explain));
+    }
+
+    @Test
+    void isIndexCovered_AggregateCursorStage_ReadsNestedPlan() {
+        Document explain = new Document("stages", List.of(
+                new Document("$cursor", new Document("queryPlanner", new Document("winningPlan",
+                        new Document("stage", "COUNT_SCAN")))),
+                new Document("$group", new Document())));
+
+        assertTrue(MongoIndexManager.isIndexCovered(explain));
+    }
+
+    @Test
+    void isIndexCovered_IgnoresRejectedPlans() {
+        Document explain = new Document("queryPlanner", new Document("winningPlan",
+                new Document("stage", "IDHACK"))
+                .append("rejectedPlans", List.of(new Document("stage", "COLLSCAN"))));
+
+        assertTrue(MongoIndexManager.isIndexCovered(explain));
+    }
+
+    @Test
+    void findMatchingIndex_SameKeysUnderDefaultName_ReturnsExistingName() {
+        IndexDefinition definition = new IndexDefinition("postId_parentId_commentedAt_id",
+                Indexes.ascending("postId", "parentId", "commentedAt", "_id"));
+        List<Document> existing = List.of(
+                new Document("name", "_id_").append("key", new Document("_id", 1)),
+                new Document("name", "postId_1_parentId_1_commentedAt_1__id_1").append("key",
+                        new Document("postId", 1.0).append("parentId", 1.0)
+                                .append("commentedAt", 1.0).append("_id", 1.0)));
+
+        assertEquals(Optional.of("postId_1_parentId_1_commentedAt_1__id_1"),
+                MongoIndexManager.findMatchingIndex(existing, definition));
+    }
+
+    @Test
+    void findMatchingIndex_DifferentKeyOrderOrDirection_ReturnsEmpty() {
+        IndexDefinition definition = new IndexDefinition("ancestors_depth", Indexes.ascending("ancestors", "depth"));
+        List<Document> existing = List.of(
+                new Document("name", "depth_ancestors").append("key",
+                        new Document("depth", 1).append("ancestors", 1)),
+                new Document("name", "ancestors_depth_desc").append("key",
+                        new Document("ancestors", 1).append("depth", -1)));
+
+        assertTrue(MongoIndexManager.findMatchingIndex(existing, definition).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void report_WhileBootstrapRuns_ReturnsPendingWithoutWaiting() throws Exception {
+        MongoDatabase database = mock(MongoDatabase.class);
+        MongoCollection<Document> collection = mock(MongoCollection.class);
+        ListIndexesIterable<Document> indexes = mock(ListIndexesIterable.class);
+        CountDownLatch listing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(database.getCollection(Constants.CommentsMongoCollection)).thenReturn(collection);
+        when(collection.listIndexes()).thenReturn(indexes);
+        when(indexes.into(any())).thenAnswer(invocation -> {
+            listing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            throw new IllegalStateException("server selection timed out");
+        });
+        MongoIndexManager manager = new MongoIndexManager(database);
+
+        CompletableFuture<Void> bootstrap = CompletableFuture.runAsync(manager::bootstrap);
+        assertTrue(listing.await(5, TimeUnit.SECONDS));
+        Map<String, Object> report = CompletableFuture.supplyAsync(manager::report).get(1, TimeUnit.SECONDS);
+
+        assertEquals("PENDING", report.get("state"));
+        release.countDown();
+        bootstrap.get(5, TimeUnit.SECONDS);
+        assertEquals("FAILED", manager.report().get("state"));
+    }
+}
@@ -1,17 +1,29 @@
 package org.amalitech.bloggingplatformspring.dao;
 
+import org.amalitech.bloggingplatformspring.cache.CacheEntity;
+import org.amalitech.bloggingplatformspring.cache.CacheInvalidation;
 import org.amalitech.bloggingplatformspring.config.ConnectionProvider;
+import org.amalitech.bloggingplatformspring.dtos.requests.CommentPageRequest;
 import org.amalitech.bloggingplatformspring.dtos.requests.CreatePostDTO;
 import org.amalitech.bloggingplatformspring.dtos.requests.PageRequest;
+import org.amalitech.bloggingplatformspring.dtos.requests.PostFieldSelection;
 import org.amalitech.bloggingplatformspring.dtos.requests.PostFilterRequest;
+import org.amalitech.bloggingplatformspring.dtos.responses.CursorPage;
 import org.amalitech.bloggingplatformspring.dtos.responses.PageResponse;
 import org.amalitech.bloggingplatformspring.dtos.responses.PostResponseDTO;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostViewDTO;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostWithCommentsDTO;
+import org.amalitech.bloggingplatformspring.entity.CommentDocument;
 import org.amalitech.bloggingplatformspring.entity.Post;
+import org.amalitech.bloggingplatformspring.entity.PostChangeEntry;
 import org.amalitech.bloggingplatformspring.exceptions.ForbiddenException;
+import org.amalitech.bloggingplatformspring.exceptions.ServiceUnavailableException;
+import org.amalitech.bloggingplatformspring.repository.CommentRepository;
 import org.amalitech.bloggingplatformspring.repository.TagRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -34,7 +46,7 @@ class PostDAOTest {
     private TagRepository tagRepository;
 
     @Mock
-    private CommentDAO commentRepository;
+    private CommentRepository commentRepository;
 
     @Mock
     private Connection connection;
@@ -97,6 +109,12 @@ class PostDAOTest {
         when(tagRepository.findOrCreate(eq("spring"), eq(connection))).thenReturn(2);
         doNothing().when(tagStmt).addBatch();
         when(tagStmt.executeBatch()).thenReturn(new int[]{1, 1});
+        PreparedStatement notifyStmt = mock(PreparedStatement.class);
+        when(connection.prepareStatement(contains("pg_notify"))).thenReturn(notifyStmt);
+        PreparedStatement lockStmt = mock(PreparedStatement.class);
+        PreparedStatement changeStmt = mock(PreparedStatement.class);
+        when(connection.prepareStatement(contains("pg_advisory_xact_lock"))).thenReturn(lockStmt);
+        when(connection.prepareStatement(contains("INSERT INTO post_changes"))).thenReturn(changeStmt);
 
         Post result = postDAO.savePost(createPostDTO);
 
@@ -115,6 +133,12 @@ class PostDAOTest {
         verify(tagRepository).findOrCreate("spring", connection);
         verify(tagStmt, times(2)).addBatch();
         verify(tagStmt).executeBatch();
+        verify(notifyStmt).setString(2, CacheInvalidation.local(CacheEntity.POST, postId).toPayload());
+        verify(notifyStmt).execute();
+        verify(lockStmt).execute();
+        verify(changeStmt).setInt(1, postId);
+        verify(changeStmt).setBoolean(2, true);
+        verify(changeStmt).executeUpdate();
     }
 
     @Test
@@ -144,6 +168,9 @@ class PostDAOTest {
         when(insertRs.getObject("author_id")).thenReturn(authorId);
         when(insertRs.getTimestamp("posted_at")).thenReturn(Timestamp.valueOf(postedAt));
         when(insertRs.getTimestamp("updated_at")).thenReturn(Timestamp.valueOf(updatedAt));
+        when(connection.prepareStatement(contains("pg_notify"))).thenReturn(mock(PreparedStatement.class));
+        when(connection.prepareStatement(contains("pg_advisory_xact_lock"))).thenReturn(mock(PreparedStatement.class));
+        when(connection.prepareStatement(contains("INSERT INTO post_changes"))).thenReturn(mock(PreparedStatement.class));
 
         Post result = postDAO.savePost(createPostDTO);
 
@@ -196,7 +223,7 @@ class PostDAOTest {
         when(connection.prepareStatement(anyString())).thenReturn(stmt);
         when(stmt.executeQuery()).thenReturn(rs);
         when(rs.next()).thenReturn(true, true, false);
-        when(commentRepository.getTotalCommentsByPostId(anyInt())).thenReturn(0L);
+        when(commentRepository.getTotalCommentsByPostIds(anyCollection())).thenReturn(Map.of(1, 3L));
 
         when(rs.getInt("id")).thenReturn(1, 2);
         when(rs.getString("title")).thenReturn("Post 1", "Post 2");
@@ -211,6 +238,10 @@ class PostDAOTest {
 
         assertNotNull(result);
         assertEquals(2, result.size());
+        assertEquals(3L, result.get(0).getTotalComments());
+        assertEquals(0L, result.get(1).getTotalComments());
+        verify(commentRepository).getTotalCommentsByPostIds(List.of(1, 2));
+        verify(commentRepository, never()).getTotalCommentsByPostId(anyInt());
         verify(stmt).executeQuery();
     }
 
@@ -230,7 +261,7 @@ class PostDAOTest {
         when(connection.prepareStatement(anyString())).thenReturn(stmt);
         when(stmt.executeQuery()).thenReturn(rs);
         when(rs.next()).thenReturn(true, false);
-        when(commentRepository.getTotalCommentsByPostId(anyInt())).thenReturn(0L);
+        when(commentRepository.getTotalCommentsByPostIds(anyCollection())).thenReturn(Map.of());
 
         when(rs.getInt("id")).thenReturn(1);
         when(rs.getString("title")).thenReturn("Post 1");
@@ -252,6 +283,34 @@ class PostDAOTest {
         verify(stmt).setInt(2, 0);
     }
 
+    @Test
+    void getAllPosts_WithPagination_CommentStoreUnavailable_ReturnsDegradedPage() throws SQLException {
+        PageRequest pageRequest = new PageRequest(0, 10, "updated_at", "desc");
+
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+
+        when(connection.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true, false);
+        when(commentRepository.getTotalCommentsByPostIds(anyCollection()))
+                .thenThrow(new ServiceUnavailableException("Comment store is temporarily unavailable"));
+
+        when(rs.getInt("id")).thenReturn(1);
+        when(rs.getString("title")).thenReturn("Post 1");
+        when(rs.getString("body")).thenReturn("Body 1");
+        when(rs.getTimestamp("updated_at")).thenReturn(Timestamp.valueOf(updatedAt));
+        when(rs.getString("author")).thenReturn("author1");
+        when(rs.getInt("total_count")).thenReturn(1);
+
+        PageResponse<PostResponseDTO> result = postDAO.getAllPosts(pageRequest, null);
+
+        assertTrue(result.degraded());
+        assertEquals(1, result.content().size());
+        assertTrue(result.content().getFirst().isCommentCountUnavailable());
+        assertEquals(0, result.content().getFirst().getTotalComments());
+    }
+
     @Test
     void findPostById_PostExists_ReturnsPost() throws SQLException {
         PreparedStatement stmt = mock(PreparedStatement.class);
@@ -323,6 +382,70 @@ class PostDAOTest {
         verify(stmt).setInt(1, postId);
     }
 
+    @Test
+    void getPostViewById_IdAndTitleOnly_SkipsJoinsAndCommentCount() throws SQLException {
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+
+        doNothing().when(connection).close();
+        doNothing().when(stmt).close();
+        doNothing().when(rs).close();
+
+        when(connection.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true);
+        when(rs.getInt("id")).thenReturn(postId);
+        when(rs.getString("title")).thenReturn(title);
+
+        Optional<PostViewDTO> result = postDAO.getPostViewById(postId, PostFieldSelection.idAndTitle());
+
+        assertTrue(result.isPresent());
+        assertEquals(title, result.get().getTitle());
+        assertNull(result.get().getBody());
+        assertNull(result.get().getTags());
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(connection).prepareStatement(sql.capture());
+        assertFalse(sql.getValue().contains("users"));
+        assertFalse(sql.getValue().contains("tags"));
+        assertFalse(sql.getValue().contains("p.body"));
+        verify(commentRepository, never()).getTotalCommentsByPostId(anyInt());
+    }
+
+    @Test
+    void getAllPostViews_WithPagination_SelectedTags_ReturnsTagsWithoutAuthorJoin() throws SQLException {
+        PageRequest pageRequest = new PageRequest(0, 5, "updated_at", "desc");
+        PostFieldSelection selection = new PostFieldSelection(false, false, true, false, false, false);
+
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        Array tagsArray = mock(Array.class);
+
+        doNothing().when(connection).close();
+        doNothing().when(stmt).close();
+        doNothing().when(rs).close();
+
+        when(connection.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getInt("id")).thenReturn(postId);
+        when(rs.getString("title")).thenReturn(title);
+        when(rs.getArray("tags")).thenReturn(tagsArray);
+        when(tagsArray.getArray()).thenReturn(new String[]{"java"});
+        when(rs.getInt("total_count")).thenReturn(1);
+
+        PageResponse<PostViewDTO> result = postDAO.getAllPostViews(pageRequest, null, selection);
+
+        assertEquals(1, result.totalElements());
+        assertEquals(List.of("java"), result.content().getFirst().getTags());
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(connection).prepareStatement(sql.capture());
+        assertFalse(sql.getValue().contains("JOIN users"));
+        verify(stmt).setInt(1, 5);
+        verify(stmt).setInt(2, 0);
+    }
+
     @Test
     void updatePost_Success() throws SQLException {
         Post post = new Post();
@@ -330,10 +453,12 @@ class PostDAOTest {
         post.setTitle("Updated Title");
         post.setBody("Updated Body");
         post.setAuthorId(authorId);
+        post.setVersion(3);
 
         List<String> tags = Arrays.asList("java", "testing");
 
         PreparedStatement updateStmt = mock(PreparedStatement.class);
+        ResultSet updated = mock(ResultSet.class);
         PreparedStatement deleteStmt = mock(PreparedStatement.class);
         PreparedStatement insertStmt = mock(PreparedStatement.class);
 
@@ -346,7 +471,9 @@ class PostDAOTest {
 
         when(connection.prepareStatement(contains("UPDATE posts")))
                 .thenReturn(updateStmt);
-        when(updateStmt.executeUpdate()).thenReturn(1);
+        when(updateStmt.executeQuery()).thenReturn(updated);
+        when(updated.next()).thenReturn(true);
+        when(updated.getLong("version")).thenReturn(4L);
 
         when(connection.prepareStatement(contains("DELETE FROM post_tags")))
                 .thenReturn(deleteStmt);
@@ -357,16 +484,25 @@ class PostDAOTest {
         when(tagRepository.findOrCreate(anyString(), eq(connection))).thenReturn(1);
         doNothing().when(insertStmt).addBatch();
         when(insertStmt.executeBatch()).thenReturn(new int[]{1, 1});
+        PreparedStatement notifyStmt = mock(PreparedStatement.class);
+        when(connection.prepareStatement(contains("pg_notify"))).thenReturn(notifyStmt);
+        PreparedStatement changeStmt = mock(PreparedStatement.class);
+        when(connection.prepareStatement(contains("pg_advisory_xact_lock"))).thenReturn(mock(PreparedStatement.class));
+        when(connection.prepareStatement(contains("INSERT INTO post_changes"))).thenReturn(changeStmt);
 
-        postDAO.updatePost(post, tags);
+        assertTrue(postDAO.updatePost(post, tags));
 
+        assertEquals(4L, post.getVersion());
         verify(connection).setAutoCommit(false);
         verify(connection).commit();
         verify(updateStmt).setString(1, "Updated Title");
         verify(updateStmt).setString(2, "Updated Body");
         verify(updateStmt).setInt(3, postId);
         verify(updateStmt).setObject(4, authorId);
-        verify(updateStmt).executeUpdate();
+        verify(updateStmt).setLong(5, 3L);
+        verify(changeStmt).setBoolean(2, false);
+        verify(changeStmt).setBoolean(3, false);
+        verify(notifyStmt).execute();
         verify(deleteStmt).setInt(1, postId);
         verify(deleteStmt).executeUpdate();
     }
@@ -380,6 +516,9 @@ class PostDAOTest {
         post.setAuthorId(authorId);
 
         PreparedStatement updateStmt = mock(PreparedStatement.class);
+        ResultSet noRows = mock(ResultSet.class);
+        PreparedStatement ownerStmt = mock(PreparedStatement.class);
+        ResultSet owner = mock(ResultSet.class);
 
         doNothing().when(connection).setAutoCommit(false);
         doNothing().when(connection).close();
@@ -387,14 +526,42 @@ class PostDAOTest {
 
         when(connection.prepareStatement(contains("UPDATE posts")))
                 .thenReturn(updateStmt);
-        when(updateStmt.executeUpdate()).thenReturn(0);
+        when(updateStmt.executeQuery()).thenReturn(noRows);
+        when(connection.prepareStatement(contains("SELECT author_id FROM posts"))).thenReturn(ownerStmt);
+        when(ownerStmt.executeQuery()).thenReturn(owner);
+        when(owner.next()).thenReturn(true);
+        when(owner.getObject("author_id")).thenReturn(UUID.randomUUID());
 
         ForbiddenException exception = assertThrows(
                 ForbiddenException.class,
                 () -> postDAO.updatePost(post, List.of("java")));
 
         assertEquals("You are not permitted to update this post", exception.getMessage());
-        verify(updateStmt).executeUpdate();
+        verify(updateStmt).executeQuery();
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+    }
+
+    @Test
+    void updatePost_StaleVersion_ReturnsFalseWithoutTouchingTags() throws SQLException {
+        Post post = new Post(postId, "Updated Title", "Updated Body", authorId, null, null, 2L);
+
+        PreparedStatement updateStmt = mock(PreparedStatement.class);
+        ResultSet noRows = mock(ResultSet.class);
+        PreparedStatement ownerStmt = mock(PreparedStatement.class);
+        ResultSet owner = mock(ResultSet.class);
+
+        when(connection.prepareStatement(contains("UPDATE posts"))).thenReturn(updateStmt);
+        when(updateStmt.executeQuery()).thenReturn(noRows);
+        when(connection.prepareStatement(contains("SELECT author_id FROM posts"))).thenReturn(ownerStmt);
+        when(ownerStmt.executeQuery()).thenReturn(owner);
+        when(owner.next()).thenReturn(true);
+        when(owner.getObject("author_id")).thenReturn(authorId);
+
+        assertFalse(postDAO.updatePost(post, List.of("java")));
+
+        assertEquals(2L, post.getVersion());
+        verify(connection, never()).prepareStatement(contains("DELETE FROM post_tags"));
         verify(connection, never()).commit();
     }
 
@@ -410,9 +577,127 @@ class PostDAOTest {
 
         postDAO.deletePost(postId, authorId);
 
-        verify(stmt).setInt(1, postId);
+        verify(stmt, times(2)).setInt(1, postId);
         verify(stmt).setObject(2, authorId);
-        verify(stmt).executeUpdate();
+        verify(stmt).setBoolean(3, true);
+        verify(stmt, times(2)).executeUpdate();
+        verify(stmt, times(2)).execute();
+        verify(connection).commit();
+        verify(commentRepository).purgeCommentsByPostId(postId);
+    }
+
+    @Test
+    void getPostChangesSince_ReadsChangesAfterWatermark() throws SQLException {
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+
+        when(connection.prepareStatement(contains("FROM post_changes"))).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true, true, false);
+        when(rs.getInt("post_id")).thenReturn(3, 4);
+        when(rs.getLong("created_seq")).thenReturn(11L, 0L);
+        when(rs.getLong("seq")).thenReturn(11L, 12L);
+        when(rs.getBoolean("deleted")).thenReturn(false, true);
+
+        List<PostChangeEntry> changes = postDAO.getPostChangesSince(10L, 50);
+
+        assertEquals(List.of(new PostChangeEntry(3, 11L, 11L, false), new PostChangeEntry(4, 0L, 12L, true)), changes);
+        verify(stmt).setLong(1, 10L);
+        verify(stmt).setInt(2, 50);
+    }
+
+    @Test
+    void deletePost_NoRowDeleted_DoesNotPurgeComments() throws SQLException {
+        PreparedStatement stmt = mock(PreparedStatement.class);
+
+        when(connection.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeUpdate()).thenReturn(0);
+
+        postDAO.deletePost(postId, authorId);
+
+        verify(commentRepository, never()).purgeCommentsByPostId(anyInt());
+    }
+
+    @Test
+    void getPostWithComments_SharedStore_LoadsCountAndCommentsInOneQuery() throws SQLException {
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        Array tagsArray = mock(Array.class);
+        Timestamp commentedAt = Timestamp.valueOf(updatedAt);
+
+        when(commentRepository.sharesPostStore()).thenReturn(true);
+        when(connection.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true, true, false);
+        when(rs.getInt("id")).thenReturn(postId);
+        when(rs.getString("title")).thenReturn(title);
+        when(rs.getString("body")).thenReturn(body);
+        when(rs.getString("author")).thenReturn("author1");
+        when(rs.getTimestamp("updated_at")).thenReturn(Timestamp.valueOf(updatedAt));
+        when(rs.getArray("tags")).thenReturn(tagsArray);
+        when(tagsArray.getArray()).thenReturn(new String[]{"java"});
+        when(rs.getLong("total_comments")).thenReturn(5L);
+        when(rs.getLong("comment_id")).thenReturn(11L, 10L);
+        when(rs.wasNull()).thenReturn(false);
+        when(rs.getInt("comment_post_id")).thenReturn(postId);
+        when(rs.getString("comment_author")).thenReturn("reader");
+        when(rs.getString("comment_content")).thenReturn("First", "Second");
+        when(rs.getTimestamp("comment_commented_at")).thenReturn(commentedAt);
+
+        Optional<PostWithCommentsDTO> result = postDAO.getPostWithComments(postId, 1);
+
+        assertTrue(result.isPresent());
+        assertEquals(5L, result.get().post().getTotalComments());
+        assertEquals(1, result.get().comments().content().size());
+        assertEquals("11", result.get().comments().content().getFirst().getId());
+        assertTrue(result.get().comments().hasMore());
+        verify(stmt).setInt(1, 2);
+        verify(stmt).setInt(2, postId);
+        verify(connection, times(1)).prepareStatement(anyString());
+        verify(commentRepository, never()).getCommentsByPostId(anyInt(), any());
+    }
+
+    @Test
+    void getPostWithComments_SeparateStore_FetchesCommentsFromRepository() throws SQLException {
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+        Array tagsArray = mock(Array.class);
+        CursorPage<CommentDocument> comments = new CursorPage<>(List.of(), 20, null, false);
+
+        when(connection.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+        when(rs.next()).thenReturn(true);
+        when(rs.getInt("id")).thenReturn(postId);
+        when(rs.getTimestamp("updated_at")).thenReturn(Timestamp.valueOf(updatedAt));
+        when(rs.getArray("tags")).thenReturn(tagsArray);
+        when(tagsArray.getArray()).thenReturn(new String[]{});
+        when(commentRepository.getTotalCommentsByPostId(postId)).thenReturn(0L);
+        when(commentRepository.getCommentsByPostId(eq(postId), any(CommentPageRequest.class))).thenReturn(comments);
+
+        Optional<PostWithCommentsDTO> result = postDAO.getPostWithComments(postId, 20);
+
+        assertTrue(result.isPresent());
+        assertSame(comments, result.get().comments());
+    }
+
+    @Test
+    void getPostWithComments_SeparateStoreFails_PropagatesCommentStoreError() throws SQLException {
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        ResultSet rs = mock(ResultSet.class);
+
+        lenient().when(connection.prepareStatement(anyString())).thenReturn(stmt);
+        lenient().when(stmt.executeQuery()).thenReturn(rs);
+        when(commentRepository.getTotalCommentsByPostId(postId)).thenAnswer(invocation -> {
+            verify(connectionProvider, timeout(5000)).getConnection();
+            throw new IllegalStateException("mongo down");
+        });
+        lenient().when(commentRepository.getCommentsByPostId(eq(postId), any(CommentPageRequest.class)))
+                .thenReturn(new CursorPage<>(List.of(), 20, null, false));
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> postDAO.getPostWithComments(postId, 20));
+
+        assertEquals("mongo down", error.getMessage());
     }
 
     @Test
@@ -0,0 +1,162 @@
+package org.amalitech.bloggingplatformspring.dao;
+
+import org.amalitech.bloggingplatformspring.config.ConnectionProvider;
+import org.amalitech.bloggingplatformspring.dao.helpers.CommentCursor;
+import org.amalitech.bloggingplatformspring.dtos.requests.CommentPageRequest;
+import org.amalitech.bloggingplatformspring.dtos.responses.CursorPage;
+import org.amalitech.bloggingplatformspring.entity.Comment;
+import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+import org.amalitech.bloggingplatformspring.enums.SortDirection;
+import org.amalitech.bloggingplatformspring.exceptions.BadRequestException;
+import org.amalitech.bloggingplatformspring.exceptions.ForbiddenException;
+import org.amalitech.bloggingplatformspring.exceptions.SQLQueryException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.sql.*;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PostgresCommentDAOTest {
+
+    @Mock
+    private ConnectionProvider connectionProvider;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement stmt;
+
+    @Mock
+    private ResultSet rs;
+
+    @InjectMocks
+    private PostgresCommentDAO commentDAO;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(connectionProvider.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(stmt);
+        when(stmt.executeQuery()).thenReturn(rs);
+    }
+
+    @Test
+    void createComment_ReturnsGeneratedIdAndTimestamp() throws SQLException {
+        UUID authorId = UUID.randomUUID();
+        when(rs.next()).thenReturn(true);
+        when(rs.getLong("id")).thenReturn(42L);
+        when(rs.getTimestamp("commented_at")).thenReturn(new Timestamp(1_700_000_000_000L));
+
+        CommentDocument result = commentDAO.createComment(new Comment(3, authorId.toString(), "Hello", null), "alice");
+
+        assertEquals("42", result.getId());
+        assertEquals("alice", result.getAuthor());
+        assertEquals(new Date(1_700_000_000_000L), result.getCommentedAt());
+        verify(stmt).setObject(2, authorId);
+    }
+
+    @Test
+    void getCommentsByPostId_WithCursor_UsesRowComparisonKeyset() throws SQLException {
+        String cursor = new CommentCursor(new Date(1_700_000_000_000L), "10").encode();
+        when(rs.next()).thenReturn(false);
+
+        CursorPage<CommentDocument> page = commentDAO.getCommentsByPostId(3,
+                new CommentPageRequest(20, cursor, SortDirection.DESC));
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(connection).prepareStatement(sql.capture());
+        assertTrue(sql.getValue().contains("(c.commented_at, c.id) < (?, ?)"));
+        assertTrue(sql.getValue().contains("ORDER BY c.commented_at DESC, c.id DESC"));
+        verify(stmt).setLong(3, 10L);
+        verify(stmt).setInt(4, 21);
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    void getCommentsByPostId_NonNumericCursorId_ThrowsBadRequest() {
+        String cursor = new CommentCursor(new Date(), "507f1f77bcf86cd799439011").encode();
+
+        assertThrows(BadRequestException.class, () -> commentDAO.getCommentsByPostId(3,
+                new CommentPageRequest(20, cursor, SortDirection.DESC)));
+    }
+
+    @Test
+    void deleteComment_NoRowDeleted_ThrowsForbidden() throws SQLException {
+        when(rs.next()).thenReturn(false);
+
+        assertThrows(ForbiddenException.class,
+                () -> commentDAO.deleteComment("42", UUID.randomUUID().toString()));
+    }
+
+    @Test
+    void deleteComment_TombstonesRowInSingleStatement() throws SQLException {
+        when(rs.next()).thenReturn(true);
+        when(rs.getInt("post_id")).thenReturn(3);
+
+        assertEquals(3, commentDAO.deleteComment("42", UUID.randomUUID().toString()));
+
+        ArgumentCaptor<String> query = ArgumentCaptor.forClass(String.class);
+        verify(connection).prepareStatement(query.capture());
+        assertTrue(query.getValue().contains("SET deleted = TRUE"));
+        assertFalse(query.getValue().contains("DELETE"));
+        verify(connection, never()).setAutoCommit(false);
+    }
+
+    @Test
+    void getTotalCommentsByPostIds_GroupsInSingleQuery() throws SQLException {
+        Array ids = mock(Array.class);
+        when(connection.createArrayOf(eq("integer"), any())).thenReturn(ids);
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getInt("post_id")).thenReturn(1);
+        when(rs.getLong("total")).thenReturn(7L);
+
+        Map<Integer, Long> totals = commentDAO.getTotalCommentsByPostIds(List.of(1, 2));
+
+        assertEquals(Map.of(1, 7L), totals);
+        verify(connection, times(1)).prepareStatement(anyString());
+    }
+
+    @Test
+    void rebuildCommentCounters_RecountsRepliesUnderTableLock() throws SQLException {
+        Statement statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(rs);
+        when(rs.next()).thenReturn(true);
+        when(rs.getLong("posts")).thenReturn(4L);
+
+        long posts = commentDAO.rebuildCommentCounters();
+
+        assertEquals(4L, posts);
+        var inOrder = inOrder(statement, connection);
+        inOrder.verify(statement).execute("LOCK TABLE comments IN SHARE ROW EXCLUSIVE MODE");
+        inOrder.verify(statement).executeUpdate(contains("SET reply_count = counted.replies"));
+        inOrder.verify(connection).commit();
+    }
+
+    @Test
+    void rebuildCommentCounters_Failure_RollsBackAndThrows() throws SQLException {
+        Statement statement = mock(Statement.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeUpdate(anyString())).thenThrow(new SQLException("lock timeout"));
+
+        assertThrows(SQLQueryException.class, () -> commentDAO.rebuildCommentCounters());
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+    }
+}
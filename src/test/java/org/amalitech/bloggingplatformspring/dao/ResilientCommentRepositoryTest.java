@@ -0,0 +1,125 @@
+package org.amalitech.bloggingplatformspring.dao;
+
+import org.amalitech.bloggingplatformspring.config.CommentStoreResilienceConfig;
+import org.amalitech.bloggingplatformspring.entity.Comment;
+import org.amalitech.bloggingplatformspring.exceptions.BackpressureException;
+import org.amalitech.bloggingplatformspring.exceptions.BadRequestException;
+import org.amalitech.bloggingplatformspring.exceptions.ResourceNotFoundException;
+import org.amalitech.bloggingplatformspring.exceptions.ServiceUnavailableException;
+import org.amalitech.bloggingplatformspring.repository.CommentRepository;
+import org.amalitech.bloggingplatformspring.resilience.CircuitBreaker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ResilientCommentRepositoryTest {
+
+    @Mock
+    private CommentRepository store;
+
+    @Mock
+    private CommentStoreResilienceConfig config;
+
+    private ResilientCommentRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        when(config.getMaxConcurrent()).thenReturn(4);
+        when(config.getTimeoutMs()).thenReturn(200L);
+        when(config.getFailureThreshold()).thenReturn(2);
+        when(config.getOpenMs()).thenReturn(60_000L);
+        repository = new ResilientCommentRepository(store, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.shutdown();
+    }
+
+    @Test
+    void storeFailures_OpenCircuitAndFailFast() {
+        when(store.getTotalCommentsByPostId(1)).thenThrow(new IllegalStateException("connection refused"));
+
+        assertThrows(IllegalStateException.class, () -> repository.getTotalCommentsByPostId(1));
+        assertThrows(IllegalStateException.class, () -> repository.getTotalCommentsByPostId(1));
+
+        assertEquals(CircuitBreaker.State.OPEN, repository.getCircuitState());
+        assertThrows(ServiceUnavailableException.class, () -> repository.getTotalCommentsByPostId(1));
+        verify(store, times(2)).getTotalCommentsByPostId(1);
+    }
+
+    @Test
+    void slowStore_TimesOutAndCountsAsFailure() {
+        when(store.getTotalCommentsByPostId(1)).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return 3L;
+        });
+
+        assertThrows(ServiceUnavailableException.class, () -> repository.getTotalCommentsByPostId(1));
+        assertThrows(ServiceUnavailableException.class, () -> repository.getTotalCommentsByPostId(1));
+
+        assertEquals(CircuitBreaker.State.OPEN, repository.getCircuitState());
+    }
+
+    @Test
+    void businessErrors_DoNotOpenCircuit() {
+        when(store.getCommentSubtree("missing", 3)).thenThrow(new ResourceNotFoundException("Comment not found"));
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ResourceNotFoundException.class, () -> repository.getCommentSubtree("missing", 3));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, repository.getCircuitState());
+    }
+
+    @Test
+    void malformedIds_DoNotOpenCircuit() {
+        when(store.getCommentById("not-an-id")).thenThrow(new BadRequestException("Invalid comment ID"));
+        when(store.deleteComment("not-an-id", "not-a-uuid"))
+                .thenThrow(new IllegalArgumentException("Invalid UUID string: not-a-uuid"));
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(BadRequestException.class, () -> repository.getCommentById("not-an-id"));
+            assertThrows(IllegalArgumentException.class, () -> repository.deleteComment("not-an-id", "not-a-uuid"));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, repository.getCircuitState());
+        assertEquals(0, repository.report().get("consecutiveFailures"));
+    }
+
+    @Test
+    void slowWrite_IsNotTimedOut() {
+        when(store.deleteComment("c1", "u1")).thenAnswer(invocation -> {
+            Thread.sleep(400);
+            return 7;
+        });
+
+        assertEquals(7, repository.deleteComment("c1", "u1"));
+        assertEquals(CircuitBreaker.State.CLOSED, repository.getCircuitState());
+    }
+
+    @Test
+    void writeBackpressure_DoesNotOpenCircuit() {
+        when(store.createComment(any(), anyString()))
+                .thenThrow(new BackpressureException("Comment ingestion queue is full, please retry shortly"));
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(BackpressureException.class, () -> repository.createComment(new Comment(), "alice"));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, repository.getCircuitState());
+        assertEquals(0, repository.report().get("consecutiveFailures"));
+    }
+}
@@ -63,6 +63,7 @@ class TagDAOTest {
 
         verify(stmt).setString(1, tagName);
         verify(stmt).executeQuery();
+        verify(connection, never()).prepareStatement(contains("pg_notify"));
     }
 
     @Test
@@ -13,6 +13,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -100,6 +101,8 @@ class UserDAOTest {
         verify(insertStmt).setString(2, username);
         verify(insertStmt).setString(3, email);
         verify(insertStmt).setString(4, password);
+        verify(connection, never()).prepareStatement(contains("pg_notify"));
+        verify(connection).commit();
         verify(connection).close();
         verify(checkStmt).close();
         verify(insertStmt).close();
@@ -122,6 +125,8 @@ class UserDAOTest {
         verify(checkStmt).setString(1, username);
         verify(checkStmt).setString(2, email);
         verify(connection, never()).prepareStatement(contains("INSERT INTO users"));
+        verify(connection).rollback();
+        verify(connection, never()).commit();
     }
 
     @Test
@@ -145,6 +150,8 @@ class UserDAOTest {
                 () -> userDAO.saveUser(username, email, password));
 
         assertEquals("Failed to register user", exception.getMessage());
+        verify(connection).rollback();
+        verify(connection, never()).commit();
     }
 
     @Test
@@ -245,6 +252,28 @@ class UserDAOTest {
         verify(preparedStatement).setObject(1, userId);
     }
 
+    @Test
+    void findUsers_LoadsAllIdsAndUsernamesInOneQuery() throws SQLException {
+        Array idArray = mock(Array.class);
+        Array usernameArray = mock(Array.class);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(connection.createArrayOf(eq("uuid"), any())).thenReturn(idArray);
+        when(connection.createArrayOf(eq("varchar"), any())).thenReturn(usernameArray);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getObject("id")).thenReturn(userId);
+        when(resultSet.getString("username")).thenReturn(username);
+        when(resultSet.getTimestamp("created_at")).thenReturn(Timestamp.valueOf(createdAt));
+
+        List<User> result = userDAO.findUsers(List.of(userId), List.of("other"));
+
+        assertEquals(1, result.size());
+        assertEquals(userId, result.getFirst().getId());
+        verify(connection, times(1)).prepareStatement(anyString());
+        verify(preparedStatement).setArray(1, idArray);
+        verify(preparedStatement).setArray(2, usernameArray);
+    }
+
     @Test
     void findUserById_UserNotFound_ReturnsEmpty() throws SQLException {
         when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
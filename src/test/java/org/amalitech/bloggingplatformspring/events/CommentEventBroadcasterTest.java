@@ -0,0 +1,164 @@
+package org.amalitech.bloggingplatformspring.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.amalitech.bloggingplatformspring.config.CommentStreamConfig;
+import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+import org.amalitech.bloggingplatformspring.exceptions.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CommentEventBroadcasterTest {
+
+    @Mock
+    private CommentStreamConfig config;
+
+    private CommentEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        when(config.getBufferSize()).thenReturn(2);
+        when(config.getMaxSubscribers()).thenReturn(3);
+        when(config.getTimeoutMs()).thenReturn(60_000L);
+        broadcaster = new CommentEventBroadcaster(config, new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.shutdown();
+    }
+
+    @Test
+    void publishCreated_FansOutToSubscribersOfThatPostOnly() throws InterruptedException {
+        RecordingEmitter first = new RecordingEmitter(1);
+        RecordingEmitter second = new RecordingEmitter(1);
+        RecordingEmitter otherPost = new RecordingEmitter(1);
+        broadcaster.subscribe(1, first);
+        broadcaster.subscribe(1, second);
+        broadcaster.subscribe(2, otherPost);
+
+        broadcaster.publishCreated(comment("c1", 1));
+
+        first.await();
+        second.await();
+        assertTrue(first.events.getFirst().contains("event:comment-created"));
+        assertTrue(second.events.getFirst().contains("\"id\":\"c1\""));
+        assertTrue(otherPost.events.isEmpty());
+        assertEquals(1L, broadcaster.snapshot().get("published"));
+    }
+
+    @Test
+    void slowSubscriber_DropsOldestBufferedEvents() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(3, release);
+        broadcaster.subscribe(1, slow);
+
+        broadcaster.publishCreated(comment("c1", 1));
+        assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+        broadcaster.publishCreated(comment("c2", 1));
+        broadcaster.publishCreated(comment("c3", 1));
+        broadcaster.publishCreated(comment("c4", 1));
+        release.countDown();
+
+        slow.await();
+        assertEquals(List.of("c1", "c3", "c4"), slow.ids());
+        assertEquals(1L, broadcaster.snapshot().get("dropped"));
+    }
+
+    @Test
+    void publishDeleted_CarriesPostAndCommentId() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter(1);
+        broadcaster.subscribe(4, emitter);
+
+        broadcaster.publishDeleted(4, "c9");
+
+        emitter.await();
+        assertTrue(emitter.events.getFirst().contains("event:comment-deleted"));
+        assertTrue(emitter.events.getFirst().contains("\"commentId\":\"c9\""));
+    }
+
+    @Test
+    void sendHeartbeats_WritesCommentToIdleStreams() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter(1);
+        broadcaster.subscribe(1, emitter);
+
+        broadcaster.sendHeartbeats();
+
+        emitter.await();
+        assertTrue(emitter.events.getFirst().startsWith(":heartbeat"));
+    }
+
+    @Test
+    void subscribe_OverLimit_ThrowsServiceUnavailableException() {
+        for (int i = 0; i < 3; i++) {
+            broadcaster.subscribe(1, new SseEmitter());
+        }
+
+        assertThrows(ServiceUnavailableException.class, () -> broadcaster.subscribe(2, new SseEmitter()));
+        assertEquals(3, broadcaster.snapshot().get("subscribers"));
+    }
+
+    private CommentDocument comment(String id, int postId) {
+        return new CommentDocument(id, postId, "testuser", "content", "2026-01-01 10:00:00");
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch received;
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        RecordingEmitter(int expected) {
+            this(expected, new CountDownLatch(0));
+        }
+
+        RecordingEmitter(int expected, CountDownLatch release) {
+            this.received = new CountDownLatch(expected);
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            events.add(builder.build().stream()
+                    .map(part -> part.getData().toString())
+                    .collect(Collectors.joining()));
+            received.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(received.await(5, TimeUnit.SECONDS), "received " + events);
+        }
+
+        List<String> ids() {
+            return events.stream()
+                    .map(event -> event.substring(event.indexOf("id:") + 3, event.indexOf('\n', event.indexOf("id:"))))
+                    .toList();
+        }
+    }
+}
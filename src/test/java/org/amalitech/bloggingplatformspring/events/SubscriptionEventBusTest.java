@@ -0,0 +1,97 @@
+package org.amalitech.bloggingplatformspring.events;
+
+import org.amalitech.bloggingplatformspring.config.SubscriptionConfig;
+import org.amalitech.bloggingplatformspring.enums.EventTopic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SubscriptionEventBusTest {
+
+    @Mock
+    private SubscriptionConfig config;
+
+    private SubscriptionEventBus eventBus;
+
+    @BeforeEach
+    void setUp() {
+        when(config.getBufferSize()).thenReturn(2);
+        eventBus = new SubscriptionEventBus(config);
+    }
+
+    @Test
+    void publish_ReachesOnlySubscribersOfMatchingKey() {
+        List<String> post1 = new CopyOnWriteArrayList<>();
+        List<String> post2 = new CopyOnWriteArrayList<>();
+        eventBus.subscribe(EventTopic.COMMENT_ADDED, 1, String.class).subscribe(post1::add);
+        eventBus.subscribe(EventTopic.COMMENT_ADDED, 2, String.class).subscribe(post2::add);
+        eventBus.subscribe(EventTopic.POST_UPDATED, 1, String.class).subscribe(post2::add);
+
+        eventBus.publish(EventTopic.COMMENT_ADDED, 1, "c1");
+
+        assertEquals(List.of("c1"), post1);
+        assertTrue(post2.isEmpty());
+        assertEquals(1L, eventBus.snapshot().get("delivered"));
+    }
+
+    @Test
+    void publish_SeveralMatchingKeys_DeliversOncePerSubscriber() {
+        List<String> java = new CopyOnWriteArrayList<>();
+        List<String> any = new CopyOnWriteArrayList<>();
+        List<String> go = new CopyOnWriteArrayList<>();
+        eventBus.subscribe(EventTopic.POST_CREATED, "java", String.class).subscribe(java::add);
+        eventBus.subscribe(EventTopic.POST_CREATED, null, String.class).subscribe(any::add);
+        eventBus.subscribe(EventTopic.POST_CREATED, "go", String.class).subscribe(go::add);
+
+        eventBus.publish(EventTopic.POST_CREATED, List.of("java", "spring", "java"), "p1");
+
+        assertEquals(List.of("p1"), java);
+        assertEquals(List.of("p1"), any);
+        assertTrue(go.isEmpty());
+    }
+
+    @Test
+    void cancel_RemovesSubscriptionFromIndex() {
+        Disposable subscription = eventBus.subscribe(EventTopic.POST_UPDATED, 3, String.class).subscribe();
+        assertEquals(1, eventBus.snapshot().get("subscriptions"));
+
+        subscription.dispose();
+        eventBus.publish(EventTopic.POST_UPDATED, 3, "p3");
+
+        assertEquals(0, eventBus.snapshot().get("subscriptions"));
+        assertEquals(0, eventBus.snapshot().get("indexedKeys"));
+        assertEquals(0L, eventBus.snapshot().get("delivered"));
+    }
+
+    @Test
+    void slowSubscriber_KeepsNewestEvents() {
+        List<String> received = new CopyOnWriteArrayList<>();
+        eventBus.subscribe(EventTopic.COMMENT_ADDED, 1, String.class).subscribe(new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // Request nothing, so every published event stays buffered.
+            }
+
+            @Override
+            protected void hookOnNext(String value) {
+                received.add(value);
+            }
+        });
+        List.of("c1", "c2", "c3", "c4").forEach(event -> eventBus.publish(EventTopic.COMMENT_ADDED, 1, event));
+
+        assertTrue(received.isEmpty());
+        assertEquals(2L, eventBus.snapshot().get("dropped"));
+    }
+}
@@ -0,0 +1,92 @@
+package org.amalitech.bloggingplatformspring.graphql.execution;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphQLFetchExecutorTest {
+
+    private GraphQLFetchExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new GraphQLFetchExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        RequestContextHolder.resetRequestAttributes();
+        MDC.clear();
+    }
+
+    @Test
+    void siblingFetches_RunConcurrently() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        CompletableFuture<String> comments = executor.fetch(() -> awaitPeer(bothStarted, "comments"));
+        CompletableFuture<String> author = executor.fetch(() -> awaitPeer(bothStarted, "author"));
+
+        assertEquals("comments", comments.get(5, TimeUnit.SECONDS));
+        assertEquals("author", author.get(5, TimeUnit.SECONDS));
+        assertEquals(2L, executor.snapshot().get("completed"));
+    }
+
+    @Test
+    void fetch_CompletesAfterLeavingInFlight() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> inFlightAtCompletion = executor.fetch(() -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "post";
+        }).thenApply(post -> (Integer) executor.snapshot().get("inFlight"));
+
+        release.countDown();
+        assertEquals(0, inFlightAtCompletion.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void fetch_CarriesRequestAttributesAndMdc() throws Exception {
+        ServletRequestAttributes attributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(attributes);
+        MDC.put("requestId", "abc-123");
+
+        CompletableFuture<RequestAttributes> seenAttributes =
+                executor.fetch(RequestContextHolder::getRequestAttributes);
+        CompletableFuture<String> seenRequestId = executor.fetch(() -> MDC.get("requestId"));
+
+        assertSame(attributes, seenAttributes.get(5, TimeUnit.SECONDS));
+        assertEquals("abc-123", seenRequestId.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void fetch_Failure_CompletesExceptionallyWithOriginalCause() {
+        CompletableFuture<String> future = executor.fetch(() -> {
+            throw new IllegalStateException("store unavailable");
+        });
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> future.get(5, TimeUnit.SECONDS));
+        assertEquals("store unavailable", error.getCause().getMessage());
+        assertEquals(1L, executor.snapshot().get("failed"));
+    }
+
+    private String awaitPeer(CountDownLatch bothStarted, String result) throws InterruptedException {
+        bothStarted.countDown();
+        if (!bothStarted.await(5, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("fetches did not run concurrently");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,130 @@
+package org.amalitech.bloggingplatformspring.graphql.execution;
+
+import graphql.ExecutionInput;
+import graphql.GraphQLError;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import graphql.parser.Parser;
+import org.amalitech.bloggingplatformspring.config.PersistedQueryConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PersistedDocumentProviderTest {
+
+    private static final String QUERY = "{ getAllTags { id name } }";
+
+    @Mock
+    private PersistedQueryConfig config;
+
+    private final AtomicInteger parses = new AtomicInteger();
+    private final Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidate = input -> {
+        parses.incrementAndGet();
+        return new PreparsedDocumentEntry(Parser.parse(input.getQuery()));
+    };
+
+    @BeforeEach
+    void setUp() {
+        when(config.getMaxEntries()).thenReturn(2);
+        when(config.isEnabled()).thenReturn(true);
+        when(config.getAllowedHashes()).thenReturn(Set.of());
+    }
+
+    @Test
+    void repeatedQuery_IsParsedOnce() {
+        PersistedDocumentProvider provider = new PersistedDocumentProvider(config);
+
+        PreparsedDocumentEntry first = provider.getDocumentAsync(query(QUERY, null), parseAndValidate).join();
+        PreparsedDocumentEntry second = provider.getDocumentAsync(query(QUERY, null), parseAndValidate).join();
+
+        assertSame(first, second);
+        assertEquals(1, parses.get());
+        assertEquals(1L, provider.snapshot().get("hits"));
+    }
+
+    @Test
+    void hashOnlyRequest_UnknownThenRegistered() {
+        PersistedDocumentProvider provider = new PersistedDocumentProvider(config);
+        String hash = PersistedDocumentProvider.sha256(QUERY);
+
+        PreparsedDocumentEntry missing = provider.getDocumentAsync(
+                query(PersistedQuerySupport.PERSISTED_QUERY_MARKER, hash), parseAndValidate).join();
+        assertEquals("PersistedQueryNotFound", singleError(missing).getMessage());
+
+        provider.getDocumentAsync(query(QUERY, hash), parseAndValidate).join();
+        PreparsedDocumentEntry found = provider.getDocumentAsync(
+                query(PersistedQuerySupport.PERSISTED_QUERY_MARKER, hash), parseAndValidate).join();
+
+        assertFalse(found.hasErrors());
+        assertEquals(1, parses.get());
+    }
+
+    @Test
+    void mismatchedHash_IsRejectedWithoutParsing() {
+        PersistedDocumentProvider provider = new PersistedDocumentProvider(config);
+
+        PreparsedDocumentEntry entry = provider.getDocumentAsync(
+                query(QUERY, PersistedDocumentProvider.sha256("{ getAllPosts { id } }")), parseAndValidate).join();
+
+        assertEquals("PersistedQueryIdInvalid", singleError(entry).getMessage());
+        assertEquals(0, parses.get());
+    }
+
+    @Test
+    void allowList_RejectsUnlistedQueries() {
+        when(config.isAllowListEnabled()).thenReturn(true);
+        when(config.getAllowedHashes()).thenReturn(Set.of(PersistedDocumentProvider.sha256(QUERY).toUpperCase()));
+        PersistedDocumentProvider provider = new PersistedDocumentProvider(config);
+
+        PreparsedDocumentEntry allowed = provider.getDocumentAsync(query(QUERY, null), parseAndValidate).join();
+        PreparsedDocumentEntry rejected = provider.getDocumentAsync(
+                query("{ getAllPosts { id } }", null), parseAndValidate).join();
+
+        assertFalse(allowed.hasErrors());
+        assertEquals("PersistedQueryNotAllowed", singleError(rejected).getMessage());
+        assertEquals(1, parses.get());
+        assertEquals(1L, provider.snapshot().get("rejected"));
+    }
+
+    @Test
+    void cache_EvictsLeastRecentlyUsedDocument() {
+        PersistedDocumentProvider provider = new PersistedDocumentProvider(config);
+
+        provider.getDocumentAsync(query("{ a }", null), parseAndValidate).join();
+        provider.getDocumentAsync(query("{ b }", null), parseAndValidate).join();
+        provider.getDocumentAsync(query("{ a }", null), parseAndValidate).join();
+        provider.getDocumentAsync(query("{ c }", null), parseAndValidate).join();
+        provider.getDocumentAsync(query("{ a }", null), parseAndValidate).join();
+        provider.getDocumentAsync(query("{ b }", null), parseAndValidate).join();
+
+        assertEquals(4, parses.get());
+        assertEquals(2, provider.snapshot().get("entries"));
+    }
+
+    private ExecutionInput query(String query, String hash) {
+        ExecutionInput.Builder input = ExecutionInput.newExecutionInput().query(query);
+        if (hash != null) {
+            input.extensions(Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash)));
+        }
+        return input.build();
+    }
+
+    private GraphQLError singleError(PreparsedDocumentEntry entry) {
+        assertEquals(1, entry.getErrors().size());
+        return entry.getErrors().getFirst();
+    }
+}
@@ -0,0 +1,63 @@
+package org.amalitech.bloggingplatformspring.graphql.execution;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graphql.execution.preparsed.persisted.PersistedQuerySupport;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import org.amalitech.bloggingplatformspring.utils.CachedBodyRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class PersistedQueryFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PersistedQueryFilter filter = new PersistedQueryFilter(objectMapper, 1024);
+
+    @Test
+    void hashOnlyRequest_GetsPersistedQueryMarker() throws IOException {
+        HttpServletRequest rewritten = filter.withPersistedQueryMarker(request(
+                "{\"extensions\":{\"persistedQuery\":{\"version\":1,\"sha256Hash\":\"abc\"}}}"));
+
+        Map<?, ?> body = objectMapper.readValue(rewritten.getInputStream(), Map.class);
+        assertEquals(PersistedQuerySupport.PERSISTED_QUERY_MARKER, body.get("query"));
+        assertEquals(rewritten.getContentLength(), ((CachedBodyRequest) rewritten).bodyBytes().length);
+    }
+
+    @Test
+    void requestWithQuery_IsPassedThrough() throws IOException {
+        CachedBodyRequest request = request(
+                "{\"query\":\"{ getAllTags { id } }\",\"extensions\":{\"persistedQuery\":{\"sha256Hash\":\"abc\"}}}");
+
+        assertSame(request, filter.withPersistedQueryMarker(request));
+        CachedBodyRequest plain = request("{\"query\":\"{ getAllTags { id } }\"}");
+        assertSame(plain, filter.withPersistedQueryMarker(plain));
+    }
+
+    @Test
+    void oversizedBody_Returns413WithoutCallingHandler() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setContent(("{\"query\":\"" + "x".repeat(2048) + "\"}").getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = mock(FilterChain.class);
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(413, response.getStatus());
+        verifyNoInteractions(chain);
+    }
+
+    private CachedBodyRequest request(String body) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return new CachedBodyRequest(request, 1024);
+    }
+}
@@ -0,0 +1,163 @@
+package org.amalitech.bloggingplatformspring.graphql.execution;
+
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import graphql.execution.CoercedVariables;
+import graphql.parser.Parser;
+import graphql.schema.GraphQLSchema;
+import graphql.schema.idl.SchemaParser;
+import graphql.schema.idl.UnExecutableSchemaGenerator;
+import org.amalitech.bloggingplatformspring.config.QueryCostConfig;
+import org.amalitech.bloggingplatformspring.graphql.execution.QueryCostCalculator.QueryCost;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class QueryCostInstrumentationTest {
+
+    private static GraphQLSchema schema;
+
+    @Mock
+    private QueryCostConfig config;
+
+    @BeforeAll
+    static void loadSchema() throws IOException {
+        try (Reader schemaFile = new InputStreamReader(
+                QueryCostInstrumentationTest.class.getResourceAsStream("/graphql/schema.graphqls"), StandardCharsets.UTF_8)) {
+            schema = UnExecutableSchemaGenerator.makeUnExecutableSchema(new SchemaParser().parse(schemaFile));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(config.isEnabled()).thenReturn(true);
+        when(config.getMaxDepth()).thenReturn(4);
+        when(config.getMaxComplexity()).thenReturn(200);
+        when(config.getMaxListSize()).thenReturn(100);
+        when(config.getFieldWeights()).thenReturn(Map.of("Post.author", 3));
+        when(config.getListSizes()).thenReturn(Map.of("Post.tags", 4));
+    }
+
+    @Test
+    void pageContent_IsMultipliedByRequestedPageSize() {
+        QueryCost cost = cost("{ getPaginatedPosts(pageRequest: {size: 10}) { content { id author { username } } } }");
+
+        assertEquals(1 + 10 * (1 + 3), cost.complexity());
+        assertEquals(4, cost.depth());
+    }
+
+    @Test
+    void unboundedListWithSizeHint_UsesHint() {
+        QueryCost cost = cost("{ getPost(postId: 1) { tags { name } } }");
+
+        assertEquals(1 + 4, cost.complexity());
+    }
+
+    @Test
+    void nestedListWithoutSize_CountsAsMaximumListSize() {
+        QueryCost cost = cost("{ getPaginatedPosts { content { title author { username } } } }");
+
+        assertEquals(1 + 100 * (1 + 3), cost.complexity());
+        assertTrue(cost.unboundedLists().isEmpty());
+    }
+
+    @Test
+    void rootListWithRowCountHint_IsPricedFromHintAboveMaximumListSize() {
+        when(config.getListSizes()).thenReturn(Map.of("Query.getAllPosts", 500));
+
+        QueryCost cost = cost("{ getAllPosts { title author { username } } }");
+
+        assertEquals(500 * (1 + 3), cost.complexity());
+        assertTrue(cost.unboundedLists().isEmpty());
+    }
+
+    @Test
+    void rootListWithoutSizeOrHint_IsReportedUnbounded() {
+        QueryCost cost = cost("{ getAllPosts { title } }");
+
+        assertEquals(List.of("Query.getAllPosts"), cost.unboundedLists());
+    }
+
+    @Test
+    void sizeArgument_IsCappedAtMaximumListSize() {
+        QueryCost small = cost("{ getCommentsByPost(postId: 1, size: 5) { content { id } } }");
+        QueryCost huge = cost("{ getCommentsByPost(postId: 1, size: 100000) { content { id } } }");
+
+        assertEquals(1 + 5, small.complexity());
+        assertEquals(1 + 100, huge.complexity());
+    }
+
+    @Test
+    void overComplexityLimit_IsRejectedBeforeExecution() {
+        when(config.getListSizes()).thenReturn(Map.of("Query.getAllPosts", 500));
+        QueryCostInstrumentation instrumentation = new QueryCostInstrumentation(config);
+
+        ExecutionResult result = execute(instrumentation, "{ getAllPosts { author { username } } }");
+
+        assertNull(result.getData());
+        assertEquals("Query cost 2000 exceeds the maximum of 200", result.getErrors().getFirst().getMessage());
+        assertEquals(1L, instrumentation.snapshot().get("rejectedComplexity"));
+    }
+
+    @Test
+    void unboundedRootList_IsRejectedBeforeExecution() {
+        QueryCostInstrumentation instrumentation = new QueryCostInstrumentation(config);
+
+        ExecutionResult result = execute(instrumentation, "{ getAllTags { name } }");
+
+        assertNull(result.getData());
+        assertEquals("Unbounded list Query.getAllTags needs a size argument or a configured list-size hint",
+                result.getErrors().getFirst().getMessage());
+        assertEquals(1L, instrumentation.snapshot().get("rejectedUnbounded"));
+    }
+
+    @Test
+    void overDepthLimit_IsRejected() {
+        when(config.getMaxDepth()).thenReturn(3);
+        QueryCostInstrumentation instrumentation = new QueryCostInstrumentation(config);
+
+        ExecutionResult result = execute(instrumentation, "{ getPaginatedPosts { content { author { username } } } }");
+
+        assertNull(result.getData());
+        assertEquals("Query depth 4 exceeds the maximum of 3", result.getErrors().getFirst().getMessage());
+        assertEquals(1L, instrumentation.snapshot().get("rejectedDepth"));
+    }
+
+    @Test
+    void acceptedOperation_IsRecordedInHistogram() {
+        QueryCostInstrumentation instrumentation = new QueryCostInstrumentation(config);
+
+        ExecutionResult result = execute(instrumentation, "{ getPost(postId: 1) { id title } }");
+
+        assertNotNull(result.getData());
+        Map<String, Object> snapshot = instrumentation.snapshot();
+        assertEquals(1L, snapshot.get("operations"));
+        assertEquals(1L, snapshot.get("maxCost"));
+        assertEquals(1L, ((Map<?, ?>) snapshot.get("costHistogram")).get("<=10"));
+    }
+
+    private QueryCost cost(String query) {
+        return new QueryCostCalculator(config).calculate(schema, Parser.parse(query), null, CoercedVariables.emptyVariables());
+    }
+
+    private ExecutionResult execute(QueryCostInstrumentation instrumentation, String query) {
+        return GraphQL.newGraphQL(schema).instrumentation(instrumentation).build().execute(query);
+    }
+}
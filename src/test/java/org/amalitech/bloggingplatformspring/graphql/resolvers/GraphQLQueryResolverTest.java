@@ -0,0 +1,72 @@
+package org.amalitech.bloggingplatformspring.graphql.resolvers;
+
+import org.amalitech.bloggingplatformspring.dtos.responses.CursorPage;
+import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+import org.amalitech.bloggingplatformspring.services.CommentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class GraphQLQueryResolverTest {
+
+    private static final String CREATED_AT = "Monday, January 5, 2026 10:15:00";
+
+    @Autowired
+    private ExecutionGraphQlService graphQlService;
+
+    @MockitoBean
+    private CommentService commentService;
+
+    @Test
+    void getCommentsByPost_WithTombstone_ReturnsPageWithDeletedPlaceholder() {
+        CommentDocument live = new CommentDocument("c1", 1, "alice", "First!", CREATED_AT);
+        CommentDocument tombstone = new CommentDocument("c2", 1, null, null, CREATED_AT);
+        tombstone.setDeleted(true);
+        when(commentService.getCommentsByPostId(eq(1), any()))
+                .thenReturn(new CursorPage<>(List.of(live, tombstone), 2, null, false));
+
+        GraphQlTester.Response response = tester()
+                .document("{ getCommentsByPost(postId: 1) { content { id author content deleted } } }")
+                .execute();
+
+        response.errors().verify();
+        response.path("getCommentsByPost.content[0].author").entity(String.class).isEqualTo("alice");
+        response.path("getCommentsByPost.content[0].deleted").entity(Boolean.class).isEqualTo(false);
+        response.path("getCommentsByPost.content[1].id").entity(String.class).isEqualTo("c2");
+        response.path("getCommentsByPost.content[1].author").valueIsNull();
+        response.path("getCommentsByPost.content[1].content").valueIsNull();
+        response.path("getCommentsByPost.content[1].deleted").entity(Boolean.class).isEqualTo(true);
+    }
+
+    @Test
+    void getComment_Tombstone_ReturnsDeletedPlaceholder() {
+        CommentDocument tombstone = new CommentDocument("c2", 1, null, null, CREATED_AT);
+        tombstone.setDeleted(true);
+        when(commentService.getCommentById("c2")).thenReturn(tombstone);
+
+        GraphQlTester.Response response = tester()
+                .document("{ getComment(commentId: \"c2\") { id author content deleted } }")
+                .execute();
+
+        response.errors().verify();
+        response.path("getComment.author").valueIsNull();
+        response.path("getComment.deleted").entity(Boolean.class).isEqualTo(true);
+    }
+
+    private ExecutionGraphQlServiceTester tester() {
+        return ExecutionGraphQlServiceTester.create(graphQlService);
+    }
+}
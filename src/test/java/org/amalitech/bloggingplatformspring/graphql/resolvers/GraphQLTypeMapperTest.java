@@ -0,0 +1,51 @@
+package org.amalitech.bloggingplatformspring.graphql.resolvers;
+
+import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+import org.amalitech.bloggingplatformspring.entity.Post;
+import org.amalitech.bloggingplatformspring.events.PostEvent;
+import org.amalitech.bloggingplatformspring.graphql.types.GraphQLComment;
+import org.amalitech.bloggingplatformspring.graphql.types.GraphQLPost;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphQLTypeMapperTest {
+
+    private final GraphQLTypeMapper mapper = new GraphQLTypeMapper();
+
+    @Test
+    void toPost_FromEvent_CarriesAuthorAndTags() {
+        UUID authorId = UUID.randomUUID();
+        Post post = new Post();
+        post.setId(5);
+        post.setTitle("Title");
+        post.setAuthorId(authorId);
+
+        GraphQLPost mapped = mapper.toPost(new PostEvent(post, "alice", List.of("java")));
+
+        assertEquals(5, mapped.getId());
+        assertEquals(authorId.toString(), mapped.getAuthorId());
+        assertEquals("alice", mapped.getAuthor());
+        assertEquals("java", mapped.getTags().getFirst().getName());
+    }
+
+    @Test
+    void toComment_ParsesCreatedAt() {
+        CommentDocument comment = new CommentDocument();
+        comment.setId("c1");
+        comment.setPostId(5);
+        comment.setAuthor("alice");
+        comment.setContent("Nice post");
+        comment.setCreatedAt("Monday, January 5, 2026 10:15:00");
+
+        GraphQLComment mapped = mapper.toComment(comment);
+
+        assertEquals("c1", mapped.getId());
+        assertEquals("alice", mapped.getAuthor());
+        assertEquals(LocalDateTime.of(2026, 1, 5, 10, 15), mapped.getCreatedAt());
+    }
+}
@@ -0,0 +1,104 @@
+package org.amalitech.bloggingplatformspring.limiter;
+
+import org.amalitech.bloggingplatformspring.config.ConcurrencyLimitConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Mock
+    private ConcurrencyLimitConfig config;
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        when(config.getInitialLimit()).thenReturn(10);
+        when(config.getMinLimit()).thenReturn(2);
+        when(config.getMaxLimit()).thenReturn(100);
+        when(config.getLowPriorityShare()).thenReturn(0.5);
+        limiter = new AdaptiveConcurrencyLimiter(config);
+    }
+
+    @Test
+    void tryAcquire_ShedsLowPriorityBeforeNormal() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+        }
+
+        assertFalse(limiter.tryAcquire(RequestPriority.LOW));
+        assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+        assertEquals(1L, limiter.snapshot().get("rejectedLowPriority"));
+    }
+
+    @Test
+    void tryAcquire_RejectsAtLimit() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+        }
+
+        assertFalse(limiter.tryAcquire(RequestPriority.NORMAL));
+        assertEquals(10, limiter.getInFlight());
+    }
+
+    @Test
+    void release_SteadyLatencyUnderLoad_GrowsLimit() {
+        for (int round = 0; round < 20; round++) {
+            int admitted = 0;
+            while (limiter.tryAcquire(RequestPriority.NORMAL)) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(FAST, false);
+            }
+        }
+
+        assertTrue(limiter.getLimit() > 10, "limit was " + limiter.getLimit());
+    }
+
+    @Test
+    void release_RisingLatency_ShrinksLimit() {
+        fillAndRelease(FAST);
+
+        for (int round = 0; round < 10; round++) {
+            fillAndRelease(FAST * 10);
+        }
+
+        assertTrue(limiter.getLimit() < 10, "limit was " + limiter.getLimit());
+    }
+
+    @Test
+    void release_Dropped_BacksOffToMinimum() {
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire(RequestPriority.NORMAL);
+            limiter.release(FAST, true);
+        }
+
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private void fillAndRelease(long rttNanos) {
+        int admitted = 0;
+        while (limiter.tryAcquire(RequestPriority.NORMAL)) {
+            admitted++;
+        }
+        for (int i = 0; i < admitted; i++) {
+            limiter.release(rttNanos, false);
+        }
+    }
+}
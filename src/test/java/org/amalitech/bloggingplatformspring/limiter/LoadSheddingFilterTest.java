@@ -0,0 +1,139 @@
+package org.amalitech.bloggingplatformspring.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import graphql.parser.Parser;
+import org.amalitech.bloggingplatformspring.config.ConcurrencyLimitConfig;
+import org.amalitech.bloggingplatformspring.graphql.execution.GraphQLOperationInspector;
+import org.amalitech.bloggingplatformspring.graphql.execution.PersistedDocumentProvider;
+import org.amalitech.bloggingplatformspring.utils.CachedBodyRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class LoadSheddingFilterTest {
+
+    @Mock
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @Mock
+    private ConcurrencyLimitConfig config;
+
+    @Mock
+    private PersistedDocumentProvider documentProvider;
+
+    private LoadSheddingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        when(config.isEnabled()).thenReturn(true);
+        when(config.getRetryAfterSeconds()).thenReturn(2);
+        filter = new LoadSheddingFilter(limiter, config,
+                new GraphQLOperationInspector(new ObjectMapper(), documentProvider), new ObjectMapper(), 1024);
+    }
+
+    @Test
+    void rejectedRequest_Returns503WithRetryAfter() throws ServletException, IOException {
+        when(limiter.tryAcquire(RequestPriority.NORMAL)).thenReturn(false);
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/posts/1"), response, chain);
+
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("SERVICE UNAVAILABLE"));
+        verifyNoInteractions(chain);
+        verify(limiter, never()).release(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void admittedRequest_ReleasesWithDroppedFlagForServerErrors() throws ServletException, IOException {
+        when(limiter.tryAcquire(RequestPriority.NORMAL)).thenReturn(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/posts/1"), response,
+                (req, res) -> response.setStatus(500));
+
+        verify(limiter).release(anyLong(), eq(true));
+    }
+
+    @Test
+    void graphQLGetAllPosts_IsLowPriorityAndBodyStaysReadable() throws ServletException, IOException {
+        when(limiter.tryAcquire(RequestPriority.LOW)).thenReturn(true);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        String body = "{\"query\":\"{ getAllPosts { id } }\"}";
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        StringBuilder seenByHandler = new StringBuilder();
+
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> seenByHandler.append(new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8)));
+
+        assertEquals(body, seenByHandler.toString());
+        verify(limiter).release(anyLong(), eq(false));
+    }
+
+    @Test
+    void metricsExport_IsLowPriority() throws ServletException, IOException {
+        when(limiter.tryAcquire(RequestPriority.LOW)).thenReturn(false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/metrics/performance/export/log"), response,
+                mock(FilterChain.class));
+
+        assertEquals(503, response.getStatus());
+    }
+
+    @Test
+    void graphQLAliasedGetAllPosts_IsLowPriority() throws IOException {
+        assertEquals(RequestPriority.LOW, filter.classify(graphQL(
+                "{\"query\":\"query Feed { posts: getAllPosts { id } }\"}")));
+    }
+
+    @Test
+    void graphQLMentionOutsideRootFields_IsNormalPriority() throws IOException {
+        assertEquals(RequestPriority.NORMAL, filter.classify(graphQL(
+                "{\"query\":\"# getAllPosts\\n{ getAllTags { id } }\",\"variables\":{\"q\":\"getAllPosts\"}}")));
+        assertEquals(RequestPriority.NORMAL, filter.classify(graphQL(
+                "{\"query\":\"query A { getAllPosts { id } } query B { getAllTags { id } }\",\"operationName\":\"B\"}")));
+    }
+
+    @Test
+    void graphQLHashOnlyPersistedQuery_IsClassifiedFromCachedDocument() throws IOException {
+        when(documentProvider.cachedDocument("abc")).thenReturn(Parser.parse("{ getAllPosts { id } }"));
+
+        assertEquals(RequestPriority.LOW, filter.classify(graphQL(
+                "{\"extensions\":{\"persistedQuery\":{\"version\":1,\"sha256Hash\":\"ABC\"}}}")));
+    }
+
+    @Test
+    void unfilteredPostListing_IsLowPriority() {
+        MockHttpServletRequest filtered = new MockHttpServletRequest("GET", "/api/v1/posts");
+        filtered.setParameter("author", "alice");
+
+        assertEquals(RequestPriority.LOW, filter.classify(new MockHttpServletRequest("GET", "/api/v1/posts")));
+        assertEquals(RequestPriority.NORMAL, filter.classify(filtered));
+    }
+
+    private CachedBodyRequest graphQL(String body) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return new CachedBodyRequest(request, 1024);
+    }
+}
@@ -0,0 +1,89 @@
+package org.amalitech.bloggingplatformspring.resilience;
+
+import org.amalitech.bloggingplatformspring.exceptions.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    private final Bulkhead bulkhead = new Bulkhead("Test store", 1, 200);
+
+    @AfterEach
+    void tearDown() {
+        bulkhead.close();
+        RequestContextHolder.resetRequestAttributes();
+        MDC.clear();
+    }
+
+    @Test
+    void call_ReturnsResultAndReleasesPermit() {
+        assertEquals("ok", bulkhead.call(() -> "ok"));
+        assertEquals("again", bulkhead.call(() -> "again"));
+        assertEquals(0, bulkhead.getInUse());
+    }
+
+    @Test
+    void call_SlowerThanTimeout_ThrowsServiceUnavailable() {
+        assertThrows(ServiceUnavailableException.class, () -> bulkhead.call(() -> {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+            return null;
+        }));
+    }
+
+    @Test
+    void call_WhenSaturated_RejectsImmediately() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> bulkhead.call(() -> {
+            started.countDown();
+            release.await();
+            return null;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(ServiceUnavailableException.class, () -> bulkhead.call(() -> "rejected"));
+
+        release.countDown();
+        holder.join();
+    }
+
+    @Test
+    void call_PropagatesTaskException() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> bulkhead.call(() -> {
+                    throw new IllegalArgumentException("bad input");
+                }));
+        assertEquals("bad input", error.getMessage());
+    }
+
+    @Test
+    void call_CarriesRequestAttributesAndMdcToWorkerThread() {
+        RequestAttributes attributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(attributes);
+        MDC.put("requestId", "req-1");
+
+        assertSame(attributes, bulkhead.call(RequestContextHolder::getRequestAttributes));
+        assertEquals("req-1", bulkhead.call(() -> MDC.get("requestId")));
+    }
+
+    @Test
+    void callWithoutTimeout_RunsSlowTaskToCompletionUninterrupted() {
+        String result = bulkhead.callWithoutTimeout(() -> {
+            Thread.sleep(400);
+            return Thread.currentThread().isInterrupted() ? "interrupted" : "written";
+        });
+
+        assertEquals("written", result);
+        assertEquals(0, bulkhead.getInUse());
+    }
+}
@@ -0,0 +1,87 @@
+package org.amalitech.bloggingplatformspring.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void execute_ConcurrentSameKey_RunsLoaderOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("post:1", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                awaitQuietly(release);
+                return "post";
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            Future<String> first = executor.submit(() -> singleFlight.execute("post:1", () -> "duplicate"));
+            Future<String> second = executor.submit(() -> singleFlight.execute("post:1", () -> "duplicate"));
+            while (singleFlight.getCoalesced() < 2) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertEquals("post", leader.get());
+            assertEquals("post", first.get());
+            assertEquals("post", second.get());
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, singleFlight.getExecutions());
+        assertEquals(2, singleFlight.getCoalesced());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    @Test
+    void execute_AfterCompletion_LoadsAgain() {
+        assertEquals("first", singleFlight.execute("post:1", () -> "first"));
+        assertEquals("second", singleFlight.execute("post:1", () -> "second"));
+        assertEquals(2, singleFlight.getExecutions());
+        assertEquals(0, singleFlight.getCoalesced());
+    }
+
+    @Test
+    void execute_LoaderFails_FailureSharedAndKeyReleased() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("post:1", () -> {
+                loading.countDown();
+                awaitQuietly(release);
+                throw new IllegalStateException("database down");
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<String> follower = executor.submit(() -> singleFlight.execute("post:1", () -> "unused"));
+            while (singleFlight.getCoalesced() < 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            ExecutionException leaderError = assertThrows(ExecutionException.class, leader::get);
+            ExecutionException followerError = assertThrows(ExecutionException.class, follower::get);
+            assertInstanceOf(IllegalStateException.class, leaderError.getCause());
+            assertSame(leaderError.getCause(), followerError.getCause());
+        }
+        assertEquals("recovered", singleFlight.execute("post:1", () -> "recovered"));
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
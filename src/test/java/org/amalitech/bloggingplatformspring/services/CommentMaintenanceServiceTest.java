@@ -0,0 +1,78 @@
+package org.amalitech.bloggingplatformspring.services;
+
+import org.amalitech.bloggingplatformspring.config.CommentMaintenanceConfig;
+import org.amalitech.bloggingplatformspring.dtos.responses.OrphanSweepResult;
+import org.amalitech.bloggingplatformspring.exceptions.SQLQueryException;
+import org.amalitech.bloggingplatformspring.repository.CommentRepository;
+import org.amalitech.bloggingplatformspring.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentMaintenanceServiceTest {
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private CommentMaintenanceConfig config;
+
+    private CommentMaintenanceService commentMaintenanceService;
+
+    @BeforeEach
+    void setUp() {
+        when(config.getSweepChunkSize()).thenReturn(2);
+        when(config.getSweepParallelism()).thenReturn(2);
+        commentMaintenanceService = new CommentMaintenanceService(commentRepository, postRepository, config);
+    }
+
+    @Test
+    void sweepOrphanedComments_QueuesMissingPostsInChunks() throws SQLException {
+        when(commentRepository.getCommentedPostIds()).thenReturn(List.of(1, 2, 3, 4, 5));
+        when(postRepository.findExistingPostIds(List.of(1, 2))).thenReturn(Set.of(1, 2));
+        when(postRepository.findExistingPostIds(List.of(3, 4))).thenReturn(Set.of(4));
+        when(postRepository.findExistingPostIds(List.of(5))).thenReturn(Set.of());
+
+        OrphanSweepResult result = commentMaintenanceService.sweepOrphanedComments();
+
+        assertEquals(5, result.scannedPosts());
+        assertEquals(2, result.orphanedPosts());
+        verify(commentRepository).purgeCommentsByPostId(3);
+        verify(commentRepository).purgeCommentsByPostId(5);
+        verify(commentRepository, times(2)).purgeCommentsByPostId(anyInt());
+    }
+
+    @Test
+    void sweepOrphanedComments_NoComments_DoesNotQueryPosts() throws SQLException {
+        when(commentRepository.getCommentedPostIds()).thenReturn(List.of());
+
+        OrphanSweepResult result = commentMaintenanceService.sweepOrphanedComments();
+
+        assertEquals(0, result.scannedPosts());
+        verify(postRepository, never()).findExistingPostIds(anyCollection());
+    }
+
+    @Test
+    void sweepOrphanedComments_PostgresFailure_ThrowsSQLQueryException() throws SQLException {
+        when(commentRepository.getCommentedPostIds()).thenReturn(List.of(1));
+        when(postRepository.findExistingPostIds(anyCollection())).thenThrow(new SQLException("connection refused"));
+
+        assertThrows(SQLQueryException.class, () -> commentMaintenanceService.sweepOrphanedComments());
+        verify(commentRepository, never()).purgeCommentsByPostId(anyInt());
+    }
+}
@@ -1,17 +1,29 @@
 package org.amalitech.bloggingplatformspring.services;
 
+import org.amalitech.bloggingplatformspring.cache.EncodedResponseCache;
+import org.amalitech.bloggingplatformspring.cache.ResourceVersion;
+import org.amalitech.bloggingplatformspring.dtos.requests.CommentPageRequest;
 import org.amalitech.bloggingplatformspring.dtos.requests.CreateCommentDTO;
 import org.amalitech.bloggingplatformspring.dtos.requests.DeleteCommentRequestDTO;
+import org.amalitech.bloggingplatformspring.dtos.responses.CommentThreadNode;
+import org.amalitech.bloggingplatformspring.dtos.responses.CursorPage;
 import org.amalitech.bloggingplatformspring.entity.Comment;
 import org.amalitech.bloggingplatformspring.entity.CommentDocument;
+import org.amalitech.bloggingplatformspring.entity.CommentSetVersion;
 import org.amalitech.bloggingplatformspring.entity.Post;
 import org.amalitech.bloggingplatformspring.entity.User;
+import org.amalitech.bloggingplatformspring.enums.SortDirection;
+import org.amalitech.bloggingplatformspring.enums.EventTopic;
+import org.amalitech.bloggingplatformspring.events.CommentEventBroadcaster;
+import org.amalitech.bloggingplatformspring.events.SubscriptionEventBus;
+import org.amalitech.bloggingplatformspring.exceptions.BadRequestException;
 import org.amalitech.bloggingplatformspring.exceptions.InvalidUserIdFormatException;
 import org.amalitech.bloggingplatformspring.exceptions.ResourceNotFoundException;
 import org.amalitech.bloggingplatformspring.exceptions.SQLQueryException;
 import org.amalitech.bloggingplatformspring.repository.CommentRepository;
 import org.amalitech.bloggingplatformspring.repository.PostRepository;
 import org.amalitech.bloggingplatformspring.repository.UserRepository;
+import org.amalitech.bloggingplatformspring.utils.Constants;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,6 +33,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.sql.SQLException;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -40,6 +53,15 @@ public class CommentServiceTest {
     @Mock
     private PostRepository postRepository;
 
+    @Mock
+    private CommentEventBroadcaster commentEvents;
+
+    @Mock
+    private SubscriptionEventBus eventBus;
+
+    @Mock
+    private EncodedResponseCache encodedResponseCache;
+
     @InjectMocks
     private CommentService commentService;
 
@@ -49,6 +71,7 @@ public class CommentServiceTest {
     private CommentDocument commentDocument;
     private CreateCommentDTO createCommentDTO;
     private DeleteCommentRequestDTO deleteCommentRequestDTO;
+    private CommentPageRequest pageRequest;
 
     @BeforeEach
     void setUp() {
@@ -89,6 +112,12 @@ public class CommentServiceTest {
 
         deleteCommentRequestDTO = new DeleteCommentRequestDTO();
         deleteCommentRequestDTO.setAuthorId(userId.toString());
+
+        pageRequest = new CommentPageRequest(20, null, SortDirection.DESC);
+    }
+
+    private CursorPage<CommentDocument> page(List<CommentDocument> comments) {
+        return new CursorPage<>(comments, 20, null, false);
     }
 
     @Test
@@ -204,24 +233,24 @@ public class CommentServiceTest {
     }
 
     @Test
-    void getAllCommentsByPostId_Success_ReturnsComments() throws SQLException {
+    void getCommentsByPostId_Success_ReturnsComments() throws SQLException {
         List<CommentDocument> comments = Collections.singletonList(commentDocument);
 
         when(postRepository.findPostById(1)).thenReturn(Optional.of(post));
-        when(commentRepository.getAllCommentsByPostId(1)).thenReturn(comments);
+        when(commentRepository.getCommentsByPostId(1, pageRequest)).thenReturn(page(comments));
 
-        List<CommentDocument> result = commentService.getAllCommentsByPostId(1);
+        List<CommentDocument> result = commentService.getCommentsByPostId(1, pageRequest).content();
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("commentId123", result.getFirst().getId());
         assertEquals("This is a test comment", result.getFirst().getContent());
         verify(postRepository).findPostById(1);
-        verify(commentRepository).getAllCommentsByPostId(1);
+        verify(commentRepository).getCommentsByPostId(1, pageRequest);
     }
 
     @Test
-    void getAllCommentsByPostId_Success_ReturnsMultipleComments() throws SQLException {
+    void getCommentsByPostId_Success_ReturnsMultipleComments() throws SQLException {
         CommentDocument comment2 = new CommentDocument();
         comment2.setId("commentId456");
         comment2.setPostId(1);
@@ -232,57 +261,57 @@ public class CommentServiceTest {
         List<CommentDocument> comments = Arrays.asList(commentDocument, comment2);
 
         when(postRepository.findPostById(1)).thenReturn(Optional.of(post));
-        when(commentRepository.getAllCommentsByPostId(1)).thenReturn(comments);
+        when(commentRepository.getCommentsByPostId(1, pageRequest)).thenReturn(page(comments));
 
-        List<CommentDocument> result = commentService.getAllCommentsByPostId(1);
+        List<CommentDocument> result = commentService.getCommentsByPostId(1, pageRequest).content();
 
         assertNotNull(result);
         assertEquals(2, result.size());
         assertEquals("commentId123", result.getFirst().getId());
         assertEquals("commentId456", result.get(1).getId());
-        verify(commentRepository).getAllCommentsByPostId(1);
+        verify(commentRepository).getCommentsByPostId(1, pageRequest);
     }
 
     @Test
-    void getAllCommentsByPostId_NoComments_ReturnsEmptyList() throws SQLException {
+    void getCommentsByPostId_NoComments_ReturnsEmptyList() throws SQLException {
         when(postRepository.findPostById(1)).thenReturn(Optional.of(post));
-        when(commentRepository.getAllCommentsByPostId(1)).thenReturn(Collections.emptyList());
+        when(commentRepository.getCommentsByPostId(1, pageRequest)).thenReturn(page(Collections.emptyList()));
 
-        List<CommentDocument> result = commentService.getAllCommentsByPostId(1);
+        List<CommentDocument> result = commentService.getCommentsByPostId(1, pageRequest).content();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
         verify(postRepository).findPostById(1);
-        verify(commentRepository).getAllCommentsByPostId(1);
+        verify(commentRepository).getCommentsByPostId(1, pageRequest);
     }
 
     @Test
-    void getAllCommentsByPostId_PostNotFound_ThrowsResourceNotFoundException() throws SQLException {
+    void getCommentsByPostId_PostNotFound_ThrowsResourceNotFoundException() throws SQLException {
         when(postRepository.findPostById(999)).thenReturn(Optional.empty());
 
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
-                () -> commentService.getAllCommentsByPostId(999));
+                () -> commentService.getCommentsByPostId(999, pageRequest).content());
 
         assertEquals("Post not found with ID: 999", exception.getMessage());
         verify(postRepository).findPostById(999);
-        verify(commentRepository, never()).getAllCommentsByPostId(anyInt());
+        verify(commentRepository, never()).getCommentsByPostId(anyInt(), any());
     }
 
     @Test
-    void getAllCommentsByPostId_PostRepositoryThrowsSQLException_ThrowsSQLQueryException() throws SQLException {
+    void getCommentsByPostId_PostRepositoryThrowsSQLException_ThrowsSQLQueryException() throws SQLException {
         when(postRepository.findPostById(1))
                 .thenThrow(new SQLException("Database error"));
 
         SQLQueryException exception = assertThrows(SQLQueryException.class,
-                () -> commentService.getAllCommentsByPostId(1));
+                () -> commentService.getCommentsByPostId(1, pageRequest).content());
 
         assertEquals("Failed to find comment: Database error", exception.getMessage());
         verify(postRepository).findPostById(1);
-        verify(commentRepository, never()).getAllCommentsByPostId(anyInt());
+        verify(commentRepository, never()).getCommentsByPostId(anyInt(), any());
     }
 
     @Test
-    void getAllCommentsByPostId_DifferentPostId_Success() throws SQLException {
+    void getCommentsByPostId_DifferentPostId_Success() throws SQLException {
         Post differentPost = new Post(
                 5,
                 "Different Post",
@@ -299,15 +328,37 @@ public class CommentServiceTest {
         comment.setContent("Comment on different post");
 
         when(postRepository.findPostById(5)).thenReturn(Optional.of(differentPost));
-        when(commentRepository.getAllCommentsByPostId(5)).thenReturn(List.of(comment));
+        when(commentRepository.getCommentsByPostId(5, pageRequest)).thenReturn(page(List.of(comment)));
 
-        List<CommentDocument> result = commentService.getAllCommentsByPostId(5);
+        List<CommentDocument> result = commentService.getCommentsByPostId(5, pageRequest).content();
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(5, result.getFirst().getPostId());
     }
 
+    @Test
+    void getCommentsByPostId_OversizedPage_IsCappedBeforeRepositoryCall() throws SQLException {
+        CommentPageRequest oversized = new CommentPageRequest(500, "cursor", SortDirection.ASC);
+        CommentPageRequest capped = new CommentPageRequest(50, "cursor", SortDirection.ASC);
+
+        when(postRepository.findPostById(1)).thenReturn(Optional.of(post));
+        when(commentRepository.getCommentsByPostId(1, capped)).thenReturn(new CursorPage<>(List.of(), 50, null, false));
+
+        CursorPage<CommentDocument> result = commentService.getCommentsByPostId(1, oversized);
+
+        assertEquals(50, result.size());
+        verify(commentRepository).getCommentsByPostId(1, capped);
+    }
+
+    @Test
+    void getCommentsByPostId_NonPositiveSize_ThrowsBadRequestException() throws SQLException {
+        assertThrows(BadRequestException.class,
+                () -> commentService.getCommentsByPostId(1, new CommentPageRequest(0, null, SortDirection.DESC)));
+
+        verify(postRepository, never()).findPostById(anyInt());
+    }
+
     @Test
     void getCommentById_Success() {
         when(commentRepository.getCommentById("commentId123"))
@@ -367,7 +418,7 @@ public class CommentServiceTest {
     @Test
     void deleteComment_Success() throws SQLException {
         when(userRepository.findUserById(userId)).thenReturn(Optional.of(user));
-        doNothing().when(commentRepository).deleteComment("commentId123", userId.toString());
+        when(commentRepository.deleteComment("commentId123", userId.toString())).thenReturn(1);
 
         assertDoesNotThrow(() ->
                 commentService.deleteComment("commentId123", deleteCommentRequestDTO));
@@ -376,6 +427,67 @@ public class CommentServiceTest {
         verify(commentRepository).deleteComment("commentId123", userId.toString());
     }
 
+    @Test
+    void addCommentToPost_PublishesCreatedEvent() throws SQLException {
+        when(userRepository.findUserById(userId)).thenReturn(Optional.of(user));
+        when(commentRepository.createComment(any(Comment.class), eq("testuser")))
+                .thenReturn(commentDocument);
+
+        commentService.addCommentToPost(createCommentDTO);
+
+        verify(commentEvents).publishCreated(commentDocument);
+        verify(eventBus).publish(EventTopic.COMMENT_ADDED, 1, commentDocument);
+    }
+
+    @Test
+    void deleteComment_PublishesDeletedEventForOwningPost() throws SQLException {
+        when(userRepository.findUserById(userId)).thenReturn(Optional.of(user));
+        when(commentRepository.deleteComment("commentId123", userId.toString())).thenReturn(7);
+
+        commentService.deleteComment("commentId123", deleteCommentRequestDTO);
+
+        verify(commentEvents).publishDeleted(7, "commentId123");
+    }
+
+    @Test
+    void addCommentToPost_EvictsEncodedPostResponse() throws SQLException {
+        when(userRepository.findUserById(userId)).thenReturn(Optional.of(user));
+        when(commentRepository.createComment(any(Comment.class), eq("testuser")))
+                .thenReturn(commentDocument);
+
+        commentService.addCommentToPost(createCommentDTO);
+
+        verify(encodedResponseCache).evictPost(1);
+    }
+
+    @Test
+    void deleteComment_EvictsEncodedPostResponse() throws SQLException {
+        when(userRepository.findUserById(userId)).thenReturn(Optional.of(user));
+        when(commentRepository.deleteComment("commentId123", userId.toString())).thenReturn(7);
+
+        commentService.deleteComment("commentId123", deleteCommentRequestDTO);
+
+        verify(encodedResponseCache).evictPost(7);
+    }
+
+    @Test
+    void streamComments_UnknownPost_ThrowsResourceNotFoundException() throws SQLException {
+        when(postRepository.findPostById(99)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> commentService.streamComments(99));
+
+        verify(commentEvents, never()).subscribe(anyInt());
+    }
+
+    @Test
+    void streamComments_SubscribesToPost() throws SQLException {
+        when(postRepository.findPostById(1)).thenReturn(Optional.of(post));
+
+        commentService.streamComments(1);
+
+        verify(commentEvents).subscribe(1);
+    }
+
     @Test
     void deleteComment_UserNotFound_ThrowsResourceNotFoundException() throws SQLException {
         when(userRepository.findUserById(userId)).thenReturn(Optional.empty());
@@ -415,7 +527,7 @@ public class CommentServiceTest {
     @Test
     void deleteComment_DifferentCommentId_Success() throws SQLException {
         when(userRepository.findUserById(userId)).thenReturn(Optional.of(user));
-        doNothing().when(commentRepository).deleteComment("differentCommentId", userId.toString());
+        when(commentRepository.deleteComment("differentCommentId", userId.toString())).thenReturn(1);
 
         assertDoesNotThrow(() ->
                 commentService.deleteComment("differentCommentId", deleteCommentRequestDTO));
@@ -433,7 +545,7 @@ public class CommentServiceTest {
         deleteCommentRequestDTO.setAuthorId(differentUserId.toString());
 
         when(userRepository.findUserById(differentUserId)).thenReturn(Optional.of(differentUser));
-        doNothing().when(commentRepository).deleteComment("commentId123", differentUserId.toString());
+        when(commentRepository.deleteComment("commentId123", differentUserId.toString())).thenReturn(1);
 
         assertDoesNotThrow(() ->
                 commentService.deleteComment("commentId123", deleteCommentRequestDTO));
@@ -445,7 +557,7 @@ public class CommentServiceTest {
     @Test
     void deleteComment_EmptyCommentId_StillCallsRepository() throws SQLException {
         when(userRepository.findUserById(userId)).thenReturn(Optional.of(user));
-        doNothing().when(commentRepository).deleteComment("", userId.toString());
+        when(commentRepository.deleteComment("", userId.toString())).thenReturn(1);
 
         assertDoesNotThrow(() ->
                 commentService.deleteComment("", deleteCommentRequestDTO));
@@ -464,11 +576,11 @@ public class CommentServiceTest {
     }
 
     @Test
-    void getAllCommentsByPostId_NegativePostId_ThrowsResourceNotFoundException() throws SQLException {
+    void getCommentsByPostId_NegativePostId_ThrowsResourceNotFoundException() throws SQLException {
         when(postRepository.findPostById(-1)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class,
-                () -> commentService.getAllCommentsByPostId(-1));
+                () -> commentService.getCommentsByPostId(-1, pageRequest).content());
 
         verify(postRepository).findPostById(-1);
     }
@@ -486,7 +598,7 @@ public class CommentServiceTest {
         specificUser.setUsername("specificuser");
 
         when(userRepository.findUserById(specificUserId)).thenReturn(Optional.of(specificUser));
-        doNothing().when(commentRepository).deleteComment(specificCommentId, specificAuthorId);
+        when(commentRepository.deleteComment(specificCommentId, specificAuthorId)).thenReturn(1);
 
         commentService.deleteComment(specificCommentId, deleteCommentRequestDTO);
 
@@ -494,14 +606,102 @@ public class CommentServiceTest {
     }
 
     @Test
-    void getAllCommentsByPostId_VerifyEmptyListNotNull() throws SQLException {
+    void getCommentsByPostId_VerifyEmptyListNotNull() throws SQLException {
         when(postRepository.findPostById(1)).thenReturn(Optional.of(post));
-        when(commentRepository.getAllCommentsByPostId(1)).thenReturn(new ArrayList<>());
+        when(commentRepository.getCommentsByPostId(1, pageRequest)).thenReturn(page(new ArrayList<>()));
 
-        List<CommentDocument> result = commentService.getAllCommentsByPostId(1);
+        List<CommentDocument> result = commentService.getCommentsByPostId(1, pageRequest).content();
 
         assertNotNull(result);
         assertEquals(0, result.size());
         assertInstanceOf(List.class, result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void rebuildCommentCounters_DelegatesToRepository() {
+        when(commentRepository.rebuildCommentCounters()).thenReturn(4L);
+
+        long posts = commentService.rebuildCommentCounters();
+
+        assertEquals(4L, posts);
+        verify(commentRepository).rebuildCommentCounters();
+    }
+
+    @Test
+    void getCommentThread_BuildsTreeAndFlagsUnloadedReplies() {
+        CommentDocument root = threadComment("a", null, 0, 2);
+        CommentDocument child = threadComment("b", "a", 1, 1);
+        CommentDocument sibling = threadComment("c", "a", 1, 0);
+        when(commentRepository.getCommentSubtree("a", 1)).thenReturn(List.of(root, child, sibling));
+
+        CommentThreadNode thread = commentService.getCommentThread("a", 1);
+
+        assertEquals("a", thread.comment().getId());
+        assertFalse(thread.hasMoreReplies());
+        assertEquals(List.of("b", "c"), thread.replies().stream().map(node -> node.comment().getId()).toList());
+        assertTrue(thread.replies().get(0).hasMoreReplies());
+        assertFalse(thread.replies().get(1).hasMoreReplies());
+    }
+
+    @Test
+    void getCommentThread_DepthIsCappedBeforeRepositoryCall() {
+        when(commentRepository.getCommentSubtree("a", Constants.MaxCommentDepth))
+                .thenReturn(List.of(threadComment("a", null, 0, 0)));
+
+        commentService.getCommentThread("a", 100);
+
+        verify(commentRepository).getCommentSubtree("a", Constants.MaxCommentDepth);
+    }
+
+    @Test
+    void getCommentThread_CommentNotFound_ThrowsResourceNotFoundException() {
+        when(commentRepository.getCommentSubtree("missing", 3)).thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class, () -> commentService.getCommentThread("missing", 3));
+    }
+
+    @Test
+    void getReplies_OversizedPage_IsCappedBeforeRepositoryCall() {
+        CommentPageRequest capped = new CommentPageRequest(Constants.MaxCommentPageSize, null, SortDirection.ASC);
+        when(commentRepository.getReplies("a", capped)).thenReturn(page(new ArrayList<>()));
+
+        commentService.getReplies("a", new CommentPageRequest(1000, null, SortDirection.ASC));
+
+        verify(commentRepository).getReplies("a", capped);
+    }
+
+    private CommentDocument threadComment(String id, String parentId, int depth, long replyCount) {
+        CommentDocument comment = new CommentDocument(id, 1, "alice", "reply " + id, null);
+        comment.setParentId(parentId);
+        comment.setDepth(depth);
+        comment.setReplyCount(replyCount);
+        return comment;
+    }
+
+    @Test
+    void getCommentsVersion_DiffersPerPageAndTracksCommentChanges() throws SQLException {
+        Instant changedAt = Instant.ofEpochMilli(5000);
+        when(postRepository.findPostById(1)).thenReturn(Optional.of(post));
+        when(commentRepository.getCommentSetVersion(1))
+                .thenReturn(new CommentSetVersion("2.2.5000", changedAt), new CommentSetVersion("2.2.5000", changedAt),
+                        new CommentSetVersion("3.3.6000", changedAt.plusSeconds(1)));
+
+        ResourceVersion firstPage = commentService.getCommentsVersion(1, pageRequest).orElseThrow();
+        ResourceVersion nextPage = commentService.getCommentsVersion(1,
+                new CommentPageRequest(20, "cursor", SortDirection.DESC)).orElseThrow();
+        ResourceVersion afterComment = commentService.getCommentsVersion(1, pageRequest).orElseThrow();
+
+        assertNotEquals(firstPage.etag(), nextPage.etag());
+        assertNotEquals(firstPage.etag(), afterComment.etag());
+        assertEquals(5000L, firstPage.lastModified());
+        verify(commentRepository, never()).getCommentsByPostId(anyInt(), any(CommentPageRequest.class));
+    }
+
+    @Test
+    void getCommentsVersion_PostNotFound_ReturnsEmpty() throws SQLException {
+        when(postRepository.findPostById(99)).thenReturn(Optional.empty());
+
+        assertTrue(commentService.getCommentsVersion(99, pageRequest).isEmpty());
+        verify(commentRepository, never()).getCommentSetVersion(anyInt());
+    }
+}
@@ -3,6 +3,15 @@ package org.amalitech.bloggingplatformspring.services;
 
 import org.amalitech.bloggingplatformspring.aop.PerformanceMonitoringAspect;
 import org.amalitech.bloggingplatformspring.aop.PerformanceMonitoringAspect.MethodMetrics;
+import org.amalitech.bloggingplatformspring.cache.EncodedResponseCache;
+import org.amalitech.bloggingplatformspring.cache.PostPageCache;
+import org.amalitech.bloggingplatformspring.events.CommentEventBroadcaster;
+import org.amalitech.bloggingplatformspring.events.SubscriptionEventBus;
+import org.amalitech.bloggingplatformspring.graphql.execution.GraphQLFetchExecutor;
+import org.amalitech.bloggingplatformspring.graphql.execution.PersistedDocumentProvider;
+import org.amalitech.bloggingplatformspring.graphql.execution.QueryCostInstrumentation;
+import org.amalitech.bloggingplatformspring.limiter.AdaptiveConcurrencyLimiter;
+import org.amalitech.bloggingplatformspring.resilience.RequestCoalescer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,6 +32,33 @@ class PerformanceMetricsServiceTest {
     @Mock
     private PerformanceMonitoringAspect performanceAspect;
 
+    @Mock
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Mock
+    private RequestCoalescer requestCoalescer;
+
+    @Mock
+    private PostPageCache postPageCache;
+
+    @Mock
+    private EncodedResponseCache encodedResponseCache;
+
+    @Mock
+    private CommentEventBroadcaster commentEvents;
+
+    @Mock
+    private SubscriptionEventBus eventBus;
+
+    @Mock
+    private PersistedDocumentProvider graphqlDocuments;
+
+    @Mock
+    private QueryCostInstrumentation graphqlCost;
+
+    @Mock
+    private GraphQLFetchExecutor graphqlFetchers;
+
     @InjectMocks
     private PerformanceMetricsService performanceMetricsService;
 
@@ -332,4 +368,14 @@ class PerformanceMetricsServiceTest {
         verify(performanceAspect).getMetrics(expectedMethodName);
         verify(performanceAspect, never()).getMetrics(argThat(arg -> !arg.equals(expectedMethodName)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getMetricsSummary_ShouldIncludeConcurrencyLimiterState() {
+        when(performanceAspect.getAllMetrics()).thenReturn(mockMetricsMap);
+        when(concurrencyLimiter.snapshot()).thenReturn(Map.of("limit", 20, "inFlight", 3));
+
+        Map<String, Object> summary = performanceMetricsService.getMetricsSummary();
+
+        assertThat(summary.get("concurrencyLimiter")).isEqualTo(Map.of("limit", 20, "inFlight", 3));
+    }
+}
@@ -1,24 +1,48 @@
 package org.amalitech.bloggingplatformspring.services;
 
+import org.amalitech.bloggingplatformspring.cache.PostPageCache;
+import org.amalitech.bloggingplatformspring.cache.ResourceVersion;
+import org.amalitech.bloggingplatformspring.config.PostPageCacheConfig;
 import org.amalitech.bloggingplatformspring.dtos.requests.*;
+import org.amalitech.bloggingplatformspring.dtos.responses.CursorPage;
 import org.amalitech.bloggingplatformspring.dtos.responses.PageResponse;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostChange;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostChangesResponse;
 import org.amalitech.bloggingplatformspring.dtos.responses.PostResponseDTO;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostViewDTO;
+import org.amalitech.bloggingplatformspring.dtos.responses.PostWithCommentsDTO;
+import org.amalitech.bloggingplatformspring.entity.CommentSetVersion;
 import org.amalitech.bloggingplatformspring.entity.Post;
+import org.amalitech.bloggingplatformspring.entity.PostChangeEntry;
+import org.amalitech.bloggingplatformspring.enums.EventTopic;
+import org.amalitech.bloggingplatformspring.enums.PostChangeType;
 import org.amalitech.bloggingplatformspring.entity.User;
+import org.amalitech.bloggingplatformspring.events.PostEvent;
+import org.amalitech.bloggingplatformspring.events.SubscriptionEventBus;
 import org.amalitech.bloggingplatformspring.exceptions.*;
 import org.amalitech.bloggingplatformspring.repository.CommentRepository;
 import org.amalitech.bloggingplatformspring.repository.PostRepository;
 import org.amalitech.bloggingplatformspring.repository.UserRepository;
+import org.amalitech.bloggingplatformspring.resilience.RequestCoalescer;
+import org.amalitech.bloggingplatformspring.utils.PostUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.sql.SQLException;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -36,6 +60,15 @@ public class PostServiceTest {
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private SubscriptionEventBus eventBus;
+
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer();
+
+    @Spy
+    private PostPageCache postPageCache = new PostPageCache(postPageCacheConfig());
+
     @InjectMocks
     private PostService postService;
 
@@ -100,6 +133,17 @@ public class PostServiceTest {
         verifyNoMoreInteractions(userRepository);
     }
 
+    @Test
+    void createPost_PublishesEventKeyedByTags() throws SQLException {
+        when(userRepository.findUserById(userId)).thenReturn(Optional.of(user));
+        when(postRepository.savePost(createPostDTO)).thenReturn(post);
+
+        postService.createPost(createPostDTO);
+
+        verify(eventBus).publish(eq(EventTopic.POST_CREATED), eq(createPostDTO.getTags()),
+                argThat((PostEvent event) -> event.post() == post));
+    }
+
     @Test
     void createPost_UserNotFound_ThrowsResourceNotFoundException() throws SQLException {
         when(userRepository.findUserById(userId)).thenReturn(Optional.empty());
@@ -146,6 +190,37 @@ public class PostServiceTest {
         verify(postRepository).getAllPosts(pageRequest, filterRequest);
     }
 
+    @Test
+    void getPaginatedPosts_EquivalentRequests_ServedFromCache() throws SQLException {
+        PageResponse<PostResponseDTO> expectedResponse = new PageResponse<>(
+                Collections.singletonList(postResponseDTO), 0, 10, "updated_at : DESC", 1);
+        when(postRepository.getAllPosts(any(PageRequest.class), any())).thenReturn(expectedResponse);
+
+        PageResponse<PostResponseDTO> first = postService.getPaginatedPosts(
+                new PageRequest(0, 10, "updatedAt", "DESC"), null);
+        PageResponse<PostResponseDTO> second = postService.getPaginatedPosts(
+                new PageRequest(0, 10, null, "desc"), new PostFilterRequest(" ", null, List.of()));
+
+        assertSame(first, second);
+        verify(postRepository, times(1)).getAllPosts(any(PageRequest.class), any());
+    }
+
+    @Test
+    void getPaginatedPosts_AfterPostWrite_ReloadsPage() throws SQLException {
+        PageRequest pageRequest = new PageRequest(0, 10, "updatedAt", "DESC");
+        PageResponse<PostResponseDTO> expectedResponse = new PageResponse<>(
+                Collections.singletonList(postResponseDTO), 0, 10, "updated_at : DESC", 1);
+        when(postRepository.getAllPosts(pageRequest, null)).thenReturn(expectedResponse);
+        when(userRepository.findUserById(any(UUID.class))).thenReturn(Optional.of(user));
+        when(postRepository.savePost(createPostDTO)).thenReturn(post);
+
+        postService.getPaginatedPosts(pageRequest, null);
+        postService.createPost(createPostDTO);
+        postService.getPaginatedPosts(pageRequest, null);
+
+        verify(postRepository, times(2)).getAllPosts(pageRequest, null);
+    }
+
     @Test
     void getPaginatedPosts_WithFilters_Success() throws SQLException {
         PageRequest pageRequest = new PageRequest(1, 10, "title", "ASC");
@@ -211,6 +286,55 @@ public class PostServiceTest {
         verify(postRepository).getPostResponseById(1);
     }
 
+    @Test
+    void getPostVersion_CombinesPostAndCommentVersions() throws SQLException {
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        post.setUpdatedAt(updatedAt);
+        long updatedMillis = updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        Instant commentedAt = Instant.ofEpochMilli(updatedMillis + 60_000);
+        when(postRepository.findPostById(1)).thenReturn(Optional.of(post));
+        when(commentRepository.getCommentSetVersion(1)).thenReturn(new CommentSetVersion("3.7", commentedAt));
+
+        ResourceVersion version = postService.getPostVersion(1).orElseThrow();
+
+        assertEquals("\"post-1-0-3.7\"", version.etag());
+        assertEquals(commentedAt.toEpochMilli(), version.lastModified());
+        verify(postRepository, never()).getPostResponseById(anyInt());
+    }
+
+    @Test
+    void getPostVersion_CommentStoreUnavailable_ReturnsEmpty() throws SQLException {
+        when(postRepository.findPostById(1)).thenReturn(Optional.of(post));
+        when(commentRepository.getCommentSetVersion(1))
+                .thenThrow(new ServiceUnavailableException("Comment store is temporarily unavailable"));
+
+        assertTrue(postService.getPostVersion(1).isEmpty());
+    }
+
+    @Test
+    void getPostById_ConcurrentCallers_ShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(postRepository.getPostResponseById(1)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(postResponseDTO);
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<PostResponseDTO> leader = executor.submit(() -> postService.getPostById(1));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<PostResponseDTO> follower = executor.submit(() -> postService.getPostById(1));
+            while (requestCoalescer.<Integer, PostResponseDTO>group("postById").getCoalesced() == 0) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertSame(leader.get(), follower.get());
+        }
+        verify(postRepository, times(1)).getPostResponseById(1);
+    }
+
     @Test
     void getPostById_InvalidId_ThrowsBadRequestException() throws SQLException {
         assertThrows(BadRequestException.class, () -> postService.getPostById(0));
@@ -232,12 +356,51 @@ public class PostServiceTest {
         assertThrows(SQLQueryException.class, () -> postService.getPostById(1));
     }
 
+    @Test
+    void getPostView_PassesSelectionToRepository() throws SQLException {
+        PostFieldSelection selection = PostFieldSelection.idAndTitle();
+        PostViewDTO view = new PostViewDTO();
+        view.setId(1);
+        view.setTitle("Test Title");
+        when(postRepository.getPostViewById(1, selection)).thenReturn(Optional.of(view));
+
+        PostViewDTO result = postService.getPostView(1, selection);
+
+        assertEquals("Test Title", result.getTitle());
+        verify(postRepository).getPostViewById(1, selection);
+        verify(postRepository, never()).getPostResponseById(anyInt());
+    }
+
+    @Test
+    void getPostView_InvalidId_ThrowsBadRequestException() throws SQLException {
+        assertThrows(BadRequestException.class, () -> postService.getPostView(0, PostFieldSelection.all()));
+        verify(postRepository, never()).getPostViewById(anyInt(), any());
+    }
+
+    @Test
+    void getPostWithComments_CapsCommentPageSize() throws SQLException {
+        PostWithCommentsDTO postWithComments = new PostWithCommentsDTO(postResponseDTO,
+                new CursorPage<>(List.of(), 50, null, false));
+        when(postRepository.getPostWithComments(1, 50)).thenReturn(Optional.of(postWithComments));
+
+        PostWithCommentsDTO result = postService.getPostWithComments(1, 500);
+
+        assertSame(postWithComments, result);
+    }
+
+    @Test
+    void getPostWithComments_NotFound_ThrowsResourceNotFoundException() throws SQLException {
+        when(postRepository.getPostWithComments(999, 20)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> postService.getPostWithComments(999, 20));
+    }
+
     @Test
     void updatePost_Success() throws SQLException {
         when(postRepository.findPostById(1)).thenReturn(Optional.of(post));
         when(userRepository.findUserById(userId)).thenReturn(Optional.of(user));
         when(commentRepository.getTotalCommentsByPostId(1)).thenReturn(0L);
-        doNothing().when(postRepository).updatePost(any(Post.class), anyList());
+        when(postRepository.updatePost(any(Post.class), anyList())).thenReturn(true);
 
         PostResponseDTO result = postService.updatePost(1, updatePostDTO);
 
@@ -247,6 +410,33 @@ public class PostServiceTest {
         verify(postRepository).updatePost(any(Post.class), anyList());
     }
 
+    @Test
+    void updatePost_CommentStoreUnavailable_ReturnsUpdatedPostWithCountUnavailable() throws SQLException {
+        when(postRepository.findPostById(1)).thenReturn(Optional.of(post));
+        when(userRepository.findUserById(userId)).thenReturn(Optional.of(user));
+        when(postRepository.updatePost(any(Post.class), anyList())).thenReturn(true);
+        when(commentRepository.getTotalCommentsByPostId(1))
+                .thenThrow(new ServiceUnavailableException("Comment store is temporarily unavailable"));
+
+        PostResponseDTO result = postService.updatePost(1, updatePostDTO);
+
+        assertEquals("Updated Title", result.getTitle());
+        assertTrue(result.isCommentCountUnavailable());
+        verify(postRepository).updatePost(any(Post.class), anyList());
+    }
+
+    @Test
+    void updatePost_PublishesEventForPost() throws SQLException {
+        when(postRepository.findPostById(1)).thenReturn(Optional.of(post));
+        when(userRepository.findUserById(userId)).thenReturn(Optional.of(user));
+        when(postRepository.updatePost(any(Post.class), anyList())).thenReturn(true);
+
+        postService.updatePost(1, updatePostDTO);
+
+        verify(eventBus).publish(eq(EventTopic.POST_UPDATED), eq(1),
+                argThat((PostEvent event) -> event.post().getTitle().equals(updatePostDTO.getTitle())));
+    }
+
     @Test
     void updatePost_PartialUpdate_Success() throws SQLException {
         UpdatePostDTO partialUpdate = new UpdatePostDTO();
@@ -257,7 +447,7 @@ public class PostServiceTest {
         when(userRepository.findUserById(userId)).thenReturn(Optional.of(user));
         when(postRepository.getTagsByPostId(1)).thenReturn(Arrays.asList("tag1", "tag2"));
         when(commentRepository.getTotalCommentsByPostId(1)).thenReturn(0L);
-        doNothing().when(postRepository).updatePost(any(Post.class), anyList());
+        when(postRepository.updatePost(any(Post.class), anyList())).thenReturn(true);
 
         PostResponseDTO result = postService.updatePost(1, partialUpdate);
 
@@ -323,7 +513,7 @@ public class PostServiceTest {
         when(postRepository.findPostById(1)).thenReturn(Optional.of(post));
         when(userRepository.findUserById(userId)).thenReturn(Optional.of(user));
         when(commentRepository.getTotalCommentsByPostId(1)).thenReturn(0L);
-        doNothing().when(postRepository).updatePost(any(Post.class), anyList());
+        when(postRepository.updatePost(any(Post.class), anyList())).thenReturn(true);
 
         postService.updatePost(1, updatePostDTO);
 
@@ -331,6 +521,90 @@ public class PostServiceTest {
                 argThat(tags -> tags.size() == 3 && new HashSet<>(tags).size() == 3));
     }
 
+    @Test
+    void updatePost_StaleIfMatch_FailsBeforeOtherLookups() throws SQLException {
+        post.setVersion(5);
+        when(postRepository.findPostById(1)).thenReturn(Optional.of(post));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> postService.updatePost(1, updatePostDTO, "\"post-1-4-2.2.1000\""));
+        verifyNoInteractions(userRepository);
+        verify(postRepository, never()).updatePost(any(), any());
+    }
+
+    @Test
+    void updatePost_MatchingIfMatch_WritesExpectedVersion() throws SQLException {
+        post.setVersion(5);
+        when(postRepository.findPostById(1)).thenReturn(Optional.of(post));
+        when(userRepository.findUserById(userId)).thenReturn(Optional.of(user));
+        when(postRepository.updatePost(any(Post.class), anyList())).thenAnswer(invocation -> {
+            Post written = invocation.getArgument(0);
+            written.setVersion(written.getVersion() + 1);
+            return true;
+        });
+
+        PostResponseDTO result = postService.updatePost(1, updatePostDTO, "W/\"post-1-5-2.2.1000\"");
+
+        assertEquals(6L, result.getVersion());
+        assertEquals("\"post-1-6\"", postService.getETag(result));
+        verify(postRepository).updatePost(argThat(written -> written.getVersion() == 6L), anyList());
+    }
+
+    @Test
+    void updatePost_ConcurrentWriteWins_ThrowsConflictOrPreconditionFailed() throws SQLException {
+        when(postRepository.findPostById(1)).thenReturn(Optional.of(post));
+        when(userRepository.findUserById(userId)).thenReturn(Optional.of(user));
+        when(postRepository.updatePost(any(Post.class), anyList())).thenReturn(false);
+
+        assertThrows(ConflictException.class, () -> postService.updatePost(1, updatePostDTO));
+        assertThrows(PreconditionFailedException.class, () -> postService.updatePost(1, updatePostDTO, "*"));
+        verify(postPageCache, never()).invalidateAll();
+        verifyNoInteractions(eventBus);
+    }
+
+    @Test
+    void getPostChanges_ClassifiesChangesAgainstWatermark() throws SQLException {
+        PostUtils postUtils = new PostUtils();
+        PostResponseDTO created = new PostResponseDTO(7, "New", "Body", "testuser", List.of(), "now", 0);
+        PostResponseDTO updated = new PostResponseDTO(2, "Edited", "Body", "testuser", List.of(), "now", 0);
+        when(postRepository.getPostChangesSince(10L, 4)).thenReturn(List.of(
+                new PostChangeEntry(2, 0L, 11L, false),
+                new PostChangeEntry(5, 4L, 12L, true),
+                new PostChangeEntry(7, 13L, 13L, false)));
+        when(postRepository.getPostResponsesByIds(List.of(2, 7))).thenReturn(List.of(created, updated));
+
+        PostChangesResponse response = postService.getPostChanges(postUtils.encodeChangeToken(10L), 3);
+
+        assertEquals(List.of(
+                new PostChange(2, PostChangeType.UPDATED, updated),
+                new PostChange(5, PostChangeType.DELETED, null),
+                new PostChange(7, PostChangeType.CREATED, created)), response.changes());
+        assertFalse(response.hasMore());
+        assertEquals(13L, postUtils.decodeChangeToken(response.nextToken()));
+    }
+
+    @Test
+    void getPostChanges_FullBatch_ReportsMoreAndKeepsWatermarkWhenEmpty() throws SQLException {
+        PostUtils postUtils = new PostUtils();
+        when(postRepository.getPostChangesSince(0L, 2)).thenReturn(List.of(
+                new PostChangeEntry(1, 0L, 1L, true),
+                new PostChangeEntry(2, 0L, 2L, true)));
+        when(postRepository.getPostChangesSince(1L, 2)).thenReturn(List.of());
+
+        PostChangesResponse first = postService.getPostChanges(null, 1);
+        PostChangesResponse caughtUp = postService.getPostChanges(first.nextToken(), 1);
+
+        assertTrue(first.hasMore());
+        assertEquals(1, first.changes().size());
+        assertEquals(first.nextToken(), caughtUp.nextToken());
+        assertTrue(caughtUp.changes().isEmpty());
+    }
+
+    @Test
+    void getPostChanges_InvalidToken_ThrowsBadRequest() {
+        assertThrows(BadRequestException.class, () -> postService.getPostChanges("not-a-token", 10));
+    }
+
     @Test
     void deletePost_Success() throws SQLException {
         when(postRepository.findPostById(1)).thenReturn(Optional.of(post));
@@ -394,4 +668,13 @@ public class PostServiceTest {
         assertThrows(SQLQueryException.class,
                 () -> postService.deletePost(1, deletePostRequestDTO));
     }
-}
\ No newline at end of file
+
+    private static PostPageCacheConfig postPageCacheConfig() {
+        PostPageCacheConfig config = mock(PostPageCacheConfig.class);
+        when(config.isEnabled()).thenReturn(true);
+        when(config.getCachedPages()).thenReturn(5);
+        when(config.getMaxEntries()).thenReturn(256);
+        when(config.getTtlMs()).thenReturn(30000L);
+        return config;
+    }
+}
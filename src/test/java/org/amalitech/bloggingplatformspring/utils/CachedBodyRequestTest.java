@@ -0,0 +1,95 @@
+package org.amalitech.bloggingplatformspring.utils;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.amalitech.bloggingplatformspring.exceptions.PayloadTooLargeException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedBodyRequestTest {
+
+    @Test
+    void readListener_IsToldTheWholeBodyIsAvailable() throws IOException {
+        CachedBodyRequest request = new CachedBodyRequest(post("{\"query\":\"{ getAllTags { id } }\"}"), 1024);
+        ServletInputStream input = request.getInputStream();
+        StringBuilder events = new StringBuilder();
+
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.append("data:").append(new String(input.readAllBytes(), StandardCharsets.UTF_8)).append(';');
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.append("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.append("error");
+            }
+        });
+
+        assertEquals("data:{\"query\":\"{ getAllTags { id } }\"};done", events.toString());
+        assertTrue(input.isFinished());
+    }
+
+    @Test
+    void declaredLengthOverLimit_IsRejectedBeforeReading() {
+        MockHttpServletRequest request = post("x".repeat(2048));
+
+        assertThrows(PayloadTooLargeException.class, () -> new CachedBodyRequest(request, 1024));
+    }
+
+    @Test
+    void chunkedBodyOverLimit_IsRejectedAfterLimitBytes() {
+        byte[] content = "x".repeat(2048).getBytes(StandardCharsets.UTF_8);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+
+            @Override
+            public ServletInputStream getInputStream() {
+                InputStream source = new ByteArrayInputStream(content);
+                return new ServletInputStream() {
+                    @Override
+                    public boolean isFinished() {
+                        return false;
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setReadListener(ReadListener readListener) {
+                    }
+
+                    @Override
+                    public int read() throws IOException {
+                        return source.read();
+                    }
+                };
+            }
+        };
+
+        assertThrows(PayloadTooLargeException.class, () -> new CachedBodyRequest(request, 1024));
+    }
+
+    private MockHttpServletRequest post(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}